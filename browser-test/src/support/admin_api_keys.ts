@@ -94,7 +94,7 @@ export class AdminApiKeys {
         console.log(`failed to find #${keyNameSlugified}-call-count`)
       }
 
-      if (callCountText != expectedCallCountText || Date.now() > maxWaitTime) {
+      if (callCountText == expectedCallCountText || Date.now() > maxWaitTime) {
         break
       }
     }
@@ -1406,8 +1406,15 @@ export class AdminPrograms {
     emailBody: string,
     programName: string,
   ) {
+    // Emails are sent from the outbox shortly after the status changes, so wait for it to arrive.
+    await expect
+      .poll(
+        async () =>
+          (await extractEmailsForRecipient(this.page, userEmail)).length,
+        {timeout: 10000},
+      )
+      .toEqual(numEmailsBefore + 1)
     const emailsAfter = await extractEmailsForRecipient(this.page, userEmail)
-    expect(emailsAfter.length).toEqual(numEmailsBefore + 1)
     const sentEmail = emailsAfter[emailsAfter.length - 1]
     expect(sentEmail.Subject).toEqual(
       `[Test Message] An update on your application ${programName}`,
@@ -50,4 +50,13 @@ public final class BindingAnnotations {
   @Target({FIELD, PARAMETER, METHOD})
   @Retention(RUNTIME)
   public @interface StartupJobsProviderName {}
+
+  /**
+   * Holds the {@link services.geo.esri.EsriClient} that calls Esri services for every request,
+   * which {@link services.geo.esri.CachingEsriClient} keeps the results of.
+   */
+  @Qualifier
+  @Target({FIELD, PARAMETER, METHOD})
+  @Retention(RUNTIME)
+  public @interface UncachedEsriClient {}
 }
@@ -33,6 +33,7 @@ public class CiviFormProfile {
   private final CiviFormProfileData profileData;
   private final SettingsManifest settingsManifest;
   private final AccountRepository accountRepository;
+  private volatile RequestAccount requestAccount;
 
   public CiviFormProfile(
       DatabaseExecutionContext dbContext,
@@ -77,8 +78,39 @@ public class CiviFormProfile {
     return account.getApplicants().stream().min(comparing(ApplicantModel::getWhenCreated));
   }
 
-  /** Look up the {@link AccountModel} associated with the profile from database. */
+  /**
+   * Look up the {@link AccountModel} associated with the profile from database.
+   *
+   * <p>If the profile was created for a request by {@link ProfileUtils}, the account is looked up
+   * once for the request, and every call for the request, from any of its profiles, returns the
+   * same future.
+   */
   public CompletableFuture<AccountModel> getAccount() {
+    RequestAccount currentRequestAccount = requestAccount;
+    if (currentRequestAccount != null) {
+      return currentRequestAccount.getAccount();
+    }
+    return lookUpAccount();
+  }
+
+  /**
+   * Returns a {@link RequestAccount} that looks up the account of this profile, to be used by the
+   * profiles created for a request.
+   */
+  public RequestAccount newRequestAccount() {
+    return new RequestAccount(getId(), this::lookUpAccount);
+  }
+
+  /**
+   * Makes {@link #getAccount()} use the {@link RequestAccount} of the current request, so it can
+   * reuse an account the request has already loaded.
+   */
+  void useRequestAccount(RequestAccount requestAccount) {
+    Preconditions.checkArgument(requestAccount.getAccountId().equals(getId()));
+    this.requestAccount = requestAccount;
+  }
+
+  private CompletableFuture<AccountModel> lookUpAccount() {
     return supplyAsync(
         () -> {
           AccountModel account = new AccountModel();
@@ -194,6 +226,10 @@ public class CiviFormProfile {
 
               a.setEmailAddress(emailAddress);
               a.save();
+              if (existingEmail == null) {
+                // The account's applications are searched by its email address.
+                a.ownedApplicantIds().forEach(accountRepository::updateApplicationSearchText);
+              }
               profileData.setEmail(emailAddress);
 
               return null;
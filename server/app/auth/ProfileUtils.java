@@ -4,7 +4,6 @@ import auth.controllers.MissingOptionalException;
 import com.google.common.base.Preconditions;
 import java.util.Locale;
 import java.util.Optional;
-import java.util.concurrent.CompletionException;
 import javax.inject.Inject;
 import models.ApiKeyModel;
 import org.pac4j.core.context.WebContext;
@@ -39,10 +38,20 @@ public class ProfileUtils {
         .orElseThrow(() -> new MissingOptionalException(CiviFormProfile.class));
   }
 
-  /** Fetch the current pac4j profile for the given request. */
+  /**
+   * Fetch the current pac4j profile for the given request. The profile shares the account looked up
+   * for the request, if any.
+   */
   public Optional<CiviFormProfile> optionalCurrentUserProfile(Http.RequestHeader request) {
     PlayWebContext webContext = new PlayWebContext(request);
-    return optionalCurrentUserProfile(webContext);
+    Optional<CiviFormProfile> profile = optionalCurrentUserProfile(webContext);
+    Optional<RequestAccount> requestAccount = request.attrs().getOptional(RequestAccount.ATTR_KEY);
+    if (profile.isPresent()
+        && requestAccount.isPresent()
+        && requestAccount.get().getAccountId().equals(profile.get().getId())) {
+      profile.get().useRequestAccount(requestAccount.get());
+    }
+    return profile;
   }
 
   /** Fetch the current pac4j profile for the given web context. */
@@ -90,19 +99,6 @@ public class ProfileUtils {
         || IDCS_PLACEHOLDER_TEST_EMAIL_LOWERCASE.equals(userEmailLowercase);
   }
 
-  /** Return true if the account referenced by the profile exists. */
-  public boolean validCiviFormProfile(CiviFormProfile profile) {
-    try {
-      profile.getAccount().join();
-      return true;
-    } catch (CompletionException e) {
-      if (e.getCause() instanceof AccountNonexistentException) {
-        return false;
-      }
-      throw new RuntimeException(e);
-    }
-  }
-
   /** Retrieves the applicant id from the user profile, if present. */
   public Optional<Long> getApplicantId(Http.Request request) {
     Optional<CiviFormProfile> profile = optionalCurrentUserProfile(request);
@@ -0,0 +1,43 @@
+package auth;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import models.AccountModel;
+import play.libs.typedmap.TypedKey;
+
+/**
+ * Looks up the {@link AccountModel} of the profile making a request, at most once per request.
+ *
+ * <p>{@link filters.ValidAccountFilter} adds one to the attributes of every request that has a
+ * profile, and {@link ProfileUtils} hands it to the {@link CiviFormProfile}s it creates for the
+ * request. The first {@link #getAccount()} call looks the account up, whether that's the filter
+ * checking that the account exists or a {@link CiviFormProfile#getAccount()} call, and every call
+ * after it gets the same future.
+ */
+public final class RequestAccount {
+  public static final TypedKey<RequestAccount> ATTR_KEY = TypedKey.create("requestAccount");
+
+  private final String accountId;
+  private final Supplier<CompletableFuture<AccountModel>> lookup;
+  private CompletableFuture<AccountModel> account;
+
+  RequestAccount(String accountId, Supplier<CompletableFuture<AccountModel>> lookup) {
+    this.accountId = checkNotNull(accountId);
+    this.lookup = checkNotNull(lookup);
+  }
+
+  /** The ID of the account, as returned by {@link CiviFormProfile#getId()}. */
+  String getAccountId() {
+    return accountId;
+  }
+
+  /** Returns the account, looking it up if this is the first call for the request. */
+  public synchronized CompletableFuture<AccountModel> getAccount() {
+    if (account == null) {
+      account = lookup.get();
+    }
+    return account;
+  }
+}
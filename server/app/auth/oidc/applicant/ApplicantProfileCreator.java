@@ -119,9 +119,14 @@ public abstract class ApplicantProfileCreator extends CiviformOidcProfileCreator
                             .getApplicantData()
                             .setPreferredLocale(Locale.forLanguageTag(locale)));
 
+                Optional<String> firstNameBefore = applicant.getFirstName();
                 maybeName.ifPresent(name -> applicant.getApplicantData().setUserName(name));
 
                 applicant.save();
+                // The name is only set when the applicant doesn't have one yet.
+                if (!applicant.getFirstName().equals(firstNameBefore)) {
+                  accountRepositoryProvider.get().updateApplicationSearchText(applicant.id);
+                }
                 return null;
               })
           .toCompletableFuture()
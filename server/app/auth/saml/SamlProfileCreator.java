@@ -156,6 +156,7 @@ public class SamlProfileCreator extends AuthenticatorProfileCreator {
                 if (hasLocale) {
                   applicant.getApplicantData().setPreferredLocale(Locale.forLanguageTag(locale));
                 }
+                Optional<String> firstNameBefore = applicant.getFirstName();
                 if (hasFirstName && hasLastName) {
                   applicant
                       .getApplicantData()
@@ -166,6 +167,10 @@ public class SamlProfileCreator extends AuthenticatorProfileCreator {
                   applicant.getApplicantData().setUserName(lastName);
                 }
                 applicant.save();
+                // The name is only set when the applicant doesn't have one yet.
+                if (!applicant.getFirstName().equals(firstNameBefore)) {
+                  applicantRepositoryProvider.get().updateApplicationSearchText(applicant.id);
+                }
                 return null;
               })
           .toCompletableFuture()
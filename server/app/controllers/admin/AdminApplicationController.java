@@ -16,6 +16,7 @@ import com.google.inject.Provider;
 import controllers.BadRequestException;
 import controllers.CiviFormController;
 import controllers.FlashKey;
+import forms.admin.BulkStatusUpdateForm;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeParseException;
@@ -35,7 +36,6 @@ import repository.SubmittedApplicationFilter;
 import repository.TimeFilter;
 import repository.VersionRepository;
 import services.DateConverter;
-import services.IdentifierBasedPaginationSpec;
 import services.PageNumberBasedPaginationSpec;
 import services.PaginationResult;
 import services.UrlUtils;
@@ -165,13 +165,11 @@ public final class AdminApplicationController extends CiviFormController {
     }
 
     String filename = String.format("%s-%s.json", program.adminName(), nowProvider.get());
-    String json =
-        jsonExporterService.export(
-            program,
-            IdentifierBasedPaginationSpec.MAX_PAGE_SIZE_SPEC_LONG,
-            filters,
-            settingsManifest.getMultipleFileUploadEnabled(request));
-    return ok(json)
+    // Stream the export so that memory use doesn't grow with the number of applications.
+    return ok()
+        .chunked(
+            jsonExporterService.streamExport(
+                program, filters, settingsManifest.getMultipleFileUploadEnabled(request)))
         .as(Http.MimeTypes.JSON)
         .withHeader("Content-Disposition", String.format("attachment; filename=\"%s\"", filename));
   }
@@ -208,8 +206,9 @@ public final class AdminApplicationController extends CiviFormController {
       ProgramDefinition program = programService.getFullProgramDefinition(programId);
       checkProgramAdminAuthorization(request, program.adminName()).join();
       String filename = String.format("%s-%s.csv", program.adminName(), nowProvider.get());
-      String csv = exporterService.getProgramAllVersionsCsv(programId, filters);
-      return ok(csv)
+      // Stream the export so that memory use doesn't grow with the number of applications.
+      return ok()
+          .chunked(exporterService.streamProgramAllVersionsCsv(programId, filters))
           .as(Http.MimeTypes.BINARY)
           .withHeader(
               "Content-Disposition", String.format("attachment; filename=\"%s\"", filename));
@@ -421,6 +420,53 @@ public final class AdminApplicationController extends CiviFormController {
     return redirect(redirectUrl).flashing(FlashKey.SUCCESS, "Application status updated");
   }
 
+  /**
+   * Updates the status of the selected applications to the program at once and redirects back to
+   * the list of applications.
+   */
+  @Secure(authorizers = Authorizers.Labels.ANY_ADMIN)
+  public Result updateStatuses(Http.Request request, long programId)
+      throws ProgramNotFoundException, StatusEmailNotFoundException, StatusNotFoundException {
+    if (!settingsManifest.getBulkStatusUpdateEnabled(request)) {
+      return notFound("Bulk status updates are not enabled");
+    }
+    ProgramDefinition program = programService.getFullProgramDefinition(programId);
+    String programName = program.adminName();
+
+    try {
+      checkProgramAdminAuthorization(request, programName).join();
+    } catch (CompletionException | MissingOptionalException e) {
+      return unauthorized();
+    }
+
+    BulkStatusUpdateForm form =
+        formFactory.form(BulkStatusUpdateForm.class).bindFromRequest(request).get();
+    if (form.getApplicationIds().isEmpty()) {
+      return badRequest("No applications are selected");
+    }
+    if (form.getNewStatus().isBlank()) {
+      return badRequest(String.format("The %s field is not present", NEW_STATUS));
+    }
+    if (form.getRedirectUri().isBlank()) {
+      return badRequest(String.format("The %s field is not present", REDIRECT_URI_KEY));
+    }
+
+    int updatedCount =
+        programAdminApplicationService.setStatuses(
+            program,
+            ImmutableList.copyOf(form.getApplicationIds()),
+            ApplicationEventDetails.StatusEvent.builder()
+                .setStatusText(form.getNewStatus())
+                .setEmailSent(form.getSendEmail())
+                .build(),
+            profileUtils.currentUserProfile(request).getAccount().join());
+    // Only allow relative URLs to ensure that we redirect to the same domain.
+    String redirectUrl = UrlUtils.checkIsRelativeUrl(form.getRedirectUri());
+    return redirect(redirectUrl)
+        .flashing(
+            FlashKey.SUCCESS, String.format("Status updated on %d applications", updatedCount));
+  }
+
   /**
    * Edits the note for the associated application and redirects to the summary page for the
    * application.
@@ -24,6 +24,7 @@ import play.cache.NamedCache;
 import play.mvc.Controller;
 import play.mvc.Http.Request;
 import play.mvc.Result;
+import repository.VersionPointerCache;
 import services.program.ActiveAndDraftPrograms;
 import services.program.ProgramService;
 import services.question.QuestionService;
@@ -47,6 +48,9 @@ public class DevToolsController extends Controller {
   private final AsyncCacheApi programCache;
   private final AsyncCacheApi programDefCache;
   private final AsyncCacheApi versionsByProgramCache;
+  private final AsyncCacheApi accountCache;
+  private final AsyncCacheApi eligibilityCache;
+  private final VersionPointerCache versionPointerCache;
   private final Clock clock;
 
   @Inject
@@ -62,7 +66,10 @@ public class DevToolsController extends Controller {
       @NamedCache("version-programs") AsyncCacheApi programsByVersionCache,
       @NamedCache("program") AsyncCacheApi programCache,
       @NamedCache("full-program-definition") AsyncCacheApi programDefCache,
-      @NamedCache("program-versions") AsyncCacheApi versionsByProgramCache) {
+      @NamedCache("program-versions") AsyncCacheApi versionsByProgramCache,
+      @NamedCache("accounts") AsyncCacheApi accountCache,
+      @NamedCache("applicant-eligibility") AsyncCacheApi eligibilityCache,
+      VersionPointerCache versionPointerCache) {
     this.devDatabaseSeedTask = checkNotNull(devDatabaseSeedTask);
     this.view = checkNotNull(view);
     this.database = DB.getDefault();
@@ -75,6 +82,9 @@ public class DevToolsController extends Controller {
     this.programCache = checkNotNull(programCache);
     this.programDefCache = checkNotNull(programDefCache);
     this.versionsByProgramCache = checkNotNull(versionsByProgramCache);
+    this.accountCache = checkNotNull(accountCache);
+    this.eligibilityCache = checkNotNull(eligibilityCache);
+    this.versionPointerCache = checkNotNull(versionPointerCache);
     this.clock = checkNotNull(clock);
   }
 
@@ -159,6 +169,9 @@ public class DevToolsController extends Controller {
    * tasks, but we assume all dev instances only have one task.
    */
   private void clearCacheIfEnabled() {
+    if (settingsManifest.getVersionPointerCacheEnabled()) {
+      versionPointerCache.invalidate();
+    }
     if (settingsManifest.getVersionCacheEnabled()) {
       programsByVersionCache.removeAll().toCompletableFuture().join();
       questionsByVersionCache.removeAll().toCompletableFuture().join();
@@ -176,6 +189,11 @@ public class DevToolsController extends Controller {
     Models.truncate(database);
     VersionModel newActiveVersion = new VersionModel(LifecycleStage.ACTIVE);
     newActiveVersion.save();
+    versionPointerCache.invalidate();
+    // The accounts were deleted, so they must be looked up again.
+    accountCache.removeAll().toCompletableFuture().join();
+    // Eligibility is cached by version and program IDs, which may be reused.
+    eligibilityCache.removeAll().toCompletableFuture().join();
     settingsService.migrateConfigValuesToSettingsGroup();
   }
 }
@@ -0,0 +1,73 @@
+package controllers.monitoring;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.typesafe.config.Config;
+import io.prometheus.client.Collector.MetricFamilySamples;
+import io.prometheus.client.CounterMetricFamily;
+import io.prometheus.client.GaugeMetricFamily;
+import java.util.Map;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import play.cache.NamedCacheImpl;
+import play.cache.caffeine.NamedCaffeineCache;
+import play.inject.BindingKey;
+import play.inject.Injector;
+
+/**
+ * Reports the statistics Caffeine records for every cache listed in {@code play.cache.bindCaches}.
+ *
+ * <p>Caffeine keeps cumulative hit, miss and eviction counts when {@code
+ * play.cache.caffeine.defaults.record-stats} is set, so they are read when metrics are scraped
+ * rather than counted on every lookup.
+ */
+@Singleton
+final class CacheMetrics {
+
+  private final ImmutableMap<String, Cache<?, ?>> cachesByName;
+
+  @Inject
+  CacheMetrics(Config config, Injector injector) {
+    ImmutableMap.Builder<String, Cache<?, ?>> cachesBuilder = ImmutableMap.builder();
+    for (String name : checkNotNull(config).getStringList("play.cache.bindCaches")) {
+      NamedCaffeineCache<?, ?> cache =
+          injector.instanceOf(
+              new BindingKey<>(NamedCaffeineCache.class).qualifiedWith(new NamedCacheImpl(name)));
+      cachesBuilder.put(name, cache.synchronous());
+    }
+    this.cachesByName = cachesBuilder.build();
+  }
+
+  /** Returns the current statistics of every cache. */
+  ImmutableList<MetricFamilySamples> collect() {
+    CounterMetricFamily requests =
+        new CounterMetricFamily(
+            "cache_requests_total",
+            "Number of cache lookups, by whether the entry was cached",
+            ImmutableList.of("cache", "result"));
+    CounterMetricFamily evictions =
+        new CounterMetricFamily(
+            "cache_evictions_total",
+            "Number of entries evicted from the cache",
+            ImmutableList.of("cache"));
+    GaugeMetricFamily size =
+        new GaugeMetricFamily(
+            "cache_estimated_size",
+            "Approximate number of entries in the cache",
+            ImmutableList.of("cache"));
+
+    for (Map.Entry<String, Cache<?, ?>> entry : cachesByName.entrySet()) {
+      String name = entry.getKey();
+      CacheStats stats = entry.getValue().stats();
+      requests.addMetric(ImmutableList.of(name, "hit"), stats.hitCount());
+      requests.addMetric(ImmutableList.of(name, "miss"), stats.missCount());
+      evictions.addMetric(ImmutableList.of(name), stats.evictionCount());
+      size.addMetric(ImmutableList.of(name), entry.getValue().estimatedSize());
+    }
+    return ImmutableList.of(requests, evictions, size);
+  }
+}
@@ -9,11 +9,15 @@ import controllers.CiviFormController;
 import io.ebean.DB;
 import io.ebean.Database;
 import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Collector.MetricFamilySamples;
 import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
 import io.prometheus.client.exporter.common.TextFormat;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.List;
 import javax.inject.Inject;
 import play.mvc.Result;
 import repository.VersionRepository;
@@ -28,10 +32,13 @@ public final class MetricsController extends CiviFormController {
   private final boolean metricsEnabled;
   private final CollectorRegistry collectorRegistry;
   private final Database database;
+  private final CacheMetrics cacheMetrics;
   private static Counter QUERY_METRIC_COUNT;
   private static Counter QUERY_METRIC_MEAN_LATENCY;
   private static Counter QUERY_METRIC_MAX_LATENCY;
   private static Counter QUERY_METRIC_TOTAL_LATENCY;
+  private static Gauge QUERY_MEAN_LATENCY;
+  private static Gauge QUERY_MAX_LATENCY;
 
   static {
     initializeCounters();
@@ -45,10 +52,16 @@ public final class MetricsController extends CiviFormController {
   // "class ", which is why we use 6 as the start index.
   private static final int CLASS_SUBSTRING_INDEX = 6;
 
+  private static final double MICROS_PER_SECOND = 1_000_000;
+
   @Inject
   public MetricsController(
-      Config config, ProfileUtils profileUtils, VersionRepository versionRepository) {
+      Config config,
+      ProfileUtils profileUtils,
+      VersionRepository versionRepository,
+      CacheMetrics cacheMetrics) {
     super(profileUtils, versionRepository);
+    this.cacheMetrics = checkNotNull(cacheMetrics);
     this.collectorRegistry = checkNotNull(CollectorRegistry.defaultRegistry);
     this.metricsEnabled = checkNotNull(config).getBoolean("civiform_server_metrics_enabled");
     this.database = DB.getDefault();
@@ -93,9 +106,21 @@ public final class MetricsController extends CiviFormController {
                 QUERY_METRIC_TOTAL_LATENCY
                     .labels(name, location, className)
                     .inc((double) metric.total());
+                // Ebean only reports the mean and max latency of the queries run since the last
+                // collection, so these are gauges of the latest interval rather than a
+                // distribution. The mean over any range comes from the total and count counters.
+                QUERY_MEAN_LATENCY
+                    .labels(name, location, className)
+                    .set(metric.mean() / MICROS_PER_SECOND);
+                QUERY_MAX_LATENCY
+                    .labels(name, location, className)
+                    .set(metric.max() / MICROS_PER_SECOND);
               });
 
-      TextFormat.write004(writer, collectorRegistry.metricFamilySamples());
+      List<MetricFamilySamples> samples =
+          Collections.list(collectorRegistry.metricFamilySamples());
+      samples.addAll(cacheMetrics.collect());
+      TextFormat.write004(writer, Collections.enumeration(samples));
     } catch (IOException e) {
       throw new UncheckedIOException(e);
     }
@@ -132,5 +157,19 @@ public final class MetricsController extends CiviFormController {
             .help("Total latency of database queries in micros")
             .labelNames("name", "location", "className")
             .register();
+
+    QUERY_MEAN_LATENCY =
+        Gauge.build()
+            .name("ebean_query_mean_latency_seconds")
+            .help("Mean latency of the database queries run since the previous scrape")
+            .labelNames("name", "location", "className")
+            .register();
+
+    QUERY_MAX_LATENCY =
+        Gauge.build()
+            .name("ebean_query_max_latency_seconds")
+            .help("Max latency of the database queries run since the previous scrape")
+            .labelNames("name", "location", "className")
+            .register();
   }
 }
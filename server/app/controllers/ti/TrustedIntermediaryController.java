@@ -13,7 +13,6 @@ import controllers.BadRequestException;
 import forms.TiClientInfoForm;
 import java.util.Optional;
 import javax.inject.Inject;
-import models.AccountModel;
 import models.TrustedIntermediaryGroupModel;
 import org.pac4j.play.java.Secure;
 import play.data.Form;
@@ -23,7 +22,7 @@ import play.mvc.Http;
 import play.mvc.Result;
 import repository.AccountRepository;
 import repository.SearchParameters;
-import services.PaginationInfo;
+import services.PageNumberBasedPaginationSpec;
 import services.applicant.ApplicantPersonalInfo;
 import services.applicant.ApplicantPersonalInfo.Representation;
 import services.applicant.exception.ApplicantNotFoundException;
@@ -97,12 +96,13 @@ public final class TrustedIntermediaryController {
             .setYearQuery(yearQuery)
             .build();
     TrustedIntermediarySearchResult trustedIntermediarySearchResult =
-        tiService.getManagedAccounts(searchParameters, trustedIntermediaryGroup.get());
+        tiService.getManagedAccounts(
+            searchParameters,
+            trustedIntermediaryGroup.get(),
+            new PageNumberBasedPaginationSpec(PAGE_SIZE, page.get()));
     if (!trustedIntermediarySearchResult.isSuccessful()) {
       throw new BadRequestException(trustedIntermediarySearchResult.errorMessage().get());
     }
-    PaginationInfo<AccountModel> pageInfo =
-        PaginationInfo.paginate(trustedIntermediarySearchResult.accounts(), PAGE_SIZE, page.get());
 
     Optional<String> applicantName =
         civiformProfile.getApplicant().join().getApplicantData().getApplicantDisplayName();
@@ -112,9 +112,9 @@ public final class TrustedIntermediaryController {
             /* tiGroup= */ trustedIntermediaryGroup.get(),
             /* personalInfo= */ ApplicantPersonalInfo.ofLoggedInUser(
                 Representation.builder().setName(applicantName).build()),
-            /* managedAccounts= */ pageInfo.getPageItems(),
-            /* totalPageCount= */ pageInfo.getPageCount(),
-            /* page= */ pageInfo.getPage(),
+            /* managedAccounts= */ trustedIntermediarySearchResult.accounts(),
+            /* totalPageCount= */ trustedIntermediarySearchResult.pageCount(),
+            /* page= */ page.get(),
             /* searchParameters= */ searchParameters,
             /* request= */ request,
             /* messages= */ messagesApi.preferred(request),
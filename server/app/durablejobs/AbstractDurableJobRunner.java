@@ -1,18 +1,30 @@
 package durablejobs;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.typesafe.config.Config;
 import io.ebean.DB;
 import io.ebean.Database;
 import io.ebean.Transaction;
+import io.prometheus.client.Gauge;
+import io.prometheus.client.Histogram;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import javax.inject.Provider;
@@ -25,6 +37,17 @@ import services.cloud.aws.SimpleEmail;
 /**
  * Executes {@link DurableJob}s when their time has come.
  *
+ * <p>Jobs are claimed in a short transaction that leases them to this runner, and then run on the
+ * {@link DurableJobExecutionContext}, up to as many at a time as it has threads. Each job's outcome
+ * is saved in its own transaction when it finishes, and as jobs finish more are claimed, so a long
+ * job doesn't hold up the jobs behind it. No more than {@code
+ * durable_jobs.max_concurrent_runs_per_job} jobs with the same name run at once across all servers,
+ * or the limit in {@code durable_jobs.job_concurrency_limits} for that name.
+ *
+ * <p>A job is interrupted once it has run for longer than the job timeout, counted from when it
+ * starts running. Its lease is renewed, and it keeps its place in the limits, until its thread
+ * actually returns, so a job that ignores the interrupt is never run again alongside itself.
+ *
  * <p>AbstractDurableJobRunner children should be singletons and its {@code runJobs} method is
  * {@code synchronized} to prevent overlapping executions within the same server at the same time.
  */
@@ -32,15 +55,64 @@ public abstract class AbstractDurableJobRunner {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(AbstractDurableJobRunner.class);
 
+  private static final Gauge READY_JOBS =
+      Gauge.build()
+          .name("durable_jobs_ready")
+          .help("Number of durable jobs that are ready to run but not yet claimed")
+          .labelNames("runner")
+          .register();
+
+  private static final Gauge RUNNING_JOBS =
+      Gauge.build()
+          .name("durable_jobs_running")
+          .help("Number of durable jobs running on this server")
+          .labelNames("job_name")
+          .register();
+
+  private static final Histogram JOB_LAG =
+      Histogram.build()
+          .name("durable_jobs_lag_seconds")
+          .help("Time from when durable jobs were due to when they were claimed")
+          .labelNames("job_name")
+          .buckets(1, 5, 15, 60, 300, 900, 3600, 6 * 3600, 24 * 3600)
+          .register();
+
+  private static final Histogram JOB_RUN_TIME =
+      Histogram.build()
+          .name("durable_jobs_run_time_seconds")
+          .help("Time durable jobs took to run, by whether they succeeded")
+          .labelNames("job_name", "result")
+          .buckets(0.1, 1, 5, 15, 60, 300, 900, 1800, 3600)
+          .register();
+
+  private static final Duration LEASE_RENEWAL_INTERVAL = Duration.ofMinutes(1);
+
+  /** Runs job timeouts and lease renewals, which are short and don't block. */
+  private static final ScheduledExecutorService TIMERS =
+      Executors.newSingleThreadScheduledExecutor(
+          new ThreadFactoryBuilder().setNameFormat("durable-job-timer").setDaemon(true).build());
+
+  /** Key of the advisory lock that serializes claiming jobs across servers. */
+  private static final long CLAIM_LOCK_KEY = 0x4a6f62436c61696dL;
+
+  private static final String POOL_SIZE_PATH =
+      "durable_jobs.dispatcher.thread-pool-executor.fixed-pool-size";
+  private static final String MAX_RUNS_PER_JOB_PATH = "durable_jobs.max_concurrent_runs_per_job";
+  private static final String JOB_CONCURRENCY_LIMITS_PATH = "durable_jobs.job_concurrency_limits";
+
   private final String hostName;
   private final Database database = DB.getDefault();
   private final DurableJobExecutionContext durableJobExecutionContext;
   private final DurableJobRegistry durableJobRegistry;
   private final String itEmailAddress;
-  private final int jobTimeoutMinutes;
+  private final Duration jobTimeout;
+  private final int maxConcurrentJobs;
+  private final int maxConcurrentRunsPerJob;
+  private final Optional<Config> jobConcurrencyLimits;
   private final Provider<LocalDateTime> nowProvider;
   private final SimpleEmail simpleEmail;
   private final ZoneOffset zoneOffset;
+  private final Map<Long, RunningJob> runningJobs = new ConcurrentHashMap<>();
 
   public AbstractDurableJobRunner(
       Config config,
@@ -57,69 +129,168 @@ public abstract class AbstractDurableJobRunner {
         config.getString("it_email_address").isBlank()
             ? config.getString("support_email_address")
             : config.getString("it_email_address");
-    this.jobTimeoutMinutes = config.getInt("durable_jobs.job_timeout_minutes");
+    int jobTimeoutMinutes = config.getInt("durable_jobs.job_timeout_minutes");
+    // We set the job timeout to 0 in test, which times out test jobs after 2500ms.
+    this.jobTimeout =
+        jobTimeoutMinutes == 0 ? Duration.ofMillis(2500) : Duration.ofMinutes(jobTimeoutMinutes);
+    this.maxConcurrentJobs = config.hasPath(POOL_SIZE_PATH) ? config.getInt(POOL_SIZE_PATH) : 1;
+    this.maxConcurrentRunsPerJob =
+        config.hasPath(MAX_RUNS_PER_JOB_PATH) ? config.getInt(MAX_RUNS_PER_JOB_PATH) : 1;
+    this.jobConcurrencyLimits =
+        config.hasPath(JOB_CONCURRENCY_LIMITS_PATH)
+            ? Optional.of(config.getConfig(JOB_CONCURRENCY_LIMITS_PATH))
+            : Optional.empty();
 
     this.simpleEmail = Preconditions.checkNotNull(simpleEmail);
     this.nowProvider = Preconditions.checkNotNull(nowProvider);
     this.zoneOffset = zoneId.getRules().getOffset(nowProvider.get());
   }
 
-  /** Get the job to run or an empty optional if one does not exist */
-  abstract Optional<PersistedDurableJobModel> getJobForExecution();
+  /**
+   * Get up to {@code maxJobs} jobs to run, leaving out jobs with the given names. The jobs must
+   * stay locked until the current transaction ends.
+   */
+  abstract ImmutableList<PersistedDurableJobModel> getJobsForExecution(
+      int maxJobs, ImmutableSet<String> excludedJobNames);
 
-  /** Determines if the provided job, if it exists, is allowed to be run. */
-  abstract boolean canRun(Optional<PersistedDurableJobModel> maybeJobToRun);
+  /** Count the jobs that are ready to run but haven't been claimed. */
+  abstract int countJobsReadyForExecution();
+
+  /**
+   * The time after which {@code runJobs} stops claiming jobs, or empty if it claims jobs until none
+   * are left.
+   */
+  abstract Optional<LocalDateTime> resolveStopTime();
 
   /**
    * Queries for durable jobs that are ready to run and executes them.
    *
-   * <p>Continues executing jobs as long as there are jobs to execute and it does not exceed the
-   * time specified by "durable_jobs.poll_interval_seconds". This is to prevent runners attempting
-   * to run at the same time in the same server.
+   * <p>Continues claiming jobs as running jobs finish, as long as there are jobs to execute and it
+   * has not reached the time from {@link #resolveStopTime}. This is to prevent runners attempting
+   * to run at the same time in the same server. Jobs still running at that time keep running, and
+   * count towards the limits the next time jobs are run.
    *
    * <p>{@code synchronized} to avoid overlapping executions within the same server.
    */
   public synchronized void runJobs() {
     LOGGER.info("JobRunner_Start thread ID={}", Thread.currentThread().getId());
 
-    Transaction transaction = database.beginTransaction();
-    Optional<PersistedDurableJobModel> maybeJobToRun = getJobForExecution();
-
-    while (canRun(maybeJobToRun)) {
-      PersistedDurableJobModel jobToRun = maybeJobToRun.get();
-      runJob(jobToRun);
-      notifyUponFinalFailure(jobToRun);
-      transaction.commit();
+    Optional<LocalDateTime> stopTime = resolveStopTime();
+    while (stopTime.map(nowProvider.get()::isBefore).orElse(true)) {
+      ImmutableList<PersistedDurableJobModel> claimedJobs = claimJobs();
+      claimedJobs.forEach(this::startJob);
+      READY_JOBS.labels(getClass().getSimpleName()).set(countJobsReadyForExecution());
 
-      transaction = database.beginTransaction();
-      maybeJobToRun = getJobForExecution();
+      if (runningJobs.isEmpty()) {
+        if (claimedJobs.isEmpty()) {
+          break;
+        }
+      } else if (!waitForAnyJob(stopTime)) {
+        break;
+      }
     }
-    transaction.close();
 
     LOGGER.info("JobRunner_Stop thread_ID={}", Thread.currentThread().getId());
   }
 
-  private void notifyUponFinalFailure(PersistedDurableJobModel job) {
-    if (!job.hasFailedWithNoRemainingAttempts()) {
-      return;
+  /**
+   * Claims as many jobs as there is room to run, leasing them to this runner for longer than they
+   * are allowed to run and counting the attempt.
+   */
+  private ImmutableList<PersistedDurableJobModel> claimJobs() {
+    int maxJobs = maxConcurrentJobs - runningJobs.size();
+    if (maxJobs <= 0) {
+      return ImmutableList.of();
     }
 
-    String subject = String.format("ERROR: CiviForm Durable job failure on %s", hostName);
-    StringBuilder contents = new StringBuilder("A durable job has failed repeatedly on ");
-    contents.append(hostName);
-    contents.append("\n\n");
+    try (Transaction transaction = database.beginTransaction()) {
+      // Claims are made one server at a time, so that every server sees the jobs the others have
+      // leased when checking the per-name limits.
+      database
+          .sqlQuery("SELECT pg_advisory_xact_lock(:key)")
+          .setParameter("key", CLAIM_LOCK_KEY)
+          .setLabel("AbstractDurableJobRunner.lockClaims")
+          .findOne();
+      Map<String, Long> runsByJobName = countLeasedJobsByName();
+      ImmutableSet<String> jobNamesAtLimit =
+          runsByJobName.entrySet().stream()
+              .filter(entry -> entry.getValue() >= getConcurrencyLimit(entry.getKey()))
+              .map(Map.Entry::getKey)
+              .collect(ImmutableSet.toImmutableSet());
 
-    contents.append(
-        "This needs to be investigated by IT staff or the CiviForm core team"
-            + " (civiform-technical@googlegroups.com).\n\n");
-    contents.append(
-        String.format("Error report for: job_name=\"%s\", job_ID=%d\n", job.getJobName(), job.id));
-    contents.append(job.getErrorMessage().orElse("Job is missing error messages."));
+      Instant now = nowProvider.get().toInstant(zoneOffset);
+      Instant leaseExpirationTime = now.plus(jobTimeout).plus(1, ChronoUnit.MINUTES);
+      ImmutableList.Builder<PersistedDurableJobModel> claimedJobs = ImmutableList.builder();
 
-    simpleEmail.send(itEmailAddress, subject, contents.toString());
+      for (PersistedDurableJobModel job : getJobsForExecution(maxJobs, jobNamesAtLimit)) {
+        long runs = runsByJobName.getOrDefault(job.getJobName(), 0L);
+        if (runs >= getConcurrencyLimit(job.getJobName())) {
+          continue;
+        }
+        runsByJobName.put(job.getJobName(), runs + 1);
+
+        job.decrementRemainingAttempts().setLeaseExpirationTime(leaseExpirationTime).save();
+        JOB_LAG
+            .labels(job.getJobName())
+            .observe(Math.max(0, ChronoUnit.MILLIS.between(job.getExecutionTime(), now)) / 1000.0);
+        claimedJobs.add(job);
+      }
+
+      transaction.commit();
+      return claimedJobs.build();
+    }
+  }
+
+  /** Counts the jobs leased to any server, which are the ones running, by name. */
+  private Map<String, Long> countLeasedJobsByName() {
+    Map<String, Long> runsByJobName = new HashMap<>();
+    database
+        .find(PersistedDurableJobModel.class)
+        .select("jobName")
+        .where()
+        .gt("lease_expiration_time", nowProvider.get())
+        .setLabel("PersistedDurableJobModel.findLeased")
+        .findList()
+        .forEach(job -> runsByJobName.merge(job.getJobName(), 1L, Long::sum));
+    return runsByJobName;
+  }
+
+  private int getConcurrencyLimit(String jobName) {
+    return jobConcurrencyLimits
+        .filter(limits -> limits.hasPath(jobName))
+        .map(limits -> limits.getInt(jobName))
+        .orElse(maxConcurrentRunsPerJob);
+  }
+
+  /**
+   * Waits until a running job finishes, or until the stop time. Returns false if the runner was
+   * interrupted while waiting.
+   */
+  private boolean waitForAnyJob(Optional<LocalDateTime> stopTime) {
+    CompletableFuture<Object> anyJob =
+        CompletableFuture.anyOf(
+            runningJobs.values().stream()
+                .map(RunningJob::finished)
+                .toArray(CompletableFuture<?>[]::new));
+    try {
+      if (stopTime.isEmpty()) {
+        anyJob.get();
+      } else {
+        anyJob.get(
+            Math.max(0, ChronoUnit.MILLIS.between(nowProvider.get(), stopTime.get())),
+            TimeUnit.MILLISECONDS);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    } catch (ExecutionException | TimeoutException e) {
+      // The job's outcome is recorded when it finishes, and timing out means it's time to stop.
+    }
+    return true;
   }
 
-  private void runJob(PersistedDurableJobModel persistedDurableJob) {
+  /** Starts running a claimed job, saving its outcome when it finishes. */
+  private void startJob(PersistedDurableJobModel persistedDurableJob) {
     LocalDateTime startTime = nowProvider.get();
     LOGGER.info(
         "JobRunner_ExecutingJob thread_ID={}, job_name=\"{}\", job_ID={}",
@@ -127,50 +298,19 @@ public abstract class AbstractDurableJobRunner {
         persistedDurableJob.getJobName(),
         persistedDurableJob.id);
 
+    DurableJob jobToRun;
     try {
-      persistedDurableJob.decrementRemainingAttempts().save();
-
-      // Run the job in a separate thread and block until it completes, fails, or times out.
-      runJobWithTimeout(
+      jobToRun =
           durableJobRegistry
               .get(DurableJobName.valueOf(persistedDurableJob.getJobName()))
               .getFactory()
-              .create(persistedDurableJob));
-
-      persistedDurableJob.setSuccessTime(nowProvider.get().toInstant(zoneOffset)).save();
-
-      LOGGER.info(
-          "JobRunner_JobSucceeded job_name=\"{}\", job_ID={}, duration_s={}",
-          persistedDurableJob.getJobName(),
-          persistedDurableJob.id,
-          getJobDurationInSeconds(startTime));
+              .create(persistedDurableJob);
     } catch (JobNotFoundException e) {
-      // If the job is not found in the registry, it was likely removed intentionally
-      // In this case, we want to delete the job from the database becuase it should not be run
-      // anymore
-      if (persistedDurableJob.delete()) {
-        LOGGER.info(
-            String.format(
-                "Job was not found in the registry and was deleted from the db. job_name=\"%s\"",
-                persistedDurableJob.getJobName()));
-      } else {
-        // If the delete fails, handle it like the other errors
-        String msg =
-            String.format(
-                "Job was not found in the registry and there was an error deleting the job. Error:"
-                    + " %s job_name=\"%s\", job_ID=%d, attempts_remaining=%d, duration_s=%f,"
-                    + " message: %s",
-                e.getClass().getSimpleName(),
-                persistedDurableJob.getJobName(),
-                persistedDurableJob.id,
-                persistedDurableJob.getRemainingAttempts(),
-                getJobDurationInSeconds(startTime),
-                e.getMessage());
-        LOGGER.error(msg);
-        persistedDurableJob.appendErrorMessage(msg).save();
-      }
-    } catch (IllegalArgumentException | CancellationException | InterruptedException e) {
-      String msg =
+      deleteJobNotFound(persistedDurableJob, startTime, e);
+      return;
+    } catch (IllegalArgumentException e) {
+      recordFailure(
+          persistedDurableJob,
           String.format(
               "JobRunner_JobFailed %s job_name=\"%s\", job_ID=%d, attempts_remaining=%d,"
                   + " duration_s=%f,"
@@ -180,52 +320,233 @@ public abstract class AbstractDurableJobRunner {
               persistedDurableJob.id,
               persistedDurableJob.getRemainingAttempts(),
               getJobDurationInSeconds(startTime),
-              e.getMessage());
-      LOGGER.error(msg);
-      persistedDurableJob.appendErrorMessage(msg).save();
-    } catch (TimeoutException e) {
-      String msg =
+              e.getMessage()));
+      return;
+    }
+
+    String jobName = persistedDurableJob.getJobName();
+    CompletableFuture<Void> finished = new CompletableFuture<>();
+    runningJobs.put(persistedDurableJob.id, new RunningJob(jobName, finished));
+    RUNNING_JOBS.labels(jobName).inc();
+
+    // Run the job in a separate thread, and record its outcome once the thread is done with it.
+    CompletableFuture.runAsync(
+        () -> {
+          LocalDateTime runStartTime = nowProvider.get();
+          Optional<Throwable> exception = runWithTimeout(jobToRun);
+          try {
+            finishJob(jobToRun, runStartTime, exception);
+          } catch (RuntimeException e) {
+            LOGGER.error(
+                "JobRunner_FinishFailed job_name=\"{}\", job_ID={}",
+                jobName,
+                persistedDurableJob.id,
+                e);
+          } finally {
+            runningJobs.remove(persistedDurableJob.id);
+            RUNNING_JOBS.labels(jobName).dec();
+            finished.complete(null);
+          }
+        },
+        durableJobExecutionContext.current());
+  }
+
+  /**
+   * Runs the job on this thread, interrupting it once it has run for longer than the job timeout,
+   * and renewing its lease until it returns. Returns what the job threw, or a {@link
+   * TimeoutException} if it threw after timing out.
+   */
+  private Optional<Throwable> runWithTimeout(DurableJob job) {
+    JobThread jobThread = new JobThread(Thread.currentThread());
+    long jobId = job.getPersistedDurableJob().id;
+    renewLease(jobId);
+    ScheduledFuture<?> timeout =
+        TIMERS.schedule(jobThread::interrupt, jobTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    ScheduledFuture<?> leaseRenewal =
+        TIMERS.scheduleAtFixedRate(
+            () -> renewLease(jobId),
+            LEASE_RENEWAL_INTERVAL.toMillis(),
+            LEASE_RENEWAL_INTERVAL.toMillis(),
+            TimeUnit.MILLISECONDS);
+    try {
+      job.run();
+      return Optional.empty();
+    } catch (RuntimeException e) {
+      return Optional.of(jobThread.timedOut() ? new TimeoutException() : e);
+    } finally {
+      timeout.cancel(/* mayInterruptIfRunning= */ false);
+      leaseRenewal.cancel(/* mayInterruptIfRunning= */ false);
+      jobThread.finish();
+    }
+  }
+
+  /** Extends the lease on a running job to longer than it is allowed to run from now. */
+  private void renewLease(long jobId) {
+    try {
+      database
+          .sqlUpdate(
+              "UPDATE persisted_durable_jobs SET lease_expiration_time = :lease WHERE id = :id")
+          .setParameter(
+              "lease",
+              nowProvider.get().toInstant(zoneOffset).plus(jobTimeout).plus(1, ChronoUnit.MINUTES))
+          .setParameter("id", jobId)
+          .setLabel("AbstractDurableJobRunner.renewLease")
+          .execute();
+    } catch (RuntimeException e) {
+      LOGGER.error("JobRunner_LeaseRenewalFailed job_ID={}", jobId, e);
+    }
+  }
+
+  private void finishJob(
+      DurableJob job, LocalDateTime startTime, Optional<Throwable> maybeException) {
+    PersistedDurableJobModel persistedDurableJob = job.getPersistedDurableJob();
+    double durationSeconds = getJobDurationInSeconds(startTime);
+    persistedDurableJob.clearLeaseExpirationTime();
+
+    if (maybeException.isEmpty() && job.hasMoreWork()) {
+      // Stopping at a checkpoint isn't a failed attempt, so the attempt is given back and the job
+      // is claimed again to carry on from the checkpoint.
+      JOB_RUN_TIME.labels(persistedDurableJob.getJobName(), "paused").observe(durationSeconds);
+      persistedDurableJob.incrementRemainingAttempts().save();
+      LOGGER.info(
+          "JobRunner_JobPaused job_name=\"{}\", job_ID={}, duration_s={}",
+          persistedDurableJob.getJobName(),
+          persistedDurableJob.id,
+          durationSeconds);
+      return;
+    }
+
+    if (maybeException.isEmpty()) {
+      JOB_RUN_TIME.labels(persistedDurableJob.getJobName(), "success").observe(durationSeconds);
+      persistedDurableJob.setSuccessTime(nowProvider.get().toInstant(zoneOffset)).save();
+      LOGGER.info(
+          "JobRunner_JobSucceeded job_name=\"{}\", job_ID={}, duration_s={}",
+          persistedDurableJob.getJobName(),
+          persistedDurableJob.id,
+          durationSeconds);
+      return;
+    }
+
+    Throwable exception = maybeException.get();
+
+    if (exception instanceof TimeoutException) {
+      JOB_RUN_TIME.labels(persistedDurableJob.getJobName(), "timeout").observe(durationSeconds);
+      recordFailure(
+          persistedDurableJob,
           String.format(
               "JobRunner_JobTimeout job_name=\"%s\", job_ID=%d, attempts_remaining=%d,"
                   + " duration_s=%f",
               persistedDurableJob.getJobName(),
               persistedDurableJob.id,
               persistedDurableJob.getRemainingAttempts(),
-              getJobDurationInSeconds(startTime));
-      LOGGER.error(msg);
-      persistedDurableJob.appendErrorMessage(msg).save();
-    } catch (ExecutionException e) {
-      String msg =
+              durationSeconds));
+    } else {
+      JOB_RUN_TIME.labels(persistedDurableJob.getJobName(), "failure").observe(durationSeconds);
+      recordFailure(
+          persistedDurableJob,
           String.format(
-              "JobRunner_JobFailed ExecutionException job_name=\"%s\", job_ID=%d,"
+              "JobRunner_JobFailed %s job_name=\"%s\", job_ID=%d,"
                   + " attempts_remaining=%d, duration_s=%f, error_message=%s, trace=%s",
+              exception.getClass().getSimpleName(),
               persistedDurableJob.getJobName(),
               persistedDurableJob.id,
               persistedDurableJob.getRemainingAttempts(),
-              getJobDurationInSeconds(startTime),
-              e.getMessage(),
-              ExceptionUtils.getStackTrace(e));
-      LOGGER.error(msg);
-      persistedDurableJob.appendErrorMessage(msg).save();
+              durationSeconds,
+              exception.getMessage(),
+              ExceptionUtils.getStackTrace(exception)));
     }
   }
 
-  private synchronized void runJobWithTimeout(DurableJob jobToRun)
-      throws ExecutionException, InterruptedException, TimeoutException {
-    CompletableFuture<Void> future =
-        CompletableFuture.runAsync(() -> jobToRun.run(), durableJobExecutionContext.current());
+  private void recordFailure(PersistedDurableJobModel persistedDurableJob, String msg) {
+    LOGGER.error(msg);
+    persistedDurableJob.clearLeaseExpirationTime().appendErrorMessage(msg).save();
+    notifyUponFinalFailure(persistedDurableJob);
+  }
 
-    // We set the job timeout to 0 in test
-    if (jobTimeoutMinutes == 0) {
-      // Timeout test jobs after 2500ms
-      future.get(2500, TimeUnit.MILLISECONDS);
+  private void deleteJobNotFound(
+      PersistedDurableJobModel persistedDurableJob,
+      LocalDateTime startTime,
+      JobNotFoundException e) {
+    // If the job is not found in the registry, it was likely removed intentionally
+    // In this case, we want to delete the job from the database becuase it should not be run
+    // anymore
+    if (persistedDurableJob.delete()) {
+      LOGGER.info(
+          String.format(
+              "Job was not found in the registry and was deleted from the db. job_name=\"%s\"",
+              persistedDurableJob.getJobName()));
+    } else {
+      // If the delete fails, handle it like the other errors
+      recordFailure(
+          persistedDurableJob,
+          String.format(
+              "Job was not found in the registry and there was an error deleting the job. Error:"
+                  + " %s job_name=\"%s\", job_ID=%d, attempts_remaining=%d, duration_s=%f,"
+                  + " message: %s",
+              e.getClass().getSimpleName(),
+              persistedDurableJob.getJobName(),
+              persistedDurableJob.id,
+              persistedDurableJob.getRemainingAttempts(),
+              getJobDurationInSeconds(startTime),
+              e.getMessage()));
+    }
+  }
+
+  private void notifyUponFinalFailure(PersistedDurableJobModel job) {
+    if (!job.hasFailedWithNoRemainingAttempts()) {
       return;
     }
 
-    future.get(jobTimeoutMinutes, TimeUnit.MINUTES);
+    String subject = String.format("ERROR: CiviForm Durable job failure on %s", hostName);
+    StringBuilder contents = new StringBuilder("A durable job has failed repeatedly on ");
+    contents.append(hostName);
+    contents.append("\n\n");
+
+    contents.append(
+        "This needs to be investigated by IT staff or the CiviForm core team"
+            + " (civiform-technical@googlegroups.com).\n\n");
+    contents.append(
+        String.format("Error report for: job_name=\"%s\", job_ID=%d\n", job.getJobName(), job.id));
+    contents.append(job.getErrorMessage().orElse("Job is missing error messages."));
+
+    simpleEmail.send(itEmailAddress, subject, contents.toString());
   }
 
   private double getJobDurationInSeconds(LocalDateTime startTime) {
     return ((double) ChronoUnit.MILLIS.between(startTime, nowProvider.get())) / 1000;
   }
+
+  /** A job this runner has started, and a future completed once its outcome is saved. */
+  private record RunningJob(String jobName, CompletableFuture<Void> finished) {}
+
+  /**
+   * The thread a job runs on, which is interrupted if the job times out. The thread goes back to
+   * the pool once the job finishes, so it is only interrupted while the job is still running.
+   */
+  private static final class JobThread {
+    private final Thread thread;
+    private boolean running = true;
+    private boolean timedOut = false;
+
+    JobThread(Thread thread) {
+      this.thread = thread;
+    }
+
+    synchronized void interrupt() {
+      if (running) {
+        timedOut = true;
+        thread.interrupt();
+      }
+    }
+
+    synchronized boolean timedOut() {
+      return timedOut;
+    }
+
+    /** Called on the job's thread when the job returns, clearing any interrupt meant for it. */
+    synchronized void finish() {
+      running = false;
+      Thread.interrupted();
+    }
+  }
 }
@@ -0,0 +1,198 @@
+package durablejobs;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import io.ebean.DB;
+import io.ebean.Database;
+import io.ebean.Transaction;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Optional;
+import models.PersistedDurableJobModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link DurableJob} that works through tables a chunk of rows at a time, so that it finishes
+ * predictably on tables of any size and picks up where it stopped if it's interrupted.
+ *
+ * <p>The job is made of {@link BatchStep}s, each a pass over one table in order of id. Each chunk
+ * is processed in its own transaction, with its updates sent to the database in JDBC batches, and
+ * the step and id of the last row in the chunk are saved on the {@link PersistedDurableJobModel} in
+ * the same transaction. When the job runs again after failing or being interrupted, it starts after
+ * the last chunk it committed rather than from the beginning, so steps must be safe to run again on
+ * a row.
+ *
+ * <p>If a row in a chunk fails, the chunk is rolled back and the job fails, to be retried from the
+ * checkpoint. A run stops at a checkpoint once it has gone on for {@link
+ * BatchSettings#maxRunTime()}, and {@link #hasMoreWork()} then tells the runner to run the job
+ * again.
+ */
+public abstract class BatchDurableJob extends DurableJob {
+  private static final Logger LOGGER = LoggerFactory.getLogger(BatchDurableJob.class);
+
+  private final PersistedDurableJobModel persistedDurableJob;
+  private final BatchSettings settings;
+  private final Clock clock;
+  private final Database database;
+  private boolean hasMoreWork = false;
+
+  protected BatchDurableJob(
+      PersistedDurableJobModel persistedDurableJob, BatchSettings settings, Clock clock) {
+    this.persistedDurableJob = checkNotNull(persistedDurableJob);
+    this.settings = checkNotNull(settings);
+    this.clock = checkNotNull(clock);
+    this.database = DB.getDefault();
+  }
+
+  @Override
+  public final PersistedDurableJobModel getPersistedDurableJob() {
+    return persistedDurableJob;
+  }
+
+  /** The steps of the job, in the order they run. */
+  protected abstract ImmutableList<BatchStep<?>> steps();
+
+  @Override
+  public final boolean hasMoreWork() {
+    return hasMoreWork;
+  }
+
+  @Override
+  public final void run() {
+    hasMoreWork = false;
+    Instant stopTime = clock.instant().plus(settings.maxRunTime());
+    ImmutableList<BatchStep<?>> steps = steps();
+
+    int firstStep = 0;
+    long resumeAfterId = 0;
+    Optional<String> checkpointStep = persistedDurableJob.getBatchStep();
+    if (checkpointStep.isPresent()) {
+      for (int i = 0; i < steps.size(); i++) {
+        if (steps.get(i).name().equals(checkpointStep.get())) {
+          firstStep = i;
+          resumeAfterId = persistedDurableJob.getBatchLastId().orElse(0L);
+          LOGGER.info(
+              "Resuming job {} at step {} after id {}",
+              jobName(),
+              checkpointStep.get(),
+              resumeAfterId);
+        }
+      }
+    }
+
+    for (int i = firstStep; i < steps.size(); i++) {
+      if (!runStep(steps.get(i), i == firstStep ? resumeAfterId : 0, stopTime)) {
+        LOGGER.info("Job {} stopped at a checkpoint and will continue on its next run", jobName());
+        hasMoreWork = true;
+        return;
+      }
+    }
+
+    clearCheckpoint();
+  }
+
+  /** Runs the step's chunks, returning whether it finished before the stop time. */
+  private <T> boolean runStep(BatchStep<T> step, long afterId, Instant stopTime) {
+    while (clock.instant().isBefore(stopTime)) {
+      Optional<Long> lastId = runChunk(step, afterId);
+      if (lastId.isEmpty()) {
+        return true;
+      }
+      afterId = lastId.get();
+      throttle();
+    }
+    return false;
+  }
+
+  /**
+   * Processes the next chunk of the step and saves its checkpoint in one transaction. Returns the
+   * id of the last row processed, or empty if there were no rows left.
+   */
+  private <T> Optional<Long> runChunk(BatchStep<T> step, long afterId) {
+    try (Transaction transaction = database.beginTransaction()) {
+      transaction.setBatchMode(true);
+      transaction.setBatchSize(settings.chunkSize());
+
+      ImmutableList<T> rows = step.loadChunk(afterId, settings.chunkSize());
+      if (rows.isEmpty()) {
+        return Optional.empty();
+      }
+
+      int errorCount = 0;
+      for (T row : rows) {
+        try {
+          step.processRow(row, transaction);
+        } catch (Exception e) {
+          errorCount++;
+          LOGGER.error(
+              "Job {} failed to process id {} in step {}",
+              jobName(),
+              step.idOf(row),
+              step.name(),
+              e);
+        }
+      }
+      if (errorCount > 0) {
+        // Closing the transaction without committing rolls the chunk back.
+        throw new IllegalStateException(
+            String.format(
+                "%d rows failed in step %s after id %d. See previous logs for failures.",
+                errorCount, step.name(), afterId));
+      }
+
+      long lastId = step.idOf(rows.get(rows.size() - 1));
+      saveCheckpoint(step.name(), lastId);
+      transaction.commit();
+      return Optional.of(lastId);
+    }
+  }
+
+  private void saveCheckpoint(String step, long lastId) {
+    // Jobs that were never saved, such as ones run directly, have nowhere to keep a checkpoint.
+    if (persistedDurableJob.id == null) {
+      return;
+    }
+    database
+        .sqlUpdate(
+            """
+            UPDATE persisted_durable_jobs
+            SET batch_step = :batch_step, batch_last_id = :batch_last_id
+            WHERE id = :id
+            """)
+        .setParameter("batch_step", step)
+        .setParameter("batch_last_id", lastId)
+        .setParameter("id", persistedDurableJob.id)
+        .setLabel("BatchDurableJob.saveCheckpoint")
+        .execute();
+  }
+
+  private void clearCheckpoint() {
+    if (persistedDurableJob.id == null) {
+      return;
+    }
+    database
+        .sqlUpdate(
+            """
+            UPDATE persisted_durable_jobs
+            SET batch_step = NULL, batch_last_id = NULL
+            WHERE id = :id
+            """)
+        .setParameter("id", persistedDurableJob.id)
+        .setLabel("BatchDurableJob.clearCheckpoint")
+        .execute();
+  }
+
+  private void throttle() {
+    if (settings.throttle().isZero()) {
+      return;
+    }
+    try {
+      Thread.sleep(settings.throttle().toMillis());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted between chunks", e);
+    }
+  }
+}
@@ -0,0 +1,36 @@
+package durablejobs;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.typesafe.config.Config;
+import java.time.Duration;
+
+/**
+ * How a {@link BatchDurableJob} works through its tables.
+ *
+ * @param chunkSize the number of rows processed and committed together
+ * @param throttle how long to pause between chunks, to leave the database room for other work
+ * @param maxRunTime how long a run goes on before it stops at a checkpoint, which should be less
+ *     than the job timeout
+ */
+public record BatchSettings(int chunkSize, Duration throttle, Duration maxRunTime) {
+
+  /** The settings used when none are configured. */
+  public static final BatchSettings DEFAULT =
+      new BatchSettings(/* chunkSize= */ 500, Duration.ZERO, Duration.ofMinutes(10));
+
+  public BatchSettings {
+    checkArgument(chunkSize > 0, "Chunk size must be positive: %s", chunkSize);
+    checkNotNull(throttle);
+    checkNotNull(maxRunTime);
+  }
+
+  /** Reads the settings under {@code durable_jobs.batch}. */
+  public static BatchSettings fromConfig(Config config) {
+    return new BatchSettings(
+        config.getInt("durable_jobs.batch.chunk_size"),
+        Duration.ofMillis(config.getLong("durable_jobs.batch.throttle_millis")),
+        Duration.ofMinutes(config.getLong("durable_jobs.batch.max_run_minutes")));
+  }
+}
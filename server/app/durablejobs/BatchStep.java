@@ -0,0 +1,61 @@
+package durablejobs;
+
+import com.google.common.collect.ImmutableList;
+import io.ebean.ExpressionList;
+import io.ebean.Transaction;
+import java.util.function.Supplier;
+import models.BaseModel;
+
+/**
+ * A pass of a {@link BatchDurableJob} over the rows of one table, a chunk at a time in order of
+ * their ids.
+ *
+ * @param <T> the type of the rows
+ */
+public interface BatchStep<T> {
+
+  /** Identifies the step in the job's checkpoint, so it must not change between releases. */
+  String name();
+
+  /** Loads up to {@code chunkSize} rows with ids greater than {@code afterId}, in order of id. */
+  ImmutableList<T> loadChunk(long afterId, int chunkSize);
+
+  /** The id of the row. */
+  long idOf(T row);
+
+  /** Updates the row, as part of the chunk's transaction. */
+  void processRow(T row, Transaction transaction) throws Exception;
+
+  /** Updates a row as part of a chunk's transaction. */
+  @FunctionalInterface
+  interface RowProcessor<T> {
+    void process(T row, Transaction transaction) throws Exception;
+  }
+
+  /** A step over the models matched by {@code rows}, updating each with {@code processor}. */
+  static <T extends BaseModel> BatchStep<T> forModels(
+      String name, Supplier<ExpressionList<T>> rows, RowProcessor<T> processor) {
+    return new BatchStep<>() {
+      @Override
+      public String name() {
+        return name;
+      }
+
+      @Override
+      public ImmutableList<T> loadChunk(long afterId, int chunkSize) {
+        return ImmutableList.copyOf(
+            rows.get().gt("id", afterId).orderBy().asc("id").setMaxRows(chunkSize).findList());
+      }
+
+      @Override
+      public long idOf(T row) {
+        return row.id;
+      }
+
+      @Override
+      public void processRow(T row, Transaction transaction) throws Exception {
+        processor.process(row, transaction);
+      }
+    };
+  }
+}
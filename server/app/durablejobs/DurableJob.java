@@ -21,4 +21,12 @@ public abstract class DurableJob {
 
   /** Executes the job. */
   public abstract void run();
+
+  /**
+   * Whether the last {@link #run()} stopped before finishing the job's work, so that the job should
+   * run again rather than be recorded as succeeded.
+   */
+  public boolean hasMoreWork() {
+    return false;
+  }
 }
@@ -10,19 +10,21 @@ import models.PersistedDurableJobModel;
  */
 public enum DurableJobName {
   OLD_JOB_CLEANUP("OLD_JOB_CLEANUP"),
-  REPORTING_DASHBOARD_MONTHLY_REFRESH("REPORTING_DASHBOARD_MONTHLY_REFRESH"),
   UNUSED_ACCOUNT_CLEANUP("UNUSED_ACCOUNT_CLEANUP"),
   UNUSED_PROGRAM_IMAGES_CLEANUP("UNUSED_PROGRAM_IMAGES_CLEANUP"),
   MIGRATE_PRIMARY_APPLICANT_INFO("MIGRATE_PRIMARY_APPLICANT_INFO"),
   ADD_OPERATOR_TO_LEAF_ADDRESS_SERVICE_AREA("ADD_OPERATOR_TO_LEAF_ADDRESS_SERVICE_AREA"),
   COPY_FILE_KEY_FOR_MULTIPLE_FILE_UPLOAD("COPY_FILE_KEY_FOR_MULTIPLE_FILE_UPLOAD"),
   CONVERT_ADDRESS_SERVICE_AREA_TO_ARRAY("CONVERT_ADDRESS_SERVICE_AREA_TO_ARRAY"),
+  CONVERT_APPLICANT_DATA_TO_JSONB("CONVERT_APPLICANT_DATA_TO_JSONB"),
+  ESRI_RESULT_CLEANUP("ESRI_RESULT_CLEANUP"),
 
   // Jobs below this line are deprecated, but must be kept around so that durableJobRegistry.get
   // does not throw an IllegalArgumentException error
   // TODO(#7347): remove the deprecated job names once we have logic in place to remove them from
   // the db when not found
   FIX_APPLICANT_DOB_DATA_PATH("FIX_APPLICANT_DOB_DATA_PATH"),
+  REPORTING_DASHBOARD_MONTHLY_REFRESH("REPORTING_DASHBOARD_MONTHLY_REFRESH"),
 
   // job names used for tests
   TEST("TEST");
@@ -2,6 +2,8 @@ package durablejobs;
 
 import annotations.BindingAnnotations;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.typesafe.config.Config;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -15,7 +17,7 @@ import repository.PersistedDurableJobRepository;
 import services.cloud.aws.SimpleEmail;
 
 /**
- * Executes {@link DurableJob}s when their time has come.
+ * Executes recurring {@link DurableJob}s when their time has come.
  *
  * <p>{@link RecurringDurableJobRunner} is a singleton and its {@code runJobs} method is {@code
  * synchronized} to prevent overlapping executions within the same server at the same time.
@@ -41,26 +43,26 @@ public final class RecurringDurableJobRunner extends AbstractDurableJobRunner {
     this.runnerLifespanSeconds = config.getInt("durable_jobs.poll_interval_seconds");
   }
 
-  /** Get the job to run or an empty optional if one does not exist */
   @Override
-  protected synchronized Optional<PersistedDurableJobModel> getJobForExecution() {
-    return persistedDurableJobRepository.getRecurringJobForExecution();
+  protected ImmutableList<PersistedDurableJobModel> getJobsForExecution(
+      int maxJobs, ImmutableSet<String> excludedJobNames) {
+    return persistedDurableJobRepository.getRecurringJobsForExecution(maxJobs, excludedJobNames);
   }
 
-  /** Determines if the provided job, if it exists, is allowed to be run. */
   @Override
-  protected synchronized boolean canRun(Optional<PersistedDurableJobModel> maybeJobToRun) {
-    LocalDateTime stopTime = resolveStopTime();
-    return maybeJobToRun.isPresent() && nowProvider.get().isBefore(stopTime);
+  protected int countJobsReadyForExecution() {
+    return persistedDurableJobRepository.countRecurringJobsReadyForExecution();
   }
 
-  private synchronized LocalDateTime resolveStopTime() {
+  /** Jobs are claimed until the next poll, when this runner is run again. */
+  @Override
+  protected Optional<LocalDateTime> resolveStopTime() {
     // We set poll interval to 0 in test
     if (runnerLifespanSeconds == 0) {
       // Run for no more than 5 seconds
-      return nowProvider.get().plus(5000, ChronoUnit.MILLIS);
+      return Optional.of(nowProvider.get().plus(5000, ChronoUnit.MILLIS));
     }
 
-    return nowProvider.get().plus(runnerLifespanSeconds, ChronoUnit.SECONDS);
+    return Optional.of(nowProvider.get().plus(runnerLifespanSeconds, ChronoUnit.SECONDS));
   }
 }
@@ -29,9 +29,7 @@ public final class RecurringJobExecutionTimeResolvers {
     }
   }
 
-  /**
-   * First day of the month at 2am local time. Used for the REPORTING_DASHBOARD_MONTHLY_REFRESH job.
-   */
+  /** First day of the month at 2am local time. */
   public static final class FirstOfMonth2Am implements JobExecutionTimeResolver {
 
     @Override
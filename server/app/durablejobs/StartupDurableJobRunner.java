@@ -2,6 +2,8 @@ package durablejobs;
 
 import annotations.BindingAnnotations;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.typesafe.config.Config;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -14,7 +16,7 @@ import repository.PersistedDurableJobRepository;
 import services.cloud.aws.SimpleEmail;
 
 /**
- * Executes {@link DurableJob}s when their time has come.
+ * Executes startup {@link DurableJob}s when the server starts.
  *
  * <p>{@link StartupDurableJobRunner} is a singleton and its {@code runJobs} method is {@code
  * synchronized} to prevent overlapping executions within the same server at the same time.
@@ -36,15 +38,20 @@ public final class StartupDurableJobRunner extends AbstractDurableJobRunner {
     this.persistedDurableJobRepository = Preconditions.checkNotNull(persistedDurableJobRepository);
   }
 
-  /** Get the job to run or an empty optional if one does not exist */
   @Override
-  protected synchronized Optional<PersistedDurableJobModel> getJobForExecution() {
-    return persistedDurableJobRepository.getStartupJobForExecution();
+  protected ImmutableList<PersistedDurableJobModel> getJobsForExecution(
+      int maxJobs, ImmutableSet<String> excludedJobNames) {
+    return persistedDurableJobRepository.getStartupJobsForExecution(maxJobs, excludedJobNames);
   }
 
-  /** Determines if the provided job, if it exists, is allowed to be run. */
   @Override
-  protected synchronized boolean canRun(Optional<PersistedDurableJobModel> maybeJobToRun) {
-    return maybeJobToRun.isPresent();
+  protected int countJobsReadyForExecution() {
+    return persistedDurableJobRepository.countStartupJobsReadyForExecution();
+  }
+
+  /** Startup jobs must all complete before the server starts serving pages. */
+  @Override
+  protected Optional<LocalDateTime> resolveStopTime() {
+    return Optional.empty();
   }
 }
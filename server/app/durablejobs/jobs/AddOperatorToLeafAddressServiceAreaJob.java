@@ -1,17 +1,18 @@
 package durablejobs.jobs;
 
-import static com.google.common.base.Preconditions.checkNotNull;
-
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import durablejobs.DurableJob;
+import com.google.common.collect.ImmutableList;
+import durablejobs.BatchDurableJob;
+import durablejobs.BatchSettings;
+import durablejobs.BatchStep;
 import io.ebean.DB;
 import io.ebean.Database;
 import io.ebean.SqlRow;
 import io.ebean.Transaction;
-import io.ebean.TxScope;
-import java.util.List;
+import java.time.Clock;
 import java.util.Objects;
 import models.PersistedDurableJobModel;
 import org.slf4j.Logger;
@@ -29,109 +30,107 @@ import services.program.predicate.Operator;
  * <li>Both hidePredicate and eligibilityDefinition.predicate are checked
  * <li>Will not modify nodes that already have this property added
  * <li>Idempotent
- * <li>Any failure will rollback the entire changeset
+ * <li>Programs are updated a chunk at a time, and any failure rolls back the chunk
  */
-public final class AddOperatorToLeafAddressServiceAreaJob extends DurableJob {
+public final class AddOperatorToLeafAddressServiceAreaJob extends BatchDurableJob {
   private static final Logger LOGGER =
       LoggerFactory.getLogger(AddOperatorToLeafAddressServiceAreaJob.class);
   private static final ObjectMapper objectMapper = new ObjectMapper();
 
   private final Database database;
-  private final PersistedDurableJobModel persistedDurableJobModel;
 
-  public AddOperatorToLeafAddressServiceAreaJob(PersistedDurableJobModel persistedDurableJobModel) {
-    this.persistedDurableJobModel = checkNotNull(persistedDurableJobModel);
+  public AddOperatorToLeafAddressServiceAreaJob(
+      PersistedDurableJobModel persistedDurableJobModel, BatchSettings batchSettings, Clock clock) {
+    super(persistedDurableJobModel, batchSettings, clock);
     this.database = DB.getDefault();
   }
 
   @Override
-  public PersistedDurableJobModel getPersistedDurableJob() {
-    return persistedDurableJobModel;
-  }
-
-  @Override
-  public void run() {
-    LOGGER.debug("Run - Begin");
+  protected ImmutableList<BatchStep<?>> steps() {
+    return ImmutableList.of(
+        new BatchStep<SqlRow>() {
+          @Override
+          public String name() {
+            return "programs";
+          }
 
-    String selectSql =
-        """
+          @Override
+          public ImmutableList<SqlRow> loadChunk(long afterId, int chunkSize) {
+            String selectSql =
+                """
 SELECT id, block_definitions
 FROM programs
-WHERE jsonb_path_exists(block_definitions, '$.hidePredicate.rootNode.**.node ? (@.type == "leafAddressServiceArea")')
-OR jsonb_path_exists(block_definitions, '$.eligibilityDefinition.predicate.rootNode.**.node ? (@.type == "leafAddressServiceArea")')
+WHERE id > :after_id
+AND (jsonb_path_exists(block_definitions, '$.hidePredicate.rootNode.**.node ? (@.type == "leafAddressServiceArea")')
+OR jsonb_path_exists(block_definitions, '$.eligibilityDefinition.predicate.rootNode.**.node ? (@.type == "leafAddressServiceArea")'))
+ORDER BY id
+LIMIT :limit
 """;
 
-    List<SqlRow> programs = database.sqlQuery(selectSql).findList();
-
-    try (Transaction jobTransaction = database.beginTransaction()) {
-      jobTransaction.setNestedUseSavepoint();
-      int errorCount = 0;
-
-      for (SqlRow program : programs) {
-        LOGGER.debug("id: {}", program.getLong("id"));
-
-        try {
-          JsonNode rootJsonNode = objectMapper.readTree(program.getString("block_definitions"));
-          int startingRootJsonNodeHashCode = rootJsonNode.hashCode();
-
-          if (!rootJsonNode.isArray()) {
-            LOGGER.error("block_definitions is not an array");
-            continue;
+            return ImmutableList.copyOf(
+                database
+                    .sqlQuery(selectSql)
+                    .setParameter("after_id", afterId)
+                    .setParameter("limit", chunkSize)
+                    .findList());
           }
 
-          for (var blockDefinitionJsonNode : rootJsonNode) {
-            JsonNode nodeJsonNode =
-                blockDefinitionJsonNode.at("/eligibilityDefinition/predicate/rootNode/node");
-            if (!nodeJsonNode.isMissingNode()) {
-              addOperatorToLeafAddressServiceAreaNode(nodeJsonNode);
-            }
+          @Override
+          public long idOf(SqlRow program) {
+            return program.getLong("id");
           }
 
-          for (var blockDefinitionJsonNode : rootJsonNode) {
-            JsonNode nodeJsonNode = blockDefinitionJsonNode.at("/hidePredicate/rootNode/node");
-            if (!nodeJsonNode.isMissingNode()) {
-              addOperatorToLeafAddressServiceAreaNode(nodeJsonNode);
-            }
+          @Override
+          public void processRow(SqlRow program, Transaction transaction) throws Exception {
+            updateProgram(program);
           }
+        });
+  }
 
-          if (startingRootJsonNodeHashCode == rootJsonNode.hashCode()) {
-            LOGGER.debug("No changes made to JsonNode. No need to update the database.");
-            continue;
-          }
+  private void updateProgram(SqlRow program) throws JsonProcessingException {
+    LOGGER.debug("id: {}", program.getLong("id"));
 
-          String updateSql =
-              """
-              update programs
-              set block_definitions = CAST(:block_definitions AS jsonb)
-              where id = :id
-              """;
-
-          try (Transaction stepTransaction = database.beginTransaction(TxScope.mandatory())) {
-            database
-                .sqlUpdate(updateSql)
-                .setParameter("id", program.getLong("id"))
-                .setParameter("block_definitions", rootJsonNode.toString())
-                .execute();
-
-            stepTransaction.commit();
-            LOGGER.debug("JsonNode change. Updated database.");
-          }
-        } catch (Exception e) {
-          LOGGER.error(e.getMessage(), e);
-          errorCount++;
-        }
+    JsonNode rootJsonNode = objectMapper.readTree(program.getString("block_definitions"));
+    int startingRootJsonNodeHashCode = rootJsonNode.hashCode();
+
+    if (!rootJsonNode.isArray()) {
+      LOGGER.error("block_definitions is not an array");
+      return;
+    }
+
+    for (var blockDefinitionJsonNode : rootJsonNode) {
+      JsonNode nodeJsonNode =
+          blockDefinitionJsonNode.at("/eligibilityDefinition/predicate/rootNode/node");
+      if (!nodeJsonNode.isMissingNode()) {
+        addOperatorToLeafAddressServiceAreaNode(nodeJsonNode);
       }
+    }
 
-      if (errorCount == 0) {
-        LOGGER.debug("Job succeeded.");
-        jobTransaction.commit();
-      } else {
-        LOGGER.error("Job failed to add operator. All changes undone. Error count: {}", errorCount);
-        jobTransaction.rollback();
+    for (var blockDefinitionJsonNode : rootJsonNode) {
+      JsonNode nodeJsonNode = blockDefinitionJsonNode.at("/hidePredicate/rootNode/node");
+      if (!nodeJsonNode.isMissingNode()) {
+        addOperatorToLeafAddressServiceAreaNode(nodeJsonNode);
       }
     }
 
-    LOGGER.debug("Run - End");
+    if (startingRootJsonNodeHashCode == rootJsonNode.hashCode()) {
+      LOGGER.debug("No changes made to JsonNode. No need to update the database.");
+      return;
+    }
+
+    String updateSql =
+        """
+        update programs
+        set block_definitions = CAST(:block_definitions AS jsonb)
+        where id = :id
+        """;
+
+    database
+        .sqlUpdate(updateSql)
+        .setParameter("id", program.getLong("id"))
+        .setParameter("block_definitions", rootJsonNode.toString())
+        .execute();
+    LOGGER.debug("JsonNode change. Updated database.");
   }
 
   public void addOperatorToLeafAddressServiceAreaNode(JsonNode nodeJsonNode) {
@@ -1,7 +1,5 @@
 package durablejobs.jobs;
 
-import static com.google.common.base.Preconditions.checkNotNull;
-
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -9,11 +7,12 @@ import com.fasterxml.jackson.databind.node.JsonNodeType;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
-import durablejobs.DurableJob;
+import durablejobs.BatchDurableJob;
+import durablejobs.BatchSettings;
+import durablejobs.BatchStep;
 import io.ebean.DB;
 import io.ebean.Database;
-import io.ebean.Transaction;
-import io.ebean.annotation.TxIsolation;
+import java.time.Clock;
 import java.util.Arrays;
 import models.ApplicantModel;
 import models.ApplicationModel;
@@ -26,76 +25,49 @@ import services.applicant.question.Scalar;
 import services.geo.ServiceAreaInclusion;
 import services.geo.ServiceAreaState;
 
-public final class ConvertAddressServiceAreaToArrayJob extends DurableJob {
+/**
+ * Converts the comma separated service area strings in applicant data into arrays of service area
+ * inclusions, for applicants and then for applications, a chunk at a time.
+ */
+public final class ConvertAddressServiceAreaToArrayJob extends BatchDurableJob {
   private static final Logger logger =
       LoggerFactory.getLogger(ConvertAddressServiceAreaToArrayJob.class);
   private static final ObjectMapper objectMapper = new ObjectMapper();
 
+  // Filter to only include rows that have a service_area key that is a string type. Vastly
+  // improves the run time cutting out a large number of unneeded records.
+  private static final String FILTER =
+      """
+jsonb_path_exists((object#>>'{}')::jsonb, '$.applicant.**.service_area ? (@.type() == "string")')
+""";
+
   private final Database database;
-  private final PersistedDurableJobModel persistedDurableJobModel;
 
-  public ConvertAddressServiceAreaToArrayJob(PersistedDurableJobModel persistedDurableJobModel) {
-    this.persistedDurableJobModel = checkNotNull(persistedDurableJobModel);
+  public ConvertAddressServiceAreaToArrayJob(
+      PersistedDurableJobModel persistedDurableJobModel, BatchSettings batchSettings, Clock clock) {
+    super(persistedDurableJobModel, batchSettings, clock);
     this.database = DB.getDefault();
   }
 
   @Override
-  public PersistedDurableJobModel getPersistedDurableJob() {
-    return persistedDurableJobModel;
-  }
-
-  @Override
-  public void run() {
-    logger.info("Run - Begin");
-
-    try (Transaction jobTransaction = database.beginTransaction(TxIsolation.SERIALIZABLE)) {
-      int errorCount = 0;
-
-      // Filter to only include rows that have a service_area key that is a string type. Vastly
-      // improves the run time cutting out a large number of unneeded records.
-      String filter =
-          """
-jsonb_path_exists((object#>>'{}')::jsonb, '$.applicant.**.service_area ? (@.type() == "string")')
-""";
-
-      try (var query = database.find(ApplicantModel.class).where().raw(filter).findIterate()) {
-        while (query.hasNext()) {
-          try {
-            ApplicantModel applicant = query.next();
-            logger.debug("Converting service area for applicant id {}", applicant.id);
-            applicant.setApplicantData(processRow(applicant.getApplicantData()));
-            applicant.save(jobTransaction);
-          } catch (Exception e) {
-            errorCount++;
-            logger.error(e.getMessage(), e);
-          }
-        }
-      }
-
-      try (var query = database.find(ApplicationModel.class).where().raw(filter).findIterate()) {
-        while (query.hasNext()) {
-          try {
-            ApplicationModel application = query.next();
-            logger.debug("Converting service area for application id {}", application.id);
-            application.setApplicantData(processRow(application.getApplicantData()));
-            application.save(jobTransaction);
-          } catch (Exception e) {
-            errorCount++;
-            logger.error(e.getMessage(), e);
-          }
-        }
-      }
-
-      if (errorCount == 0) {
-        logger.info("Job succeeded");
-        jobTransaction.commit();
-      } else {
-        logger.error("Failed to convert service area. All changes undone. Errors: {}", errorCount);
-        jobTransaction.rollback();
-      }
-    }
-
-    logger.info("Run - End");
+  protected ImmutableList<BatchStep<?>> steps() {
+    return ImmutableList.of(
+        BatchStep.forModels(
+            "applicants",
+            () -> database.find(ApplicantModel.class).where().raw(FILTER),
+            (applicant, transaction) -> {
+              logger.debug("Converting service area for applicant id {}", applicant.id);
+              applicant.setApplicantData(processRow(applicant.getApplicantData()));
+              applicant.save(transaction);
+            }),
+        BatchStep.forModels(
+            "applications",
+            () -> database.find(ApplicationModel.class).where().raw(FILTER),
+            (application, transaction) -> {
+              logger.debug("Converting service area for application id {}", application.id);
+              application.setApplicantData(processRow(application.getApplicantData()));
+              application.save(transaction);
+            }));
   }
 
   private ApplicantData processRow(ApplicantData applicantData) throws JsonProcessingException {
@@ -0,0 +1,93 @@
+package durablejobs.jobs;
+
+import com.google.common.collect.ImmutableList;
+import durablejobs.BatchDurableJob;
+import durablejobs.BatchSettings;
+import durablejobs.BatchStep;
+import io.ebean.DB;
+import io.ebean.Database;
+import io.ebean.SqlRow;
+import io.ebean.Transaction;
+import java.time.Clock;
+import models.PersistedDurableJobModel;
+
+/**
+ * Converts the {@code object} column of applicants and applications from the applicant data
+ * encoded as a JSON string into a native jsonb document.
+ *
+ * <p>{@link models.ApplicantModel} and {@link models.ApplicationModel} read both formats and always
+ * write native jsonb, so this only converts rows that haven't been saved since. It runs once, when
+ * the server starts, a chunk of rows at a time, so a run that's interrupted resumes after the last
+ * chunk it converted.
+ *
+ * <p>Servers on a release from before native jsonb can't read native documents, which this
+ * release writes on every save whether or not this job has run. Those servers have to be stopped
+ * before servers on this release start.
+ */
+public final class ConvertApplicantDataToJsonbJob extends BatchDurableJob {
+
+  // Only rows still holding a JSON string are converted. The partial indexes added for this job
+  // cover exactly these rows, so finding the next chunk doesn't scan converted rows.
+  private static final String SELECT_CHUNK_SQL =
+      """
+      SELECT id FROM %s
+      WHERE jsonb_typeof(object) = 'string' AND id > :after_id
+      ORDER BY id
+      LIMIT :limit
+      """;
+
+  // A row saved since its chunk was loaded already holds a jsonb document, and is left alone.
+  private static final String CONVERT_ROW_SQL =
+      """
+      UPDATE %s
+      SET object = CAST(object #>> '{}' AS jsonb)
+      WHERE id = :id AND jsonb_typeof(object) = 'string'
+      """;
+
+  private final Database database;
+
+  public ConvertApplicantDataToJsonbJob(
+      PersistedDurableJobModel persistedDurableJobModel, BatchSettings batchSettings, Clock clock) {
+    super(persistedDurableJobModel, batchSettings, clock);
+    this.database = DB.getDefault();
+  }
+
+  @Override
+  protected ImmutableList<BatchStep<?>> steps() {
+    return ImmutableList.of(convertTable("applicants"), convertTable("applications"));
+  }
+
+  private BatchStep<SqlRow> convertTable(String table) {
+    return new BatchStep<SqlRow>() {
+      @Override
+      public String name() {
+        return table;
+      }
+
+      @Override
+      public ImmutableList<SqlRow> loadChunk(long afterId, int chunkSize) {
+        return ImmutableList.copyOf(
+            database
+                .sqlQuery(String.format(SELECT_CHUNK_SQL, table))
+                .setParameter("after_id", afterId)
+                .setParameter("limit", chunkSize)
+                .setLabel("ConvertApplicantDataToJsonbJob.loadChunk." + table)
+                .findList());
+      }
+
+      @Override
+      public long idOf(SqlRow row) {
+        return row.getLong("id");
+      }
+
+      @Override
+      public void processRow(SqlRow row, Transaction transaction) {
+        database
+            .sqlUpdate(String.format(CONVERT_ROW_SQL, table))
+            .setParameter("id", row.getLong("id"))
+            .setLabel("ConvertApplicantDataToJsonbJob.convert." + table)
+            .execute();
+      }
+    };
+  }
+}
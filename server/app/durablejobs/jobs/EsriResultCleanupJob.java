@@ -0,0 +1,36 @@
+package durablejobs.jobs;
+
+import com.google.common.base.Preconditions;
+import durablejobs.DurableJob;
+import models.PersistedDurableJobModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import repository.EsriResultRepository;
+
+/**
+ * A {@link DurableJob} that deletes the Esri results kept in the database by {@link
+ * services.geo.esri.CachingEsriClient} once they've expired.
+ */
+public final class EsriResultCleanupJob extends DurableJob {
+  private static final Logger LOGGER = LoggerFactory.getLogger(EsriResultCleanupJob.class);
+
+  private final EsriResultRepository esriResultRepository;
+  private final PersistedDurableJobModel persistedDurableJob;
+
+  public EsriResultCleanupJob(
+      EsriResultRepository esriResultRepository, PersistedDurableJobModel persistedDurableJob) {
+    this.esriResultRepository = Preconditions.checkNotNull(esriResultRepository);
+    this.persistedDurableJob = Preconditions.checkNotNull(persistedDurableJob);
+  }
+
+  @Override
+  public PersistedDurableJobModel getPersistedDurableJob() {
+    return persistedDurableJob;
+  }
+
+  @Override
+  public void run() {
+    int numRowsDeleted = esriResultRepository.deleteExpiredResults();
+    LOGGER.info("Deleted {} expired Esri results", numRowsDeleted);
+  }
+}
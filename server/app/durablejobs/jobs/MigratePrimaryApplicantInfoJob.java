@@ -3,12 +3,16 @@ package durablejobs.jobs;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigException;
-import durablejobs.DurableJob;
+import durablejobs.BatchDurableJob;
+import durablejobs.BatchSettings;
+import durablejobs.BatchStep;
+import io.ebean.Transaction;
+import java.time.Clock;
 import java.time.LocalDate;
-import java.util.List;
 import java.util.Optional;
 import models.ApplicantModel;
 import models.PersistedDurableJobModel;
@@ -36,13 +40,15 @@ import services.settings.SettingsService;
  * ADMIN_WRITEABLE at first, then ADMIN_READABLE when we want to turn it on for everybody, and we
  * don't have access to a request object, we need to check both the database and the config file
  * setting to determine if the flag is on.
+ *
+ * <p>Applicants are migrated a chunk at a time, so a run that's interrupted resumes after the last
+ * chunk it saved.
  */
-public final class MigratePrimaryApplicantInfoJob extends DurableJob {
+public final class MigratePrimaryApplicantInfoJob extends BatchDurableJob {
 
   private static final Logger LOGGER =
       LoggerFactory.getLogger(MigratePrimaryApplicantInfoJob.class);
 
-  private final PersistedDurableJobModel persistedDurableJob;
   private final AccountRepository accountRepository;
   private final SettingsService settingsService;
   private final Config config;
@@ -51,20 +57,17 @@ public final class MigratePrimaryApplicantInfoJob extends DurableJob {
       PersistedDurableJobModel persistedDurableJob,
       AccountRepository accountRepository,
       SettingsService settingsService,
-      Config config) {
-    this.persistedDurableJob = checkNotNull(persistedDurableJob);
+      Config config,
+      BatchSettings batchSettings,
+      Clock clock) {
+    super(persistedDurableJob, batchSettings, clock);
     this.accountRepository = checkNotNull(accountRepository);
     this.settingsService = checkNotNull(settingsService);
     this.config = checkNotNull(config);
   }
 
   @Override
-  public PersistedDurableJobModel getPersistedDurableJob() {
-    return persistedDurableJob;
-  }
-
-  @Override
-  public void run() {
+  protected ImmutableList<BatchStep<?>> steps() {
     boolean doMigration;
     Optional<ImmutableMap<String, String>> writeableSettings =
         settingsService.loadSettings().toCompletableFuture().join();
@@ -83,43 +86,64 @@ public final class MigratePrimaryApplicantInfoJob extends DurableJob {
       LOGGER.info(
           "PRIMARY_APPLICANT_INFO_QUESTIONS_ENABLED feature flag is set. Will not migrate data from"
               + " Well Known Paths to Primary Applicant Info columns.");
-      return;
+      return ImmutableList.of();
     }
 
-    List<ApplicantModel> applicants =
-        accountRepository.findApplicantsNeedingPrimaryApplicantInfoDataMigration().findList();
+    return ImmutableList.of(
+        new BatchStep<ApplicantModel>() {
+          @Override
+          public String name() {
+            return "applicants";
+          }
 
-    for (ApplicantModel applicant : applicants) {
-      ApplicantData applicantData = applicant.getApplicantData();
-      Optional<String> firstName = applicantData.readString(WellKnownPaths.APPLICANT_FIRST_NAME);
-      Optional<String> middleName = applicantData.readString(WellKnownPaths.APPLICANT_MIDDLE_NAME);
-      Optional<String> lastName = applicantData.readString(WellKnownPaths.APPLICANT_LAST_NAME);
-      Optional<String> nameSuffix =
-          applicantData.readAsString(WellKnownPaths.APPLICANT_NAME_SUFFIX);
-      String emailAddress = applicant.getAccount().getEmailAddress();
-      // Note that this will only return a value if it's set via TI client
-      // creation/edit. This is because that code sets a string here directly,
-      // whereas a phone number question would have an object here that includes
-      // the number and country code. We only really care about porting over
-      // TI client data for this field.
-      Optional<String> phoneNumber =
-          applicantData.readString(WellKnownPaths.APPLICANT_PHONE_NUMBER);
-      Optional<LocalDate> dob =
-          applicantData
-              .readDate(WellKnownPaths.APPLICANT_DOB)
-              .or(() -> applicantData.readDate(WellKnownPaths.APPLICANT_DOB_DEPRECATED));
+          @Override
+          public ImmutableList<ApplicantModel> loadChunk(long afterId, int chunkSize) {
+            return ImmutableList.copyOf(
+                accountRepository
+                    .findApplicantsNeedingPrimaryApplicantInfoDataMigration(afterId, chunkSize)
+                    .findList());
+          }
 
-      firstName.ifPresent(first -> applicant.setFirstName(first));
-      middleName.ifPresent(middle -> applicant.setMiddleName(middle));
-      lastName.ifPresent(last -> applicant.setLastName(last));
-      nameSuffix.ifPresent(suffix -> applicant.setSuffix(suffix));
-      phoneNumber.ifPresent(phone -> applicant.setPhoneNumber(phone));
-      dob.ifPresent(date -> applicant.setDateOfBirth(date));
-      if (!Strings.isNullOrEmpty(emailAddress) && applicant.getEmailAddress().isEmpty()) {
-        applicant.setEmailAddress(emailAddress);
-      }
-      applicant.save();
+          @Override
+          public long idOf(ApplicantModel applicant) {
+            return applicant.id;
+          }
+
+          @Override
+          public void processRow(ApplicantModel applicant, Transaction transaction) {
+            migrateApplicant(applicant);
+            applicant.save(transaction);
+            accountRepository.updateApplicationSearchText(applicant.id);
+          }
+        });
+  }
+
+  private static void migrateApplicant(ApplicantModel applicant) {
+    ApplicantData applicantData = applicant.getApplicantData();
+    Optional<String> firstName = applicantData.readString(WellKnownPaths.APPLICANT_FIRST_NAME);
+    Optional<String> middleName = applicantData.readString(WellKnownPaths.APPLICANT_MIDDLE_NAME);
+    Optional<String> lastName = applicantData.readString(WellKnownPaths.APPLICANT_LAST_NAME);
+    Optional<String> nameSuffix = applicantData.readAsString(WellKnownPaths.APPLICANT_NAME_SUFFIX);
+    String emailAddress = applicant.getAccount().getEmailAddress();
+    // Note that this will only return a value if it's set via TI client
+    // creation/edit. This is because that code sets a string here directly,
+    // whereas a phone number question would have an object here that includes
+    // the number and country code. We only really care about porting over
+    // TI client data for this field.
+    Optional<String> phoneNumber = applicantData.readString(WellKnownPaths.APPLICANT_PHONE_NUMBER);
+    Optional<LocalDate> dob =
+        applicantData
+            .readDate(WellKnownPaths.APPLICANT_DOB)
+            .or(() -> applicantData.readDate(WellKnownPaths.APPLICANT_DOB_DEPRECATED));
+
+    firstName.ifPresent(first -> applicant.setFirstName(first));
+    middleName.ifPresent(middle -> applicant.setMiddleName(middle));
+    lastName.ifPresent(last -> applicant.setLastName(last));
+    nameSuffix.ifPresent(suffix -> applicant.setSuffix(suffix));
+    phoneNumber.ifPresent(phone -> applicant.setPhoneNumber(phone));
+    dob.ifPresent(date -> applicant.setDateOfBirth(date));
+    if (!Strings.isNullOrEmpty(emailAddress) && applicant.getEmailAddress().isEmpty()) {
+      applicant.setEmailAddress(emailAddress);
     }
-    LOGGER.info("Migrated primary applicant info for {} applicants", applicants.size());
   }
 }
@@ -4,31 +4,27 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import auth.ClientIpResolver;
 import auth.ProfileUtils;
-import java.time.Duration;
 import java.util.Optional;
 import java.util.concurrent.Executor;
 import javax.inject.Inject;
 import javax.inject.Provider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import play.api.libs.concurrent.AkkaSchedulerProvider;
 import play.mvc.EssentialAction;
 import play.mvc.EssentialFilter;
 import play.mvc.Http;
-import scala.concurrent.ExecutionContext;
 import services.apikey.ApiKeyService;
 
 /**
  * This filter looks for requests with paths that begin with /api and record the usage data for the
- * relevant API key if it has one. The API key update is scheduled to run in a background thread to
- * reduce latency and to ensure issues with recording the usage do not cause API requests to fail.
- * Note that there is no retry logic, so if updating the key's usage info fails it will be
- * inconsistent. This is acceptable since it's not critical that the call count be perfectly
- * accurate.
+ * relevant API key if it has one. The usage is only recorded in memory here and is written to the
+ * database in batches by {@link services.apikey.ApiKeyUsageRecorder}, which reduces latency and
+ * ensures issues with recording the usage do not cause API requests to fail. Usage recorded since
+ * the last batch is lost if the server stops abruptly. This is acceptable since it's not critical
+ * that the call count be perfectly accurate.
  */
 public class ApiKeyUsageFilter extends EssentialFilter {
 
-  private final AkkaSchedulerProvider akkaSchedulerProvider;
   private final Provider<ApiKeyService> apiKeyServiceProvider;
   private final Executor exec;
   private final Provider<ProfileUtils> profileUtilsProvider;
@@ -37,12 +33,10 @@ public class ApiKeyUsageFilter extends EssentialFilter {
 
   @Inject
   public ApiKeyUsageFilter(
-      AkkaSchedulerProvider akkaSchedulerProvider,
       Provider<ApiKeyService> apiKeyServiceProvider,
       Executor exec,
       Provider<ProfileUtils> profileUtilsProvider,
       ClientIpResolver clientIpResolver) {
-    this.akkaSchedulerProvider = checkNotNull(akkaSchedulerProvider);
     this.apiKeyServiceProvider = checkNotNull(apiKeyServiceProvider);
     this.exec = checkNotNull(exec);
     this.profileUtilsProvider = checkNotNull(profileUtilsProvider);
@@ -67,15 +61,9 @@ public class ApiKeyUsageFilter extends EssentialFilter {
                           if (maybeApiKeyId.isPresent()) {
                             String remoteAddress = clientIpResolver.resolveClientIp(request);
 
-                            akkaSchedulerProvider
+                            apiKeyServiceProvider
                                 .get()
-                                .scheduleOnce(
-                                    Duration.ZERO,
-                                    () ->
-                                        apiKeyServiceProvider
-                                            .get()
-                                            .recordApiKeyUsage(maybeApiKeyId.get(), remoteAddress),
-                                    ExecutionContext.fromExecutor(exec));
+                                .recordApiKeyUsage(maybeApiKeyId.get(), remoteAddress);
                           }
                         }
                       } catch (RuntimeException e) {
@@ -2,26 +2,48 @@ package filters;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import akka.stream.Materializer;
+import akka.util.ByteString;
+import auth.AccountNonexistentException;
 import auth.CiviFormProfile;
 import auth.ProfileUtils;
+import auth.RequestAccount;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
 import javax.inject.Inject;
+import javax.inject.Provider;
 import play.libs.streams.Accumulator;
 import play.mvc.EssentialAction;
 import play.mvc.EssentialFilter;
 import play.mvc.Http;
+import play.mvc.Result;
 import play.mvc.Results;
+import repository.AccountRepository;
 
 /**
  * A filter to ensure the account referenced in the browser cookie is valid. This should only matter
  * when the account is deleted from the database which almost will never happen in prod database.
+ *
+ * <p>Accounts found to exist are remembered by {@link AccountRepository}, so most requests are
+ * checked without a database query. When the account does have to be looked up, the check doesn't
+ * block the request thread, and it's looked up through the {@link RequestAccount} added to the
+ * request so that {@link CiviFormProfile#getAccount()} calls for the request reuse it.
  */
 public class ValidAccountFilter extends EssentialFilter {
   private final ProfileUtils profileUtils;
+  private final Provider<AccountRepository> accountRepository;
+  private final Materializer materializer;
 
   @Inject
-  public ValidAccountFilter(ProfileUtils profileUtils) {
+  public ValidAccountFilter(
+      ProfileUtils profileUtils,
+      Provider<AccountRepository> accountRepository,
+      Materializer materializer) {
     this.profileUtils = checkNotNull(profileUtils);
+    this.accountRepository = checkNotNull(accountRepository);
+    this.materializer = checkNotNull(materializer);
   }
 
   @Override
@@ -29,19 +51,55 @@ public class ValidAccountFilter extends EssentialFilter {
     return EssentialAction.of(
         request -> {
           Optional<CiviFormProfile> profile = profileUtils.optionalCurrentUserProfile(request);
-          if (profile.isPresent() && !profileUtils.validCiviFormProfile(profile.get())) {
-            // The cookie is present but the profile is not valid, redirect to logout and clear the
-            // cookie.
-            if (!allowedEndpoint(request)) {
-              return Accumulator.done(
-                  Results.redirect(org.pac4j.play.routes.LogoutController.logout()));
-            }
+          if (profile.isEmpty()) {
+            return next.apply(request);
           }
 
-          return next.apply(request);
+          RequestAccount requestAccount = profile.get().newRequestAccount();
+          Http.RequestHeader requestWithAccount =
+              request.addAttr(RequestAccount.ATTR_KEY, requestAccount);
+          return Accumulator.flatten(
+              accountExists(Long.parseLong(profile.get().getId()), requestAccount)
+                  .thenApply(
+                      exists -> {
+                        // The cookie is present but the profile is not valid, redirect to logout
+                        // and clear the cookie.
+                        if (!exists && !allowedEndpoint(request)) {
+                          return Accumulator.<ByteString, Result>done(
+                              Results.redirect(org.pac4j.play.routes.LogoutController.logout()));
+                        }
+                        return next.apply(requestWithAccount);
+                      }),
+              materializer);
         });
   }
 
+  /** Returns true if the account exists, looking it up only if it isn't known to exist. */
+  private CompletionStage<Boolean> accountExists(long accountId, RequestAccount requestAccount) {
+    return accountRepository
+        .get()
+        .isAccountKnownToExist(accountId)
+        .thenCompose(
+            known -> {
+              if (known) {
+                return CompletableFuture.completedFuture(true);
+              }
+              return requestAccount
+                  .getAccount()
+                  .thenCompose(account -> accountRepository.get().rememberAccountExists(accountId))
+                  .thenApply(done -> true)
+                  .exceptionally(
+                      e -> {
+                        if (e.getCause() instanceof AccountNonexistentException) {
+                          return false;
+                        }
+                        throw e instanceof CompletionException
+                            ? (CompletionException) e
+                            : new CompletionException(e);
+                      });
+            });
+  }
+
   /**
    * Return true if the endpoint does not require a profile. Logout url is necessary here to avoid
    * infinite redirect.
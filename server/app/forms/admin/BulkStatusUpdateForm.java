@@ -0,0 +1,52 @@
+package forms.admin;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Form for setting the status of many applications to a program at once. */
+public final class BulkStatusUpdateForm {
+
+  private List<Long> applicationIds;
+  private String newStatus;
+  private boolean sendEmail;
+  private String redirectUri;
+
+  public BulkStatusUpdateForm() {
+    this.applicationIds = new ArrayList<>();
+    this.newStatus = "";
+    this.sendEmail = false;
+    this.redirectUri = "";
+  }
+
+  public List<Long> getApplicationIds() {
+    return applicationIds;
+  }
+
+  public void setApplicationIds(List<Long> applicationIds) {
+    this.applicationIds = applicationIds;
+  }
+
+  public String getNewStatus() {
+    return newStatus;
+  }
+
+  public void setNewStatus(String newStatus) {
+    this.newStatus = newStatus;
+  }
+
+  public boolean getSendEmail() {
+    return sendEmail;
+  }
+
+  public void setSendEmail(boolean sendEmail) {
+    this.sendEmail = sendEmail;
+  }
+
+  public String getRedirectUri() {
+    return redirectUri;
+  }
+
+  public void setRedirectUri(String redirectUri) {
+    this.redirectUri = redirectUri;
+  }
+}
@@ -1,7 +1,9 @@
 package models;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.i18n.phonenumbers.PhoneNumberUtil;
 import io.ebean.annotation.DbEnumType;
 import io.ebean.annotation.DbEnumValue;
@@ -19,8 +21,10 @@ import javax.persistence.OneToMany;
 import javax.persistence.PrePersist;
 import javax.persistence.PreUpdate;
 import javax.persistence.Table;
+import javax.persistence.Transient;
 import play.data.validation.Constraints;
 import services.CfJsonDocumentContext;
+import services.Path;
 import services.applicant.ApplicantData;
 
 /**
@@ -68,7 +72,15 @@ public class ApplicantModel extends BaseModel {
 
   private String preferredLocale;
 
-  @Constraints.Required @DbJson private String object;
+  // Written as a native jsonb document. Rows written before that hold the document encoded as a
+  // JSON string until they're saved again or ConvertApplicantDataToJsonbJob converts them at
+  // startup, and are read as a text node.
+  @Constraints.Required @DbJson private JsonNode object;
+  // Whether the applicant data was read from a native jsonb object and hasn't been replaced since,
+  // so that the changes it tracks can be written to the stored object in place of all of it.
+  @Transient private boolean objectPatchable = false;
+  // Set while the applicant is updated with its changes written to the object separately.
+  @Transient private boolean skipObjectSync = false;
   @ManyToOne private AccountModel account;
 
   @OneToMany(mappedBy = "applicant")
@@ -91,6 +103,7 @@ public class ApplicantModel extends BaseModel {
   /** Sets a new applicant data, overwriting any previous value. */
   public void setApplicantData(ApplicantData applicantData) {
     this.applicantData = applicantData;
+    this.objectPatchable = false;
   }
 
   public ApplicantData getApplicantData() {
@@ -106,10 +119,11 @@ public class ApplicantModel extends BaseModel {
     // get triggered.
     io.ebean.DB.markAsDirty(this);
 
-    if (this.applicantData == null && (object != null && !object.isEmpty())) {
+    if (this.applicantData == null && object != null && !isEmptyText(object)) {
+      objectPatchable = object.isObject();
       if (preferredLocale == null || preferredLocale.isEmpty()) {
         // Default to English until the applicant specifies their preferred language.
-        this.applicantData = new ApplicantData(object, this);
+        this.applicantData = new ApplicantData(Optional.empty(), object, this);
       } else {
         this.applicantData =
             new ApplicantData(Optional.of(Locale.forLanguageTag(preferredLocale)), object, this);
@@ -127,7 +141,42 @@ public class ApplicantModel extends BaseModel {
         getApplicantData().hasPreferredLocale()
             ? getApplicantData().preferredLocale().toLanguageTag()
             : null;
-    this.object = objectAsJsonString();
+    if (!skipObjectSync) {
+      this.object = getApplicantData().asJsonNode();
+    }
+  }
+
+  /**
+   * Returns the changes to write to the stored {@code object} in place of the whole applicant data,
+   * as described by {@link CfJsonDocumentContext#getChangedEntries()}, or empty if the whole of it
+   * has to be written.
+   */
+  public Optional<ImmutableMap<Path, Optional<String>>> getObjectPatch() {
+    if (!objectPatchable || id == null) {
+      return Optional.empty();
+    }
+    return getApplicantData().getChangedEntries();
+  }
+
+  /**
+   * Sets whether updates leave the {@code object} column alone, for while the changes from {@link
+   * #getObjectPatch()} are written to it separately.
+   */
+  public void setSkipObjectSync(boolean skipObjectSync) {
+    this.skipObjectSync = skipObjectSync;
+  }
+
+  /**
+   * Records that the applicant data has been saved as it is now, so that the changes tracked from
+   * here on are the differences from the stored object.
+   */
+  public void markApplicantDataSaved() {
+    objectPatchable = true;
+    getApplicantData().clearChanges();
+  }
+
+  private static boolean isEmptyText(JsonNode json) {
+    return json.isTextual() && json.asText().isEmpty();
   }
 
   public ApplicantModel setFirstName(String firstName) {
@@ -226,10 +275,6 @@ public class ApplicantModel extends BaseModel {
     return Optional.ofNullable(dateOfBirth);
   }
 
-  private String objectAsJsonString() {
-    return getApplicantData().asJsonString();
-  }
-
   public AccountModel getAccount() {
     return account;
   }
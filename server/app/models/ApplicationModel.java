@@ -1,6 +1,8 @@
 package models;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
 import io.ebean.annotation.DbJson;
 import io.ebean.annotation.WhenCreated;
 import java.time.Instant;
@@ -13,6 +15,8 @@ import javax.persistence.OneToMany;
 import javax.persistence.OrderBy;
 import javax.persistence.Table;
 import play.data.validation.Constraints;
+import play.libs.Json;
+import services.WellKnownPaths;
 import services.applicant.ApplicantData;
 
 /**
@@ -44,7 +48,10 @@ public class ApplicationModel extends BaseModel {
 
   @WhenCreated private Instant createTime;
 
-  @Constraints.Required @DbJson private String object;
+  // Written as a native jsonb document. Rows written before that hold the document encoded as a
+  // JSON string until they're saved again or ConvertApplicantDataToJsonbJob converts them at
+  // startup, and are read as a text node.
+  @Constraints.Required @DbJson private JsonNode object;
 
   private Instant submitTime;
   private String preferredLocale;
@@ -53,15 +60,22 @@ public class ApplicationModel extends BaseModel {
   private boolean isAdmin;
   private String latestNote;
 
+  // The applicant's names and email addresses, and the TI's email address. This is recomputed when
+  // the application is saved and, through AccountRepository#updateApplicationSearchText, when the
+  // applicant's names or email addresses change. Admins search applications by this column, which
+  // has a trigram index.
+  private String applicantSearchText;
+
   public ApplicationModel(
       ApplicantModel applicant, ProgramModel program, LifecycleStage lifecycleStage) {
     this.applicant = applicant;
     this.program = program;
-    this.object = "{}";
+    this.object = Json.newObject();
     this.lifecycleStage = lifecycleStage;
     this.isAdmin =
         applicant.getAccount().getGlobalAdmin()
             || !applicant.getAccount().getAdministeredProgramNames().isEmpty();
+    updateApplicantSearchText(getApplicantData());
   }
 
   public static ApplicationModel create(
@@ -84,6 +98,7 @@ public class ApplicationModel extends BaseModel {
    */
   public ApplicationModel setSubmitterEmail(String submitterEmail) {
     this.submitterEmail = submitterEmail;
+    updateApplicantSearchText(getApplicantData());
     return this;
   }
 
@@ -98,7 +113,7 @@ public class ApplicationModel extends BaseModel {
   public ApplicantData getApplicantData() {
     if (this.preferredLocale == null || this.preferredLocale.isEmpty()) {
       // Default to English.
-      return new ApplicantData(this.object, this.applicant);
+      return new ApplicantData(Optional.empty(), this.object, this.applicant);
     }
 
     return new ApplicantData(
@@ -108,10 +123,63 @@ public class ApplicationModel extends BaseModel {
   public ApplicationModel setApplicantData(ApplicantData data) {
     this.preferredLocale =
         data.hasPreferredLocale() ? data.preferredLocale().toLanguageTag() : null;
-    this.object = data.asJsonString();
+    this.object = data.asJsonNode();
+    updateApplicantSearchText(data);
+    return this;
+  }
+
+  @VisibleForTesting
+  public Optional<String> getApplicantSearchText() {
+    return Optional.ofNullable(applicantSearchText);
+  }
+
+  /**
+   * Recomputes the text admins search this application by, for after the applicant's name or
+   * email addresses have changed since the application was last saved.
+   */
+  public ApplicationModel refreshApplicantSearchText() {
+    updateApplicantSearchText(getApplicantData());
     return this;
   }
 
+  /**
+   * Sets the text admins search this application by: each of the applicant's names in "first
+   * last", "last first" and "last, first" order, the applicant's email addresses, and the TI's
+   * email address, lowercased and separated by newlines so a search can't match across them.
+   *
+   * <p>Names are read both from the primary applicant info columns and from the well-known paths
+   * in the application data, matching both of the searches this replaces.
+   */
+  private void updateApplicantSearchText(ApplicantData data) {
+    ImmutableSet.Builder<String> lines = ImmutableSet.builder();
+    addNameLines(lines, applicant.getFirstName(), applicant.getLastName());
+    addNameLines(
+        lines,
+        data.hasPath(WellKnownPaths.APPLICANT_FIRST_NAME)
+            ? data.readString(WellKnownPaths.APPLICANT_FIRST_NAME)
+            : Optional.empty(),
+        data.hasPath(WellKnownPaths.APPLICANT_LAST_NAME)
+            ? data.readString(WellKnownPaths.APPLICANT_LAST_NAME)
+            : Optional.empty());
+    applicant.getEmailAddress().ifPresent(lines::add);
+    Optional.ofNullable(applicant.getAccount().getEmailAddress()).ifPresent(lines::add);
+    getSubmitterEmail().ifPresent(lines::add);
+
+    ImmutableSet<String> text = lines.build();
+    this.applicantSearchText =
+        text.isEmpty() ? null : String.join("\n", text).toLowerCase(Locale.ROOT);
+  }
+
+  private static void addNameLines(
+      ImmutableSet.Builder<String> lines, Optional<String> firstName, Optional<String> lastName) {
+    if (firstName.isEmpty() || lastName.isEmpty()) {
+      return;
+    }
+    lines.add(firstName.get() + " " + lastName.get());
+    lines.add(lastName.get() + " " + firstName.get());
+    lines.add(lastName.get() + ", " + firstName.get());
+  }
+
   public List<ApplicationEventModel> getApplicationEvents() {
     return applicationEvents;
   }
@@ -0,0 +1,103 @@
+package models;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import io.ebean.annotation.DbArray;
+import io.ebean.annotation.WhenCreated;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import play.data.validation.Constraints;
+import services.email.EmailMessage;
+
+/**
+ * An EBean mapped class that holds a notification email waiting in the outbox to be sent.
+ *
+ * <p>Emails are written to the outbox in the same transaction as the change they notify of, and
+ * sent in the background by {@link services.email.EmailOutboxDispatcher}, which deletes them once
+ * they're sent.
+ *
+ * <p>While an email is being sent its {@code leaseExpirationTime} is set so that no other server
+ * claims it. When sending fails, the error is recorded in {@code lastError} and the email is tried
+ * again at {@code nextAttemptTime}, until it has been tried too many times and its {@code
+ * failedTime} is set.
+ */
+@Entity
+@Table(name = "email_outbox")
+public final class EmailOutboxModel extends BaseModel {
+
+  @DbArray private List<String> toAddresses = new ArrayList<>();
+  @Constraints.Required private String subject;
+  @Constraints.Required private String body;
+
+  @WhenCreated private Instant createTime;
+
+  private int attempts;
+  @Constraints.Required private Instant nextAttemptTime;
+  private Instant leaseExpirationTime;
+  private String lastError;
+  private Instant failedTime;
+
+  public EmailOutboxModel(EmailMessage message, Instant now) {
+    this.toAddresses = new ArrayList<>(message.toAddresses());
+    this.subject = message.subject();
+    this.body = message.body();
+    this.nextAttemptTime = checkNotNull(now);
+  }
+
+  public EmailMessage getMessage() {
+    return EmailMessage.create(ImmutableList.copyOf(toAddresses), subject, body);
+  }
+
+  public Instant getCreateTime() {
+    return createTime;
+  }
+
+  /** The number of times sending the email has been started, including any attempt in progress. */
+  public int getAttempts() {
+    return attempts;
+  }
+
+  public Instant getNextAttemptTime() {
+    return nextAttemptTime;
+  }
+
+  public Optional<Instant> getLeaseExpirationTime() {
+    return Optional.ofNullable(leaseExpirationTime);
+  }
+
+  public Optional<String> getLastError() {
+    return Optional.ofNullable(lastError);
+  }
+
+  public Optional<Instant> getFailedTime() {
+    return Optional.ofNullable(failedTime);
+  }
+
+  /** Leases the email to this server to send, counting the attempt. */
+  public EmailOutboxModel claim(Instant leaseExpirationTime) {
+    this.attempts++;
+    this.leaseExpirationTime = checkNotNull(leaseExpirationTime);
+    return this;
+  }
+
+  /** Records a failed attempt, releasing the lease so that the email is tried again at a time. */
+  public EmailOutboxModel retryAt(Instant nextAttemptTime, String error) {
+    this.nextAttemptTime = checkNotNull(nextAttemptTime);
+    this.leaseExpirationTime = null;
+    this.lastError = error;
+    return this;
+  }
+
+  /** Records a failed attempt after which the email won't be tried again. */
+  public EmailOutboxModel setFailed(Instant failedTime, String error) {
+    this.failedTime = checkNotNull(failedTime);
+    this.leaseExpirationTime = null;
+    this.lastError = error;
+    return this;
+  }
+}
@@ -15,6 +15,7 @@ public final class Models {
           ApplicationModel.class,
           ApplicationEventModel.class,
           CategoryModel.class,
+          EmailOutboxModel.class,
           PersistedDurableJobModel.class,
           ProgramModel.class,
           QuestionModel.class,
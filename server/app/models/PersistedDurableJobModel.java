@@ -16,6 +16,13 @@ import play.data.validation.Constraints;
  *
  * <p>When jobs fail, a failure message is recorded on the {@code PersistedDurableJob}'s {@code
  * errorMessage} and its {@code remainingAttempts} count is decremented.
+ *
+ * <p>While a job runs, its {@code leaseExpirationTime} is set so that no other runner claims it.
+ * If the server running it stops before the job finishes, the job is claimed again once the lease
+ * expires.
+ *
+ * <p>Jobs that work through tables in chunks record the {@code batchStep} and {@code batchLastId}
+ * of the last chunk they committed, so that they resume from there when they run again.
  */
 @Entity
 @Table(name = "persisted_durable_jobs")
@@ -33,6 +40,12 @@ public final class PersistedDurableJobModel extends BaseModel {
 
   private String errorMessage;
 
+  private Instant leaseExpirationTime;
+
+  private String batchStep;
+
+  private Long batchLastId;
+
   public PersistedDurableJobModel(String jobName, JobType jobType, Instant executionTime) {
     this.jobName = Preconditions.checkNotNull(jobName);
     this.jobType = jobType;
@@ -78,6 +91,11 @@ public final class PersistedDurableJobModel extends BaseModel {
     return this;
   }
 
+  public PersistedDurableJobModel incrementRemainingAttempts() {
+    this.remainingAttempts++;
+    return this;
+  }
+
   public Optional<String> getErrorMessage() {
     return Optional.ofNullable(errorMessage);
   }
@@ -89,4 +107,26 @@ public final class PersistedDurableJobModel extends BaseModel {
             : String.format("%s\nEND_ERROR\n\n%s", this.errorMessage, newMessage);
     return this;
   }
+
+  public Optional<Instant> getLeaseExpirationTime() {
+    return Optional.ofNullable(leaseExpirationTime);
+  }
+
+  public PersistedDurableJobModel setLeaseExpirationTime(Instant time) {
+    this.leaseExpirationTime = time;
+    return this;
+  }
+
+  public PersistedDurableJobModel clearLeaseExpirationTime() {
+    this.leaseExpirationTime = null;
+    return this;
+  }
+
+  public Optional<String> getBatchStep() {
+    return Optional.ofNullable(batchStep);
+  }
+
+  public Optional<Long> getBatchLastId() {
+    return Optional.ofNullable(batchLastId);
+  }
 }
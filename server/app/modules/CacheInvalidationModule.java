@@ -0,0 +1,16 @@
+package modules;
+
+import com.google.inject.AbstractModule;
+import repository.CacheInvalidationBus;
+
+/**
+ * Creates the {@link CacheInvalidationBus} at server start time, so that the server listens for
+ * cache invalidations from other servers before it serves any requests.
+ */
+public final class CacheInvalidationModule extends AbstractModule {
+
+  @Override
+  protected void configure() {
+    bind(CacheInvalidationBus.class).asEagerSingleton();
+  }
+}
@@ -9,6 +9,7 @@ import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.google.inject.Provides;
 import com.typesafe.config.Config;
+import durablejobs.BatchSettings;
 import durablejobs.DurableJobName;
 import durablejobs.DurableJobRegistry;
 import durablejobs.JobExecutionTimeResolver;
@@ -19,11 +20,13 @@ import durablejobs.StartupDurableJobRunner;
 import durablejobs.StartupJobScheduler;
 import durablejobs.jobs.AddOperatorToLeafAddressServiceAreaJob;
 import durablejobs.jobs.ConvertAddressServiceAreaToArrayJob;
+import durablejobs.jobs.ConvertApplicantDataToJsonbJob;
+import durablejobs.jobs.EsriResultCleanupJob;
 import durablejobs.jobs.MigratePrimaryApplicantInfoJob;
 import durablejobs.jobs.OldJobCleanupJob;
-import durablejobs.jobs.ReportingDashboardMonthlyRefreshJob;
 import durablejobs.jobs.UnusedAccountCleanupJob;
 import durablejobs.jobs.UnusedProgramImagesCleanupJob;
+import java.time.Clock;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Random;
@@ -32,8 +35,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import play.api.db.evolutions.ApplicationEvolutions;
 import repository.AccountRepository;
+import repository.EsriResultRepository;
 import repository.PersistedDurableJobRepository;
-import repository.ReportingRepository;
 import repository.VersionRepository;
 import scala.concurrent.ExecutionContext;
 import services.cloud.PublicStorageClient;
@@ -112,13 +115,14 @@ public final class DurableJobModule extends AbstractModule {
   @RecurringJobsProviderName
   public DurableJobRegistry provideRecurringDurableJobRegistry(
       AccountRepository accountRepository,
+      EsriResultRepository esriResultRepository,
       @BindingAnnotations.Now Provider<LocalDateTime> nowProvider,
       PersistedDurableJobRepository persistedDurableJobRepository,
       PublicStorageClient publicStorageClient,
-      ReportingRepository reportingRepository,
       VersionRepository versionRepository,
       SettingsService settingsService,
-      Config config) {
+      Config config,
+      Clock clock) {
     var durableJobRegistry = new DurableJobRegistry();
 
     durableJobRegistry.register(
@@ -128,13 +132,6 @@ public final class DurableJobModule extends AbstractModule {
             new OldJobCleanupJob(persistedDurableJobRepository, persistedDurableJob),
         new RecurringJobExecutionTimeResolvers.Sunday2Am());
 
-    durableJobRegistry.register(
-        DurableJobName.REPORTING_DASHBOARD_MONTHLY_REFRESH,
-        JobType.RECURRING,
-        persistedDurableJob ->
-            new ReportingDashboardMonthlyRefreshJob(reportingRepository, persistedDurableJob),
-        new RecurringJobExecutionTimeResolvers.FirstOfMonth2Am());
-
     durableJobRegistry.register(
         DurableJobName.UNUSED_ACCOUNT_CLEANUP,
         JobType.RECURRING,
@@ -155,7 +152,18 @@ public final class DurableJobModule extends AbstractModule {
         JobType.RECURRING,
         persistedDurableJob ->
             new MigratePrimaryApplicantInfoJob(
-                persistedDurableJob, accountRepository, settingsService, config),
+                persistedDurableJob,
+                accountRepository,
+                settingsService,
+                config,
+                BatchSettings.fromConfig(config),
+                clock),
+        new RecurringJobExecutionTimeResolvers.Nightly3Am());
+
+    durableJobRegistry.register(
+        DurableJobName.ESRI_RESULT_CLEANUP,
+        JobType.RECURRING,
+        persistedDurableJob -> new EsriResultCleanupJob(esriResultRepository, persistedDurableJob),
         new RecurringJobExecutionTimeResolvers.Nightly3Am());
 
     return durableJobRegistry;
@@ -163,18 +171,27 @@ public final class DurableJobModule extends AbstractModule {
 
   @Provides
   @StartupJobsProviderName
-  public DurableJobRegistry provideStartupDurableJobRegistry() {
+  public DurableJobRegistry provideStartupDurableJobRegistry(Config config, Clock clock) {
     var durableJobRegistry = new DurableJobRegistry();
+    BatchSettings batchSettings = BatchSettings.fromConfig(config);
 
     durableJobRegistry.registerStartupJob(
         DurableJobName.ADD_OPERATOR_TO_LEAF_ADDRESS_SERVICE_AREA,
         JobType.RUN_ONCE,
-        persistedDurableJob -> new AddOperatorToLeafAddressServiceAreaJob(persistedDurableJob));
+        persistedDurableJob ->
+            new AddOperatorToLeafAddressServiceAreaJob(persistedDurableJob, batchSettings, clock));
 
     durableJobRegistry.registerStartupJob(
         DurableJobName.CONVERT_ADDRESS_SERVICE_AREA_TO_ARRAY,
         JobType.RUN_ONCE,
-        persistedDurableJob -> new ConvertAddressServiceAreaToArrayJob(persistedDurableJob));
+        persistedDurableJob ->
+            new ConvertAddressServiceAreaToArrayJob(persistedDurableJob, batchSettings, clock));
+
+    durableJobRegistry.registerStartupJob(
+        DurableJobName.CONVERT_APPLICANT_DATA_TO_JSONB,
+        JobType.RUN_ONCE,
+        persistedDurableJob ->
+            new ConvertApplicantDataToJsonbJob(persistedDurableJob, batchSettings, clock));
 
     return durableJobRegistry;
   }
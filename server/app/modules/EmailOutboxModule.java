@@ -0,0 +1,64 @@
+package modules;
+
+import akka.actor.ActorSystem;
+import com.google.inject.AbstractModule;
+import com.google.inject.Inject;
+import com.typesafe.config.Config;
+import java.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import play.api.db.evolutions.ApplicationEvolutions;
+import services.email.EmailOutboxDispatcher;
+import services.email.EmailOutboxExecutionContext;
+
+/**
+ * Schedules the {@link EmailOutboxDispatcher} to send the emails queued in the outbox every {@code
+ * email.outbox.poll_interval_seconds}.
+ */
+public final class EmailOutboxModule extends AbstractModule {
+  private static final Logger LOGGER = LoggerFactory.getLogger(EmailOutboxModule.class);
+
+  @Override
+  protected void configure() {
+    // Binding the scheduler class as an eager singleton runs the constructor at server start time.
+    bind(EmailOutboxScheduler.class).asEagerSingleton();
+  }
+
+  /**
+   * Uses the Akka scheduling system to run the dispatcher on an interval on its own {@link
+   * EmailOutboxExecutionContext}, once the evolutions creating the outbox have been applied.
+   */
+  public static final class EmailOutboxScheduler {
+
+    @Inject
+    public EmailOutboxScheduler(
+        ApplicationEvolutions applicationEvolutions,
+        ActorSystem actorSystem,
+        Config config,
+        EmailOutboxExecutionContext emailOutboxExecutionContext,
+        EmailOutboxDispatcher emailOutboxDispatcher) {
+      if (!applicationEvolutions.upToDate()) {
+        LOGGER.trace("Evolutions Not Ready");
+        return;
+      }
+
+      Duration pollInterval =
+          Duration.ofMillis(
+              Math.round(config.getDouble("email.outbox.poll_interval_seconds") * 1000));
+      actorSystem
+          .scheduler()
+          .scheduleAtFixedRate(
+              /* initialDelay= */ pollInterval,
+              /* interval= */ pollInterval,
+              () -> {
+                try {
+                  emailOutboxDispatcher.dispatchDueEmails();
+                } catch (RuntimeException e) {
+                  // Keep the schedule going, the emails are tried again on the next run.
+                  LOGGER.error("Failed to dispatch queued emails", e);
+                }
+              },
+              emailOutboxExecutionContext);
+    }
+  }
+}
@@ -2,11 +2,13 @@ package modules;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import annotations.BindingAnnotations.UncachedEsriClient;
 import com.google.inject.AbstractModule;
 import com.typesafe.config.Config;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import play.Environment;
+import services.geo.esri.CachingEsriClient;
 import services.geo.esri.EsriClient;
 
 /**
@@ -14,6 +16,8 @@ import services.geo.esri.EsriClient;
  * "esri_find_address_candidates_url" we use the RealEsriClient. If the value is not set we'll use
  * the FakeEsriClient. This allows the real client to be used whether we are using an actual Esri
  * endpoint or if using the Mock Web Services.
+ *
+ * <p>Either client is wrapped in a {@link CachingEsriClient}, which keeps the results it returns.
  */
 public final class EsriModule extends AbstractModule {
   private static final String FAKE_ESRI_CLIENT_CLASS_NAME = "services.geo.esri.FakeEsriClient";
@@ -39,7 +43,8 @@ public final class EsriModule extends AbstractModule {
       Class<? extends EsriClient> bindingClass =
           environment.classLoader().loadClass(className).asSubclass(EsriClient.class);
 
-      bind(EsriClient.class).to(bindingClass);
+      bind(EsriClient.class).annotatedWith(UncachedEsriClient.class).to(bindingClass);
+      bind(EsriClient.class).to(CachingEsriClient.class);
     } catch (ClassNotFoundException e) {
       throw new RuntimeException(
           String.format("Failed to load esri client class: %s", className), e);
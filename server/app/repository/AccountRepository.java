@@ -4,30 +4,48 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static java.util.concurrent.CompletableFuture.supplyAsync;
 
+import akka.Done;
 import auth.CiviFormProfile;
 import auth.oidc.IdTokens;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
 import durablejobs.jobs.MigratePrimaryApplicantInfoJob;
 import forms.TiClientInfoForm;
 import io.ebean.DB;
 import io.ebean.Database;
 import io.ebean.Query;
+import io.ebean.SqlQuery;
+import io.ebean.SqlRow;
+import io.ebean.SqlUpdate;
 import io.ebean.Transaction;
 import io.ebean.annotation.TxIsolation;
 import java.time.Clock;
+import java.time.LocalDate;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.stream.Stream;
 import javax.inject.Inject;
 import models.AccountModel;
 import models.ApplicantModel;
+import models.ApplicationModel;
 import models.TrustedIntermediaryGroupModel;
+import play.cache.AsyncCacheApi;
+import play.cache.NamedCache;
+import repository.CacheInvalidationBus.CacheName;
 import services.CiviFormError;
+import services.PageNumberBasedPaginationSpec;
+import services.PaginationResult;
+import services.Path;
 import services.applicant.ApplicantData;
 import services.program.ProgramDefinition;
 import services.ti.EmailAddressExistsException;
@@ -43,15 +61,43 @@ public final class AccountRepository {
   private static final QueryProfileLocationBuilder queryProfileLocationBuilder =
       new QueryProfileLocationBuilder("AccountRepository");
 
+  // Accounts are only deleted by deleteUnusedGuestAccounts, which clears the cache. The cache
+  // invalidation bus may be disabled, so when another server deletes an account this server's cache
+  // isn't cleared. An account found to exist is only remembered briefly so that a deleted account
+  // is soon looked up again and its requests are sent to logout.
+  private static final int ACCOUNT_EXISTS_CACHE_EXPIRATION_SECONDS = 30;
+
   private final Database database;
   private final DatabaseExecutionContext executionContext;
   private final Clock clock;
+  private final AsyncCacheApi accountCache;
+  private final CacheInvalidationBus cacheInvalidationBus;
 
   @Inject
-  public AccountRepository(DatabaseExecutionContext executionContext, Clock clock) {
+  public AccountRepository(
+      DatabaseExecutionContext executionContext,
+      Clock clock,
+      @NamedCache("accounts") AsyncCacheApi accountCache,
+      CacheInvalidationBus cacheInvalidationBus) {
     this.database = DB.getDefault();
     this.executionContext = checkNotNull(executionContext);
     this.clock = clock;
+    this.accountCache = checkNotNull(accountCache);
+    this.cacheInvalidationBus = checkNotNull(cacheInvalidationBus);
+  }
+
+  /**
+   * Returns true if the account was recently found to exist by {@link #rememberAccountExists}.
+   * False means the account has to be looked up to know whether it exists.
+   */
+  public CompletionStage<Boolean> isAccountKnownToExist(long accountId) {
+    return accountCache.<Boolean>get(String.valueOf(accountId)).thenApply(Optional::isPresent);
+  }
+
+  /** Briefly remembers that the account exists, or until it's deleted or merged. */
+  public CompletionStage<Done> rememberAccountExists(long accountId) {
+    return accountCache.set(
+        String.valueOf(accountId), Boolean.TRUE, ACCOUNT_EXISTS_CACHE_EXPIRATION_SECONDS);
   }
 
   public CompletionStage<Set<ApplicantModel>> listApplicants() {
@@ -120,6 +166,29 @@ public final class AccountRepository {
         executionContext);
   }
 
+  /**
+   * Returns the accounts with the given email addresses, keyed by email address, with their
+   * applicants loaded in the same query. Email addresses without an account are left out.
+   */
+  public ImmutableMap<String, AccountModel> lookupAccountsByEmail(
+      ImmutableSet<String> emailAddresses) {
+    if (emailAddresses.isEmpty()) {
+      return ImmutableMap.of();
+    }
+    return database
+        .find(AccountModel.class)
+        .fetch("applicants")
+        .where()
+        .in("email_address", emailAddresses)
+        .setLabel("AccountModel.findList")
+        .setProfileLocation(queryProfileLocationBuilder.create("lookupAccountsByEmail"))
+        .findList()
+        .stream()
+        .collect(
+            ImmutableMap.toImmutableMap(
+                AccountModel::getEmailAddress, account -> account, (first, second) -> first));
+  }
+
   /**
    * Returns the most recent Applicant identified by Account, creating one if necessary.
    *
@@ -148,6 +217,7 @@ public final class AccountRepository {
     return supplyAsync(
         () -> {
           database.insert(applicant);
+          applicant.markApplicantDataSaved();
           return null;
         },
         executionContext);
@@ -156,12 +226,87 @@ public final class AccountRepository {
   public CompletionStage<Void> updateApplicant(ApplicantModel applicant) {
     return supplyAsync(
         () -> {
-          database.update(applicant);
+          updateApplicantSync(applicant);
           return null;
         },
         executionContext);
   }
 
+  /**
+   * Updates the applicant, as part of the current transaction if there is one.
+   *
+   * <p>When the applicant data was loaded from the database and only some of its entries have
+   * changed since, just those entries are written to the stored {@code object} with {@code
+   * jsonb_set}, so that the size of the write follows the size of the edit rather than of the whole
+   * document. Otherwise the whole document is written.
+   *
+   * <p>When called within an enclosing transaction, the caller must call {@link
+   * ApplicantModel#markApplicantDataSaved()} once that transaction commits.
+   */
+  public void updateApplicantSync(ApplicantModel applicant) {
+    boolean ownsTransaction = database.currentTransaction() == null;
+    Optional<ImmutableMap<Path, Optional<String>>> patch = applicant.getObjectPatch();
+    try (Transaction transaction = database.beginTransaction()) {
+      if (patch.isEmpty()) {
+        database.update(applicant);
+      } else {
+        applicant.setSkipObjectSync(true);
+        try {
+          // Brings the other columns up to date, and updates the row only if any of them changed.
+          applicant.synchronizeObject();
+          if (!database.beanState(applicant).getChangedProps().isEmpty()) {
+            database.update(applicant);
+          }
+        } finally {
+          applicant.setSkipObjectSync(false);
+        }
+        patchApplicantObject(applicant.id, patch.get());
+      }
+      transaction.commit();
+    }
+    if (ownsTransaction) {
+      applicant.markApplicantDataSaved();
+    }
+  }
+
+  /**
+   * Writes the changed entries to the applicant's stored object in one statement, setting each
+   * present entry and removing each absent one.
+   */
+  private void patchApplicantObject(long applicantId, ImmutableMap<Path, Optional<String>> patch) {
+    if (patch.isEmpty()) {
+      return;
+    }
+    String object = "object";
+    int index = 0;
+    for (Map.Entry<Path, Optional<String>> entry : patch.entrySet()) {
+      String path =
+          String.format("ARRAY[CAST(:parent%1$d AS text), CAST(:key%1$d AS text)]", index);
+      object =
+          entry.getValue().isPresent()
+              ? String.format("jsonb_set(%s, %s, CAST(:value%d AS jsonb))", object, path, index)
+              : String.format("(%s #- %s)", object, path);
+      index++;
+    }
+
+    SqlUpdate update =
+        database.sqlUpdate(
+            String.format("UPDATE applicants SET object = %s WHERE id = :id", object));
+    index = 0;
+    for (Map.Entry<Path, Optional<String>> entry : patch.entrySet()) {
+      update.setParameter("parent" + index, entry.getKey().segments().get(0));
+      update.setParameter("key" + index, entry.getKey().segments().get(1));
+      if (entry.getValue().isPresent()) {
+        update.setParameter("value" + index, entry.getValue().get());
+      }
+      index++;
+    }
+    update
+        .setParameter("id", applicantId)
+        .setLabel("ApplicantModel.patchObject")
+        .execute();
+  }
+
   public void updateTiClient(
       AccountModel account,
       ApplicantModel applicant,
@@ -202,6 +347,7 @@ public final class AccountRepository {
       account.save();
       applicant.save();
       database.saveAll(account, applicant);
+      updateApplicationSearchText(applicant.id);
       transaction.commit();
     }
   }
@@ -215,14 +361,43 @@ public final class AccountRepository {
         .findOneOrEmpty();
   }
 
+  /**
+   * Recomputes the text admins search the applicant's applications by, for after the applicant's
+   * name or email addresses have changed. This runs in the current transaction, if there is one, so
+   * it sees changes that haven't been committed yet.
+   */
+  public void updateApplicationSearchText(long applicantId) {
+    database
+        .find(ApplicationModel.class)
+        .fetch("applicant")
+        .fetch("applicant.account")
+        .where()
+        .eq("applicant.id", applicantId)
+        .setLabel("ApplicationModel.findList")
+        .setProfileLocation(queryProfileLocationBuilder.create("updateApplicationSearchText"))
+        .findList()
+        // Saving an application whose search text didn't change doesn't write anything.
+        .forEach(application -> application.refreshApplicantSearchText().save());
+  }
+
   /** Merge the older applicant data into the newer applicant, and set both to the given account. */
   public CompletionStage<ApplicantModel> mergeApplicants(
       ApplicantModel left, ApplicantModel right, AccountModel account) {
+    ImmutableSet<String> mergedAccountIds =
+        Stream.of(left.getAccount(), right.getAccount(), account)
+            .filter(Objects::nonNull)
+            .map(mergedAccount -> String.valueOf(mergedAccount.id))
+            .collect(ImmutableSet.toImmutableSet());
     return supplyAsync(
         () -> {
           left.setAccount(account).save();
           right.setAccount(account).save();
-          return mergeApplicants(left, right).saveAndReturn();
+          ApplicantModel merged = mergeApplicants(left, right).saveAndReturn();
+          // Both applicants' applications are now searched by the merged account's email.
+          updateApplicationSearchText(left.id);
+          updateApplicationSearchText(right.id);
+          cacheInvalidationBus.invalidate(CacheName.ACCOUNTS, mergedAccountIds);
+          return merged;
         },
         executionContext);
   }
@@ -334,6 +509,169 @@ public final class AccountRepository {
     return civiformProfile.getAccount().join().getMemberOfGroup();
   }
 
+  /**
+   * Returns a page of the accounts managed by the TI group, sorted by client name, and with their
+   * applicants loaded.
+   *
+   * <p>If a name query or date of birth is given, only accounts whose newest applicant matches
+   * either are returned. The name query matches the primary applicant info columns: the client's
+   * first or last name, full name, email address, or phone number if the query is a number. It is
+   * matched literally, so {@code %} and {@code _} in it aren't wildcards.
+   *
+   * <p>Matching, sorting and counting the clients happens in one query, so a TI group with
+   * thousands of clients doesn't load all of them.
+   */
+  public PaginationResult<AccountModel> searchManagedAccounts(
+      long tiGroupId,
+      Optional<String> nameQuery,
+      Optional<LocalDate> dateOfBirth,
+      PageNumberBasedPaginationSpec paginationSpec) {
+    ImmutableList.Builder<String> matches = ImmutableList.builder();
+    Optional<String> phoneDigits = Optional.empty();
+    if (nameQuery.isPresent()) {
+      matches.add(
+          "applicant.first_name ILIKE :name_pattern ESCAPE '\\'",
+          "applicant.last_name ILIKE :name_pattern ESCAPE '\\'",
+          "concat_ws(' ', applicant.first_name, applicant.last_name)"
+              + " ILIKE :name_pattern ESCAPE '\\'",
+          "concat_ws(', ', applicant.last_name, applicant.first_name)"
+              + " ILIKE :name_pattern ESCAPE '\\'",
+          "applicant.email_address ILIKE :name_pattern ESCAPE '\\'",
+          "account.email_address ILIKE :name_pattern ESCAPE '\\'");
+      String maybeOnlyDigits = nameQuery.get().replaceAll("[^a-zA-Z0-9]", "");
+      if (maybeOnlyDigits.matches("^\\d+$")) {
+        phoneDigits = Optional.of(maybeOnlyDigits);
+        matches.add("applicant.phone_number LIKE :phone_pattern");
+      }
+    }
+    dateOfBirth.ifPresent(
+        unused ->
+            matches.add(
+                """
+                COALESCE(
+                  applicant.date_of_birth,
+                  CASE WHEN applicant.well_known_date_of_birth ~ '^-{0,1}[0-9]+$'
+                    THEN CAST(
+                      to_timestamp(CAST(applicant.well_known_date_of_birth AS bigint) / 1000.0)
+                        AT TIME ZONE 'UTC'
+                      AS date)
+                  END) = :date_of_birth
+                """));
+    ImmutableList<String> matchConditions = matches.build();
+
+    // Only the newest applicant of each account is searched, as the TI dashboard shows. Like
+    // ApplicantData#getApplicantFirstName and #getDateOfBirth, applicants without a name or date of
+    // birth column fall back to the well-known paths in their applicant data, where the date of
+    // birth is stored as epoch milliseconds. Applicant data is stored as a jsonb document, so the
+    // paths are read from it directly.
+    String fromManagedAccounts =
+        """
+        FROM accounts account
+        LEFT JOIN LATERAL (
+          SELECT
+            COALESCE(first_name, object #>> '{applicant,name,first_name}') AS first_name,
+            COALESCE(last_name, object #>> '{applicant,name,last_name}') AS last_name,
+            email_address, phone_number, date_of_birth,
+            CASE WHEN date_of_birth IS NULL THEN COALESCE(
+              object #>> '{applicant,applicant_date_of_birth,date}',
+              object #>> '{applicant,applicant_date_of_birth}')
+            END AS well_known_date_of_birth
+          FROM applicants
+          WHERE applicants.account_id = account.id
+          ORDER BY when_created DESC
+          LIMIT 1
+        ) applicant ON true
+        WHERE account.managed_by_group_id = :ti_group_id
+        """
+            + (matchConditions.isEmpty()
+                ? ""
+                : "AND (" + String.join(" OR ", matchConditions) + ")\n");
+    // Sorts by the same name AccountModel#getApplicantDisplayName shows.
+    String pageQuery =
+        "SELECT account.id, count(*) OVER () AS total\n"
+            + fromManagedAccounts
+            + """
+            ORDER BY lower(COALESCE(
+                applicant.last_name || ', ' || applicant.first_name,
+                applicant.first_name,
+                applicant.email_address,
+                account.email_address,
+                '')),
+              account.id
+            LIMIT :limit OFFSET :offset
+            """;
+
+    List<SqlRow> rows =
+        bindSearchParameters(
+                database.sqlQuery(pageQuery), tiGroupId, nameQuery, phoneDigits, dateOfBirth)
+            .setParameter("limit", paginationSpec.getPageSize())
+            .setParameter("offset", paginationSpec.getCurrentPageOffset())
+            .setLabel("AccountModel.searchManagedAccounts")
+            .findList();
+
+    long total;
+    if (!rows.isEmpty()) {
+      total = rows.get(0).getLong("total");
+    } else if (paginationSpec.getCurrentPageOffset() == 0) {
+      total = 0;
+    } else {
+      // The page is past the last match, so the window count isn't available.
+      total =
+          bindSearchParameters(
+                  database.sqlQuery("SELECT count(*) AS total\n" + fromManagedAccounts),
+                  tiGroupId,
+                  nameQuery,
+                  phoneDigits,
+                  dateOfBirth)
+              .setLabel("AccountModel.countManagedAccounts")
+              .findOne()
+              .getLong("total");
+    }
+
+    ImmutableList<Long> accountIds =
+        rows.stream().map(row -> row.getLong("id")).collect(ImmutableList.toImmutableList());
+    ImmutableMap<Long, AccountModel> accountsById =
+        accountIds.isEmpty()
+            ? ImmutableMap.of()
+            : Maps.uniqueIndex(
+                database
+                    .find(AccountModel.class)
+                    .fetch("applicants")
+                    .setLabel("AccountModel.findList")
+                    .setProfileLocation(queryProfileLocationBuilder.create("searchManagedAccounts"))
+                    .where()
+                    .idIn(accountIds)
+                    .findList(),
+                account -> account.id);
+
+    return new PaginationResult<>(
+        paginationSpec.getCurrentPageOffset() + rows.size() < total,
+        Math.max(1, (int) Math.ceil((double) total / paginationSpec.getPageSize())),
+        accountIds.stream().map(accountsById::get).collect(ImmutableList.toImmutableList()));
+  }
+
+  private static SqlQuery bindSearchParameters(
+      SqlQuery query,
+      long tiGroupId,
+      Optional<String> nameQuery,
+      Optional<String> phoneDigits,
+      Optional<LocalDate> dateOfBirth) {
+    query.setParameter("ti_group_id", tiGroupId);
+    nameQuery.ifPresent(
+        name -> query.setParameter("name_pattern", "%" + escapeLikeWildcards(name) + "%"));
+    phoneDigits.ifPresent(digits -> query.setParameter("phone_pattern", "%" + digits + "%"));
+    dateOfBirth.ifPresent(dob -> query.setParameter("date_of_birth", dob));
+    return query;
+  }
+
+  /**
+   * Escapes the LIKE wildcards in the text, so that it's matched literally with {@code ESCAPE
+   * '\'}.
+   */
+  private static String escapeLikeWildcards(String text) {
+    return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
+
   /**
    * Create an applicant and add it to the provided trusted intermediary group. Associate it with an
    * email address if one is provided, but if one is not provided, use an anonymous (guest-style)
@@ -459,22 +797,31 @@ public final class AccountRepository {
             + "DELETE FROM accounts "
             + "WHERE accounts.id IN (SELECT account_id FROM unused_accounts);";
 
-    return database.sqlUpdate(sql).execute();
+    int numberDeleted = database.sqlUpdate(sql).execute();
+    if (numberDeleted > 0) {
+      cacheInvalidationBus.invalidateAll(CacheName.ACCOUNTS);
+    }
+    return numberDeleted;
   }
 
   /**
-   * For use in {@link MigratePrimaryApplicantInfoJob}. Will return all applicants that have data in
-   * well known paths.
+   * For use in {@link MigratePrimaryApplicantInfoJob}. Will return up to {@code limit} applicants
+   * that have data in well known paths, with ids greater than {@code afterId}, in order of id.
    */
-  public Query<ApplicantModel> findApplicantsNeedingPrimaryApplicantInfoDataMigration() {
+  public Query<ApplicantModel> findApplicantsNeedingPrimaryApplicantInfoDataMigration(
+      long afterId, int limit) {
     String sql =
-        "WITH temp AS (SELECT * , ((object#>>'{}')::jsonb)::json AS parsed FROM applicants) SELECT"
-            + " temp.* FROM temp LEFT JOIN accounts ON accounts.id = temp.account_id WHERE"
-            + " (temp.parsed#>'{applicant,name}' IS NOT NULL) OR (temp.email_address IS NULL and"
-            + " accounts.email_address IS NOT NULL) OR"
+        "WITH temp AS (SELECT * , ((object#>>'{}')::jsonb)::json AS parsed FROM applicants WHERE"
+            + " id > :after_id) SELECT temp.* FROM temp LEFT JOIN accounts ON accounts.id ="
+            + " temp.account_id WHERE (temp.parsed#>'{applicant,name}' IS NOT NULL) OR"
+            + " (temp.email_address IS NULL and accounts.email_address IS NOT NULL) OR"
             + " (temp.parsed#>'{applicant,applicant_phone_number}' IS NOT NULL) OR"
-            + " (temp.parsed#>'{applicant,applicant_date_of_birth}' IS NOT NULL)";
-    return database.findNative(ApplicantModel.class, sql);
+            + " (temp.parsed#>'{applicant,applicant_date_of_birth}' IS NOT NULL) ORDER BY temp.id"
+            + " LIMIT :limit";
+    return database
+        .findNative(ApplicantModel.class, sql)
+        .setParameter("after_id", afterId)
+        .setParameter("limit", limit);
   }
 
   /**
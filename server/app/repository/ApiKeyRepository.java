@@ -3,6 +3,7 @@ package repository;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static java.util.concurrent.CompletableFuture.supplyAsync;
 
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.google.common.collect.ImmutableList;
 import io.ebean.DB;
 import io.ebean.Database;
@@ -12,6 +13,7 @@ import java.util.Optional;
 import java.util.concurrent.CompletionStage;
 import javax.inject.Inject;
 import models.ApiKeyModel;
+import play.libs.Json;
 import services.PageNumberBasedPaginationSpec;
 import services.PaginationResult;
 
@@ -119,23 +121,50 @@ public final class ApiKeyRepository {
         ImmutableList.copyOf(pagedList.getList()));
   }
 
-  /** Increment an API key's call count and set its last call IP address to the one provided. */
-  public void recordApiKeyUsage(String apiKeyId, String remoteAddress) {
-    ApiKeyModel apiKey =
-        database
-            .find(ApiKeyModel.class)
-            .where()
-            .eq("key_id", apiKeyId)
-            .setLabel("ApiKeyModel.findById")
-            .setProfileLocation(queryProfileLocationBuilder.create("recordApiKeyUsage"))
-            .findOne();
-
-    apiKey.incrementCallCount();
-    apiKey.setLastCallIpAddress(remoteAddress);
-
-    apiKey.save();
+  /**
+   * Adds to the call counts of API keys and sets their last call IP addresses, for any number of
+   * keys in a single UPDATE statement.
+   */
+  public void recordApiKeyUsage(ImmutableList<ApiKeyUsage> usages) {
+    if (usages.isEmpty()) {
+      return;
+    }
+
+    ArrayNode usagesJson = Json.newArray();
+    for (ApiKeyUsage usage : usages) {
+      usagesJson
+          .addObject()
+          .put("key_id", usage.keyId())
+          .put("call_count", usage.callCount())
+          .put("last_call_ip_address", usage.lastCallIpAddress());
+    }
+
+    database
+        .sqlUpdate(
+            """
+            UPDATE api_keys
+            SET call_count = api_keys.call_count + recorded.call_count,
+                last_call_ip_address = recorded.last_call_ip_address,
+                update_time = :update_time
+            FROM jsonb_to_recordset(CAST(:usages AS jsonb))
+                AS recorded(key_id varchar, call_count bigint, last_call_ip_address varchar)
+            WHERE api_keys.key_id = recorded.key_id
+            """)
+        .setParameter("usages", usagesJson.toString())
+        .setParameter("update_time", Instant.now())
+        .setLabel("ApiKeyModel.recordUsage")
+        .execute();
   }
 
+  /**
+   * The calls made with an API key since its usage was last recorded.
+   *
+   * @param keyId the key ID (not the database ID) of the API key
+   * @param callCount the number of calls to add to the key's call count
+   * @param lastCallIpAddress the IP address of the most recent call
+   */
+  public record ApiKeyUsage(String keyId, long callCount, String lastCallIpAddress) {}
+
   /** Insert a new {@link ApiKeyModel} record asynchronously. */
   public CompletionStage<ApiKeyModel> insert(ApiKeyModel apiKey) {
     return supplyAsync(
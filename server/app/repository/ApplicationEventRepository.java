@@ -6,10 +6,12 @@ import static java.util.concurrent.CompletableFuture.supplyAsync;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
 import io.ebean.DB;
 import io.ebean.Database;
 import io.ebean.Transaction;
 import io.ebean.annotation.TxIsolation;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletionStage;
 import javax.inject.Inject;
@@ -17,6 +19,7 @@ import models.AccountModel;
 import models.ApplicationEventModel;
 import models.ApplicationModel;
 import services.application.ApplicationEventDetails;
+import services.email.EmailMessage;
 
 /**
  * ApplicationEventRepository performs operations on {@link ApplicationEventModel} that often
@@ -25,13 +28,19 @@ import services.application.ApplicationEventDetails;
 public final class ApplicationEventRepository {
   private static final QueryProfileLocationBuilder queryProfileLocationBuilder =
       new QueryProfileLocationBuilder("ApplicationEventRepository");
+  // The number of events inserted per JDBC batch, and of applications updated per statement, when
+  // changing the status of many applications at once.
+  private static final int BATCH_SIZE = 500;
   private final Database database;
   private final DatabaseExecutionContext executionContext;
+  private final EmailOutboxRepository emailOutboxRepository;
 
   @Inject
-  public ApplicationEventRepository(DatabaseExecutionContext executionContext) {
+  public ApplicationEventRepository(
+      DatabaseExecutionContext executionContext, EmailOutboxRepository emailOutboxRepository) {
     this.database = checkNotNull(DB.getDefault());
     this.executionContext = checkNotNull(executionContext);
+    this.emailOutboxRepository = checkNotNull(emailOutboxRepository);
   }
 
   /**
@@ -79,6 +88,19 @@ public final class ApplicationEventRepository {
       ApplicationModel application,
       Optional<AccountModel> optionalAdmin,
       ApplicationEventDetails.StatusEvent newStatusEvent) {
+    return insertStatusEvent(application, optionalAdmin, newStatusEvent, ImmutableList.of());
+  }
+
+  /**
+   * Records the status change as {@link #insertStatusEvent(ApplicationModel, Optional,
+   * ApplicationEventDetails.StatusEvent)} does, and queues the emails notifying of it in the same
+   * transaction.
+   */
+  public CompletionStage<ApplicationEventModel> insertStatusEvent(
+      ApplicationModel application,
+      Optional<AccountModel> optionalAdmin,
+      ApplicationEventDetails.StatusEvent newStatusEvent,
+      ImmutableList<EmailMessage> emails) {
     ApplicationEventDetails details =
         ApplicationEventDetails.builder()
             .setEventType(ApplicationEventDetails.Type.STATUS_CHANGE)
@@ -104,6 +126,7 @@ public final class ApplicationEventRepository {
                 .eq("id", application.id)
                 .update();
             application.save();
+            emailOutboxRepository.enqueue(emails);
             transaction.commit();
           }
           return event;
@@ -111,6 +134,82 @@ public final class ApplicationEventRepository {
         executionContext.current());
   }
 
+  /**
+   * Records the same status change on many applications at once, as {@link #insertStatusEvent}
+   * does for one, in a single transaction.
+   *
+   * <p>The events are inserted in JDBC batches, and the latest_status of the applications is set
+   * with one statement per batch of ids, so the number of round trips to the database grows with
+   * the number of batches rather than the number of applications. The emails notifying of the
+   * changes are queued in the same transaction. The applications passed in aren't refreshed.
+   *
+   * <p>Rather than running the whole transaction as SERIALIZABLE like {@link #insertStatusEvent},
+   * which would fail when any of the many applications is changed concurrently, the applications'
+   * rows are locked with SELECT ... FOR UPDATE in id order before they are changed.
+   */
+  public CompletionStage<ImmutableList<ApplicationEventModel>> insertStatusEvents(
+      ImmutableList<ApplicationModel> applications,
+      Optional<AccountModel> optionalAdmin,
+      ApplicationEventDetails.StatusEvent newStatusEvent,
+      ImmutableList<EmailMessage> emails) {
+    ApplicationEventDetails details =
+        ApplicationEventDetails.builder()
+            .setEventType(ApplicationEventDetails.Type.STATUS_CHANGE)
+            .setStatusEvent(newStatusEvent)
+            .build();
+    ImmutableList<ApplicationEventModel> events =
+        applications.stream()
+            .map(application -> new ApplicationEventModel(application, optionalAdmin, details))
+            .collect(ImmutableList.toImmutableList());
+    String latestStatus =
+        Strings.isNullOrEmpty(newStatusEvent.statusText()) ? null : newStatusEvent.statusText();
+    ImmutableList<Long> applicationIds =
+        applications.stream()
+            .map(application -> application.id)
+            .distinct()
+            .sorted()
+            .collect(ImmutableList.toImmutableList());
+    return supplyAsync(
+        () -> {
+          try (Transaction transaction = database.beginTransaction()) {
+            // Locks the applications before changing them, so that concurrent status changes to
+            // the same applications are applied one after the other and latest_status always
+            // matches the newest event. Locking in id order keeps two bulk changes from
+            // deadlocking.
+            for (List<Long> batch : Iterables.partition(applicationIds, BATCH_SIZE)) {
+              database
+                  .find(ApplicationModel.class)
+                  .select("id")
+                  .where()
+                  .idIn(batch)
+                  .orderBy("id asc")
+                  .forUpdate()
+                  .setLabel("ApplicationModel.findIds")
+                  .setProfileLocation(queryProfileLocationBuilder.create("insertStatusEvents"))
+                  .findIds();
+            }
+
+            transaction.setBatchMode(true);
+            transaction.setBatchSize(BATCH_SIZE);
+            database.insertAll(events);
+            transaction.flush();
+
+            for (List<Long> batch : Iterables.partition(applicationIds, BATCH_SIZE)) {
+              database
+                  .update(ApplicationModel.class)
+                  .set("latest_status", latestStatus)
+                  .where()
+                  .idIn(batch)
+                  .update();
+            }
+            emailOutboxRepository.enqueue(emails);
+            transaction.commit();
+          }
+          return events;
+        },
+        executionContext.current());
+  }
+
   public void insertNoteEvent(
       ApplicationModel application, ApplicationEventDetails.NoteEvent note, AccountModel admin) {
     ApplicationEventDetails details =
@@ -23,6 +23,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import services.applicant.exception.ApplicantNotFoundException;
 import services.applicant.exception.DuplicateApplicationException;
+import services.email.EmailMessage;
+import services.program.ProgramDefinition;
 import services.program.ProgramNotFoundException;
 
 /**
@@ -35,6 +37,8 @@ public final class ApplicationRepository {
 
   private final ProgramRepository programRepository;
   private final AccountRepository accountRepository;
+  private final ReportingRepository reportingRepository;
+  private final EmailOutboxRepository emailOutboxRepository;
   private final Database database;
   private final DatabaseExecutionContext executionContext;
   private static final Logger LOGGER = LoggerFactory.getLogger(ApplicationRepository.class);
@@ -43,9 +47,13 @@ public final class ApplicationRepository {
   public ApplicationRepository(
       ProgramRepository programRepository,
       AccountRepository accountRepository,
+      ReportingRepository reportingRepository,
+      EmailOutboxRepository emailOutboxRepository,
       DatabaseExecutionContext executionContext) {
     this.programRepository = checkNotNull(programRepository);
     this.accountRepository = checkNotNull(accountRepository);
+    this.reportingRepository = checkNotNull(reportingRepository);
+    this.emailOutboxRepository = checkNotNull(emailOutboxRepository);
     this.database = DB.getDefault();
     this.executionContext = checkNotNull(executionContext);
   }
@@ -54,7 +62,9 @@ public final class ApplicationRepository {
   public CompletionStage<ApplicationModel> submitApplication(
       ApplicantModel applicant, ProgramModel program, Optional<String> tiSubmitterEmail) {
     return supplyAsync(
-        () -> submitApplicationInternal(applicant, program, tiSubmitterEmail),
+        () ->
+            submitApplicationInternal(
+                applicant, program, tiSubmitterEmail, application -> ImmutableList.of()),
         executionContext.current());
   }
 
@@ -65,15 +75,35 @@ public final class ApplicationRepository {
    */
   public CompletionStage<Optional<ApplicationModel>> submitApplication(
       long applicantId, long programId, Optional<String> tiSubmitterEmail) {
+    return submitApplication(
+        applicantId, programId, tiSubmitterEmail, application -> ImmutableList.of());
+  }
+
+  /**
+   * Submit an application as {@link #submitApplication(long, long, Optional)} does, and queue the
+   * emails that {@code notifications} builds for the submitted application in the same
+   * transaction, so that they're sent only if the submission is committed. {@code notifications}
+   * runs within the transaction, so it sees the submitted application, and anything it saves is
+   * committed or rolled back with the submission.
+   */
+  public CompletionStage<Optional<ApplicationModel>> submitApplication(
+      long applicantId,
+      long programId,
+      Optional<String> tiSubmitterEmail,
+      Function<ApplicationModel, ImmutableList<EmailMessage>> notifications) {
     return this.perform(
         applicantId,
         programId,
         (ApplicationArguments appArgs) ->
-            submitApplicationInternal(appArgs.applicant, appArgs.program, tiSubmitterEmail));
+            submitApplicationInternal(
+                appArgs.applicant, appArgs.program, tiSubmitterEmail, notifications));
   }
 
   private ApplicationModel submitApplicationInternal(
-      ApplicantModel applicant, ProgramModel program, Optional<String> tiSubmitterEmail) {
+      ApplicantModel applicant,
+      ProgramModel program,
+      Optional<String> tiSubmitterEmail,
+      Function<ApplicationModel, ImmutableList<EmailMessage>> notifications) {
     database.beginTransaction();
     try {
       List<ApplicationModel> oldApplications =
@@ -155,6 +185,12 @@ public final class ApplicationRepository {
         application.setSubmitterEmail(tiSubmitterEmail.get());
       }
       application.save();
+      reportingRepository.recordSubmission(application.id);
+      ImmutableList<EmailMessage> emails = notifications.apply(application);
+      // Submitting may have saved new primary applicant info, which the applicant's applications
+      // are searched by, so this is done after the notifications callback has run.
+      accountRepository.updateApplicationSearchText(applicant.id);
+      emailOutboxRepository.enqueue(emails);
 
       database.commitTransaction();
       return application;
@@ -222,6 +258,30 @@ public final class ApplicationRepository {
             .findList());
   }
 
+  /**
+   * Returns the applications with the given ids that are to any version of the program, in order
+   * of id, with their applicants and accounts loaded in the same query. Ids of applications that
+   * don't exist or are to other programs are ignored.
+   */
+  public ImmutableList<ApplicationModel> getApplicationsToProgram(
+      ImmutableList<Long> applicationIds, String programName) {
+    if (applicationIds.isEmpty()) {
+      return ImmutableList.of();
+    }
+    return ImmutableList.copyOf(
+        database
+            .find(ApplicationModel.class)
+            .fetch("applicant")
+            .fetch("applicant.account")
+            .where()
+            .idIn(applicationIds)
+            .eq("program.name", programName)
+            .orderBy("id")
+            .setLabel("ApplicationModel.findList")
+            .setProfileLocation(queryProfileLocationBuilder.create("getApplicationsToProgram"))
+            .findList());
+  }
+
   // Need to transmit both arguments to submitApplication through the CompletionStage pipeline.
   // Not useful in the API, not needed more broadly.
   private static final class ApplicationArguments {
@@ -283,6 +343,61 @@ public final class ApplicationRepository {
             createOrUpdateDraftApplicationInternal(appArgs.applicant, appArgs.program));
   }
 
+  /**
+   * Saves the applicant's data and creates their draft application to the program if they don't
+   * have one yet, in one transaction. This is how a block is saved, where the applicant and program
+   * are already loaded, so unlike {@link #createOrUpdateDraft(long, long)} neither is looked up
+   * again and an existing draft is only checked for, not loaded.
+   */
+  public CompletionStage<Void> updateApplicantAndCreateDraft(
+      ApplicantModel applicant, ProgramDefinition program) {
+    return supplyAsync(
+        () -> {
+          try (Transaction transaction = database.beginTransaction()) {
+            accountRepository.updateApplicantSync(applicant);
+            createDraftIfMissingInternal(applicant, program);
+            transaction.commit();
+          }
+          applicant.markApplicantDataSaved();
+          return null;
+        },
+        executionContext.current());
+  }
+
+  /**
+   * Creates the applicant's draft application to the program if they don't have one yet, without
+   * saving the applicant. This is used when a block that failed validation isn't saved.
+   */
+  public CompletionStage<Void> createDraftIfMissing(
+      ApplicantModel applicant, ProgramDefinition program) {
+    return supplyAsync(
+        () -> {
+          createDraftIfMissingInternal(applicant, program);
+          return null;
+        },
+        executionContext.current());
+  }
+
+  private void createDraftIfMissingInternal(ApplicantModel applicant, ProgramDefinition program) {
+    boolean hasDraft =
+        database
+            .find(ApplicationModel.class)
+            .where()
+            .eq("applicant.id", applicant.id)
+            .eq("program.name", program.adminName())
+            .eq("lifecycle_stage", LifecycleStage.DRAFT)
+            .setLabel("ApplicationModel.exists")
+            .setProfileLocation(queryProfileLocationBuilder.create("createDraftIfMissing"))
+            .exists();
+    if (!hasDraft) {
+      new ApplicationModel(
+              applicant,
+              database.reference(ProgramModel.class, program.id()),
+              LifecycleStage.DRAFT)
+          .save();
+    }
+  }
+
   public CompletionStage<Optional<ApplicationModel>> getApplication(long applicationId) {
     return supplyAsync(
         () ->
@@ -0,0 +1,331 @@
+package repository;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.typesafe.config.Config;
+import io.ebean.DB;
+import io.ebean.Database;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import play.cache.AsyncCacheApi;
+import play.cache.NamedCache;
+import play.inject.ApplicationLifecycle;
+import services.settings.SettingsCache;
+import services.settings.SettingsManifest;
+
+/**
+ * Keeps the in-memory caches of every server in a deployment coherent.
+ *
+ * <p>Code that makes cached entries stale calls {@link #invalidate}, which evicts the entries from
+ * this server's caches. When {@code CACHE_INVALIDATION_BUS_ENABLED} is set, the eviction is also
+ * broadcast with Postgres {@code NOTIFY}, and every server holds a dedicated connection that {@code
+ * LISTEN}s for the broadcasts and evicts the same entries.
+ *
+ * <p>Every broadcast carries a generation number from a database sequence. A gap in the generations
+ * a server has seen, or a lost listening connection, means broadcasts may have been missed, so the
+ * server then clears all of its caches rather than risk serving stale entries.
+ */
+@Singleton
+public final class CacheInvalidationBus {
+
+  /** The caches that can be invalidated through the bus. */
+  public enum CacheName {
+    ACCOUNTS("accounts"),
+    API_KEYS("api-keys"),
+    FULL_PROGRAM_DEFINITION("full-program-definition"),
+    PROGRAM("program"),
+    PROGRAM_VERSIONS("program-versions"),
+    VERSION_PROGRAMS("version-programs"),
+    VERSION_QUESTIONS("version-questions"),
+    /** The {@link SettingsCache}, which has no keys and is always cleared entirely. */
+    SETTINGS("settings"),
+    /** The {@link VersionPointerCache}, which has no keys and is always cleared entirely. */
+    VERSION_POINTERS("version-pointers");
+
+    private final String name;
+
+    CacheName(String name) {
+      this.name = name;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    static Optional<CacheName> forName(String name) {
+      return Arrays.stream(values()).filter(value -> value.name.equals(name)).findFirst();
+    }
+  }
+
+  @VisibleForTesting static final String CHANNEL = "civiform_cache_invalidation";
+
+  private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationBus.class);
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  // Postgres limits NOTIFY payloads to 8000 bytes, so larger invalidations clear the whole cache.
+  private static final int MAX_KEYS_PER_NOTIFICATION = 500;
+  private static final int LISTEN_POLL_TIMEOUT_MILLIS = 1000;
+  private static final long RECONNECT_DELAY_MILLIS = 5000;
+  private static final long UNKNOWN_GENERATION = -1;
+
+  private final Database database;
+  private final Config config;
+  private final SettingsManifest settingsManifest;
+  private final VersionPointerCache versionPointerCache;
+  private final SettingsCache settingsCache;
+  private final ImmutableMap<CacheName, AsyncCacheApi> caches;
+  private final AtomicLong lastGeneration = new AtomicLong(UNKNOWN_GENERATION);
+  private final ExecutorService listenerExecutor =
+      Executors.newSingleThreadExecutor(
+          new ThreadFactoryBuilder()
+              .setNameFormat("cache-invalidation-listener")
+              .setDaemon(true)
+              .build());
+  private volatile boolean listening = false;
+
+  @Inject
+  public CacheInvalidationBus(
+      Config config,
+      SettingsManifest settingsManifest,
+      ApplicationLifecycle lifecycle,
+      VersionPointerCache versionPointerCache,
+      SettingsCache settingsCache,
+      @NamedCache("accounts") AsyncCacheApi accountCache,
+      @NamedCache("api-keys") AsyncCacheApi apiKeyCache,
+      @NamedCache("full-program-definition") AsyncCacheApi programDefCache,
+      @NamedCache("program") AsyncCacheApi programCache,
+      @NamedCache("program-versions") AsyncCacheApi versionsByProgramCache,
+      @NamedCache("version-programs") AsyncCacheApi programsByVersionCache,
+      @NamedCache("version-questions") AsyncCacheApi questionsByVersionCache) {
+    this.database = DB.getDefault();
+    this.config = checkNotNull(config);
+    this.settingsManifest = checkNotNull(settingsManifest);
+    this.versionPointerCache = checkNotNull(versionPointerCache);
+    this.settingsCache = checkNotNull(settingsCache);
+    this.caches =
+        ImmutableMap.<CacheName, AsyncCacheApi>builder()
+            .put(CacheName.ACCOUNTS, checkNotNull(accountCache))
+            .put(CacheName.API_KEYS, checkNotNull(apiKeyCache))
+            .put(CacheName.FULL_PROGRAM_DEFINITION, checkNotNull(programDefCache))
+            .put(CacheName.PROGRAM, checkNotNull(programCache))
+            .put(CacheName.PROGRAM_VERSIONS, checkNotNull(versionsByProgramCache))
+            .put(CacheName.VERSION_PROGRAMS, checkNotNull(programsByVersionCache))
+            .put(CacheName.VERSION_QUESTIONS, checkNotNull(questionsByVersionCache))
+            .build();
+
+    lifecycle.addStopHook(
+        () -> {
+          stopListening();
+          return CompletableFuture.completedFuture(null);
+        });
+    if (settingsManifest.getCacheInvalidationBusEnabled()) {
+      startListening();
+    }
+  }
+
+  /**
+   * Evicts the given keys from a cache on this server and, if the bus is enabled, on every other
+   * server.
+   */
+  public void invalidate(CacheName cacheName, ImmutableSet<String> keys) {
+    if (keys.isEmpty()) {
+      return;
+    }
+    evictEverywhere(
+        cacheName, keys.size() > MAX_KEYS_PER_NOTIFICATION ? Optional.empty() : Optional.of(keys));
+  }
+
+  /** Clears a cache entirely on this server and, if the bus is enabled, on every other server. */
+  public void invalidateAll(CacheName cacheName) {
+    evictEverywhere(cacheName, Optional.empty());
+  }
+
+  private void evictEverywhere(CacheName cacheName, Optional<ImmutableSet<String>> keys) {
+    evict(cacheName, keys);
+    if (settingsManifest.getCacheInvalidationBusEnabled()) {
+      broadcast(cacheName, keys);
+    }
+  }
+
+  /** Returns the generation of the most recent invalidation received from the database, if any. */
+  public Optional<Long> getLastGeneration() {
+    long generation = lastGeneration.get();
+    return generation == UNKNOWN_GENERATION ? Optional.empty() : Optional.of(generation);
+  }
+
+  @VisibleForTesting
+  synchronized void startListening() {
+    if (listening) {
+      return;
+    }
+    listening = true;
+    listenerExecutor.execute(this::listen);
+  }
+
+  @VisibleForTesting
+  synchronized void stopListening() {
+    listening = false;
+    listenerExecutor.shutdownNow();
+  }
+
+  /**
+   * Sends an invalidation to every server. The payload is "{@code <generation>:<body>}", where the
+   * body names the cache and, unless the whole cache is cleared, lists the keys to evict.
+   */
+  private void broadcast(CacheName cacheName, Optional<ImmutableSet<String>> keys) {
+    ObjectNode body = MAPPER.createObjectNode().put("cache", cacheName.getName());
+    if (keys.isPresent()) {
+      ArrayNode keysNode = body.putArray("keys");
+      keys.get().forEach(keysNode::add);
+    }
+
+    try {
+      database
+          .sqlQuery(
+              "SELECT pg_notify(:channel, nextval('cache_invalidation_generation_seq') || ':' ||"
+                  + " :body)")
+          .setParameter("channel", CHANNEL)
+          .setParameter("body", MAPPER.writeValueAsString(body))
+          .findOne();
+    } catch (JsonProcessingException | RuntimeException e) {
+      // Other servers will pick up the change once their entries expire, which is the behavior
+      // without the bus.
+      logger.error("Failed to broadcast invalidation of the {} cache", cacheName.getName(), e);
+    }
+  }
+
+  private void listen() {
+    while (listening) {
+      try (Connection connection = openListenerConnection()) {
+        try (Statement statement = connection.createStatement()) {
+          statement.execute("LISTEN " + CHANNEL);
+        }
+        // Broadcasts sent while this server was not listening were missed.
+        clearAllCaches();
+        logger.info("Listening for cache invalidations");
+
+        PGConnection pgConnection = connection.unwrap(PGConnection.class);
+        while (listening) {
+          PGNotification[] notifications =
+              pgConnection.getNotifications(LISTEN_POLL_TIMEOUT_MILLIS);
+          if (notifications == null) {
+            continue;
+          }
+          for (PGNotification notification : notifications) {
+            handleNotification(notification.getParameter());
+          }
+        }
+      } catch (SQLException | RuntimeException e) {
+        if (!listening) {
+          return;
+        }
+        logger.warn("Lost the cache invalidation connection, reconnecting", e);
+        try {
+          Thread.sleep(RECONNECT_DELAY_MILLIS);
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+
+  @VisibleForTesting
+  Connection openListenerConnection() throws SQLException {
+    // A dedicated connection is used since a LISTEN connection is held for the life of the server
+    // and must not take a connection from the pool.
+    String url = config.getString("db.default.url");
+    if (config.hasPath("db.default.username")) {
+      return DriverManager.getConnection(
+          url,
+          config.getString("db.default.username"),
+          config.hasPath("db.default.password") ? config.getString("db.default.password") : null);
+    }
+    return DriverManager.getConnection(url);
+  }
+
+  @VisibleForTesting
+  void handleNotification(String payload) {
+    int separator = payload.indexOf(':');
+    long generation;
+    JsonNode body;
+    try {
+      generation = Long.parseLong(payload.substring(0, separator));
+      body = MAPPER.readTree(payload.substring(separator + 1));
+    } catch (RuntimeException | JsonProcessingException e) {
+      logger.error("Received a malformed cache invalidation: {}", payload, e);
+      clearAllCaches();
+      return;
+    }
+
+    long previousGeneration = lastGeneration.getAndAccumulate(generation, Math::max);
+    if (previousGeneration != UNKNOWN_GENERATION && generation > previousGeneration + 1) {
+      logger.info(
+          "Cache invalidation generation jumped from {} to {}, clearing all caches",
+          previousGeneration,
+          generation);
+      clearAllCaches();
+      return;
+    }
+
+    Optional<CacheName> cacheName = CacheName.forName(body.path("cache").asText());
+    if (cacheName.isEmpty()) {
+      logger.error("Received an invalidation for an unknown cache: {}", payload);
+      return;
+    }
+    if (!body.has("keys")) {
+      evict(cacheName.get(), Optional.empty());
+      return;
+    }
+    ImmutableSet.Builder<String> keys = ImmutableSet.builder();
+    body.get("keys").forEach(key -> keys.add(key.asText()));
+    evict(cacheName.get(), Optional.of(keys.build()));
+  }
+
+  /** Evicts keys from a cache on this server, or clears it entirely if no keys are given. */
+  private void evict(CacheName cacheName, Optional<ImmutableSet<String>> keys) {
+    if (cacheName == CacheName.SETTINGS) {
+      settingsCache.invalidate();
+      return;
+    }
+    if (cacheName == CacheName.VERSION_POINTERS) {
+      versionPointerCache.invalidate();
+      return;
+    }
+
+    AsyncCacheApi cache = caches.get(cacheName);
+    if (keys.isEmpty()) {
+      cache.removeAll().toCompletableFuture().join();
+    } else {
+      keys.get().forEach(key -> cache.remove(key).toCompletableFuture().join());
+    }
+  }
+
+  private void clearAllCaches() {
+    settingsCache.invalidate();
+    versionPointerCache.invalidate();
+    caches.values().forEach(cache -> cache.removeAll().toCompletableFuture().join());
+  }
+}
@@ -3,15 +3,72 @@ package repository;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import akka.actor.ActorSystem;
+import com.typesafe.config.Config;
+import io.prometheus.client.Gauge;
+import io.prometheus.client.Histogram;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import play.libs.concurrent.CustomExecutionContext;
 
-/** Custom execution context wired to "database.dispatcher" thread pool */
+/**
+ * Custom execution context wired to "database.dispatcher" thread pool.
+ *
+ * <p>Tasks are counted while they wait for a thread and while they run, so the saturation of the
+ * pool is exported to Prometheus alongside its size.
+ */
 @Singleton
 public class DatabaseExecutionContext extends CustomExecutionContext {
+  private static final String POOL_SIZE_PATH =
+      "database.dispatcher.thread-pool-executor.fixed-pool-size";
+
+  private static final Gauge POOL_SIZE =
+      Gauge.build()
+          .name("database_executor_pool_size")
+          .help("Number of threads in the database thread pool")
+          .register();
+
+  private static final Gauge QUEUED_TASKS =
+      Gauge.build()
+          .name("database_executor_queued_tasks")
+          .help("Number of tasks waiting for a thread of the database thread pool")
+          .register();
+
+  private static final Gauge ACTIVE_TASKS =
+      Gauge.build()
+          .name("database_executor_active_tasks")
+          .help("Number of tasks running on the database thread pool")
+          .register();
+
+  private static final Histogram QUEUE_TIME =
+      Histogram.build()
+          .name("database_executor_queue_time_seconds")
+          .help("Time tasks waited for a thread of the database thread pool")
+          .buckets(0.0005, 0.001, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5)
+          .register();
+
   @Inject
   public DatabaseExecutionContext(ActorSystem actorSystem) {
     super(checkNotNull(actorSystem), "database.dispatcher");
+    Config config = actorSystem.settings().config();
+    if (config.hasPath(POOL_SIZE_PATH)) {
+      POOL_SIZE.set(config.getInt(POOL_SIZE_PATH));
+    }
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    Histogram.Timer queueTimer = QUEUE_TIME.startTimer();
+    QUEUED_TASKS.inc();
+    super.execute(
+        () -> {
+          QUEUED_TASKS.dec();
+          queueTimer.observeDuration();
+          ACTIVE_TASKS.inc();
+          try {
+            command.run();
+          } finally {
+            ACTIVE_TASKS.dec();
+          }
+        });
   }
 }
@@ -0,0 +1,125 @@
+package repository;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import io.ebean.DB;
+import io.ebean.Database;
+import io.ebean.SqlRow;
+import io.ebean.Transaction;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import javax.inject.Inject;
+import models.EmailOutboxModel;
+import services.email.EmailMessage;
+
+/**
+ * Queues notification emails in the {@code email_outbox} table and claims them for {@link
+ * services.email.EmailOutboxDispatcher} to send.
+ */
+public final class EmailOutboxRepository {
+  private static final QueryProfileLocationBuilder queryProfileLocationBuilder =
+      new QueryProfileLocationBuilder("EmailOutboxRepository");
+
+  private final Database database;
+  private final Clock clock;
+
+  @Inject
+  public EmailOutboxRepository(Clock clock) {
+    this.database = DB.getDefault();
+    this.clock = checkNotNull(clock);
+  }
+
+  /**
+   * Queues the emails to be sent. This joins the current transaction if there is one, so that the
+   * emails are sent only if the change they notify of is committed.
+   */
+  public void enqueue(ImmutableList<EmailMessage> messages) {
+    if (messages.isEmpty()) {
+      return;
+    }
+    Instant now = clock.instant();
+    database.insertAll(
+        messages.stream()
+            .map(message -> new EmailOutboxModel(message, now))
+            .collect(ImmutableList.toImmutableList()));
+  }
+
+  /**
+   * Claims up to {@code maxEmails} emails that are due to be sent, in the order they were queued,
+   * leasing them for {@code leaseDuration} and counting the attempt. Emails being claimed or sent
+   * by another server are skipped.
+   */
+  public ImmutableList<EmailOutboxModel> claimDueEmails(int maxEmails, Duration leaseDuration) {
+    try (Transaction transaction = database.beginTransaction()) {
+      Instant now = clock.instant();
+      List<EmailOutboxModel> emails =
+          database
+              .find(EmailOutboxModel.class)
+              .where()
+              .isNull("failed_time")
+              .le("next_attempt_time", now)
+              .or()
+              .isNull("lease_expiration_time")
+              .le("lease_expiration_time", now)
+              .endOr()
+              .orderBy("id asc")
+              .forUpdateSkipLocked()
+              .setMaxRows(maxEmails)
+              .setLabel("EmailOutboxModel.findList")
+              .setProfileLocation(queryProfileLocationBuilder.create("claimDueEmails"))
+              .findList();
+
+      Instant leaseExpirationTime = now.plus(leaseDuration);
+      emails.forEach(email -> email.claim(leaseExpirationTime));
+      database.updateAll(emails);
+      transaction.commit();
+      return ImmutableList.copyOf(emails);
+    }
+  }
+
+  /** The emails that haven't been sent or given up on, in the order they were queued. */
+  public ImmutableList<EmailMessage> getPendingEmails() {
+    return database
+        .find(EmailOutboxModel.class)
+        .where()
+        .isNull("failed_time")
+        .orderBy("id asc")
+        .setLabel("EmailOutboxModel.findList")
+        .setProfileLocation(queryProfileLocationBuilder.create("getPendingEmails"))
+        .findList()
+        .stream()
+        .map(EmailOutboxModel::getMessage)
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  /** Counts the emails in the outbox, for monitoring. */
+  public OutboxStats getStats() {
+    SqlRow row =
+        database
+            .sqlQuery(
+                """
+                SELECT
+                  count(*) FILTER (WHERE failed_time IS NULL) AS pending,
+                  min(create_time) FILTER (WHERE failed_time IS NULL) AS oldest_pending,
+                  count(*) FILTER (WHERE failed_time IS NOT NULL) AS failed
+                FROM email_outbox
+                """)
+            .setLabel("EmailOutboxRepository.getStats")
+            .findOne();
+    return new OutboxStats(
+        row.getLong("pending"),
+        Optional.ofNullable(row.getTimestamp("oldest_pending")).map(Timestamp::toInstant),
+        row.getLong("failed"));
+  }
+
+  /**
+   * The number of emails waiting to be sent, when the oldest of them was queued, and the number of
+   * emails that were given up on.
+   */
+  public record OutboxStats(long pending, Optional<Instant> oldestPending, long failed) {}
+}
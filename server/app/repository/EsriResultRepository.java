@@ -0,0 +1,88 @@
+package repository;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static java.util.concurrent.CompletableFuture.runAsync;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+
+import io.ebean.DB;
+import io.ebean.Database;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import javax.inject.Inject;
+
+/**
+ * Keeps results from Esri services in the database, so that all servers share them. Each result is
+ * a JSON document stored under a key chosen by the caller, and is only returned until it expires.
+ */
+public final class EsriResultRepository {
+  private final Database database;
+  private final DatabaseExecutionContext executionContext;
+  private final Clock clock;
+
+  @Inject
+  public EsriResultRepository(DatabaseExecutionContext executionContext, Clock clock) {
+    this.database = DB.getDefault();
+    this.executionContext = checkNotNull(executionContext);
+    this.clock = checkNotNull(clock);
+  }
+
+  /** Returns the JSON result stored under the key, if there is one that hasn't expired. */
+  public CompletionStage<Optional<String>> lookupResult(String cacheKey) {
+    return supplyAsync(
+        () ->
+            Optional.ofNullable(
+                database
+                    .sqlQuery(
+                        """
+                        SELECT CAST(result AS varchar)
+                        FROM esri_results
+                        WHERE cache_key = :cache_key AND expires_at > :now
+                        """)
+                    .setLabel("EsriResultRepository.lookupResult")
+                    .setParameter("cache_key", cacheKey)
+                    .setParameter("now", Instant.now(clock))
+                    .mapToScalar(String.class)
+                    .findOne()),
+        executionContext);
+  }
+
+  /**
+   * Stores the JSON result under the key until it's {@code timeToLive} old, replacing any result
+   * already stored under it. Expired results are deleted by {@link #deleteExpiredResults}.
+   */
+  public CompletionStage<Void> storeResult(String cacheKey, String result, Duration timeToLive) {
+    return runAsync(
+        () -> {
+          Instant now = Instant.now(clock);
+          database
+              .sqlUpdate(
+                  """
+                  INSERT INTO esri_results (cache_key, result, expires_at)
+                  VALUES (:cache_key, CAST(:result AS jsonb), :expires_at)
+                  ON CONFLICT (cache_key)
+                  DO UPDATE SET result = EXCLUDED.result, expires_at = EXCLUDED.expires_at
+                  """)
+              .setParameter("cache_key", cacheKey)
+              .setParameter("result", result)
+              .setParameter("expires_at", now.plus(timeToLive))
+              .setLabel("EsriResultRepository.storeResult")
+              .execute();
+        },
+        executionContext);
+  }
+
+  /**
+   * Deletes the results that have expired, so that the table only keeps results that can still be
+   * used, and returns the number deleted.
+   */
+  public int deleteExpiredResults() {
+    return database
+        .sqlUpdate("DELETE FROM esri_results WHERE expires_at <= :now")
+        .setParameter("now", Instant.now(clock))
+        .setLabel("EsriResultRepository.deleteExpiredResults")
+        .execute();
+  }
+}
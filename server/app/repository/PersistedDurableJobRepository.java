@@ -3,8 +3,10 @@ package repository;
 import annotations.BindingAnnotations;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import io.ebean.DB;
 import io.ebean.Database;
+import io.ebean.ExpressionList;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -63,26 +65,39 @@ public final class PersistedDurableJobRepository {
    * <p>A job is ready to be executed if it:
    *
    * <ul>
-   *   <li>is not locked for update by another transaction i.e. is not currently being executed
+   *   <li>is not locked for update by another transaction i.e. is not currently being claimed
    *       elsewhere
+   *   <li>is not leased to a runner, or its lease has expired
    *   <li>has more than zero remaining attempts
    *   <li>has an execution time is now or in the past
    *   <li>has a null success time (has never succeeded)
    * </ul>
    */
   public Optional<PersistedDurableJobModel> getRecurringJobForExecution() {
-    return database
-        .find(PersistedDurableJobModel.class)
-        .forUpdateSkipLocked()
-        .setLabel("PersistedDurableJobModel.findById")
-        .setProfileLocation(queryProfileLocationBuilder.create("getRecurringJobForExecution"))
-        .where()
-        .eq("job_type", JobType.RECURRING)
-        .le("execution_time", nowProvider.get())
-        .gt("remaining_attempts", 0)
-        .isNull("success_time")
-        .setMaxRows(1)
-        .findOneOrEmpty();
+    return getRecurringJobsForExecution(1, ImmutableSet.of()).stream().findFirst();
+  }
+
+  /**
+   * Gets up to {@code maxJobs} recurring jobs that are ready to be executed, as described by {@link
+   * #getRecurringJobForExecution}, leaving out jobs with the given names. Jobs are returned in
+   * order of execution time and stay locked until the transaction ends.
+   */
+  public ImmutableList<PersistedDurableJobModel> getRecurringJobsForExecution(
+      int maxJobs, ImmutableSet<String> excludedJobNames) {
+    return findJobsForExecution(
+        recurringJobsReadyForExecution(),
+        maxJobs,
+        excludedJobNames,
+        "getRecurringJobsForExecution");
+  }
+
+  /** Counts the recurring jobs that are ready to be executed, including locked ones. */
+  public int countRecurringJobsReadyForExecution() {
+    return recurringJobsReadyForExecution()
+        .setLabel("PersistedDurableJobModel.findCount")
+        .setProfileLocation(
+            queryProfileLocationBuilder.create("countRecurringJobsReadyForExecution"))
+        .findCount();
   }
 
   /**
@@ -91,24 +106,83 @@ public final class PersistedDurableJobRepository {
    * <p>A job is ready to be executed if it:
    *
    * <ul>
-   *   <li>is not locked for update by another transaction i.e. is not currently being executed
+   *   <li>is not locked for update by another transaction i.e. is not currently being claimed
    *       elsewhere
+   *   <li>is not leased to a runner, or its lease has expired
    *   <li>has more than zero remaining attempts
    *   <li>has a null success time (has never succeeded)
    * </ul>
    */
   public Optional<PersistedDurableJobModel> getStartupJobForExecution() {
-    return database
-        .find(PersistedDurableJobModel.class)
-        .forUpdateSkipLocked()
-        .setLabel("PersistedDurableJobModel.findById")
-        .setProfileLocation(queryProfileLocationBuilder.create("getStartupJobForExecution"))
-        .where()
-        .in("job_type", JobType.RUN_ONCE, JobType.RUN_ON_EACH_STARTUP)
-        .gt("remaining_attempts", 0)
-        .isNull("success_time")
-        .setMaxRows(1)
-        .findOneOrEmpty();
+    return getStartupJobsForExecution(1, ImmutableSet.of()).stream().findFirst();
+  }
+
+  /**
+   * Gets up to {@code maxJobs} startup jobs that are ready to be executed, as described by {@link
+   * #getStartupJobForExecution}, leaving out jobs with the given names. Jobs are returned in order
+   * of execution time and stay locked until the transaction ends.
+   */
+  public ImmutableList<PersistedDurableJobModel> getStartupJobsForExecution(
+      int maxJobs, ImmutableSet<String> excludedJobNames) {
+    return findJobsForExecution(
+        startupJobsReadyForExecution(), maxJobs, excludedJobNames, "getStartupJobsForExecution");
+  }
+
+  /** Counts the startup jobs that are ready to be executed, including locked ones. */
+  public int countStartupJobsReadyForExecution() {
+    return startupJobsReadyForExecution()
+        .setLabel("PersistedDurableJobModel.findCount")
+        .setProfileLocation(queryProfileLocationBuilder.create("countStartupJobsReadyForExecution"))
+        .findCount();
+  }
+
+  private ExpressionList<PersistedDurableJobModel> recurringJobsReadyForExecution() {
+    return notLeased(
+        database
+            .find(PersistedDurableJobModel.class)
+            .where()
+            .eq("job_type", JobType.RECURRING)
+            .le("execution_time", nowProvider.get())
+            .gt("remaining_attempts", 0)
+            .isNull("success_time"));
+  }
+
+  private ExpressionList<PersistedDurableJobModel> startupJobsReadyForExecution() {
+    return notLeased(
+        database
+            .find(PersistedDurableJobModel.class)
+            .where()
+            .in("job_type", JobType.RUN_ONCE, JobType.RUN_ON_EACH_STARTUP)
+            .gt("remaining_attempts", 0)
+            .isNull("success_time"));
+  }
+
+  private ExpressionList<PersistedDurableJobModel> notLeased(
+      ExpressionList<PersistedDurableJobModel> jobs) {
+    return jobs.or()
+        .isNull("lease_expiration_time")
+        .le("lease_expiration_time", nowProvider.get())
+        .endOr();
+  }
+
+  private ImmutableList<PersistedDurableJobModel> findJobsForExecution(
+      ExpressionList<PersistedDurableJobModel> jobs,
+      int maxJobs,
+      ImmutableSet<String> excludedJobNames,
+      String profileLocation) {
+    if (maxJobs <= 0) {
+      return ImmutableList.of();
+    }
+    if (!excludedJobNames.isEmpty()) {
+      jobs = jobs.notIn("job_name", excludedJobNames);
+    }
+    return ImmutableList.copyOf(
+        jobs.orderBy("execution_time asc")
+            .forUpdateSkipLocked()
+            .setLabel("PersistedDurableJobModel.findList")
+            .setProfileLocation(queryProfileLocationBuilder.create(profileLocation))
+            .setMaxRows(maxJobs)
+            .findList());
   }
 
   /** All {@link PersistedDurableJobModel}s ordered by execution time ascending. */
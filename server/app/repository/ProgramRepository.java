@@ -34,8 +34,6 @@ import play.libs.F;
 import services.IdentifierBasedPaginationSpec;
 import services.PageNumberBasedPaginationSpec;
 import services.PaginationResult;
-import services.Path;
-import services.WellKnownPaths;
 import services.program.BlockDefinition;
 import services.program.ProgramDefinition;
 import services.program.ProgramDraftNotFoundException;
@@ -377,12 +375,65 @@ public final class ProgramRepository {
       F.Either<IdentifierBasedPaginationSpec<Long>, PageNumberBasedPaginationSpec>
           paginationSpecEither,
       SubmittedApplicationFilter filters) {
+    ExpressionList<ApplicationModel> query =
+        applicationsForAllProgramVersionsQuery(
+            programId, filters, "getApplicationsForAllProgramVersions");
+
+    PagedList<ApplicationModel> pagedQuery;
+
+    if (paginationSpecEither.left.isPresent()) {
+      IdentifierBasedPaginationSpec<Long> paginationSpec = paginationSpecEither.left.get();
+      pagedQuery =
+          query
+              .where()
+              .lt("id", paginationSpec.getCurrentPageOffsetIdentifier())
+              .setMaxRows(paginationSpec.getPageSize())
+              .findPagedList();
+    } else {
+      PageNumberBasedPaginationSpec paginationSpec = paginationSpecEither.right.get();
+      pagedQuery =
+          query
+              .setFirstRow(paginationSpec.getCurrentPageOffset())
+              .setMaxRows(paginationSpec.getPageSize())
+              .findPagedList();
+    }
+
+    pagedQuery.loadCount();
+
+    return new PaginationResult<ApplicationModel>(
+        pagedQuery.hasNext(),
+        pagedQuery.getTotalPageCount(),
+        pagedQuery.getList().stream().collect(ImmutableList.toImmutableList()));
+  }
+
+  /**
+   * Returns a page of the same applications as {@link #getApplicationsForAllProgramVersions}, using
+   * identifier-based pagination, without counting every matching application.
+   *
+   * <p>This is for callers that walk every page and don't need the total, such as exports, where
+   * counting on every page would scan all the matching applications once per page. The last page
+   * is the first one with fewer applications than the page size.
+   */
+  public ImmutableList<ApplicationModel> getApplicationPageForAllProgramVersions(
+      long programId,
+      IdentifierBasedPaginationSpec<Long> paginationSpec,
+      SubmittedApplicationFilter filters) {
+    return applicationsForAllProgramVersionsQuery(
+            programId, filters, "getApplicationPageForAllProgramVersions")
+        .lt("id", paginationSpec.getCurrentPageOffsetIdentifier())
+        .setMaxRows(paginationSpec.getPageSize())
+        .findList()
+        .stream()
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  private ExpressionList<ApplicationModel> applicationsForAllProgramVersionsQuery(
+      long programId, SubmittedApplicationFilter filters, String profileLocation) {
     ExpressionList<ApplicationModel> query =
         database
             .find(ApplicationModel.class)
             .setLabel("ApplicationModel.findList")
-            .setProfileLocation(
-                queryProfileLocationBuilder.create("getApplicationsForAllProgramVersions"))
+            .setProfileLocation(queryProfileLocationBuilder.create(profileLocation))
             .fetch("applicant")
             .fetch("applicant.account.managedByGroup")
             .orderBy("id desc")
@@ -417,32 +468,7 @@ public final class ProgramRepository {
         query = query.where().eq("latest_status", toMatchStatus);
       }
     }
-
-    PagedList<ApplicationModel> pagedQuery;
-
-    if (paginationSpecEither.left.isPresent()) {
-      IdentifierBasedPaginationSpec<Long> paginationSpec = paginationSpecEither.left.get();
-      pagedQuery =
-          query
-              .where()
-              .lt("id", paginationSpec.getCurrentPageOffsetIdentifier())
-              .setMaxRows(paginationSpec.getPageSize())
-              .findPagedList();
-    } else {
-      PageNumberBasedPaginationSpec paginationSpec = paginationSpecEither.right.get();
-      pagedQuery =
-          query
-              .setFirstRow(paginationSpec.getCurrentPageOffset())
-              .setMaxRows(paginationSpec.getPageSize())
-              .findPagedList();
-    }
-
-    pagedQuery.loadCount();
-
-    return new PaginationResult<ApplicationModel>(
-        pagedQuery.hasNext(),
-        pagedQuery.getTotalPageCount(),
-        pagedQuery.getList().stream().collect(ImmutableList.toImmutableList()));
+    return query;
   }
 
   private Query<ProgramModel> allProgramVersionsQuery(long programId) {
@@ -478,16 +504,7 @@ public final class ProgramRepository {
           .ilike("applicant.phoneNumber", "%" + maybeOnlyDigits + "%")
           .endOr();
     } else {
-      String firstNamePath = "applicant.firstName";
-      String lastNamePath = "applicant.lastName";
-      return query
-          .or()
-          .ilike("applicant.emailAddress", "%" + search + "%")
-          .ilike("submitter_email", "%" + search + "%")
-          .ilike(firstNamePath + " || ' ' || " + lastNamePath, "%" + search + "%")
-          .ilike(lastNamePath + " || ' ' || " + firstNamePath, "%" + search + "%")
-          .ilike(lastNamePath + " || ', ' || " + firstNamePath, "%" + search + "%")
-          .endOr();
+      return searchUsingApplicantSearchText(search, query);
     }
   }
 
@@ -499,43 +516,17 @@ public final class ProgramRepository {
     if (search.matches("^\\d+$")) {
       return query.eq("id", Integer.parseInt(search));
     } else {
-      String firstNamePath = getApplicationObjectPath(WellKnownPaths.APPLICANT_FIRST_NAME);
-      String lastNamePath = getApplicationObjectPath(WellKnownPaths.APPLICANT_LAST_NAME);
-      return query
-          .or()
-          .raw("applicant.account.emailAddress ILIKE ?", "%" + search + "%")
-          .raw("submitter_email ILIKE ?", "%" + search + "%")
-          .raw(firstNamePath + " || ' ' || " + lastNamePath + " ILIKE ?", "%" + search + "%")
-          .raw(lastNamePath + " || ' ' || " + firstNamePath + " ILIKE ?", "%" + search + "%")
-          .raw(lastNamePath + " || ', ' || " + firstNamePath + " ILIKE ?", "%" + search + "%")
-          .endOr();
+      return searchUsingApplicantSearchText(search, query);
     }
   }
 
-  private String getApplicationObjectPath(Path path) {
-    StringBuilder result = new StringBuilder();
-
-    result.append("(");
-
-    // While the column type is JSONB, CiviForm writes the JSON object into the database as a
-    // string.
-    // This requires queries that interact with the JSON column to instruct postgres to parse the
-    // contents
-    // into JSON, which we do here with (object #>> '{}')::jsonb
-    result.append("(object #>> '{}')::jsonb");
-
-    int lastIndex = path.segments().size() - 1;
-    for (int i = 0; i < lastIndex; i++) {
-      result.append(" -> '");
-      result.append(path.segments().get(i));
-      result.append("'");
-    }
-
-    result.append(" ->> '");
-    result.append(path.segments().get(lastIndex));
-    result.append("')");
-
-    return result.toString();
+  /**
+   * Matches applications whose applicant name or email, or TI email, contains the search text. The
+   * search text column has a trigram index, so this doesn't scan every application.
+   */
+  private ExpressionList<ApplicationModel> searchUsingApplicantSearchText(
+      String search, ExpressionList<ApplicationModel> query) {
+    return query.ilike("applicantSearchText", "%" + search + "%");
   }
 
   /**
@@ -1,148 +1,139 @@
 package repository;
 
-import static com.google.common.base.Preconditions.checkNotNull;
-
-import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import io.ebean.DB;
 import io.ebean.Database;
 import io.ebean.SqlRow;
 import java.sql.Timestamp;
-import java.time.Clock;
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 import javax.inject.Inject;
-import org.postgresql.util.PGInterval;
 import services.reporting.ApplicationSubmissionsStat;
+import services.reporting.SubmissionDurationSketch;
 
-/** Implements queries related to reporting needs. */
+/**
+ * Implements queries related to reporting needs.
+ *
+ * <p>Submissions are counted as they happen into one row per program per day of the {@code
+ * application_submission_rollups} table, which holds a {@link SubmissionDurationSketch} of how long
+ * the applications took to complete as a JSON object of counts by bucket. Reading the reporting
+ * data merges those rows, so it takes time proportional to the number of programs and days rather
+ * than the number of applications.
+ */
 public final class ReportingRepository {
 
-  private final Clock clock;
   private final Database database;
 
   @Inject
-  public ReportingRepository(Clock clock) {
-    this.clock = Preconditions.checkNotNull(clock);
+  public ReportingRepository() {
     this.database = DB.getDefault();
   }
 
   /**
-   * Loads data from the monthly reporting view. Does not include data from current month because
-   * the job to refresh the view is scheduled to run at the beginning of each month. For current
-   * month reporting data use {@code loadThisMonthReportingData}.
+   * Counts the submitted application in the rollup for its program and submission day. This is
+   * called as part of the transaction submitting the application, so that the rollups count
+   * exactly the applications that were submitted.
    */
-  public ImmutableList<ApplicationSubmissionsStat> loadMonthlyReportingView() {
-    return database
-        .sqlQuery(
-            "SELECT * FROM monthly_submissions_reporting_view\n"
-                + "WHERE monthly_submissions_reporting_view.submit_month < :first_of_month::date")
-        .setParameter("first_of_month", getFirstOfMonth())
-        .findList()
-        .stream()
-        .map(
-            row ->
-                ApplicationSubmissionsStat.create(
-                    row.getString("program_name"),
-                    row.getString("en_us_localized_name"),
-                    Optional.of(row.getTimestamp("submit_month")),
-                    row.getLong("count"),
-                    getSecondsFromPgIntervalRowValue(row, "p25"),
-                    getSecondsFromPgIntervalRowValue(row, "p50"),
-                    getSecondsFromPgIntervalRowValue(row, "p75"),
-                    getSecondsFromPgIntervalRowValue(row, "p99")))
-        .collect(ImmutableList.toImmutableList());
+  public void recordSubmission(long applicationId) {
+    database
+        .sqlUpdate(
+            """
+            INSERT INTO application_submission_rollups AS rollups
+              (program_name, submit_day, duration_buckets)
+            SELECT
+              programs.name,
+              CAST(applications.submit_time AS date),
+              jsonb_build_object(
+                CASE WHEN EXTRACT(EPOCH FROM applications.submission_duration) > 1
+                  THEN CAST(CEIL(
+                    LN(CAST(EXTRACT(EPOCH FROM applications.submission_duration)
+                      AS double precision))
+                    / LN(CAST(:gamma AS double precision))) AS int)
+                  ELSE 0 END,
+                1)
+            FROM applications
+            INNER JOIN programs ON applications.program_id = programs.id
+            WHERE applications.id = :application_id AND applications.submit_time IS NOT NULL
+            ON CONFLICT (program_name, submit_day) DO UPDATE SET
+              duration_buckets = rollups.duration_buckets || (
+                SELECT jsonb_object_agg(
+                  added.key,
+                  COALESCE(CAST(rollups.duration_buckets ->> added.key AS bigint), 0)
+                    + CAST(added.value AS bigint))
+                FROM jsonb_each_text(EXCLUDED.duration_buckets) AS added)
+            """)
+        .setParameter("gamma", SubmissionDurationSketch.GAMMA)
+        .setParameter("application_id", applicationId)
+        .setLabel("ReportingRepository.recordSubmission")
+        .execute();
   }
 
-  private Timestamp getFirstOfMonth() {
-    return Timestamp.valueOf(
-        LocalDateTime.now(clock).truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1));
-  }
-
-  /** Loads application submission reporting data for current month. */
-  public ImmutableList<ApplicationSubmissionsStat> loadThisMonthReportingData() {
-    Timestamp firstOfMonth = getFirstOfMonth();
+  /**
+   * Loads application submission reporting data for each program in the active version, by the
+   * month the applications were submitted, including the current month. Stats are ordered by
+   * program name, then by month with the most recent first.
+   */
+  public ImmutableList<ApplicationSubmissionsStat> loadMonthlyReportingData() {
+    Map<ProgramMonth, SubmissionDurationSketch> sketches = new LinkedHashMap<>();
 
-    return database
+    database
         .sqlQuery(
-            "SELECT\n"
-                + "  programs.name AS program_name,\n"
-                + "  active_program.en_us_localized_name AS en_us_localized_name,\n"
-                + "  count(*),\n"
-                + "  percentile_cont(0.5) WITHIN GROUP (\n"
-                + "    ORDER BY applications.submission_duration) AS p50,\n"
-                + "  percentile_cont(0.25) WITHIN GROUP (\n"
-                + "    ORDER BY applications.submission_duration) AS p25,\n"
-                + "  percentile_cont(0.75) WITHIN GROUP (\n"
-                + "    ORDER BY applications.submission_duration) AS p75,\n"
-                + "  percentile_cont(0.99) WITHIN GROUP (\n"
-                + "    ORDER BY applications.submission_duration) AS p99\n"
-                + "FROM applications\n"
-                + "INNER JOIN programs ON applications.program_id = programs.id\n"
-                + "INNER JOIN\n"
-                + "  ( SELECT\n"
-                + "    p.name,\n"
-                + "  ((p.localized_name #>> '{}')::jsonb #>> '{translations,en_US}') AS"
-                + " en_us_localized_name\n"
-                + "  FROM programs p\n"
-                + "  INNER JOIN versions_programs vp ON\n"
-                + "  vp.programs_id = p.id\n"
-                + "  INNER JOIN  versions v ON\n"
-                + "  vp.versions_id = v.id WHERE v.lifecycle_stage IN ('active')) AS"
-                + " active_program\n"
-                + "  ON active_program.name = programs.name\n"
-                + "WHERE applications.lifecycle_stage IN ('active', 'obsolete')\n"
-                + "AND applications.submit_time >= date_trunc('month', :current_date::date)\n"
-                + "GROUP BY programs.name, active_program.en_us_localized_name")
-        .setParameter("current_date", firstOfMonth)
+            """
+            SELECT
+              rollups.program_name,
+              active_program.en_us_localized_name,
+              CAST(date_trunc('month', rollups.submit_day) AS timestamp) AS submit_month,
+              CAST(buckets.key AS int) AS bucket,
+              sum(CAST(buckets.value AS bigint)) AS count
+            FROM application_submission_rollups AS rollups
+            CROSS JOIN LATERAL jsonb_each_text(rollups.duration_buckets) AS buckets
+            INNER JOIN
+              (SELECT
+                p.name,
+                ((p.localized_name #>> '{}')::jsonb #>> '{translations,en_US}')
+                  AS en_us_localized_name
+                FROM programs p
+                INNER JOIN versions_programs vp ON vp.programs_id = p.id
+                INNER JOIN versions v ON vp.versions_id = v.id
+                WHERE v.lifecycle_stage IN ('active')) AS active_program
+              ON active_program.name = rollups.program_name
+            GROUP BY
+              rollups.program_name, active_program.en_us_localized_name, submit_month, bucket
+            ORDER BY rollups.program_name, submit_month DESC
+            """)
+        .setLabel("ReportingRepository.loadMonthlyReportingData")
         .findList()
-        .stream()
-        .map(
+        .forEach(
             row ->
+                sketches
+                    .computeIfAbsent(
+                        ProgramMonth.fromRow(row), unused -> new SubmissionDurationSketch())
+                    .addToBucket(row.getInteger("bucket"), row.getLong("count")));
+
+    return sketches.entrySet().stream()
+        .map(
+            entry ->
                 ApplicationSubmissionsStat.create(
-                    row.getString("program_name"),
-                    row.getString("en_us_localized_name"),
-                    Optional.of(firstOfMonth),
-                    row.getLong("count"),
-                    getSecondsFromPgIntervalRowValue(row, "p25"),
-                    getSecondsFromPgIntervalRowValue(row, "p50"),
-                    getSecondsFromPgIntervalRowValue(row, "p75"),
-                    getSecondsFromPgIntervalRowValue(row, "p99")))
+                    entry.getKey().programName(),
+                    entry.getKey().enUSLocalizedProgramName(),
+                    Optional.of(entry.getKey().month()),
+                    entry.getValue().count(),
+                    entry.getValue().percentile(0.25),
+                    entry.getValue().percentile(0.5),
+                    entry.getValue().percentile(0.75),
+                    entry.getValue().percentile(0.99)))
         .collect(ImmutableList.toImmutableList());
   }
 
-  /** Triggers a refresh of the monthly reporting view. */
-  public void refreshMonthlyReportingView() {
-    database.sqlUpdate("REFRESH MATERIALIZED VIEW monthly_submissions_reporting_view").execute();
-  }
-
-  private static double getSecondsFromPgIntervalRowValue(SqlRow row, String key) {
-    Object interval =
-        checkNotNull(
-            row.get(key),
-            String.format("Expected SqlRow to have key %s but not found in %s", key, row));
+  private record ProgramMonth(
+      String programName, String enUSLocalizedProgramName, Timestamp month) {
 
-    if (!(interval instanceof PGInterval)) {
-      throw new IllegalStateException(
-          String.format(
-              "Expected value at %s in SqlRow to be a PgInterval but got %s: %s",
-              key, interval.getClass().getName(), interval));
+    static ProgramMonth fromRow(SqlRow row) {
+      return new ProgramMonth(
+          row.getString("program_name"),
+          row.getString("en_us_localized_name"),
+          row.getTimestamp("submit_month"));
     }
-
-    return intervalToSeconds((PGInterval) interval);
-  }
-
-  private static final long SECONDS_PER_YEAR = 31556926L;
-  private static final long SECONDS_PER_DAY = 86400L;
-  private static final long SECONDS_PER_HOUR = 3600L;
-  private static final long SECONDS_PER_MINUTE = 60L;
-
-  private static double intervalToSeconds(PGInterval interval) {
-    return interval.getYears() * SECONDS_PER_YEAR
-        + interval.getDays() * SECONDS_PER_DAY
-        + interval.getHours() * SECONDS_PER_HOUR
-        + interval.getMinutes() * SECONDS_PER_MINUTE
-        + interval.getSeconds();
   }
 }
@@ -38,4 +38,24 @@ public final class SettingsGroupRepository {
                 .findOneOrEmpty(),
         databaseExecutionContext);
   }
+
+  /**
+   * Get the ID of the most recently created {@link SettingsGroupModel}, without loading its
+   * settings.
+   */
+  public CompletionStage<Optional<Long>> getCurrentSettingsId() {
+    return supplyAsync(
+        () ->
+            database
+                .find(SettingsGroupModel.class)
+                .select("id")
+                .orderBy()
+                .desc("create_time")
+                .setMaxRows(1)
+                .setLabel("SettingsGroupModel.findCurrentId")
+                .setProfileLocation(queryProfileLocationBuilder.create("getCurrentSettingsId"))
+                .findOneOrEmpty()
+                .map(settingsGroup -> settingsGroup.id),
+        databaseExecutionContext);
+  }
 }
@@ -0,0 +1,117 @@
+package repository;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.ebean.DB;
+import io.ebean.Database;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import models.LifecycleStage;
+import models.VersionModel;
+import services.settings.SettingsManifest;
+
+/**
+ * An in-memory cache of the IDs of the current ACTIVE and DRAFT {@link VersionModel}s.
+ *
+ * <p>Both IDs are loaded with a single query and kept until either {@link #invalidate()} is called,
+ * which {@link VersionRepository} does whenever it publishes or creates a version, or the refresh
+ * interval passes. The refresh interval bounds how long a server may keep using stale IDs after
+ * another server behind the same load balancer has published or created a version.
+ */
+@Singleton
+public final class VersionPointerCache {
+  private static final QueryProfileLocationBuilder profileLocationBuilder =
+      new QueryProfileLocationBuilder("VersionPointerCache");
+  private static final Duration DEFAULT_REFRESH_INTERVAL = Duration.ofSeconds(5);
+
+  private final Database database;
+  private final Clock clock;
+  private final Duration refreshInterval;
+  // Incremented by every invalidation. A snapshot is only used while its generation is current, so
+  // a load that races with an invalidation is never served to later callers.
+  private final AtomicLong generation = new AtomicLong();
+  private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+  @Inject
+  public VersionPointerCache(Clock clock, SettingsManifest settingsManifest) {
+    this(
+        clock,
+        settingsManifest
+            .getVersionPointerCacheRefreshSeconds()
+            .map(Duration::ofSeconds)
+            .orElse(DEFAULT_REFRESH_INTERVAL));
+  }
+
+  @VisibleForTesting
+  VersionPointerCache(Clock clock, Duration refreshInterval) {
+    this.database = DB.getDefault();
+    this.clock = checkNotNull(clock);
+    this.refreshInterval = checkNotNull(refreshInterval);
+  }
+
+  /** Returns the ID of the ACTIVE version, or empty if there is none. */
+  public Optional<Long> getActiveVersionId() {
+    return getSnapshot().activeVersionId();
+  }
+
+  /** Returns the ID of the DRAFT version, or empty if there is none. */
+  public Optional<Long> getDraftVersionId() {
+    return getSnapshot().draftVersionId();
+  }
+
+  /** Discards the cached IDs so that the next lookup reads them from the database. */
+  public void invalidate() {
+    generation.incrementAndGet();
+  }
+
+  private Snapshot getSnapshot() {
+    Instant now = clock.instant();
+    Snapshot current = snapshot.get();
+    if (current != null
+        && current.generation() == generation.get()
+        && now.isBefore(current.expiresAt())) {
+      return current;
+    }
+
+    Snapshot loaded = load(generation.get(), now.plus(refreshInterval));
+    snapshot.set(loaded);
+    return loaded;
+  }
+
+  private Snapshot load(long loadGeneration, Instant expiresAt) {
+    List<VersionModel> versions =
+        database
+            .find(VersionModel.class)
+            .select("id, lifecycleStage")
+            .where()
+            .in("lifecycle_stage", LifecycleStage.ACTIVE, LifecycleStage.DRAFT)
+            .setLabel("VersionModel.findActiveAndDraftIds")
+            .setProfileLocation(profileLocationBuilder.create("load"))
+            .findList();
+
+    Optional<Long> activeVersionId = Optional.empty();
+    Optional<Long> draftVersionId = Optional.empty();
+    for (VersionModel version : versions) {
+      if (version.getLifecycleStage() == LifecycleStage.ACTIVE) {
+        activeVersionId = Optional.of(version.id);
+      } else {
+        draftVersionId = Optional.of(version.id);
+      }
+    }
+    return new Snapshot(loadGeneration, expiresAt, activeVersionId, draftVersionId);
+  }
+
+  private record Snapshot(
+      long generation,
+      Instant expiresAt,
+      Optional<Long> activeVersionId,
+      Optional<Long> draftVersionId) {}
+}
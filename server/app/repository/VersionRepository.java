@@ -2,10 +2,12 @@ package repository;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static java.util.function.Predicate.not;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
@@ -14,11 +16,14 @@ import com.google.common.collect.Sets;
 import io.ebean.DB;
 import io.ebean.Database;
 import io.ebean.SerializableConflictException;
+import io.ebean.SqlRow;
 import io.ebean.Transaction;
 import io.ebean.TxScope;
 import io.ebean.annotation.TxIsolation;
-import java.util.Collection;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
@@ -37,6 +42,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import play.cache.NamedCache;
 import play.cache.SyncCacheApi;
+import repository.CacheInvalidationBus.CacheName;
 import services.program.BlockDefinition;
 import services.program.CantPublishProgramWithSharedQuestionsException;
 import services.program.EligibilityDefinition;
@@ -66,6 +72,8 @@ public final class VersionRepository {
   private final SettingsManifest settingsManifest;
   private final SyncCacheApi questionsByVersionCache;
   private final SyncCacheApi programsByVersionCache;
+  private final VersionPointerCache versionPointerCache;
+  private final CacheInvalidationBus cacheInvalidationBus;
 
   @Inject
   public VersionRepository(
@@ -74,7 +82,9 @@ public final class VersionRepository {
       DatabaseExecutionContext databaseExecutionContext,
       SettingsManifest settingsManifest,
       @NamedCache("version-questions") SyncCacheApi questionsByVersionCache,
-      @NamedCache("version-programs") SyncCacheApi programsByVersionCache) {
+      @NamedCache("version-programs") SyncCacheApi programsByVersionCache,
+      VersionPointerCache versionPointerCache,
+      CacheInvalidationBus cacheInvalidationBus) {
     this.database = DB.getDefault();
     this.programRepository = checkNotNull(programRepository);
     this.questionRepository = checkNotNull(questionRepository);
@@ -82,14 +92,213 @@ public final class VersionRepository {
     this.settingsManifest = checkNotNull(settingsManifest);
     this.questionsByVersionCache = checkNotNull(questionsByVersionCache);
     this.programsByVersionCache = checkNotNull(programsByVersionCache);
+    this.versionPointerCache = checkNotNull(versionPointerCache);
+    this.cacheInvalidationBus = checkNotNull(cacheInvalidationBus);
   }
 
   /**
    * Publish a new version of all programs and questions. All DRAFT programs/questions will become
    * ACTIVE, and all ACTIVE programs/questions without a draft will be copied to the next version.
+   *
+   * <p>The copying is done with a few set-based statements rather than by loading every program and
+   * question, so that the {@code SERIALIZABLE} transaction stays short however large the catalog
+   * is. Returns how long each phase of the publish took.
+   */
+  public PublishTimings publishNewSynchronizedVersion() {
+    Stopwatch stopwatch = Stopwatch.createStarted();
+    VersionModel draft;
+    VersionModel active;
+    Duration associate;
+    Duration validate;
+    Duration commit;
+    Transaction transaction =
+        database.beginTransaction(TxScope.requiresNew().setIsolation(TxIsolation.SERIALIZABLE));
+    try {
+      draft = getDraftVersionOrCreate();
+      active = getActiveVersionWithoutCache();
+
+      carryForwardActivePrograms(draft, active);
+      carryForwardActiveQuestions(draft, active);
+      removeProgramsAndQuestionsDeletedInDraft(draft);
+      Preconditions.checkState(
+          hasProgramsOrQuestions(draft),
+          "Must have at least 1 program or question in the draft version.");
+      // Pick up the tombstones removed above before saving the draft.
+      draft.refresh();
+
+      // Move forward the ACTIVE version.
+      active.setLifecycleStage(LifecycleStage.OBSOLETE);
+      draft.setLifecycleStage(LifecycleStage.ACTIVE);
+      draft.save();
+      active.save();
+      associate = lap(stopwatch);
+
+      validateProgramQuestionState(draft);
+      validate = lap(stopwatch);
+
+      transaction.commit();
+      commit = lap(stopwatch);
+    } finally {
+      transaction.end();
+    }
+
+    invalidateCachesForPublish(draft, active);
+    PublishTimings timings =
+        new PublishTimings(associate, validate, commit, /* invalidateCaches= */ lap(stopwatch));
+    logger.info(
+        "Published version {}: associated programs and questions in {} ms, validated in {} ms,"
+            + " committed in {} ms, invalidated caches in {} ms",
+        draft.id,
+        timings.associate().toMillis(),
+        timings.validate().toMillis(),
+        timings.commit().toMillis(),
+        timings.invalidateCaches().toMillis());
+    return timings;
+  }
+
+  /**
+   * How long each phase of {@link #publishNewSynchronizedVersion()} took. Everything but {@code
+   * invalidateCaches} runs in the {@code SERIALIZABLE} transaction.
    */
-  public void publishNewSynchronizedVersion() {
-    publishNewSynchronizedVersion(PublishMode.PUBLISH_CHANGES);
+  public record PublishTimings(
+      Duration associate, Duration validate, Duration commit, Duration invalidateCaches) {
+
+    /** How long the {@code SERIALIZABLE} transaction was open. */
+    public Duration transaction() {
+      return associate.plus(validate).plus(commit);
+    }
+
+    public Duration total() {
+      return transaction().plus(invalidateCaches);
+    }
+  }
+
+  /** Returns the time since the stopwatch was last started, and restarts it. */
+  private static Duration lap(Stopwatch stopwatch) {
+    Duration elapsed = stopwatch.elapsed();
+    stopwatch.reset().start();
+    return elapsed;
+  }
+
+  /**
+   * Associates the active programs that aren't in the draft, and aren't being deleted in it, with
+   * the draft.
+   *
+   * <p>The relationship between Programs and Versions is many-to-many. It's updated by inserting
+   * into the join table directly so that the "updated" timestamp of a Program doesn't change. We
+   * intend for that timestamp only to be updated for actual changes to the program.
+   */
+  private void carryForwardActivePrograms(VersionModel draft, VersionModel active) {
+    database
+        .sqlUpdate(
+            """
+            INSERT INTO versions_programs (programs_id, versions_id)
+            SELECT p.id, :draft_id
+            FROM versions_programs vp
+            JOIN programs p ON p.id = vp.programs_id
+            JOIN versions draft ON draft.id = :draft_id
+            WHERE vp.versions_id = :active_id
+              AND p.name <> ALL (COALESCE(draft.tombstoned_program_names, '{}'))
+              AND NOT EXISTS (
+                SELECT 1
+                FROM versions_programs draft_vp
+                JOIN programs draft_p ON draft_p.id = draft_vp.programs_id
+                WHERE draft_vp.versions_id = :draft_id AND draft_p.name = p.name)
+            """)
+        .setParameter("draft_id", draft.id)
+        .setParameter("active_id", active.id)
+        .setLabel("VersionRepository.carryForwardActivePrograms")
+        .execute();
+  }
+
+  /**
+   * Associates the active questions that aren't in the draft, and aren't being deleted in it, with
+   * the draft. As with programs, this leaves the questions' "updated" timestamps alone.
+   */
+  private void carryForwardActiveQuestions(VersionModel draft, VersionModel active) {
+    database
+        .sqlUpdate(
+            """
+            INSERT INTO versions_questions (questions_id, versions_id)
+            SELECT q.id, :draft_id
+            FROM versions_questions vq
+            JOIN questions q ON q.id = vq.questions_id
+            JOIN versions draft ON draft.id = :draft_id
+            WHERE vq.versions_id = :active_id
+              AND q.name <> ALL (COALESCE(draft.tombstoned_question_names, '{}'))
+              AND NOT EXISTS (
+                SELECT 1
+                FROM versions_questions draft_vq
+                JOIN questions draft_q ON draft_q.id = draft_vq.questions_id
+                WHERE draft_vq.versions_id = :draft_id AND draft_q.name = q.name)
+            """)
+        .setParameter("draft_id", draft.id)
+        .setParameter("active_id", active.id)
+        .setLabel("VersionRepository.carryForwardActiveQuestions")
+        .execute();
+  }
+
+  /**
+   * Removes any programs and questions that were both added and deleted in the draft, along with
+   * their tombstones.
+   */
+  private void removeProgramsAndQuestionsDeletedInDraft(VersionModel draft) {
+    database
+        .sqlUpdate(
+            """
+            WITH removed AS (
+              DELETE FROM versions_programs vp
+              USING programs p, versions v
+              WHERE vp.versions_id = :draft_id
+                AND p.id = vp.programs_id
+                AND v.id = vp.versions_id
+                AND p.name = ANY (v.tombstoned_program_names)
+              RETURNING p.name
+            )
+            UPDATE versions
+            SET tombstoned_program_names = ARRAY(
+              SELECT name FROM unnest(tombstoned_program_names) AS name
+              WHERE name NOT IN (SELECT name FROM removed))
+            WHERE id = :draft_id AND EXISTS (SELECT 1 FROM removed)
+            """)
+        .setParameter("draft_id", draft.id)
+        .setLabel("VersionRepository.removeProgramsDeletedInDraft")
+        .execute();
+    database
+        .sqlUpdate(
+            """
+            WITH removed AS (
+              DELETE FROM versions_questions vq
+              USING questions q, versions v
+              WHERE vq.versions_id = :draft_id
+                AND q.id = vq.questions_id
+                AND v.id = vq.versions_id
+                AND q.name = ANY (v.tombstoned_question_names)
+              RETURNING q.name
+            )
+            UPDATE versions
+            SET tombstoned_question_names = ARRAY(
+              SELECT name FROM unnest(tombstoned_question_names) AS name
+              WHERE name NOT IN (SELECT name FROM removed))
+            WHERE id = :draft_id AND EXISTS (SELECT 1 FROM removed)
+            """)
+        .setParameter("draft_id", draft.id)
+        .setLabel("VersionRepository.removeQuestionsDeletedInDraft")
+        .execute();
+  }
+
+  private boolean hasProgramsOrQuestions(VersionModel version) {
+    return database
+        .sqlQuery(
+            """
+            SELECT EXISTS (SELECT 1 FROM versions_programs WHERE versions_id = :version_id)
+              OR EXISTS (SELECT 1 FROM versions_questions WHERE versions_id = :version_id)
+              AS has_programs_or_questions
+            """)
+        .setParameter("version_id", version.id)
+        .setLabel("VersionRepository.hasProgramsOrQuestions")
+        .mapToScalar(Boolean.class)
+        .findOne();
   }
 
   /**
@@ -99,23 +308,13 @@ public final class VersionRepository {
    * corresponding to what would be the new ACTIVE version.
    */
   public VersionModel previewPublishNewSynchronizedVersion() {
-    return publishNewSynchronizedVersion(PublishMode.DRY_RUN);
-  }
-
-  private enum PublishMode {
-    DRY_RUN,
-    PUBLISH_CHANGES,
-  }
-
-  private VersionModel publishNewSynchronizedVersion(PublishMode publishMode) {
-    // Regardless of whether changes are published or not, we still perform
-    // this operation inside of a transaction in order to ensure we have
-    // consistent reads.
+    // Nothing is saved, but this still runs in a transaction in order to ensure we have consistent
+    // reads.
     Transaction transaction =
         database.beginTransaction(TxScope.requiresNew().setIsolation(TxIsolation.SERIALIZABLE));
     try {
       VersionModel draft = getDraftVersionOrCreate();
-      VersionModel active = getActiveVersion();
+      VersionModel active = getActiveVersionWithoutCache();
 
       ImmutableSet<String> draftProgramsNames = getProgramNamesForVersion(draft);
       ImmutableSet<String> draftQuestionNames = getQuestionNamesForVersion(draft);
@@ -188,22 +387,6 @@ public final class VersionRepository {
       active.setLifecycleStage(LifecycleStage.OBSOLETE);
       draft.setLifecycleStage(LifecycleStage.ACTIVE);
 
-      switch (publishMode) {
-        case PUBLISH_CHANGES:
-          Preconditions.checkState(
-              !getProgramsForVersion(draft).isEmpty() || !getQuestionsForVersion(draft).isEmpty(),
-              "Must have at least 1 program or question in the draft version.");
-          draft.save();
-          active.save();
-          draft.refresh();
-          active.refresh();
-          validateProgramQuestionState();
-          break;
-        case DRY_RUN:
-          break;
-        default:
-          throw new RuntimeException(String.format("unrecognized publishMode: %s", publishMode));
-      }
       transaction.commit();
       return draft;
     } finally {
@@ -228,7 +411,7 @@ public final class VersionRepository {
         database.beginTransaction(TxScope.requiresNew().setIsolation(TxIsolation.SERIALIZABLE));
     try {
       VersionModel existingDraft = getDraftVersionOrCreate();
-      VersionModel active = getActiveVersion();
+      VersionModel active = getActiveVersionWithoutCache();
 
       // Any drafts not being published right now will be moved to newDraft.
       VersionModel newDraft = new VersionModel(LifecycleStage.DRAFT);
@@ -301,8 +484,9 @@ public final class VersionRepository {
       newDraft.save();
       active.refresh();
       newDraft.refresh();
-      validateProgramQuestionState();
+      validateProgramQuestionState(existingDraft);
       transaction.commit();
+      invalidateCachesForPublish(existingDraft, active, newDraft);
     } catch (NonUniqueResultException | SerializableConflictException | RollbackException e) {
       transaction.rollback(e);
       // We must end the transaction here since we are going to recurse and try again.
@@ -324,8 +508,41 @@ public final class VersionRepository {
     }
   }
 
+  /**
+   * Evicts the cached data that publishing changes, on this server and every other server: the
+   * version pointers, the contents of the given versions, and the programs in them.
+   */
+  private void invalidateCachesForPublish(VersionModel... changedVersions) {
+    cacheInvalidationBus.invalidateAll(CacheName.VERSION_POINTERS);
+
+    ImmutableSet<String> versionIds =
+        Arrays.stream(changedVersions)
+            .map(version -> String.valueOf(version.id))
+            .collect(toImmutableSet());
+    cacheInvalidationBus.invalidate(CacheName.VERSION_PROGRAMS, versionIds);
+    cacheInvalidationBus.invalidate(CacheName.VERSION_QUESTIONS, versionIds);
+
+    ImmutableSet<String> programIds =
+        Arrays.stream(changedVersions)
+            .flatMap(version -> getProgramsForVersionWithoutCache(version).stream())
+            .map(program -> String.valueOf(program.id))
+            .collect(toImmutableSet());
+    cacheInvalidationBus.invalidate(CacheName.PROGRAM, programIds);
+    cacheInvalidationBus.invalidate(CacheName.PROGRAM_VERSIONS, programIds);
+    cacheInvalidationBus.invalidate(CacheName.FULL_PROGRAM_DEFINITION, programIds);
+  }
+
   /** Get the current draft version. Empty optional if not available. */
   public Optional<VersionModel> getDraftVersion() {
+    if (useVersionPointerCache()) {
+      return versionPointerCache
+          .getDraftVersionId()
+          .map(id -> database.reference(VersionModel.class, id));
+    }
+    return getDraftVersionWithoutCache();
+  }
+
+  private Optional<VersionModel> getDraftVersionWithoutCache() {
     return database
         .find(VersionModel.class)
         .where()
@@ -337,7 +554,9 @@ public final class VersionRepository {
 
   /** Get the current draft version. Creates it if one does not exist. */
   public VersionModel getDraftVersionOrCreate() {
-    Optional<VersionModel> version = getDraftVersion();
+    // Read the draft from the database, since a draft created on another server may not be in the
+    // version pointer cache yet and creating a second draft here would fail.
+    Optional<VersionModel> version = getDraftVersionWithoutCache();
 
     if (version.isPresent()) {
       return version.get();
@@ -366,6 +585,7 @@ public final class VersionRepository {
           .setProfileLocation(profileLocationBuilder.create("getDraftVersionOrCreate"))
           .findOne();
       transaction.commit();
+      cacheInvalidationBus.invalidateAll(CacheName.VERSION_POINTERS);
       return newDraftVersion;
     } catch (NonUniqueResultException | SerializableConflictException | RollbackException e) {
       transaction.rollback(e);
@@ -384,6 +604,16 @@ public final class VersionRepository {
   }
 
   public VersionModel getActiveVersion() {
+    if (useVersionPointerCache()) {
+      Optional<Long> activeVersionId = versionPointerCache.getActiveVersionId();
+      if (activeVersionId.isPresent()) {
+        return database.reference(VersionModel.class, activeVersionId.get());
+      }
+    }
+    return getActiveVersionWithoutCache();
+  }
+
+  private VersionModel getActiveVersionWithoutCache() {
     return database
         .find(VersionModel.class)
         .where()
@@ -393,6 +623,16 @@ public final class VersionRepository {
         .findOne();
   }
 
+  /**
+   * Returns true if the active and draft versions should be looked up in the {@link
+   * VersionPointerCache}. Lookups made inside a transaction always read the database so that they
+   * see the transaction's own writes and take part in its isolation.
+   */
+  private boolean useVersionPointerCache() {
+    return settingsManifest.getVersionPointerCacheEnabled()
+        && database.currentTransaction() == null;
+  }
+
   public CompletionStage<VersionModel> getActiveVersionAsync() {
     return CompletableFuture.supplyAsync(
         () -> {
@@ -645,42 +885,59 @@ public final class VersionRepository {
         .anyMatch(activeProgram -> activeProgram.id.equals(programId));
   }
 
-  /** Validate all programs have associated questions. */
-  private void validateProgramQuestionState() {
-    VersionModel activeVersion = getActiveVersion();
-    ImmutableList<QuestionDefinition> newActiveQuestions =
-        getQuestionsForVersionWithoutCache(activeVersion).stream()
-            .map(question -> questionRepository.getQuestionDefinition(question))
-            .collect(ImmutableList.toImmutableList());
+  /**
+   * Validate all programs in the version have their questions in it, and that it has only one
+   * revision of each question. This reads the question ids straight from the programs' block
+   * definitions rather than building every program and question definition.
+   */
+  private void validateProgramQuestionState(VersionModel version) {
     // Check there aren't any duplicate questions in the new active version
-    validateNoDuplicateQuestions(newActiveQuestions);
-    ImmutableSet<Long> missingQuestionIds =
-        getProgramsForVersionWithoutCache(activeVersion).stream()
-            .map(
-                program ->
-                    programRepository
-                        .getShallowProgramDefinition(program)
-                        .getQuestionIdsInProgram())
-            .flatMap(Collection::stream)
-            .filter(
-                questionId ->
-                    !newActiveQuestions.stream()
-                        .map(questionDefinition -> questionDefinition.getId())
-                        .collect(ImmutableSet.toImmutableSet())
-                        .contains(questionId))
-            .collect(ImmutableSet.toImmutableSet());
-    if (!missingQuestionIds.isEmpty()) {
+    validateNoDuplicateQuestions(
+        ImmutableList.copyOf(
+            database
+                .sqlQuery(
+                    """
+                    SELECT q.name
+                    FROM versions_questions vq
+                    JOIN questions q ON q.id = vq.questions_id
+                    WHERE vq.versions_id = :version_id
+                    """)
+                .setParameter("version_id", version.id)
+                .setLabel("VersionRepository.findQuestionNames")
+                .mapToScalar(String.class)
+                .findList()));
+
+    List<SqlRow> missingQuestions =
+        database
+            .sqlQuery(
+                """
+                SELECT DISTINCT
+                  vp.programs_id AS program_id,
+                  CAST(pqd->>'id' AS bigint) AS question_id
+                FROM versions_programs vp
+                JOIN programs p ON p.id = vp.programs_id
+                CROSS JOIN LATERAL jsonb_array_elements(p.block_definitions) AS block
+                CROSS JOIN LATERAL jsonb_array_elements(
+                  COALESCE(block->'questionDefinitions', jsonb_build_array())) AS pqd
+                WHERE vp.versions_id = :version_id
+                  AND NOT EXISTS (
+                    SELECT 1
+                    FROM versions_questions vq
+                    WHERE vq.versions_id = :version_id
+                      AND vq.questions_id = CAST(pqd->>'id' AS bigint))
+                """)
+            .setParameter("version_id", version.id)
+            .setLabel("VersionRepository.findMissingProgramQuestions")
+            .findList();
+    if (!missingQuestions.isEmpty()) {
+      ImmutableSet<Long> missingQuestionIds =
+          missingQuestions.stream()
+              .map(row -> row.getLong("question_id"))
+              .collect(toImmutableSet());
       ImmutableSet<Long> programIdsMissingQuestions =
-          getProgramsForVersionWithoutCache(activeVersion).stream()
-              .filter(
-                  program ->
-                      programRepository
-                          .getShallowProgramDefinition(program)
-                          .getQuestionIdsInProgram()
-                          .stream()
-                          .anyMatch(id -> missingQuestionIds.contains(id)))
-              .map(program -> program.id)
-              .collect(ImmutableSet.toImmutableSet());
+          missingQuestions.stream()
+              .map(row -> row.getLong("program_id"))
+              .collect(toImmutableSet());
       throw new IllegalStateException(
           String.format(
               "Illegal state encountered when attempting to publish a new version. Question IDs"
@@ -691,15 +948,15 @@ public final class VersionRepository {
 
   /** Validate there are no duplicate question names. */
   @VisibleForTesting
-  void validateNoDuplicateQuestions(ImmutableList<QuestionDefinition> questionList) {
+  void validateNoDuplicateQuestions(ImmutableList<String> questionNames) {
     Set<String> uniqueActiveQuestionNames = new HashSet<>();
-    for (QuestionDefinition question : questionList) {
-      if (!uniqueActiveQuestionNames.add(question.getName())) {
+    for (String questionName : questionNames) {
+      if (!uniqueActiveQuestionNames.add(questionName)) {
         throw new IllegalStateException(
             String.format(
                 "Illegal state encountered when attempting to publish a new version. Question"
                     + " %s found more than once in the new active version.",
-                question.getName()));
+                questionName));
       }
     }
   }
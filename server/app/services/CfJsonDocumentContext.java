@@ -2,8 +2,11 @@ package services;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.i18n.phonenumbers.PhoneNumberUtil;
+import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.PathNotFoundException;
 import com.jayway.jsonpath.TypeRef;
@@ -15,10 +18,12 @@ import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import javax.annotation.Nullable;
 import services.applicant.Currency;
 import services.applicant.JsonPathProvider;
@@ -32,9 +37,16 @@ import services.export.JsonPrettifier;
 public class CfJsonDocumentContext {
   private static final TypeRef<List<Object>> LIST_OF_OBJECTS_TYPE = new TypeRef<>() {};
   private static final PhoneNumberUtil PHONE_NUMBER_UTIL = PhoneNumberUtil.getInstance();
+  // Returned by lookUp when a path isn't in the document, as distinct from a null value there.
+  private static final Object MISSING = new Object();
+  // Changes are tracked by the entry they fall under at this depth, such as applicant.name.
+  private static final int CHANGED_ENTRY_DEPTH = 2;
 
   protected boolean locked = false;
   protected final DocumentContext jsonData;
+  // The entries changed since the changes were last cleared, or empty once a change has been made
+  // that can't be attributed to an entry, after which the whole document has to be written.
+  private Optional<Set<Path>> changedEntries = Optional.of(new LinkedHashSet<>());
 
   public CfJsonDocumentContext(DocumentContext jsonData) {
     this.jsonData = checkNotNull(jsonData);
@@ -48,10 +60,61 @@ public class CfJsonDocumentContext {
     this("{}");
   }
 
+  /**
+   * Returns the underlying document. Changes made through it aren't tracked, so once it has been
+   * used {@link #getChangedEntries()} is empty until the changes are cleared.
+   */
   public DocumentContext getDocumentContext() {
+    changedEntries = Optional.empty();
     return jsonData;
   }
 
+  /**
+   * Returns the entries two levels below the root, such as {@code applicant.name}, that have been
+   * changed since {@link #clearChanges()} was last called, with the JSON of each one's current
+   * value or empty if it has been removed. Writing just these entries over the document as it was
+   * when the changes were cleared produces the document as it is now.
+   *
+   * <p>Returns empty if a change has been made that isn't within such an entry, such as adding or
+   * removing a top-level entry, or through {@link #getDocumentContext()}. The whole document has to
+   * be written then.
+   */
+  public Optional<ImmutableMap<Path, Optional<String>>> getChangedEntries() {
+    return changedEntries.map(
+        entries ->
+            entries.stream()
+                .collect(ImmutableMap.toImmutableMap(entry -> entry, this::entryAsJson)));
+  }
+
+  /** Starts tracking changes afresh, once the document as it is now has been saved. */
+  public void clearChanges() {
+    changedEntries = Optional.of(new LinkedHashSet<>());
+  }
+
+  private Optional<String> entryAsJson(Path entry) {
+    Object value = lookUp(entry);
+    if (value == MISSING) {
+      return Optional.empty();
+    }
+    return Optional.of(jsonData.configuration().jsonProvider().toJson(value));
+  }
+
+  /** Records a change at the path against the entry it falls under. */
+  private void recordChange(Path path) {
+    if (changedEntries.isEmpty()) {
+      return;
+    }
+    Optional<ImmutableList<Object>> steps = path.documentSteps();
+    if (steps.isEmpty()
+        || steps.get().size() < CHANGED_ENTRY_DEPTH
+        || !steps.get().subList(0, CHANGED_ENTRY_DEPTH).stream()
+            .allMatch(step -> step instanceof String)) {
+      changedEntries = Optional.empty();
+      return;
+    }
+    changedEntries.get().add(Path.create(steps.get().get(0) + "." + steps.get().get(1)));
+  }
+
   /** Makes this instance immutable. A locked instance cannot be unlocked. */
   public void lock() {
     locked = true;
@@ -68,12 +131,7 @@ public class CfJsonDocumentContext {
    * @return true if path is present; false otherwise
    */
   public boolean hasPath(Path path) {
-    try {
-      jsonData.read(path.toString());
-    } catch (PathNotFoundException e) {
-      return false;
-    }
-    return true;
+    return lookUp(path) != MISSING;
   }
 
   /**
@@ -101,7 +159,59 @@ public class CfJsonDocumentContext {
    * @return true if there is a null value at the given path; false otherwise.
    */
   public boolean hasNullValueAtPath(Path path) {
-    return jsonData.read(path.toString()) == null;
+    Object value = lookUp(path);
+    if (value == MISSING) {
+      throw new PathNotFoundException("No results for path: " + path.predicateFormat());
+    }
+    return value == null;
+  }
+
+  /**
+   * Returns the value at the given {@link Path} as the document holds it: a {@link Map} for an
+   * object, a {@link List} for an array, or a string, number or boolean. The value must not be
+   * modified.
+   *
+   * @param path the {@link Path} to read
+   * @return the value, or empty if the path is missing or holds null
+   */
+  public Optional<Object> readDocumentValue(Path path) {
+    Object value = lookUp(path);
+    return value == MISSING ? Optional.empty() : Optional.ofNullable(value);
+  }
+
+  /**
+   * Returns the value at the given path, which may be null, or {@link #MISSING} if the path isn't
+   * in the document.
+   *
+   * <p>This walks the parsed document directly instead of evaluating a JsonPath, so a missing path
+   * costs no more than a present one rather than throwing a {@link PathNotFoundException}.
+   */
+  private Object lookUp(Path path) {
+    Optional<ImmutableList<Object>> steps = path.documentSteps();
+    if (steps.isEmpty()) {
+      try {
+        return jsonData.read(path.jsonPath());
+      } catch (PathNotFoundException e) {
+        return MISSING;
+      }
+    }
+
+    Object node = jsonData.json();
+    for (Object step : steps.get()) {
+      if (step instanceof Integer) {
+        int index = (Integer) step;
+        if (!(node instanceof List) || index >= ((List<?>) node).size()) {
+          return MISSING;
+        }
+        node = ((List<?>) node).get(index);
+      } else {
+        if (!(node instanceof Map) || !((Map<?, ?>) node).containsKey(step)) {
+          return MISSING;
+        }
+        node = ((Map<?, ?>) node).get(step);
+      }
+    }
+    return node;
   }
 
   public void putPhoneNumber(Path path, String phoneNumber) {
@@ -261,7 +371,8 @@ public class CfJsonDocumentContext {
   public void putArray(Path path, List list) {
     checkLocked();
     putParentIfMissing(path);
-    jsonData.put(path.parentPath().toString(), path.keyName(), list);
+    jsonData.put(path.parentPath().jsonPath(), path.keyName(), list);
+    recordChange(path);
   }
 
   /**
@@ -291,18 +402,21 @@ public class CfJsonDocumentContext {
   public void maybeDelete(Path path) {
     checkLocked();
     if (hasPath(path)) {
-      jsonData.delete(path.toString());
+      jsonData.delete(path.jsonPath());
+      recordChange(path);
     }
   }
 
   private void putAt(Path path, Object value) {
     checkLocked();
-    jsonData.put(path.parentPath().toString(), path.keyName(), value);
+    jsonData.put(path.parentPath().jsonPath(), path.keyName(), value);
+    recordChange(path);
   }
 
   private void addAt(Path path, Object value) {
     checkLocked();
-    jsonData.add(path.withoutArrayReference().toString(), value);
+    jsonData.add(path.withoutArrayReference().jsonPath(), value);
+    recordChange(path.withoutArrayReference());
   }
 
   /**
@@ -497,10 +611,13 @@ public class CfJsonDocumentContext {
    * @throws JsonPathTypeMismatchException if the scalar at that path is not the expected type
    */
   private <T> Optional<T> read(Path path, Class<T> type) throws JsonPathTypeMismatchException {
-    try {
-      return Optional.ofNullable(jsonData.read(path.toString(), type));
-    } catch (PathNotFoundException e) {
+    Object value = lookUp(path);
+    if (value == MISSING) {
       return Optional.empty();
+    }
+    Configuration configuration = jsonData.configuration();
+    try {
+      return Optional.ofNullable(configuration.mappingProvider().map(value, type, configuration));
     } catch (MappingException e) {
       throw new JsonPathTypeMismatchException(path, type, e);
     }
@@ -516,10 +633,13 @@ public class CfJsonDocumentContext {
    * @throws JsonPathTypeMismatchException if the value at that path is not the expected type
    */
   private <T> Optional<T> read(Path path, TypeRef<T> type) throws JsonPathTypeMismatchException {
-    try {
-      return Optional.ofNullable(jsonData.read(path.toString(), type));
-    } catch (PathNotFoundException e) {
+    Object value = lookUp(path);
+    if (value == MISSING) {
       return Optional.empty();
+    }
+    Configuration configuration = jsonData.configuration();
+    try {
+      return Optional.ofNullable(configuration.mappingProvider().map(value, type, configuration));
     } catch (MappingException e) {
       throw new JsonPathTypeMismatchException(path, type.getClass(), e);
     }
@@ -569,7 +689,8 @@ public class CfJsonDocumentContext {
     // Delete in reverse sorted order because deletion is index based, and indices would need to be
     // decremented for each deletion if it wasn't reverse sorted.
     for (int index : reverseSortedIndices) {
-      jsonData.delete(path.atIndex(index).toString());
+      jsonData.delete(path.atIndex(index).jsonPath());
+      recordChange(path.atIndex(index));
     }
     return true;
   }
@@ -599,6 +720,11 @@ public class CfJsonDocumentContext {
     return jsonData.jsonString();
   }
 
+  /** Returns the document as a tree, for writing to a jsonb column. */
+  public JsonNode asJsonNode() {
+    return JsonPathProvider.toJsonNode(jsonData);
+  }
+
   /**
    * Pretty-print the JSON document, below the specified {@link Path}.
    *
@@ -609,7 +735,7 @@ public class CfJsonDocumentContext {
    * @return the pretty-printed document
    */
   public String asPrettyJsonString(Path path) {
-    Object subtreeAtPath = jsonData.read(path.toString());
+    Object subtreeAtPath = jsonData.read(path.jsonPath());
     return JsonPrettifier.asPrettyJsonString(subtreeAtPath);
   }
 
@@ -653,7 +779,8 @@ public class CfJsonDocumentContext {
         } else if (entry.getValue() instanceof List) {
           // Add items from lists.
           for (Object item : (List) entry.getValue()) {
-            jsonData.add(path.toString(), item);
+            jsonData.add(path.jsonPath(), item);
+            recordChange(path);
           }
         } else {
           try {
@@ -7,7 +7,14 @@ import com.google.auto.value.extension.memoized.Memoized;
 import com.google.common.base.Ascii;
 import com.google.common.base.Joiner;
 import com.google.common.base.Splitter;
+import com.google.common.base.Throwables;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.jayway.jsonpath.JsonPath;
+import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
@@ -29,6 +36,16 @@ public abstract class Path {
   private static final String JSON_PATH_START = JSON_PATH_START_TOKEN + JSON_PATH_DIVIDER;
   private static final Splitter JSON_SPLITTER = Splitter.on(JSON_PATH_DIVIDER);
   private static final Joiner JSON_JOINER = Joiner.on(JSON_PATH_DIVIDER);
+  // A plain object key, optionally followed by an array index, e.g. "children[3]".
+  private static final Pattern DOCUMENT_STEP_REGEX =
+      Pattern.compile("([a-z0-9_-]+)(?:\\[(\\d{1,9})])?");
+
+  // Paths are created over and over for the same questions, so compiled JsonPaths are shared
+  // between equal paths rather than compiled for each new instance.
+  private static final LoadingCache<String, JsonPath> COMPILED_JSON_PATHS =
+      CacheBuilder.newBuilder()
+          .maximumSize(10_000)
+          .build(CacheLoader.from(path -> JsonPath.compile(path)));
 
   public static Path empty() {
     return create(ImmutableList.of());
@@ -74,6 +91,40 @@ public abstract class Path {
     return isEmpty() ? JSON_PATH_START_TOKEN : JSON_JOINER.join(segments());
   }
 
+  /** Returns this path compiled to a {@link JsonPath}. */
+  @Memoized
+  JsonPath jsonPath() {
+    try {
+      return COMPILED_JSON_PATHS.getUnchecked(toString());
+    } catch (UncheckedExecutionException e) {
+      // Surface an invalid path the same way as compiling it directly.
+      Throwables.throwIfUnchecked(e.getCause());
+      throw e;
+    }
+  }
+
+  /**
+   * Returns the steps for walking a parsed JSON document to this path: a {@link String} object key
+   * or an {@link Integer} array index for each step. Returns empty if the path has a segment that
+   * isn't a plain key with an optional array index, such as {@code children[]}, which must be
+   * evaluated as a {@link JsonPath} instead.
+   */
+  @Memoized
+  Optional<ImmutableList<Object>> documentSteps() {
+    ImmutableList.Builder<Object> steps = ImmutableList.builder();
+    for (String segment : segments()) {
+      Matcher matcher = DOCUMENT_STEP_REGEX.matcher(segment);
+      if (!matcher.matches()) {
+        return Optional.empty();
+      }
+      steps.add(matcher.group(1));
+      if (matcher.group(2) != null) {
+        steps.add(Integer.parseInt(matcher.group(2)));
+      }
+    }
+    return Optional.of(steps.build());
+  }
+
   /** Returns this path in JsonPath predicate format, which must start with \$. */
   @Memoized
   public String predicateFormat() {
@@ -26,6 +26,8 @@ import play.cache.NamedCache;
 import play.cache.SyncCacheApi;
 import play.data.DynamicForm;
 import repository.ApiKeyRepository;
+import repository.CacheInvalidationBus;
+import repository.CacheInvalidationBus.CacheName;
 import services.CryptographicUtils;
 import services.DateConverter;
 import services.PageNumberBasedPaginationSpec;
@@ -83,6 +85,8 @@ public final class ApiKeyService {
   private final String secretSalt;
   private final SyncCacheApi apiKeyCache;
   private final boolean banGlobalSubnet;
+  private final CacheInvalidationBus cacheInvalidationBus;
+  private final ApiKeyUsageRecorder apiKeyUsageRecorder;
 
   @Inject
   public ApiKeyService(
@@ -91,7 +95,9 @@ public final class ApiKeyService {
       Environment environment,
       ProgramService programService,
       DateConverter dateConverter,
-      Config config) {
+      Config config,
+      CacheInvalidationBus cacheInvalidationBus,
+      ApiKeyUsageRecorder apiKeyUsageRecorder) {
     this.apiKeyCache = checkNotNull(apiKeyCache);
     this.repository = checkNotNull(repository);
     this.environment = checkNotNull(environment);
@@ -99,13 +105,20 @@ public final class ApiKeyService {
     this.dateConverter = checkNotNull(dateConverter);
     this.secretSalt = checkNotNull(config).getString("api_secret_salt");
     this.banGlobalSubnet = checkNotNull(config).getBoolean("api_keys_ban_global_subnet");
+    this.cacheInvalidationBus = checkNotNull(cacheInvalidationBus);
+    this.apiKeyUsageRecorder = checkNotNull(apiKeyUsageRecorder);
   }
 
   /**
    * Lists all active, i.e. unexpired and unretired, {@link ApiKeyModel}s in order of creation time
    * descending.
+   *
+   * <p>The listing methods first write the API key usage this server has recorded in memory, so the
+   * keys' call counts include calls made to this server up to now. Calls made to other servers show
+   * up once those servers flush, within {@code civiform_api_key_usage_flush_interval_seconds}.
    */
   public ImmutableList<ApiKeyModel> listActiveApiKeys() {
+    apiKeyUsageRecorder.flush();
     PaginationResult<ApiKeyModel> apiKeys =
         repository.listActiveApiKeys(PageNumberBasedPaginationSpec.MAX_PAGE_SIZE_SPEC);
     return apiKeys.getPageContents();
@@ -113,6 +126,7 @@ public final class ApiKeyService {
 
   /** Lists all retired {@link ApiKeyModel}s in order of creation time descending. */
   public ImmutableList<ApiKeyModel> listRetiredApiKeys() {
+    apiKeyUsageRecorder.flush();
     PaginationResult<ApiKeyModel> apiKeys =
         repository.listRetiredApiKeys(PageNumberBasedPaginationSpec.MAX_PAGE_SIZE_SPEC);
     return apiKeys.getPageContents();
@@ -120,6 +134,7 @@ public final class ApiKeyService {
 
   /** Lists all expired {@link ApiKeyModel}s in order of creation time descending. */
   public ImmutableList<ApiKeyModel> listExpiredApiKeys() {
+    apiKeyUsageRecorder.flush();
     PaginationResult<ApiKeyModel> apiKeys =
         repository.listExpiredApiKeys(PageNumberBasedPaginationSpec.MAX_PAGE_SIZE_SPEC);
     return apiKeys.getPageContents();
@@ -140,9 +155,12 @@ public final class ApiKeyService {
         keyId, () -> findByKeyId(keyId), CACHE_EXPIRATION_TIME_SECONDS);
   }
 
-  /** Increment an API key's call count and set its last call IP address to the one provided. */
+  /**
+   * Increment an API key's call count and set its last call IP address to the one provided. The
+   * usage is written to the database by {@link ApiKeyUsageRecorder} in the background.
+   */
   public void recordApiKeyUsage(String apiKeyId, String remoteAddress) {
-    repository.recordApiKeyUsage(apiKeyId, remoteAddress);
+    apiKeyUsageRecorder.record(apiKeyId, remoteAddress);
   }
 
   /**
@@ -165,6 +183,8 @@ public final class ApiKeyService {
 
     apiKey.retire(getAuthorityId(profile));
     apiKey.save();
+    // Requests using the retired key must fail on every server, not only after the cache expires.
+    cacheInvalidationBus.invalidate(CacheName.API_KEYS, ImmutableSet.of(apiKey.getKeyId()));
 
     return apiKey;
   }
@@ -0,0 +1,140 @@
+package services.apikey;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import akka.actor.ActorSystem;
+import akka.actor.Cancellable;
+import com.google.common.collect.ImmutableList;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+import io.prometheus.client.Histogram;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import play.inject.ApplicationLifecycle;
+import repository.ApiKeyRepository;
+import repository.ApiKeyRepository.ApiKeyUsage;
+import repository.DatabaseExecutionContext;
+import services.settings.SettingsManifest;
+
+/**
+ * Records API key usage in memory and periodically writes it to the database.
+ *
+ * <p>Calls are counted per key ID with lock-free counters, and the most recent caller IP address is
+ * kept for each key. Every flush interval, and when the server shuts down, the accumulated usage of
+ * all keys is written in a single batched UPDATE, so the database sees one write per interval
+ * rather than one per API request. If a flush fails the usage is kept and retried with the next
+ * flush.
+ */
+@Singleton
+public final class ApiKeyUsageRecorder {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ApiKeyUsageRecorder.class);
+  private static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(10);
+
+  private static final Gauge PENDING_CALLS =
+      Gauge.build()
+          .name("api_key_usage_pending_calls")
+          .help("API calls recorded in memory that have not been written to the database")
+          .register();
+
+  private static final Histogram FLUSH_TIME =
+      Histogram.build()
+          .name("api_key_usage_flush_time_seconds")
+          .help("Execution time of writing recorded API key usage to the database")
+          .register();
+
+  private static final Counter FLUSH_FAILURE_COUNT =
+      Counter.build()
+          .name("api_key_usage_flush_failures_total")
+          .help("Number of times writing recorded API key usage to the database failed")
+          .register();
+
+  private final ApiKeyRepository repository;
+  private final ConcurrentHashMap<String, PendingUsage> pendingUsageByKeyId =
+      new ConcurrentHashMap<>();
+  private final Cancellable scheduledFlush;
+
+  @Inject
+  public ApiKeyUsageRecorder(
+      ApiKeyRepository repository,
+      ActorSystem actorSystem,
+      DatabaseExecutionContext databaseExecutionContext,
+      ApplicationLifecycle lifecycle,
+      SettingsManifest settingsManifest) {
+    this.repository = checkNotNull(repository);
+    Duration flushInterval =
+        settingsManifest
+            .getCiviformApiKeyUsageFlushIntervalSeconds()
+            .map(Duration::ofSeconds)
+            .orElse(DEFAULT_FLUSH_INTERVAL);
+
+    this.scheduledFlush =
+        actorSystem
+            .scheduler()
+            .scheduleAtFixedRate(
+                /* initialDelay= */ flushInterval,
+                /* interval= */ flushInterval,
+                this::flush,
+                databaseExecutionContext);
+    lifecycle.addStopHook(
+        () -> {
+          scheduledFlush.cancel();
+          flush();
+          return CompletableFuture.completedFuture(null);
+        });
+  }
+
+  /** Records a call made with an API key. This does not block on the database. */
+  public void record(String keyId, String remoteAddress) {
+    PendingUsage usage = pendingUsageByKeyId.computeIfAbsent(keyId, unused -> new PendingUsage());
+    usage.lastCallIpAddress.set(remoteAddress);
+    usage.callCount.incrementAndGet();
+    PENDING_CALLS.inc();
+  }
+
+  /** Writes all usage recorded since the last flush to the database. */
+  public synchronized void flush() {
+    ImmutableList.Builder<ApiKeyUsage> usagesBuilder = ImmutableList.builder();
+    long totalCalls = 0;
+    for (Map.Entry<String, PendingUsage> entry : pendingUsageByKeyId.entrySet()) {
+      long callCount = entry.getValue().callCount.getAndSet(0);
+      if (callCount > 0) {
+        usagesBuilder.add(
+            new ApiKeyUsage(entry.getKey(), callCount, entry.getValue().lastCallIpAddress.get()));
+        totalCalls += callCount;
+      }
+    }
+    ImmutableList<ApiKeyUsage> usages = usagesBuilder.build();
+    if (usages.isEmpty()) {
+      return;
+    }
+
+    Histogram.Timer timer = FLUSH_TIME.startTimer();
+    try {
+      repository.recordApiKeyUsage(usages);
+      PENDING_CALLS.dec(totalCalls);
+    } catch (RuntimeException e) {
+      FLUSH_FAILURE_COUNT.inc();
+      LOGGER.error("Error updating ApiKey usage for {} keys: {}", usages.size(), e.toString());
+      // Keep the calls so that the next flush writes them.
+      for (ApiKeyUsage usage : usages) {
+        pendingUsageByKeyId.get(usage.keyId()).callCount.addAndGet(usage.callCount());
+      }
+    } finally {
+      timer.observeDuration();
+    }
+  }
+
+  /** The usage of one API key since the last flush. */
+  private static final class PendingUsage {
+    private final AtomicLong callCount = new AtomicLong();
+    private final AtomicReference<String> lastCallIpAddress = new AtomicReference<>();
+  }
+}
@@ -4,6 +4,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import auth.oidc.applicant.ApplicantProfileCreator;
 import auth.saml.SamlProfileCreator;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -65,6 +66,15 @@ public class ApplicantData extends CfJsonDocumentContext {
     this.applicant = applicant;
   }
 
+  /** Creates applicant data from the {@code object} jsonb column of an applicant or application. */
+  public ApplicantData(
+      Optional<Locale> preferredLocale, JsonNode jsonData, ApplicantModel applicant) {
+    super(JsonPathProvider.parse(checkNotNull(jsonData)));
+    this.preferredLocale = preferredLocale;
+    this.failedUpdates = Optional.empty();
+    this.applicant = applicant;
+  }
+
   public ApplicantModel getApplicant() {
     return applicant;
   }
@@ -292,23 +302,17 @@ public class ApplicantData extends CfJsonDocumentContext {
     if (middleName.isPresent()) {
       putString(middlePath, middleName.get());
     } else {
-      if (hasPath(middlePath)) {
-        getDocumentContext().delete(middlePath.toString());
-      }
+      maybeDelete(middlePath);
     }
     if (lastName.isPresent()) {
       putString(lastPath, lastName.get());
     } else {
-      if (hasPath(lastPath)) {
-        getDocumentContext().delete(lastPath.toString());
-      }
+      maybeDelete(lastPath);
     }
     if (nameSuffix.isPresent()) {
       putString(suffixPath, nameSuffix.get());
     } else {
-      if (hasPath(suffixPath)) {
-        getDocumentContext().delete(suffixPath.toString());
-      }
+      maybeDelete(suffixPath);
     }
   }
 
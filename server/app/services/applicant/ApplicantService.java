@@ -13,8 +13,6 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.typesafe.config.Config;
 import controllers.admin.routes;
-import io.ebean.DB;
-import io.ebean.Database;
 import java.time.Clock;
 import java.time.DateTimeException;
 import java.time.Instant;
@@ -32,6 +30,7 @@ import java.util.concurrent.CompletionStage;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.inject.Inject;
+import models.AccountModel;
 import models.ApplicantModel;
 import models.ApplicationEventModel;
 import models.ApplicationModel;
@@ -76,7 +75,7 @@ import services.applicant.question.DateQuestion;
 import services.applicant.question.PhoneQuestion;
 import services.applicant.question.Scalar;
 import services.application.ApplicationEventDetails;
-import services.cloud.aws.SimpleEmail;
+import services.email.EmailMessage;
 import services.geo.AddressLocation;
 import services.geo.AddressSuggestion;
 import services.geo.AddressSuggestionGroup;
@@ -108,11 +107,11 @@ public final class ApplicantService {
   private final AccountRepository accountRepository;
   private final StoredFileRepository storedFileRepository;
   private final JsonPathPredicateGeneratorFactory jsonPathPredicateGeneratorFactory;
+  private final BulkEligibilityEvaluator bulkEligibilityEvaluator;
   private final VersionRepository versionRepository;
   private final ProgramRepository programRepository;
   private final ApplicationStatusesRepository applicationStatusesRepository;
   private final ProgramService programService;
-  private final SimpleEmail amazonSESClient;
   private final Clock clock;
   private final String baseUrl;
   private final boolean isStaging;
@@ -123,7 +122,6 @@ public final class ApplicantService {
   private final ServiceAreaUpdateResolver serviceAreaUpdateResolver;
   private final EsriClient esriClient;
   private final MessagesApi messagesApi;
-  private final Database database;
   private final SettingsManifest settingsManifest;
 
   @Inject
@@ -135,9 +133,9 @@ public final class ApplicantService {
       ProgramRepository programRepository,
       StoredFileRepository storedFileRepository,
       JsonPathPredicateGeneratorFactory jsonPathPredicateGeneratorFactory,
+      BulkEligibilityEvaluator bulkEligibilityEvaluator,
       ApplicationStatusesRepository applicationStatusesRepository,
       ProgramService programService,
-      SimpleEmail amazonSESClient,
       Clock clock,
       Config configuration,
       ClassLoaderExecutionContext classLoaderExecutionContext,
@@ -153,9 +151,9 @@ public final class ApplicantService {
     this.programRepository = checkNotNull(programRepository);
     this.storedFileRepository = checkNotNull(storedFileRepository);
     this.jsonPathPredicateGeneratorFactory = checkNotNull(jsonPathPredicateGeneratorFactory);
+    this.bulkEligibilityEvaluator = checkNotNull(bulkEligibilityEvaluator);
     this.applicationStatusesRepository = checkNotNull(applicationStatusesRepository);
     this.programService = checkNotNull(programService);
-    this.amazonSESClient = checkNotNull(amazonSESClient);
     this.clock = checkNotNull(clock);
     this.classLoaderExecutionContext = checkNotNull(classLoaderExecutionContext);
     this.serviceAreaUpdateResolver = checkNotNull(serviceAreaUpdateResolver);
@@ -171,7 +169,6 @@ public final class ApplicantService {
     this.stagingApplicantNotificationMailingList =
         checkNotNull(configuration).getString("staging_applicant_notification_mailing_list");
     this.esriClient = checkNotNull(esriClient);
-    this.database = DB.getDefault();
   }
 
   /** Create a new {@link ApplicantModel}. */
@@ -366,12 +363,7 @@ public final class ApplicantService {
                   Optional.empty(),
                   forceUpdate);
             },
-            classLoaderExecutionContext.current())
-        .thenCompose(
-            (v) ->
-                applicationRepository
-                    .createOrUpdateDraft(applicantId, programId)
-                    .thenApplyAsync(appDraft -> v));
+            classLoaderExecutionContext.current());
   }
 
   private CompletionStage<ReadOnlyApplicantProgramService> stageAndUpdateIfValid(
@@ -406,14 +398,14 @@ public final class ApplicantService {
 
     Optional<Block> blockMaybe =
         roApplicantProgramService.getActiveBlock(blockBeforeUpdate.getId());
-    if (forceUpdate || (blockMaybe.isPresent() && !blockMaybe.get().hasErrors())) {
-      return accountRepository
-          .updateApplicant(applicant)
-          .thenApplyAsync(
-              (finishedSaving) -> roApplicantProgramService, classLoaderExecutionContext.current());
-    }
-
-    return CompletableFuture.completedFuture(roApplicantProgramService);
+    // The applicant and program are already loaded, so saving the block only writes the applicant
+    // and checks for a draft application in one transaction.
+    CompletionStage<Void> saved =
+        forceUpdate || (blockMaybe.isPresent() && !blockMaybe.get().hasErrors())
+            ? applicationRepository.updateApplicantAndCreateDraft(applicant, programDefinition)
+            : applicationRepository.createDraftIfMissing(applicant, programDefinition);
+    return saved.thenApplyAsync(
+        (finishedSaving) -> roApplicantProgramService, classLoaderExecutionContext.current());
   }
 
   /**
@@ -481,85 +473,69 @@ public final class ApplicantService {
   }
 
   /**
-   * Saves the answers to the applicantion's Primary Applicant Info questions into the Primary
-   * Applicant Info columns in the applicants table. If the application is empty, nothing is saved.
+   * Saves the answers to the application's Primary Applicant Info questions into the Primary
+   * Applicant Info columns in the applicants table.
    *
-   * @param optionalApplication The application being submitted
-   * @return A CompletionStage returning the application with the Primary Applicant Info columns
-   *     updated on the applicant model.
+   * <p>This runs within the transaction submitting the application, so that the answers are saved
+   * only if the submission is committed.
+   *
+   * @param application The application being submitted
    */
-  CompletionStage<Optional<ApplicationModel>> savePrimaryApplicantInfoAnswers(
-      Optional<ApplicationModel> optionalApplication) {
-    if (optionalApplication.isEmpty()) {
-      return CompletableFuture.completedFuture(optionalApplication);
-    }
-    ApplicationModel application = optionalApplication.get();
-    ProgramModel applicationProgram = application.getProgram();
+  private void savePrimaryApplicantInfoAnswers(ApplicationModel application) {
     ApplicantModel applicant = application.getApplicant();
     ApplicantData applicantData = application.getApplicantData();
-    return programService
-        .getFullProgramDefinition(applicationProgram)
-        .thenComposeAsync(
-            programDefinition -> {
-              database.beginTransaction();
-              programDefinition
-                  .getQuestionsWithPrimaryApplicantInfoTags()
+    ProgramDefinition programDefinition =
+        programService
+            .getFullProgramDefinition(application.getProgram())
+            .toCompletableFuture()
+            .join();
+    programDefinition
+        .getQuestionsWithPrimaryApplicantInfoTags()
+        .forEach(
+            question -> {
+              Path path = Path.create("applicant").join(question.getQuestionNameKey());
+              question
+                  .getPrimaryApplicantInfoTags()
                   .forEach(
-                      question -> {
-                        Path path = Path.create("applicant").join(question.getQuestionNameKey());
-                        question
-                            .getPrimaryApplicantInfoTags()
-                            .forEach(
-                                tag -> {
-                                  switch (tag) {
-                                    case APPLICANT_NAME:
-                                      applicant.setFirstName(
-                                          applicantData
-                                              .readString(path.join(Scalar.FIRST_NAME))
-                                              .orElseThrow());
-                                      // Middle name is optional
-                                      applicant.setMiddleName(
-                                          applicantData
-                                              .readString(path.join(Scalar.MIDDLE_NAME))
-                                              .orElse(""));
-                                      applicant.setLastName(
-                                          applicantData
-                                              .readString(path.join(Scalar.LAST_NAME))
-                                              .orElseThrow());
-                                      // Name suffix is optional
-                                      applicant.setSuffix(
-                                          applicantData
-                                              .readString(path.join(Scalar.NAME_SUFFIX))
-                                              .orElse(""));
-                                      break;
-                                    case APPLICANT_EMAIL:
-                                      applicant.setEmailAddress(
-                                          applicantData
-                                              .readString(path.join(Scalar.EMAIL))
-                                              .orElseThrow());
-                                      break;
-                                    case APPLICANT_PHONE:
-                                      // Country code is set automatically by setPhoneNumber
-                                      applicant.setPhoneNumber(
-                                          applicantData
-                                              .readString(path.join(Scalar.PHONE_NUMBER))
-                                              .orElseThrow());
-                                      break;
-                                    case APPLICANT_DOB:
-                                      applicant.setDateOfBirth(
-                                          applicantData
-                                              .readDate(path.join(Scalar.DATE))
-                                              .orElseThrow());
-                                      break;
-                                    default:
-                                      break;
-                                  }
-                                });
+                      tag -> {
+                        switch (tag) {
+                          case APPLICANT_NAME:
+                            applicant.setFirstName(
+                                applicantData
+                                    .readString(path.join(Scalar.FIRST_NAME))
+                                    .orElseThrow());
+                            // Middle name is optional
+                            applicant.setMiddleName(
+                                applicantData.readString(path.join(Scalar.MIDDLE_NAME)).orElse(""));
+                            applicant.setLastName(
+                                applicantData
+                                    .readString(path.join(Scalar.LAST_NAME))
+                                    .orElseThrow());
+                            // Name suffix is optional
+                            applicant.setSuffix(
+                                applicantData.readString(path.join(Scalar.NAME_SUFFIX)).orElse(""));
+                            break;
+                          case APPLICANT_EMAIL:
+                            applicant.setEmailAddress(
+                                applicantData.readString(path.join(Scalar.EMAIL)).orElseThrow());
+                            break;
+                          case APPLICANT_PHONE:
+                            // Country code is set automatically by setPhoneNumber
+                            applicant.setPhoneNumber(
+                                applicantData
+                                    .readString(path.join(Scalar.PHONE_NUMBER))
+                                    .orElseThrow());
+                            break;
+                          case APPLICANT_DOB:
+                            applicant.setDateOfBirth(
+                                applicantData.readDate(path.join(Scalar.DATE)).orElseThrow());
+                            break;
+                          default:
+                            break;
+                        }
                       });
-              applicant.save();
-              database.commitTransaction();
-              return CompletableFuture.completedFuture(optionalApplication);
             });
+    applicant.save();
   }
 
   @VisibleForTesting
@@ -567,10 +543,14 @@ public final class ApplicantService {
       long applicantId, long programId, Optional<String> tiSubmitterEmail, Request request) {
     CompletableFuture<Optional<ApplicationModel>> applicationFuture =
         applicationRepository
-            .submitApplication(applicantId, programId, tiSubmitterEmail)
-            .thenComposeAsync(
-                application -> savePrimaryApplicantInfoAnswers(application),
-                classLoaderExecutionContext.current())
+            .submitApplication(
+                applicantId,
+                programId,
+                tiSubmitterEmail,
+                application -> {
+                  savePrimaryApplicantInfoAnswers(application);
+                  return buildSubmitNotifications(application, tiSubmitterEmail);
+                })
             .toCompletableFuture();
 
     return applicationFuture.thenComposeAsync(
@@ -582,89 +562,100 @@ public final class ApplicantService {
           }
 
           ApplicationModel application = applicationMaybe.get();
-          ProgramModel applicationProgram = application.getProgram();
-          ProgramDefinition programDefinition =
-              programRepository.getShallowProgramDefinition(applicationProgram);
-          String programName = programDefinition.adminName();
-          StatusDefinitions activeStatusDefinitions =
-              applicationStatusesRepository.lookupActiveStatusDefinitions(programName);
+          String programName =
+              programRepository.getShallowProgramDefinition(application.getProgram()).adminName();
           Optional<StatusDefinitions.Status> maybeDefaultStatus =
-              activeStatusDefinitions.getDefaultStatus();
+              applicationStatusesRepository
+                  .lookupActiveStatusDefinitions(programName)
+                  .getDefaultStatus();
 
           CompletableFuture<ApplicationEventModel> updateStatusFuture =
               maybeDefaultStatus
                   .map(status -> setApplicationStatus(application, status).toCompletableFuture())
                   .orElse(CompletableFuture.completedFuture(null));
 
-          CompletableFuture<Void> notifyProgramAdminsFuture =
-              CompletableFuture.runAsync(
-                  () -> {
-                    if (programDefinition
-                        .notificationPreferences()
-                        .contains(
-                            ProgramNotificationPreference.EMAIL_PROGRAM_ADMIN_ALL_SUBMISSIONS)) {
-                      notifyProgramAdmins(applicantId, programId, application.id, programName);
-                    }
-                  },
-                  classLoaderExecutionContext.current());
-
-          CompletableFuture<Void> notifyTiSubmitterFuture =
-              tiSubmitterEmail
-                  .map(
-                      email ->
-                          notifyTiSubmitter(
-                                  email,
-                                  applicantId,
-                                  application.id,
-                                  programName,
-                                  maybeDefaultStatus)
-                              .toCompletableFuture())
-                  .orElse(CompletableFuture.completedFuture(null));
-
-          return getPersonalInfo(applicantId)
-              .thenComposeAsync(
-                  applicantPersonalInfo -> {
-                    Optional<ImmutableSet<String>> applicantEmails =
-                        getApplicantEmails(applicantPersonalInfo);
-
-                    CompletableFuture<Void> notifyApplicantFuture;
-                    if (applicantEmails.isEmpty() || applicantEmails.get().isEmpty()) {
-                      notifyApplicantFuture = CompletableFuture.completedFuture(null);
-                    } else {
-                      ImmutableList<CompletableFuture<Void>> futures =
-                          applicantEmails.get().stream()
-                              .map(
-                                  email -> {
-                                    return notifyApplicant(
-                                            applicantId,
-                                            application.id,
-                                            email,
-                                            programDefinition,
-                                            maybeDefaultStatus)
-                                        .toCompletableFuture();
-                                  })
-                              .collect(ImmutableList.toImmutableList());
-                      notifyApplicantFuture =
-                          CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
-                    }
-                    return CompletableFuture.allOf(
-                            updateStatusFuture,
-                            notifyProgramAdminsFuture,
-                            notifyApplicantFuture,
-                            notifyTiSubmitterFuture,
-                            updateStoredFileAclsForSubmit(
-                                    applicantId,
-                                    programId,
-                                    settingsManifest.getMultipleFileUploadEnabled(request))
-                                .toCompletableFuture())
-                        .thenApplyAsync(
-                            (ignoreVoid) -> application, classLoaderExecutionContext.current());
-                  },
-                  classLoaderExecutionContext.current());
+          return CompletableFuture.allOf(
+                  updateStatusFuture,
+                  updateStoredFileAclsForSubmit(
+                          applicantId,
+                          programId,
+                          settingsManifest.getMultipleFileUploadEnabled(request))
+                      .toCompletableFuture())
+              .thenApplyAsync((ignoreVoid) -> application, classLoaderExecutionContext.current());
         },
         classLoaderExecutionContext.current());
   }
 
+  /**
+   * Builds the emails notifying the program admins, the Trusted Intermediary who submitted the
+   * application if there is one, and the applicant that the application was submitted.
+   *
+   * <p>This runs within the transaction submitting the application, after its Primary Applicant
+   * Info answers are saved, so that the emails are queued only if the submission is committed. A
+   * failure to build the emails is logged rather than failing the submission.
+   */
+  private ImmutableList<EmailMessage> buildSubmitNotifications(
+      ApplicationModel application, Optional<String> tiSubmitterEmail) {
+    ApplicantModel applicant = application.getApplicant();
+    try {
+      ProgramModel program = application.getProgram();
+      ProgramDefinition programDefinition = programRepository.getShallowProgramDefinition(program);
+      String programName = programDefinition.adminName();
+      Optional<StatusDefinitions.Status> maybeDefaultStatus =
+          applicationStatusesRepository
+              .lookupActiveStatusDefinitions(programName)
+              .getDefaultStatus();
+
+      ImmutableList.Builder<EmailMessage> emails = ImmutableList.builder();
+      if (programDefinition
+          .notificationPreferences()
+          .contains(ProgramNotificationPreference.EMAIL_PROGRAM_ADMIN_ALL_SUBMISSIONS)) {
+        buildProgramAdminNotification(applicant.id, program.id, application.id, programName)
+            .ifPresent(emails::add);
+      }
+      tiSubmitterEmail.ifPresent(
+          tiEmail ->
+              emails.add(
+                  buildTiSubmitterNotification(
+                      tiEmail, applicant.id, application.id, programName, maybeDefaultStatus)));
+      getApplicantEmails(applicant)
+          .forEach(
+              applicantEmail ->
+                  emails.add(
+                      buildApplicantNotification(
+                          applicant,
+                          application.id,
+                          applicantEmail,
+                          programDefinition,
+                          maybeDefaultStatus)));
+      return emails.build();
+    } catch (RuntimeException e) {
+      logger.error(
+          "Failed to build the notification emails for application {} of applicant {}",
+          application.id,
+          applicant.id,
+          e);
+      return ImmutableList.of();
+    }
+  }
+
+  /**
+   * Returns the applicant's email addresses: the account's email address, and the answer to the
+   * Primary Applicant Info email question if that feature is enabled.
+   */
+  public ImmutableSet<String> getApplicantEmails(ApplicantModel applicant) {
+    ImmutableSet.Builder<String> emailAddresses = ImmutableSet.builder();
+    String accountEmailAddress = applicant.getAccount().getEmailAddress();
+    if (!Strings.isNullOrEmpty(accountEmailAddress)) {
+      emailAddresses.add(accountEmailAddress);
+    }
+
+    if (settingsManifest.getPrimaryApplicantInfoQuestionsEnabled()) {
+      applicant.getEmailAddress().ifPresent(emailAddresses::add);
+    }
+    return emailAddresses.build();
+  }
+
   public Optional<ImmutableSet<String>> getApplicantEmails(
       ApplicantPersonalInfo applicantPersonalInfo) {
     switch (applicantPersonalInfo.getType()) {
@@ -748,15 +739,24 @@ public final class ApplicantService {
   }
 
   /**
-   * Email the program admins to inform them an application has been submitted.
+   * Builds the email informing the program admins that an application has been submitted. Returns
+   * empty if the program has no admins to send it to.
    *
    * @param applicantId the ID of the applicant
    * @param programId the ID of the program
    * @param applicationId the ID of the application
    * @param programName the name of the program that was applied to
    */
-  private void notifyProgramAdmins(
+  private Optional<EmailMessage> buildProgramAdminNotification(
       long applicantId, long programId, long applicationId, String programName) {
+    ImmutableList<String> toAddresses =
+        isStaging
+            ? ImmutableList.of(stagingProgramAdminNotificationMailingList)
+            : programService.getNotificationEmailAddresses(programName);
+    if (toAddresses.isEmpty()) {
+      return Optional.empty();
+    }
+
     String applicationViewLink =
         controllers.admin.routes.AdminApplicationController.show(programId, applicationId).url();
 
@@ -779,18 +779,13 @@ public final class ApplicantService {
             "Applicant %d submitted a new application %d to program %s.\n"
                 + "View the application at %s.",
             applicantId, applicationId, programName, viewLink);
-    if (isStaging) {
-      amazonSESClient.send(stagingProgramAdminNotificationMailingList, subject, message);
-    } else {
-      amazonSESClient.send(
-          programService.getNotificationEmailAddresses(programName), subject, message);
-    }
+    return Optional.of(EmailMessage.create(toAddresses, subject, message));
   }
 
   /**
-   * Email the Trusted Intermediary with either the default application email or the status' defined
-   * email. Will send the default application email if the status does not have an email body
-   * defined.
+   * Builds the email to the Trusted Intermediary with either the default application email or the
+   * status' defined email. Uses the default application email if the status does not have an email
+   * body defined.
    *
    * @param tiEmail the email address of the Trusted Intermediary
    * @param applicantId the ID of the applicant
@@ -799,7 +794,7 @@ public final class ApplicantService {
    * @param status the status from which to get the email body to send. Empty if no default status
    *     is set for the program.
    */
-  private CompletionStage<Void> notifyTiSubmitter(
+  private EmailMessage buildTiSubmitterNotification(
       String tiEmail,
       long applicantId,
       long applicationId,
@@ -814,91 +809,77 @@ public final class ApplicantService {
                     /* yearQuery= */ Optional.empty(),
                     /* page= */ Optional.of(1))
                 .url();
-    CompletableFuture<Optional<Locale>> localeFuture =
-        getPreferredTiLocale(tiEmail).toCompletableFuture();
-    return localeFuture
-        .thenAcceptAsync(
-            (localeMaybe) -> {
-              // Not blocking since it already completed
-              Locale locale = localeMaybe.orElse(LocalizedStrings.DEFAULT_LOCALE);
-              Messages messages =
-                  messagesApi.preferred(ImmutableSet.of(Lang.forCode(locale.toLanguageTag())));
-              String subject =
-                  messages.at(
-                      MessageKey.EMAIL_TI_APPLICATION_SUBMITTED_SUBJECT.getKeyName(),
-                      programName,
-                      applicantId);
-              boolean useStatusMessage =
-                  status.map(s -> s.localizedEmailBodyText().isPresent()).orElse(false);
-              String message =
-                  String.format(
-                      "%s\n%s",
-                      useStatusMessage
-                          ? status.get().localizedEmailBodyText().get().getOrDefault(locale)
-                          : messages.at(
-                              MessageKey.EMAIL_TI_APPLICATION_SUBMITTED_BODY.getKeyName(),
-                              programName,
-                              applicantId,
-                              applicationId),
-                      messages.at(
-                          MessageKey.EMAIL_TI_MANAGE_YOUR_CLIENTS.getKeyName(), tiDashLink));
-              if (isStaging) {
-                amazonSESClient.send(stagingTiNotificationMailingList, subject, message);
-              } else {
-                amazonSESClient.send(tiEmail, subject, message);
-              }
-            },
-            classLoaderExecutionContext.current())
-        .toCompletableFuture();
+    // There's really only one applicant per account. See notes in Account.java.
+    Locale locale =
+        accountRepository
+            .lookupAccountByEmail(tiEmail)
+            .flatMap(AccountModel::newestApplicant)
+            .map(ApplicantModel::getApplicantData)
+            .map(ApplicantData::preferredLocale)
+            .orElse(LocalizedStrings.DEFAULT_LOCALE);
+    Messages messages =
+        messagesApi.preferred(ImmutableSet.of(Lang.forCode(locale.toLanguageTag())));
+    String subject =
+        messages.at(
+            MessageKey.EMAIL_TI_APPLICATION_SUBMITTED_SUBJECT.getKeyName(),
+            programName,
+            applicantId);
+    boolean useStatusMessage =
+        status.map(s -> s.localizedEmailBodyText().isPresent()).orElse(false);
+    String message =
+        String.format(
+            "%s\n%s",
+            useStatusMessage
+                ? status.get().localizedEmailBodyText().get().getOrDefault(locale)
+                : messages.at(
+                    MessageKey.EMAIL_TI_APPLICATION_SUBMITTED_BODY.getKeyName(),
+                    programName,
+                    applicantId,
+                    applicationId),
+            messages.at(MessageKey.EMAIL_TI_MANAGE_YOUR_CLIENTS.getKeyName(), tiDashLink));
+    return EmailMessage.create(
+        isStaging ? stagingTiNotificationMailingList : tiEmail, subject, message);
   }
 
   /**
-   * Email the applicant with either the default application email or the status' defined email.
-   * Will send the default application email if the status does not have an email body defined.
+   * Builds the email to the applicant with either the default application email or the status'
+   * defined email. Uses the default application email if the status does not have an email body
+   * defined.
    *
-   * @param applicantId the ID of the applicant
+   * @param applicant the applicant
    * @param applicationId the ID of the application
    * @param applicantEmail the applicant's email address
    * @param programDef the ProgramDefinition that the applicant applied for
    * @param status the status from which to get the email body to send. Empty if no default status
    *     is set for the program.
    */
-  private CompletionStage<Void> notifyApplicant(
-      long applicantId,
+  private EmailMessage buildApplicantNotification(
+      ApplicantModel applicant,
       long applicationId,
       String applicantEmail,
       ProgramDefinition programDef,
       Optional<StatusDefinitions.Status> status) {
-    CompletableFuture<Optional<Locale>> localeFuture =
-        getPreferredLocale(applicantId).toCompletableFuture();
-    return localeFuture.thenAcceptAsync(
-        (localeMaybe) -> {
-          Locale locale = localeMaybe.orElse(LocalizedStrings.DEFAULT_LOCALE);
-          boolean useStatusMessage =
-              status.map(s -> s.localizedEmailBodyText().isPresent()).orElse(false);
-          Messages messages =
-              messagesApi.preferred(ImmutableSet.of(Lang.forCode(locale.toLanguageTag())));
-          String programName = programDef.localizedName().getOrDefault(locale);
-          String subject =
-              messages.at(MessageKey.EMAIL_APPLICATION_RECEIVED_SUBJECT.getKeyName(), programName);
-          String message =
-              String.format(
-                  "%s\n%s",
-                  useStatusMessage
-                      ? status.get().localizedEmailBodyText().get().getOrDefault(locale)
-                      : messages.at(
-                          MessageKey.EMAIL_APPLICATION_RECEIVED_BODY.getKeyName(),
-                          programName,
-                          applicantId,
-                          applicationId),
-                  messages.at(MessageKey.EMAIL_LOGIN_TO_CIVIFORM.getKeyName(), baseUrl));
-          if (isStaging) {
-            amazonSESClient.send(stagingApplicantNotificationMailingList, subject, message);
-          } else {
-            amazonSESClient.send(applicantEmail, subject, message);
-          }
-        },
-        classLoaderExecutionContext.current());
+    Locale locale = applicant.getApplicantData().preferredLocale();
+    boolean useStatusMessage =
+        status.map(s -> s.localizedEmailBodyText().isPresent()).orElse(false);
+    Messages messages =
+        messagesApi.preferred(ImmutableSet.of(Lang.forCode(locale.toLanguageTag())));
+    String programName = programDef.localizedName().getOrDefault(locale);
+    String subject =
+        messages.at(MessageKey.EMAIL_APPLICATION_RECEIVED_SUBJECT.getKeyName(), programName);
+    String message =
+        String.format(
+            "%s\n%s",
+            useStatusMessage
+                ? status.get().localizedEmailBodyText().get().getOrDefault(locale)
+                : messages.at(
+                    MessageKey.EMAIL_APPLICATION_RECEIVED_BODY.getKeyName(),
+                    programName,
+                    applicant.id,
+                    applicationId),
+            messages.at(MessageKey.EMAIL_LOGIN_TO_CIVIFORM.getKeyName(), baseUrl));
+    return EmailMessage.create(
+        isStaging ? stagingApplicantNotificationMailingList : applicantEmail, subject, message);
   }
 
   /**
@@ -924,18 +905,7 @@ public final class ApplicantService {
                   builder.setName(name.get());
                 }
 
-                String accountEmailAddress = applicant.get().getAccount().getEmailAddress();
-                ImmutableSet.Builder<String> emailAddressesBuilder = ImmutableSet.builder();
-                if (!Strings.isNullOrEmpty(accountEmailAddress)) {
-                  emailAddressesBuilder.add(accountEmailAddress);
-                }
-
-                if (settingsManifest.getPrimaryApplicantInfoQuestionsEnabled()) {
-                  Optional<String> applicantInfoEmailAddress = applicant.get().getEmailAddress();
-                  applicantInfoEmailAddress.ifPresent(e -> emailAddressesBuilder.add(e));
-                }
-
-                ImmutableSet<String> emailAddresses = emailAddressesBuilder.build();
+                ImmutableSet<String> emailAddresses = getApplicantEmails(applicant.get());
                 if (!emailAddresses.isEmpty()) {
                   builder.setEmail(emailAddresses);
                 }
@@ -1012,8 +982,9 @@ public final class ApplicantService {
             .getApplicationsForApplicant(
                 applicantId, ImmutableSet.of(LifecycleStage.DRAFT, LifecycleStage.ACTIVE))
             .toCompletableFuture();
+    VersionModel activeVersion = versionRepository.getActiveVersion();
     ImmutableList<ProgramDefinition> activeProgramDefinitions =
-        versionRepository.getProgramsForVersion(versionRepository.getActiveVersion()).stream()
+        versionRepository.getProgramsForVersion(activeVersion).stream()
             .map(p -> programRepository.getShallowProgramDefinition(p))
             .filter(
                 pdef ->
@@ -1047,7 +1018,7 @@ public final class ApplicantService {
               ImmutableSet<ApplicationModel> applications = applicationsFuture.join();
               logDuplicateDrafts(applications);
               return relevantProgramsForApplicantInternal(
-                  activeProgramDefinitions, applications, allPrograms, request);
+                  activeProgramDefinitions, applications, allPrograms, activeVersion.id, request);
             },
             classLoaderExecutionContext.current());
   }
@@ -1069,7 +1040,11 @@ public final class ApplicantService {
                   .filter(pdef -> pdef.displayMode().equals(DisplayMode.PUBLIC))
                   .collect(ImmutableList.toImmutableList());
           return relevantProgramsForApplicantInternal(
-              activeProgramDefinitions, ImmutableSet.of(), activeProgramDefinitions, request);
+              activeProgramDefinitions,
+              ImmutableSet.of(),
+              activeProgramDefinitions,
+              version.id,
+              request);
         },
         classLoaderExecutionContext.current());
   }
@@ -1136,6 +1111,7 @@ public final class ApplicantService {
       ImmutableList<ProgramDefinition> activePrograms,
       ImmutableSet<ApplicationModel> applications,
       ImmutableList<ProgramDefinition> allPrograms,
+      long activeVersionId,
       Request request) {
     // Use ImmutableMap.copyOf rather than the collector to guard against cases where the
     // provided active programs contains duplicate entries with the same adminName. In this
@@ -1173,6 +1149,16 @@ public final class ApplicantService {
                                     })
                                 .thenComparing(ApplicationModel::getCreateTime)))));
 
+    // All the applications belong to the same applicant, so the eligibility of their latest answers
+    // is evaluated for all the programs at once.
+    Optional<BulkEligibilityEvaluator.Evaluation> applicantEligibility =
+        applications.stream()
+            .findFirst()
+            .map(
+                application ->
+                    bulkEligibilityEvaluator.evaluate(
+                        application.getApplicant().getApplicantData(), activeVersionId));
+
     ImmutableList.Builder<ApplicantProgramData> inProgressPrograms = ImmutableList.builder();
     ImmutableList.Builder<ApplicantProgramData> submittedPrograms = ImmutableList.builder();
     ImmutableList.Builder<ApplicantProgramData> unappliedPrograms = ImmutableList.builder();
@@ -1200,7 +1186,7 @@ public final class ApplicantService {
                     .setLatestApplicationLifecycleStage(Optional.of(LifecycleStage.DRAFT));
 
             applicantProgramDataBuilder.setIsProgramMaybeEligible(
-                getApplicantMayBeEligibleStatus(draftApp.getApplicant(), programDefinition));
+                applicantEligibility.get().getMaybeEligibleStatus(programDefinition));
 
             if (programDefinition.isCommonIntakeForm()) {
               relevantPrograms.setCommonIntakeForm(applicantProgramDataBuilder.build());
@@ -1239,7 +1225,9 @@ public final class ApplicantService {
                     .setLatestApplicationLifecycleStage(Optional.of(LifecycleStage.ACTIVE));
 
             applicantProgramDataBuilder.setIsProgramMaybeEligible(
-                getApplicationEligibilityStatus(maybeSubmittedApp.get(), programDefinition));
+                bulkEligibilityEvaluator
+                    .evaluate(maybeSubmittedApp.get().getApplicantData(), activeVersionId)
+                    .getMaybeEligibleStatus(programDefinition));
             submittedPrograms.add(applicantProgramDataBuilder.build());
             programNamesWithApplications.add(programName);
           }
@@ -1256,10 +1244,9 @@ public final class ApplicantService {
           ProgramDefinition program =
               findProgramWithId(allPrograms, activeProgramNames.get(programName).id());
 
-          if (!mostRecentApplicationsByProgram.isEmpty()) {
-            ApplicantModel applicant = applications.stream().findFirst().get().getApplicant();
+          if (applicantEligibility.isPresent()) {
             applicantProgramDataBuilder.setIsProgramMaybeEligible(
-                getApplicantMayBeEligibleStatus(applicant, program));
+                applicantEligibility.get().getMaybeEligibleStatus(program));
           }
 
           if (program.isCommonIntakeForm()) {
@@ -0,0 +1,111 @@
+package services.applicant;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.Hashing;
+import com.typesafe.config.Config;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.inject.Inject;
+import play.cache.NamedCache;
+import play.cache.SyncCacheApi;
+import services.applicant.predicate.JsonPathPredicateGeneratorFactory;
+import services.program.ProgramDefinition;
+import services.settings.SettingsManifest;
+
+/**
+ * Evaluates whether one applicant's answers may make them eligible for many programs, as the list
+ * of programs shown to an applicant does.
+ *
+ * <p>An {@link Evaluation} copies the applicant data once for all programs, and evaluates each
+ * predicate that programs share once. When {@code ELIGIBILITY_CACHE_ENABLED} is set, results are
+ * also kept between requests, keyed by the active version and a hash of the applicant data, so
+ * they're reused until the applicant's answers or the active programs change. Since age predicates
+ * depend on the current date, results expire after an hour.
+ */
+public final class BulkEligibilityEvaluator {
+
+  private static final int CACHE_EXPIRATION_SECONDS = 60 * 60;
+
+  private final JsonPathPredicateGeneratorFactory jsonPathPredicateGeneratorFactory;
+  private final SettingsManifest settingsManifest;
+  private final SyncCacheApi eligibilityCache;
+  private final String baseUrl;
+
+  @Inject
+  public BulkEligibilityEvaluator(
+      JsonPathPredicateGeneratorFactory jsonPathPredicateGeneratorFactory,
+      SettingsManifest settingsManifest,
+      @NamedCache("applicant-eligibility") SyncCacheApi eligibilityCache,
+      Config configuration) {
+    this.jsonPathPredicateGeneratorFactory = checkNotNull(jsonPathPredicateGeneratorFactory);
+    this.settingsManifest = checkNotNull(settingsManifest);
+    this.eligibilityCache = checkNotNull(eligibilityCache);
+    this.baseUrl = checkNotNull(configuration).getString("base_url");
+  }
+
+  /**
+   * Starts evaluating the eligibility of the given applicant data for programs of the active
+   * version. Changes made to the applicant data afterwards aren't seen by the evaluation.
+   */
+  public Evaluation evaluate(ApplicantData applicantData, long activeVersionId) {
+    ApplicantData lockedApplicantData =
+        ReadOnlyApplicantProgramServiceImpl.lockedCopy(applicantData, ImmutableMap.of());
+    ConcurrentMap<Long, Optional<Boolean>> resultsByProgramId =
+        settingsManifest.getEligibilityCacheEnabled()
+            ? eligibilityCache.getOrElseUpdate(
+                cacheKey(lockedApplicantData, activeVersionId),
+                ConcurrentHashMap::new,
+                CACHE_EXPIRATION_SECONDS)
+            : new ConcurrentHashMap<>();
+    return new Evaluation(lockedApplicantData, resultsByProgramId);
+  }
+
+  private static String cacheKey(ApplicantData applicantData, long activeVersionId) {
+    return String.format(
+        "%d:%s",
+        activeVersionId,
+        Hashing.sha256().hashString(applicantData.asJsonString(), StandardCharsets.UTF_8));
+  }
+
+  /** The eligibility of one applicant's answers for any number of programs. */
+  public final class Evaluation {
+
+    private final ApplicantData applicantData;
+    private final ConcurrentMap<Long, Optional<Boolean>> resultsByProgramId;
+    private final PredicateResults predicateResults = new PredicateResults();
+
+    private Evaluation(
+        ApplicantData applicantData, ConcurrentMap<Long, Optional<Boolean>> resultsByProgramId) {
+      this.applicantData = applicantData;
+      this.resultsByProgramId = resultsByProgramId;
+    }
+
+    /**
+     * Returns whether the applicant may be eligible for the program, and empty if there are no
+     * eligibility conditions for the program. This is the same as {@link
+     * ApplicantService#getApplicantMayBeEligibleStatus}.
+     */
+    public Optional<Boolean> getMaybeEligibleStatus(ProgramDefinition programDefinition) {
+      return resultsByProgramId.computeIfAbsent(
+          programDefinition.id(), unused -> evaluateProgram(programDefinition));
+    }
+
+    private Optional<Boolean> evaluateProgram(ProgramDefinition programDefinition) {
+      if (!programDefinition.hasEligibilityEnabled()) {
+        return Optional.empty();
+      }
+      ReadOnlyApplicantProgramService roAppProgramService =
+          new ReadOnlyApplicantProgramServiceImpl(
+              jsonPathPredicateGeneratorFactory,
+              applicantData,
+              programDefinition,
+              baseUrl,
+              predicateResults);
+      return Optional.of(!roAppProgramService.isApplicationNotEligible());
+    }
+  }
+}
@@ -1,10 +1,12 @@
 package services.applicant;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.guava.GuavaModule;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.Option;
 import com.jayway.jsonpath.ParseContext;
@@ -17,6 +19,7 @@ import javax.inject.Singleton;
 @Singleton
 public final class JsonPathProvider {
 
+  private static final ObjectMapper MAPPER = generateObjectMapper();
   private static final ParseContext JSON_PATH_PARSE_CONTEXT =
       JsonPath.using(generateConfiguration());
 
@@ -32,14 +35,36 @@ public final class JsonPathProvider {
     return JSON_PATH_PARSE_CONTEXT;
   }
 
-  private static Configuration generateConfiguration() {
+  /**
+   * Parses applicant data read from a jsonb column.
+   *
+   * <p>Rows written before the column held native jsonb contain the document encoded as a JSON
+   * string, which is parsed from its text. Otherwise the already parsed tree is converted to the
+   * document without serializing and parsing it again.
+   */
+  public static DocumentContext parse(JsonNode json) {
+    if (json.isTextual()) {
+      return JSON_PATH_PARSE_CONTEXT.parse(json.asText());
+    }
+    return JSON_PATH_PARSE_CONTEXT.parse(MAPPER.convertValue(json, Object.class));
+  }
+
+  /** Converts a document to a tree that can be written to a jsonb column. */
+  public static JsonNode toJsonNode(DocumentContext documentContext) {
+    return MAPPER.valueToTree(documentContext.json());
+  }
+
+  private static ObjectMapper generateObjectMapper() {
     ObjectMapper mapper =
         new ObjectMapper().registerModule(new GuavaModule()).registerModule(new Jdk8Module());
     mapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
+    return mapper;
+  }
 
+  private static Configuration generateConfiguration() {
     return Configuration.builder()
-        .jsonProvider(new JacksonJsonProvider(mapper))
-        .mappingProvider(new JacksonMappingProvider(mapper))
+        .jsonProvider(new JacksonJsonProvider(MAPPER))
+        .mappingProvider(new JacksonMappingProvider(MAPPER))
         .options(EnumSet.noneOf(Option.class))
         .build();
   }
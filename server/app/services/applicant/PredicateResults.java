@@ -0,0 +1,41 @@
+package services.applicant;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import services.Path;
+import services.applicant.predicate.CompiledPredicate;
+import services.program.predicate.PredicateDefinition;
+import services.program.predicate.PredicateExpressionNode;
+
+/**
+ * The results of the predicates evaluated against a single, locked {@link ApplicantData}.
+ *
+ * <p>The same predicate is evaluated several times while the blocks of a program are listed, and
+ * programs often share eligibility conditions, so a result is kept for each predicate and repeated
+ * entity it was evaluated for. Predicates that aren't {@link CompiledPredicate#isResolved()
+ * resolved} depend on the program they belong to, and are always evaluated.
+ */
+final class PredicateResults {
+
+  private final ConcurrentHashMap<Key, Boolean> results = new ConcurrentHashMap<>();
+
+  /**
+   * Returns the result of the predicate for the repeated entity, calling {@code evaluation} if it
+   * hasn't been evaluated yet.
+   */
+  boolean get(
+      PredicateDefinition predicate,
+      CompiledPredicate compiledPredicate,
+      Optional<RepeatedEntity> repeatedEntity,
+      BooleanSupplier evaluation) {
+    if (!compiledPredicate.isResolved()) {
+      return evaluation.getAsBoolean();
+    }
+    Key key =
+        new Key(predicate.rootNode(), repeatedEntity.map(RepeatedEntity::contextualizedPath));
+    return results.computeIfAbsent(key, unused -> evaluation.getAsBoolean());
+  }
+
+  private record Key(PredicateExpressionNode predicate, Optional<Path> repeatedEntityPath) {}
+}
@@ -15,9 +15,8 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import services.LocalizedStrings;
 import services.Path;
-import services.applicant.predicate.JsonPathPredicateGenerator;
+import services.applicant.predicate.CompiledPredicate;
 import services.applicant.predicate.JsonPathPredicateGeneratorFactory;
-import services.applicant.predicate.PredicateEvaluator;
 import services.applicant.question.ApplicantQuestion;
 import services.applicant.question.CurrencyQuestion;
 import services.applicant.question.DateQuestion;
@@ -48,6 +47,7 @@ public class ReadOnlyApplicantProgramServiceImpl implements ReadOnlyApplicantPro
   private final ProgramDefinition programDefinition;
   private final String baseUrl;
   private final JsonPathPredicateGeneratorFactory jsonPathPredicateGeneratorFactory;
+  private final PredicateResults predicateResults;
   private ImmutableList<Block> allActiveBlockList;
   private ImmutableList<Block> allHiddenBlockList;
   private ImmutableList<Block> currentBlockList;
@@ -71,14 +71,40 @@ public class ReadOnlyApplicantProgramServiceImpl implements ReadOnlyApplicantPro
       ProgramDefinition programDefinition,
       String baseUrl,
       ImmutableMap<Path, String> failedUpdates) {
+    this(
+        jsonPathPredicateGeneratorFactory,
+        lockedCopy(applicantData, failedUpdates),
+        programDefinition,
+        baseUrl,
+        new PredicateResults());
+  }
+
+  /**
+   * Creates a service for applicant data that has already been copied and locked. Predicates are
+   * only evaluated once across all the services created with the same {@link PredicateResults}.
+   */
+  ReadOnlyApplicantProgramServiceImpl(
+      JsonPathPredicateGeneratorFactory jsonPathPredicateGeneratorFactory,
+      ApplicantData lockedApplicantData,
+      ProgramDefinition programDefinition,
+      String baseUrl,
+      PredicateResults predicateResults) {
     this.jsonPathPredicateGeneratorFactory = checkNotNull(jsonPathPredicateGeneratorFactory);
-    this.applicantData =
-        new ApplicantData(checkNotNull(applicantData).asJsonString(), applicantData.getApplicant());
-    this.applicantData.setPreferredLocale(applicantData.preferredLocale());
-    this.applicantData.setFailedUpdates(failedUpdates);
-    this.applicantData.lock();
+    this.applicantData = checkNotNull(lockedApplicantData);
     this.programDefinition = checkNotNull(programDefinition);
     this.baseUrl = checkNotNull(baseUrl);
+    this.predicateResults = checkNotNull(predicateResults);
+  }
+
+  /** Returns a locked copy of the applicant data, so it can't be changed by the caller. */
+  static ApplicantData lockedCopy(
+      ApplicantData applicantData, ImmutableMap<Path, String> failedUpdates) {
+    ApplicantData copy =
+        new ApplicantData(checkNotNull(applicantData).asJsonString(), applicantData.getApplicant());
+    copy.setPreferredLocale(applicantData.preferredLocale());
+    copy.setFailedUpdates(failedUpdates);
+    copy.lock();
+    return copy;
   }
 
   @Override
@@ -137,7 +163,10 @@ public class ReadOnlyApplicantProgramServiceImpl implements ReadOnlyApplicantPro
 
   @Override
   public boolean isApplicationNotEligible() {
+    // Only the questions of an ineligible block can make the application ineligible, so the
+    // eligibility of each block is evaluated once, before any of its questions are read.
     return getAllActiveBlocks().stream()
+        .filter(block -> !isBlockEligible(block))
         .anyMatch(
             block ->
                 block.getQuestions().stream()
@@ -557,12 +586,16 @@ public class ReadOnlyApplicantProgramServiceImpl implements ReadOnlyApplicantPro
   }
 
   private boolean evaluatePredicate(Block block, PredicateDefinition predicate) {
-    JsonPathPredicateGenerator predicateGenerator =
-        jsonPathPredicateGeneratorFactory.create(
-            this.programDefinition.streamQuestionDefinitions().collect(toImmutableList()),
-            block.getRepeatedEntity());
-    return new PredicateEvaluator(this.applicantData, predicateGenerator)
-        .evaluate(predicate.rootNode());
+    CompiledPredicate compiledPredicate = programDefinition.compiledPredicates().get(predicate);
+    return predicateResults.get(
+        predicate,
+        compiledPredicate,
+        block.getRepeatedEntity(),
+        () ->
+            compiledPredicate.evaluate(
+                this.applicantData,
+                block.getRepeatedEntity(),
+                jsonPathPredicateGeneratorFactory.getDateConverter()));
   }
 
   /**
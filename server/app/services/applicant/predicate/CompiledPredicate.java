@@ -0,0 +1,474 @@
+package services.applicant.predicate;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.function.IntPredicate;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import services.DateConverter;
+import services.Path;
+import services.applicant.ApplicantData;
+import services.applicant.RepeatedEntity;
+import services.applicant.exception.InvalidPredicateException;
+import services.applicant.question.Scalar;
+import services.geo.ServiceAreaState;
+import services.program.predicate.LeafAddressServiceAreaExpressionNode;
+import services.program.predicate.LeafExpressionNode;
+import services.program.predicate.LeafOperationExpressionNode;
+import services.program.predicate.Operator;
+import services.program.predicate.PredicateExpressionNode;
+import services.question.types.QuestionDefinition;
+
+/**
+ * A {@link PredicateExpressionNode} compiled for evaluation against {@link ApplicantData}.
+ *
+ * <p>{@link PredicateEvaluator} formats every leaf as a JsonPath filter, which JsonPath then parses
+ * and runs, each time the predicate is evaluated. Compiling resolves the question, operator and
+ * compared value of every leaf once, so evaluating a leaf reads the answer at its path and compares
+ * it directly. A compiled predicate matches exactly the applicant data that {@link
+ * PredicateEvaluator} matches, with values compared as described in {@link JsonPathValues}.
+ *
+ * <p>Compiled predicates are immutable, and are cached with the program they belong to by {@link
+ * CompiledPredicates}.
+ */
+public final class CompiledPredicate {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(CompiledPredicate.class);
+
+  private final Node root;
+  private final boolean resolved;
+
+  private CompiledPredicate(Node root) {
+    this.root = checkNotNull(root);
+    this.resolved = root.isResolved();
+  }
+
+  /**
+   * Compiles the expression tree rooted at the given {@link PredicateExpressionNode}.
+   *
+   * @param questionsById the questions of the program the predicate belongs to
+   */
+  public static CompiledPredicate compile(
+      PredicateExpressionNode node, ImmutableMap<Long, QuestionDefinition> questionsById) {
+    return new CompiledPredicate(compileNode(node, checkNotNull(questionsById)));
+  }
+
+  /**
+   * Returns true if and only if the entire tree evaluates to true based on the given {@link
+   * ApplicantData}.
+   *
+   * @param repeatedContext the repeated entity of the block the predicate is evaluated for
+   */
+  public boolean evaluate(
+      ApplicantData applicantData,
+      Optional<RepeatedEntity> repeatedContext,
+      DateConverter dateConverter) {
+    return root.evaluate(new Context(applicantData, repeatedContext, dateConverter));
+  }
+
+  /**
+   * Returns true if every question the predicate depends on was found in the program. The result
+   * of a resolved predicate only depends on the applicant data and repeated entity it's evaluated
+   * against, so it can be shared with other programs that have the same predicate.
+   */
+  public boolean isResolved() {
+    return resolved;
+  }
+
+  private static Node compileNode(
+      PredicateExpressionNode node, ImmutableMap<Long, QuestionDefinition> questionsById) {
+    switch (node.getType()) {
+      case LEAF_OPERATION:
+        return compileLeafNode(node.getLeafOperationNode(), questionsById);
+      case LEAF_ADDRESS_SERVICE_AREA:
+        return compileLeafAddressServiceAreaNode(node.getLeafAddressNode(), questionsById);
+      case AND:
+        return new AllNode(compileChildren(node.getAndNode().children(), questionsById));
+      case OR:
+        return new AnyNode(compileChildren(node.getOrNode().children(), questionsById));
+      default:
+        return context -> false;
+    }
+  }
+
+  private static ImmutableList<Node> compileChildren(
+      ImmutableList<PredicateExpressionNode> children,
+      ImmutableMap<Long, QuestionDefinition> questionsById) {
+    return children.stream()
+        .map(child -> compileNode(child, questionsById))
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  private static Node compileLeafNode(
+      LeafOperationExpressionNode node, ImmutableMap<Long, QuestionDefinition> questionsById) {
+    String description = "LeafOperationExpressionNode " + node;
+    Optional<QuestionDefinition> targetQuestion = findTargetQuestion(node, questionsById);
+    if (targetQuestion.isEmpty()) {
+      return new InvalidNode(description, questionNotFoundMessage(node));
+    }
+
+    TargetPath targetPath;
+    ValueTest test;
+    try {
+      targetPath = new TargetPath(targetQuestion.get(), Optional.empty());
+      test = compileValueTest(node);
+    } catch (InvalidPredicateException | RuntimeException e) {
+      return new InvalidNode(description, e.getMessage());
+    }
+    String key = node.scalar().name().toLowerCase(Locale.ROOT);
+    return new LeafNode(
+        description, targetPath, (item, context) -> test.test(property(item, key), context));
+  }
+
+  private static Node compileLeafAddressServiceAreaNode(
+      LeafAddressServiceAreaExpressionNode node,
+      ImmutableMap<Long, QuestionDefinition> questionsById) {
+    String description = "LeafAddressServiceAreaExpressionNode " + node;
+    Optional<QuestionDefinition> targetQuestion = findTargetQuestion(node, questionsById);
+    if (targetQuestion.isEmpty()) {
+      return new InvalidNode(description, questionNotFoundMessage(node));
+    }
+
+    String matchingState =
+        node.operator() == Operator.IN_SERVICE_AREA
+            ? ServiceAreaState.IN_AREA.name()
+            : ServiceAreaState.NOT_IN_AREA.name();
+    String failedState = ServiceAreaState.FAILED.name();
+    String serviceAreaId = node.serviceAreaId();
+    String stateKey = Scalar.SERVICE_AREA_STATE.name().toLowerCase(Locale.ROOT);
+    String serviceAreaIdKey = Scalar.SERVICE_AREA_ID.name().toLowerCase(Locale.ROOT);
+    TargetPath targetPath;
+    try {
+      targetPath = new TargetPath(targetQuestion.get(), Optional.of(Scalar.SERVICE_AREAS));
+    } catch (InvalidPredicateException e) {
+      return new InvalidNode(description, e.getMessage());
+    }
+    return new LeafNode(
+        description,
+        targetPath,
+        (item, context) -> {
+          Object state = property(item, stateKey);
+          return (JsonPathValues.isEqual(state, matchingState)
+                  || JsonPathValues.isEqual(state, failedState))
+              && JsonPathValues.isEqual(property(item, serviceAreaIdKey), serviceAreaId);
+        });
+  }
+
+  /**
+   * Compiles the comparison of a {@link LeafOperationExpressionNode}, which is applied to the value
+   * of the node's scalar.
+   */
+  private static ValueTest compileValueTest(LeafOperationExpressionNode node)
+      throws InvalidPredicateException {
+    String comparedValue = node.comparedValue().value();
+    switch (node.operator()) {
+      case AGE_BETWEEN:
+        {
+          // Value is stored as "[18, 30]". The date must be at least as old as the younger age
+          // and no older than the older one.
+          ImmutableList<Long> ageRange = parseLongList(comparedValue);
+          long youngerAge = ageRange.get(0);
+          long olderAge = ageRange.get(1);
+          return (value, context) ->
+              isOrdered(timestampFromAge(context, youngerAge), value, c -> c >= 0)
+                  && isOrdered(timestampFromAge(context, olderAge), value, c -> c <= 0);
+        }
+      case AGE_OLDER_THAN:
+        {
+          double age = Double.parseDouble(comparedValue);
+          return (value, context) ->
+              isOrdered(timestampFromAge(context, age), value, c -> c >= 0);
+        }
+      case AGE_YOUNGER_THAN:
+        {
+          double age = Double.parseDouble(comparedValue);
+          return (value, context) -> isOrdered(timestampFromAge(context, age), value, c -> c < 0);
+        }
+      case BETWEEN:
+        {
+          // Value is stored as "[123, 456]"
+          ImmutableList<Long> range = parseLongList(comparedValue);
+          checkArgument(range.size() == 2);
+          BigDecimal lower = BigDecimal.valueOf(range.get(0));
+          BigDecimal upper = BigDecimal.valueOf(range.get(1));
+          return (value, context) ->
+              isOrdered(lower, value, c -> c <= 0) && isOrdered(value, upper, c -> c <= 0);
+        }
+      default:
+        break;
+    }
+
+    Object constant =
+        JsonPathValues.parseConstant(comparedValue)
+            .orElseThrow(
+                () ->
+                    new InvalidPredicateException(
+                        String.format("Can't compare with value %s", comparedValue)));
+    // List operators never match when compared with a single value.
+    List<?> constants = constant instanceof List ? (List<?>) constant : null;
+    switch (node.operator().toJsonPathOperator()) {
+      case "==":
+        return (value, context) -> JsonPathValues.isEqual(value, constant);
+      case "!=":
+        return (value, context) -> !JsonPathValues.isEqual(value, constant);
+      case ">":
+        return (value, context) -> isOrdered(value, constant, c -> c > 0);
+      case ">=":
+        return (value, context) -> isOrdered(value, constant, c -> c >= 0);
+      case "<":
+        return (value, context) -> isOrdered(value, constant, c -> c < 0);
+      case "<=":
+        return (value, context) -> isOrdered(value, constant, c -> c <= 0);
+      case "in":
+        return (value, context) ->
+            constants != null && JsonPathValues.isEqualToAny(value, constants);
+      case "nin":
+        return (value, context) ->
+            constants != null && !JsonPathValues.isEqualToAny(value, constants);
+      case "anyof":
+        return (value, context) ->
+            constants != null
+                && value instanceof List
+                && ((List<?>) value).stream().anyMatch(element -> isIn(element, constants));
+      case "noneof":
+        return (value, context) ->
+            constants != null
+                && value instanceof List
+                && ((List<?>) value).stream().noneMatch(element -> isIn(element, constants));
+      case "subsetof":
+        return (value, context) ->
+            constants != null
+                && value instanceof List
+                && ((List<?>) value).stream().allMatch(element -> isIn(element, constants));
+      default:
+        throw new InvalidPredicateException(
+            String.format("Operator %s can't be applied to a scalar", node.operator()));
+    }
+  }
+
+  private static ImmutableList<Long> parseLongList(String arrayString) {
+    return Splitter.on(", ")
+        .splitToStream(arrayString.substring(1, arrayString.length() - 1))
+        .map(Long::parseLong)
+        .sorted()
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  private static BigDecimal timestampFromAge(Context context, long age) {
+    return BigDecimal.valueOf(context.dateConverter().getDateTimestampFromAge(age));
+  }
+
+  private static BigDecimal timestampFromAge(Context context, double age) {
+    return BigDecimal.valueOf(context.dateConverter().getDateTimestampFromAge(age));
+  }
+
+  /** Returns true if an element of an array in the applicant data equals any of the constants. */
+  private static boolean isIn(@Nullable Object element, List<?> constants) {
+    return JsonPathValues.isEqualToAny(JsonPathValues.fromDocument(element), constants);
+  }
+
+  private static boolean isOrdered(
+      @Nullable Object left, @Nullable Object right, IntPredicate comparison) {
+    OptionalInt result = JsonPathValues.compare(left, right);
+    return result.isPresent() && comparison.test(result.getAsInt());
+  }
+
+  /** Returns the value of a property of an object in the applicant data, or null if it has none. */
+  @Nullable
+  private static Object property(@Nullable Object item, String key) {
+    return item instanceof Map ? JsonPathValues.fromDocument(((Map<?, ?>) item).get(key)) : null;
+  }
+
+  private static Optional<QuestionDefinition> findTargetQuestion(
+      LeafExpressionNode node, ImmutableMap<Long, QuestionDefinition> questionsById) {
+    return Optional.ofNullable(questionsById.get(node.questionId()));
+  }
+
+  private static String questionNotFoundMessage(LeafExpressionNode node) {
+    // This means a predicate was incorrectly configured - we are depending upon a question that
+    // does not appear anywhere in this program.
+    return String.format(
+        "Tried to apply a predicate based on question %d, which is not found in this program.",
+        node.questionId());
+  }
+
+  /** What a compiled predicate is evaluated against. */
+  private record Context(
+      ApplicantData applicantData,
+      Optional<RepeatedEntity> repeatedContext,
+      DateConverter dateConverter) {}
+
+  private interface Node {
+    boolean evaluate(Context context);
+
+    default boolean isResolved() {
+      return true;
+    }
+  }
+
+  private interface ValueTest {
+    boolean test(@Nullable Object value, Context context);
+  }
+
+  private interface ItemTest {
+    boolean test(@Nullable Object item, Context context);
+  }
+
+  /** Matches if all of its children match. */
+  private static final class AllNode implements Node {
+    private final ImmutableList<Node> children;
+
+    AllNode(ImmutableList<Node> children) {
+      this.children = children;
+    }
+
+    @Override
+    public boolean isResolved() {
+      return children.stream().allMatch(Node::isResolved);
+    }
+
+    @Override
+    public boolean evaluate(Context context) {
+      for (Node child : children) {
+        if (!child.evaluate(context)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  /** Matches if any of its children match. */
+  private static final class AnyNode implements Node {
+    private final ImmutableList<Node> children;
+
+    AnyNode(ImmutableList<Node> children) {
+      this.children = children;
+    }
+
+    @Override
+    public boolean isResolved() {
+      return children.stream().allMatch(Node::isResolved);
+    }
+
+    @Override
+    public boolean evaluate(Context context) {
+      for (Node child : children) {
+        if (child.evaluate(context)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  /**
+   * The path of the answer a leaf applies to. The path of a top-level question is resolved when
+   * the predicate is compiled, and the path of a repeated question when it's evaluated.
+   */
+  private static final class TargetPath {
+    private final QuestionDefinition targetQuestion;
+    private final Optional<Scalar> scalar;
+    private final Optional<Path> topLevelPath;
+
+    TargetPath(QuestionDefinition targetQuestion, Optional<Scalar> scalar)
+        throws InvalidPredicateException {
+      this.targetQuestion = targetQuestion;
+      this.scalar = scalar;
+      this.topLevelPath =
+          targetQuestion.getEnumeratorId().isEmpty()
+              ? Optional.of(resolve(Optional.empty()))
+              : Optional.empty();
+    }
+
+    Path get(Context context) throws InvalidPredicateException {
+      if (topLevelPath.isPresent()) {
+        return topLevelPath.get();
+      }
+      return resolve(context.repeatedContext());
+    }
+
+    private Path resolve(Optional<RepeatedEntity> repeatedContext)
+        throws InvalidPredicateException {
+      Path path = JsonPathPredicateGenerator.getTargetPath(targetQuestion, repeatedContext);
+      return scalar.map(path::join).orElse(path);
+    }
+  }
+
+  /**
+   * A leaf that matches if the object at its path matches, or if any element of the array at its
+   * path does, the same way a JsonPath filter applies to them. Any other value never matches.
+   */
+  private static final class LeafNode implements Node {
+    private final String description;
+    private final TargetPath targetPath;
+    private final ItemTest test;
+
+    LeafNode(String description, TargetPath targetPath, ItemTest test) {
+      this.description = description;
+      this.targetPath = targetPath;
+      this.test = test;
+    }
+
+    @Override
+    public boolean evaluate(Context context) {
+      Path path;
+      try {
+        path = targetPath.get(context);
+      } catch (InvalidPredicateException e) {
+        logInvalidPredicate(description, e.getMessage());
+        return false;
+      }
+      Optional<Object> target = context.applicantData().readDocumentValue(path);
+      if (target.isEmpty()) {
+        return false;
+      }
+      if (target.get() instanceof List) {
+        for (Object element : (List<?>) target.get()) {
+          if (test.test(element, context)) {
+            return true;
+          }
+        }
+        return false;
+      }
+      return target.get() instanceof Map && test.test(target.get(), context);
+    }
+  }
+
+  /** A leaf that can't be evaluated, which never matches. */
+  private static final class InvalidNode implements Node {
+    private final String description;
+    private final String message;
+
+    InvalidNode(String description, String message) {
+      this.description = description;
+      this.message = message;
+    }
+
+    @Override
+    public boolean evaluate(Context context) {
+      logInvalidPredicate(description, message);
+      return false;
+    }
+
+    @Override
+    public boolean isResolved() {
+      return false;
+    }
+  }
+
+  private static void logInvalidPredicate(String description, String message) {
+    LOGGER.error("InvalidPredicateException when evaluating {}: {}", description, message);
+  }
+}
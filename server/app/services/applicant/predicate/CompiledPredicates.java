@@ -0,0 +1,35 @@
+package services.applicant.predicate;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import services.program.predicate.PredicateDefinition;
+import services.program.predicate.PredicateExpressionNode;
+import services.question.types.QuestionDefinition;
+
+/**
+ * The {@link CompiledPredicate}s of a single program version, compiled the first time each one is
+ * needed.
+ */
+public final class CompiledPredicates {
+
+  private final ImmutableMap<Long, QuestionDefinition> questionsById;
+  private final ConcurrentHashMap<PredicateExpressionNode, CompiledPredicate> compiled =
+      new ConcurrentHashMap<>();
+
+  /** @param programQuestions the questions of the program the predicates belong to */
+  public CompiledPredicates(ImmutableList<QuestionDefinition> programQuestions) {
+    this.questionsById =
+        checkNotNull(programQuestions).stream()
+            .collect(toImmutableMap(QuestionDefinition::getId, q -> q));
+  }
+
+  /** Returns the compiled form of the given predicate. */
+  public CompiledPredicate get(PredicateDefinition predicate) {
+    return compiled.computeIfAbsent(
+        predicate.rootNode(), node -> CompiledPredicate.compile(node, questionsById));
+  }
+}
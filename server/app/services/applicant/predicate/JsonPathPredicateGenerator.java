@@ -181,14 +181,23 @@ public final class JsonPathPredicateGenerator {
               node.questionId()));
     }
 
-    QuestionDefinition targetQuestion = questionsById.get(node.questionId());
+    return getTargetPath(questionsById.get(node.questionId()), currentRepeatedContext);
+  }
+
+  /**
+   * Returns the path of the answer to {@code targetQuestion} that a predicate evaluated in {@code
+   * currentRepeatedContext} applies to.
+   */
+  static Path getTargetPath(
+      QuestionDefinition targetQuestion, Optional<RepeatedEntity> currentRepeatedContext)
+      throws InvalidPredicateException {
     Optional<RepeatedEntity> predicateContext;
 
     if (targetQuestion.getEnumeratorId().isEmpty()) {
       // This is a top-level question (i.e. is not repeated) - use an empty repeated context.
       predicateContext = Optional.empty();
     } else {
-      predicateContext = getTargetContext(targetQuestion);
+      predicateContext = getTargetContext(targetQuestion, currentRepeatedContext);
     }
 
     Path path =
@@ -202,13 +211,14 @@ public final class JsonPathPredicateGenerator {
     return path;
   }
 
-  private Optional<RepeatedEntity> getTargetContext(QuestionDefinition targetQuestion)
+  private static Optional<RepeatedEntity> getTargetContext(
+      QuestionDefinition targetQuestion, Optional<RepeatedEntity> currentRepeatedContext)
       throws InvalidPredicateException {
     // Walk up the RepeatedEntity ancestors to find the right context. We need the context of the
     // question in the predicate definition - that is, the one where the predicate question's
     // enumerator ID matches the context's enumerator ID.
     long enumeratorId = targetQuestion.getEnumeratorId().get();
-    Optional<RepeatedEntity> predicateContext = this.currentRepeatedContext;
+    Optional<RepeatedEntity> predicateContext = currentRepeatedContext;
     while (predicateContext.isPresent()
         && predicateContext.get().enumeratorQuestionDefinition().getId() != enumeratorId) {
       predicateContext = predicateContext.get().parent();
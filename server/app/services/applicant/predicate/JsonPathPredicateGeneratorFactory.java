@@ -25,4 +25,9 @@ public final class JsonPathPredicateGeneratorFactory {
     return new JsonPathPredicateGenerator(
         dateConverter, checkNotNull(programQuestions), checkNotNull(currentRepeatedContext));
   }
+
+  /** Returns the {@link DateConverter} age predicates are evaluated with. */
+  public DateConverter getDateConverter() {
+    return dateConverter;
+  }
 }
@@ -0,0 +1,123 @@
+package services.applicant.predicate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import javax.annotation.Nullable;
+
+/**
+ * Compares values the way JsonPath (https://github.com/json-path/JsonPath) filters compare them, so
+ * that a {@link CompiledPredicate} matches exactly the applicant data that the equivalent {@link
+ * JsonPathPredicate} matches.
+ *
+ * <p>Numbers are held as {@link BigDecimal}s and strings as {@link String}s. A number and a string
+ * are equal if the string is the same number, or the number written out is the same string.
+ * Numbers and strings are only ordered against values of the same kind. Anything else, such as a
+ * missing value, never equals or is ordered against a constant.
+ */
+final class JsonPathValues {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private JsonPathValues() {}
+
+  /**
+   * Parses the right hand side of a predicate, which is a JSON number, string, or array of numbers
+   * and strings. Returns empty if it's not one of those.
+   */
+  static Optional<Object> parseConstant(String value) {
+    JsonNode node;
+    try {
+      node = MAPPER.readTree(value);
+    } catch (JsonProcessingException e) {
+      return Optional.empty();
+    }
+    if (node == null) {
+      return Optional.empty();
+    }
+    if (node.isNumber()) {
+      // Use the literal text, which is what the filter would have compared against.
+      try {
+        return Optional.of(new BigDecimal(value.trim()));
+      } catch (NumberFormatException e) {
+        return Optional.empty();
+      }
+    }
+    if (node.isArray()) {
+      ImmutableList.Builder<Object> elements = ImmutableList.builder();
+      for (JsonNode element : node) {
+        if (element.isNumber()) {
+          elements.add(new BigDecimal(element.numberValue().toString()));
+        } else if (element.isTextual()) {
+          elements.add(element.textValue());
+        } else {
+          return Optional.empty();
+        }
+      }
+      return Optional.of(elements.build());
+    }
+    return node.isTextual() ? Optional.of(node.textValue()) : Optional.empty();
+  }
+
+  /** Converts a value read from the applicant data so that it can be compared with constants. */
+  @Nullable
+  static Object fromDocument(@Nullable Object value) {
+    return value instanceof Number ? new BigDecimal(value.toString()) : value;
+  }
+
+  /** Returns true if a value from the applicant data equals the constant. */
+  static boolean isEqual(@Nullable Object value, Object constant) {
+    if (value instanceof BigDecimal) {
+      Optional<BigDecimal> number = asNumber(constant);
+      return number.isPresent() && ((BigDecimal) value).compareTo(number.get()) == 0;
+    }
+    if (value instanceof String) {
+      return (constant instanceof String || constant instanceof BigDecimal)
+          && value.equals(constant.toString());
+    }
+    return false;
+  }
+
+  /** Returns true if a value from the applicant data equals any of the constants. */
+  static boolean isEqualToAny(@Nullable Object value, List<?> constants) {
+    for (Object constant : constants) {
+      if (isEqual(value, constant)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Compares two numbers or two strings, returning empty if the values are of different kinds or
+   * can't be ordered.
+   */
+  static OptionalInt compare(@Nullable Object left, @Nullable Object right) {
+    if (left instanceof BigDecimal && right instanceof BigDecimal) {
+      return OptionalInt.of(((BigDecimal) left).compareTo((BigDecimal) right));
+    }
+    if (left instanceof String && right instanceof String) {
+      return OptionalInt.of(((String) left).compareTo((String) right));
+    }
+    return OptionalInt.empty();
+  }
+
+  private static Optional<BigDecimal> asNumber(Object constant) {
+    if (constant instanceof BigDecimal) {
+      return Optional.of((BigDecimal) constant);
+    }
+    if (constant instanceof String) {
+      try {
+        return Optional.of(new BigDecimal((String) constant));
+      } catch (NumberFormatException e) {
+        return Optional.empty();
+      }
+    }
+    return Optional.empty();
+  }
+}
@@ -2,6 +2,8 @@ package services.applications;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.inject.Inject;
 import com.typesafe.config.Config;
@@ -11,6 +13,8 @@ import models.AccountModel;
 import models.ApplicantModel;
 import models.ApplicationModel;
 import models.ProgramModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import play.i18n.Lang;
 import play.i18n.Messages;
 import play.i18n.MessagesApi;
@@ -23,12 +27,11 @@ import services.DeploymentType;
 import services.LocalizedStrings;
 import services.MessageKey;
 import services.applicant.ApplicantData;
-import services.applicant.ApplicantPersonalInfo;
 import services.applicant.ApplicantService;
 import services.application.ApplicationEventDetails;
 import services.application.ApplicationEventDetails.NoteEvent;
 import services.application.ApplicationEventDetails.StatusEvent;
-import services.cloud.aws.SimpleEmail;
+import services.email.EmailMessage;
 import services.program.ProgramDefinition;
 import services.program.ProgramNotFoundException;
 import services.statuses.StatusDefinitions.Status;
@@ -36,13 +39,14 @@ import services.statuses.StatusNotFoundException;
 
 /** The service responsible for mediating a program admin's access to the Application resource. */
 public final class ProgramAdminApplicationService {
+  private static final Logger logger =
+      LoggerFactory.getLogger(ProgramAdminApplicationService.class);
 
   private final ApplicantService applicantService;
   private final ApplicationEventRepository eventRepository;
   private final AccountRepository accountRepository;
 
   private final ProgramRepository programRepository;
-  private final SimpleEmail emailClient;
   private final String baseUrl;
   private final boolean isStaging;
   private final String stagingApplicantNotificationMailingList;
@@ -58,7 +62,6 @@ public final class ProgramAdminApplicationService {
       AccountRepository accountRepository,
       ProgramRepository programRepository,
       Config configuration,
-      SimpleEmail emailClient,
       DeploymentType deploymentType,
       MessagesApi messagesApi,
       ApplicationRepository applicationRepository,
@@ -68,7 +71,6 @@ public final class ProgramAdminApplicationService {
     this.accountRepository = checkNotNull(accountRepository);
     this.programRepository = checkNotNull(programRepository);
     this.eventRepository = checkNotNull(eventRepository);
-    this.emailClient = checkNotNull(emailClient);
     this.messagesApi = checkNotNull(messagesApi);
     this.applicationStatusesRepository = checkNotNull(applicationStatusesRepository);
 
@@ -92,63 +94,158 @@ public final class ProgramAdminApplicationService {
       ApplicationModel application, StatusEvent newStatusEvent, AccountModel admin)
       throws StatusEmailNotFoundException, StatusNotFoundException, AccountHasNoEmailException {
     ProgramModel program = application.getProgram();
-    ApplicantModel applicant = application.getApplicant();
-    String newStatusText = newStatusEvent.statusText();
     // The send/sent phrasing is a little weird as the service layer is converting between intent
     // and reality.
     boolean sendEmail = newStatusEvent.emailSent();
     ProgramDefinition programDef = programRepository.getShallowProgramDefinition(program);
+    Status statusDef = findStatusToSet(programDef, newStatusEvent);
+
+    // Queue emails if requested and present.
+    ImmutableList<EmailMessage> emails = ImmutableList.of();
+    if (sendEmail) {
+      Optional<ImmutableList<EmailMessage>> statusEmails =
+          buildStatusEmails(
+              program.getProgramDefinition(),
+              application,
+              statusDef,
+              lookupSubmitterAccounts(ImmutableList.of(application)));
+      if (statusEmails.isEmpty()) {
+        // An email was requested to be sent but the applicant doesn't have one.
+        throw new AccountHasNoEmailException(application.getApplicant().getAccount().id);
+      }
+      emails = statusEmails.get();
+    }
+    eventRepository
+        .insertStatusEvent(application, Optional.of(admin), newStatusEvent, emails)
+        .toCompletableFuture()
+        .join();
+  }
+
+  /*
+   * Sets the status on many applications to the program at once, as {@link #setStatus} does for
+   * one, and returns the number of applications updated. Ids of applications that aren't to the
+   * program are ignored.
+   *
+   * The status is looked up once, the applications are loaded with their applicants and accounts
+   * in one query, and the status changes are written in one transaction with batched statements,
+   * along with the notification emails, which are sent in the background. Applicants without an
+   * email address are skipped rather than failing the update.
+   *
+   * @param admin The Account that instigated the change.
+   */
+  public int setStatuses(
+      ProgramDefinition program,
+      ImmutableList<Long> applicationIds,
+      StatusEvent newStatusEvent,
+      AccountModel admin)
+      throws StatusEmailNotFoundException, StatusNotFoundException {
+    Status statusDef = findStatusToSet(program, newStatusEvent);
+    ImmutableList<ApplicationModel> applications =
+        applicationRepository.getApplicationsToProgram(applicationIds, program.adminName());
+
+    ImmutableList.Builder<EmailMessage> emails = ImmutableList.builder();
+    if (newStatusEvent.emailSent()) {
+      ImmutableMap<String, AccountModel> submitterAccounts = lookupSubmitterAccounts(applications);
+      for (ApplicationModel application : applications) {
+        Optional<ImmutableList<EmailMessage>> statusEmails =
+            buildStatusEmails(program, application, statusDef, submitterAccounts);
+        if (statusEmails.isEmpty()) {
+          logger.warn(
+              "Application {} has no applicant email to notify of its new status", application.id);
+          continue;
+        }
+        emails.addAll(statusEmails.get());
+      }
+    }
+
+    eventRepository
+        .insertStatusEvents(applications, Optional.of(admin), newStatusEvent, emails.build())
+        .toCompletableFuture()
+        .join();
+    return applications.size();
+  }
 
+  /**
+   * Returns the program's status that the event sets, checking that it has an email to send if the
+   * event sends one.
+   */
+  private Status findStatusToSet(ProgramDefinition program, StatusEvent newStatusEvent)
+      throws StatusEmailNotFoundException, StatusNotFoundException {
+    String newStatusText = newStatusEvent.statusText();
     Optional<Status> statusDefMaybe =
         applicationStatusesRepository
-            .lookupActiveStatusDefinitions(programDef.adminName())
+            .lookupActiveStatusDefinitions(program.adminName())
             .getStatuses()
             .stream()
             .filter(s -> s.statusText().equals(newStatusText))
             .findFirst();
     if (statusDefMaybe.isEmpty()) {
-      throw new StatusNotFoundException(newStatusText, program.id);
+      throw new StatusNotFoundException(newStatusText, program.id());
     }
     Status statusDef = statusDefMaybe.get();
+    if (newStatusEvent.emailSent() && statusDef.localizedEmailBodyText().isEmpty()) {
+      throw new StatusEmailNotFoundException(newStatusText, program.id());
+    }
+    return statusDef;
+  }
 
-    // Send email if requested and present.
-    if (sendEmail) {
-      if (statusDef.localizedEmailBodyText().isEmpty()) {
-        throw new StatusEmailNotFoundException(newStatusText, program.id);
-      }
-      // Notify an Admin/TI if they applied.
-      Optional<String> adminSubmitterEmail = application.getSubmitterEmail();
-      if (adminSubmitterEmail.isPresent()) {
-        sendAdminSubmitterEmail(programDef, applicant, statusDef, adminSubmitterEmail);
-      }
-      // Notify the applicant.
-      ApplicantPersonalInfo applicantPersonalInfo =
-          applicantService.getPersonalInfo(applicant.id).toCompletableFuture().join();
-      Optional<ImmutableSet<String>> applicantEmails =
-          applicantService.getApplicantEmails(applicantPersonalInfo);
-      if (applicantEmails.isPresent()) {
-        applicantEmails
-            .get()
-            .forEach(
-                email ->
-                    sendApplicantEmail(
-                        program.getProgramDefinition(), applicant, statusDef, Optional.of(email)));
-      } else {
-        // An email was requested to be sent but the applicant doesn't have one.
-        throw new AccountHasNoEmailException(applicant.getAccount().id);
-      }
+  /**
+   * Looks up the accounts of the admins and TIs who submitted the applications, with their
+   * applicants, in one query, for the locale of the emails notifying them.
+   */
+  private ImmutableMap<String, AccountModel> lookupSubmitterAccounts(
+      ImmutableList<ApplicationModel> applications) {
+    return accountRepository.lookupAccountsByEmail(
+        applications.stream()
+            .map(ApplicationModel::getSubmitterEmail)
+            .flatMap(Optional::stream)
+            .filter(email -> !email.isEmpty())
+            .collect(ImmutableSet.toImmutableSet()));
+  }
+
+  /**
+   * Builds the emails notifying the applicant of the new status of the application, and the admin
+   * or TI who submitted it if there is one. Returns empty if the applicant has no email address to
+   * send to.
+   *
+   * @param submitterAccounts the accounts of the admins and TIs who submitted applications, keyed
+   *     by email address
+   */
+  private Optional<ImmutableList<EmailMessage>> buildStatusEmails(
+      ProgramDefinition programDef,
+      ApplicationModel application,
+      Status statusDef,
+      ImmutableMap<String, AccountModel> submitterAccounts) {
+    ApplicantModel applicant = application.getApplicant();
+    ImmutableSet<String> applicantEmails = applicantService.getApplicantEmails(applicant);
+    if (applicantEmails.isEmpty()) {
+      return Optional.empty();
     }
-    eventRepository
-        .insertStatusEvent(application, Optional.of(admin), newStatusEvent)
-        .toCompletableFuture()
-        .join();
+
+    ImmutableList.Builder<EmailMessage> emails = ImmutableList.builder();
+    // Notify an Admin/TI if they applied.
+    application
+        .getSubmitterEmail()
+        .ifPresent(
+            adminSubmitterEmail ->
+                emails.add(
+                    buildAdminSubmitterEmail(
+                        programDef,
+                        applicant,
+                        statusDef,
+                        adminSubmitterEmail,
+                        Optional.ofNullable(submitterAccounts.get(adminSubmitterEmail)))));
+    // Notify the applicant.
+    applicantEmails.forEach(
+        email -> emails.add(buildApplicantEmail(programDef, applicant, statusDef, email)));
+    return Optional.of(emails.build());
   }
 
-  private void sendApplicantEmail(
+  private EmailMessage buildApplicantEmail(
       ProgramDefinition programDef,
       ApplicantModel applicant,
       Status statusDef,
-      Optional<String> applicantEmail) {
+      String applicantEmail) {
     String civiformLink = baseUrl;
     Locale locale = applicant.getApplicantData().preferredLocale();
     Messages messages =
@@ -159,17 +256,18 @@ public final class ProgramAdminApplicationService {
             "%s\n%s",
             statusDef.localizedEmailBodyText().get().getOrDefault(locale),
             messages.at(MessageKey.EMAIL_LOGIN_TO_CIVIFORM.getKeyName(), civiformLink));
-    emailClient.send(
-        isStaging ? stagingApplicantNotificationMailingList : applicantEmail.get(),
+    return EmailMessage.create(
+        isStaging ? stagingApplicantNotificationMailingList : applicantEmail,
         messages.at(MessageKey.EMAIL_APPLICATION_UPDATE_SUBJECT.getKeyName(), programName),
         emailBody);
   }
 
-  private void sendAdminSubmitterEmail(
+  private EmailMessage buildAdminSubmitterEmail(
       ProgramDefinition programDef,
       ApplicantModel applicant,
       Status statusDef,
-      Optional<String> adminSubmitterEmail) {
+      String adminSubmitterEmail,
+      Optional<AccountModel> adminSubmitterAccount) {
     String programName = programDef.localizedName().getDefault();
     String tiDashLink =
         baseUrl
@@ -180,13 +278,10 @@ public final class ProgramAdminApplicationService {
                     /* yearQuery= */ Optional.empty(),
                     /* page= */ Optional.of(1))
                 .url();
-    if (!adminSubmitterEmail.isPresent()) {
-      return;
-    }
 
+    // There's really only one applicant per account. See notes in Account.java.
     Locale locale =
-        accountRepository
-            .lookupAccountByEmail(adminSubmitterEmail.get())
+        adminSubmitterAccount
             .flatMap(AccountModel::newestApplicant)
             .map(ApplicantModel::getApplicantData)
             .map(ApplicantData::preferredLocale)
@@ -202,8 +297,8 @@ public final class ProgramAdminApplicationService {
             statusDef.localizedEmailBodyText().get().getOrDefault(locale),
             messages.at(MessageKey.EMAIL_TI_MANAGE_YOUR_CLIENTS.getKeyName(), tiDashLink));
 
-    emailClient.send(
-        isStaging ? stagingTiNotificationMailingList : adminSubmitterEmail.get(), subject, body);
+    return EmailMessage.create(
+        isStaging ? stagingTiNotificationMailingList : adminSubmitterEmail, subject, body);
   }
 
   /*
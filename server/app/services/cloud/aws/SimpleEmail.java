@@ -83,6 +83,19 @@ public final class SimpleEmail {
   }
 
   public void send(ImmutableList<String> toAddresses, String subject, String bodyText) {
+    try {
+      deliver(toAddresses, subject, bodyText);
+    } catch (SesException e) {
+      logger.error(e.toString());
+      e.printStackTrace();
+    }
+  }
+
+  /**
+   * Sends the email as {@link #send} does, but throws if SES doesn't accept it, so that the caller
+   * can try again later.
+   */
+  public void deliver(ImmutableList<String> toAddresses, String subject, String bodyText) {
     if (toAddresses.isEmpty()) {
       return;
     }
@@ -114,10 +127,9 @@ public final class SimpleEmail {
           SendEmailRequest.builder().destination(destination).message(msg).source(sender).build();
       client.get().sendEmail(emailRequest);
     } catch (SesException e) {
-      logger.error(e.toString());
-      e.printStackTrace();
       EMAIL_FAIL_COUNT.inc();
       EMAIL_SEND_COUNT.labels(String.valueOf(e.statusCode())).inc();
+      throw e;
     } finally {
       // Increase the count of emails sent.
       EMAIL_SEND_COUNT.labels(String.valueOf(HttpStatusCode.OK)).inc();
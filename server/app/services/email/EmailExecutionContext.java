@@ -0,0 +1,21 @@
+package services.email;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import akka.actor.ActorSystem;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import play.libs.concurrent.CustomExecutionContext;
+
+/**
+ * Thread pool that {@link EmailOutboxDispatcher} sends queued emails on, so that the size of the
+ * pool bounds how many are sent at once.
+ */
+@Singleton
+public class EmailExecutionContext extends CustomExecutionContext {
+
+  @Inject
+  public EmailExecutionContext(ActorSystem actorSystem) {
+    super(checkNotNull(actorSystem), "email.dispatcher");
+  }
+}
@@ -0,0 +1,26 @@
+package services.email;
+
+import com.google.auto.value.AutoValue;
+import com.google.common.collect.ImmutableList;
+
+/** A notification email, queued in the outbox to be sent by the {@link EmailOutboxDispatcher}. */
+@AutoValue
+public abstract class EmailMessage {
+
+  public static EmailMessage create(String toAddress, String subject, String body) {
+    return create(ImmutableList.of(toAddress), subject, body);
+  }
+
+  public static EmailMessage create(
+      ImmutableList<String> toAddresses, String subject, String body) {
+    return new AutoValue_EmailMessage(toAddresses, subject, body);
+  }
+
+  /** The addresses the email is sent to, all as recipients of the one email. */
+  public abstract ImmutableList<String> toAddresses();
+
+  public abstract String subject();
+
+  /** The plain text body of the email. */
+  public abstract String body();
+}
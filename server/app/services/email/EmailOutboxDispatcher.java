@@ -0,0 +1,180 @@
+package services.email;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.RateLimiter;
+import com.typesafe.config.Config;
+import io.prometheus.client.Counter;
+import io.prometheus.client.Gauge;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import models.EmailOutboxModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import repository.EmailOutboxRepository;
+import services.cloud.aws.SimpleEmail;
+
+/**
+ * Sends the notification emails queued in the outbox by {@link EmailOutboxRepository}.
+ *
+ * <p>Emails are claimed a batch at a time and sent on the {@link EmailExecutionContext}, up to as
+ * many at a time as it has threads, and no faster than {@code email.outbox.max_send_rate} emails a
+ * second so that SES doesn't throttle the server. Sent emails are deleted from the outbox. An email
+ * that fails to send is tried again after a delay that doubles with each attempt, and is given up
+ * on after {@code email.outbox.max_attempts} attempts.
+ *
+ * <p>A run stops claiming more emails once it has lasted {@code email.outbox.max_run_seconds}, and
+ * the rest are sent by later runs. Only one run happens at a time within a server: a run started
+ * while another is in progress returns right away instead of waiting for it. Servers don't claim
+ * the same emails, so any number of servers can drain the outbox at once.
+ */
+@Singleton
+public final class EmailOutboxDispatcher {
+  private static final Logger LOGGER = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+  private static final Gauge PENDING_EMAILS =
+      Gauge.build()
+          .name("email_outbox_pending")
+          .help("Number of emails in the outbox waiting to be sent")
+          .register();
+
+  private static final Gauge OLDEST_PENDING_EMAIL_AGE =
+      Gauge.build()
+          .name("email_outbox_oldest_age_seconds")
+          .help("Time since the oldest email in the outbox waiting to be sent was queued")
+          .register();
+
+  private static final Gauge FAILED_EMAILS =
+      Gauge.build()
+          .name("email_outbox_failed")
+          .help("Number of emails in the outbox that were given up on after too many attempts")
+          .register();
+
+  private static final Counter SEND_ATTEMPTS =
+      Counter.build()
+          .name("email_outbox_attempts_total")
+          .help("Number of attempts to send emails from the outbox, by their result")
+          .labelNames("result")
+          .register();
+
+  private static final Duration MAX_RETRY_DELAY = Duration.ofHours(1);
+
+  private final EmailOutboxRepository emailOutboxRepository;
+  private final SimpleEmail simpleEmail;
+  private final EmailExecutionContext emailExecutionContext;
+  private final Clock clock;
+  private final int batchSize;
+  private final int maxAttempts;
+  private final Duration retryDelay;
+  private final Duration leaseDuration;
+  private final Duration maxRunDuration;
+  private final RateLimiter rateLimiter;
+  private final AtomicBoolean running = new AtomicBoolean(false);
+
+  @Inject
+  public EmailOutboxDispatcher(
+      EmailOutboxRepository emailOutboxRepository,
+      SimpleEmail simpleEmail,
+      EmailExecutionContext emailExecutionContext,
+      Clock clock,
+      Config config) {
+    this.emailOutboxRepository = checkNotNull(emailOutboxRepository);
+    this.simpleEmail = checkNotNull(simpleEmail);
+    this.emailExecutionContext = checkNotNull(emailExecutionContext);
+    this.clock = checkNotNull(clock);
+    this.batchSize = config.getInt("email.outbox.batch_size");
+    this.maxAttempts = config.getInt("email.outbox.max_attempts");
+    this.retryDelay = Duration.ofSeconds(config.getInt("email.outbox.retry_delay_seconds"));
+    this.leaseDuration = Duration.ofSeconds(config.getInt("email.outbox.lease_seconds"));
+    this.maxRunDuration = Duration.ofSeconds(config.getInt("email.outbox.max_run_seconds"));
+    this.rateLimiter = RateLimiter.create(config.getDouble("email.outbox.max_send_rate"));
+  }
+
+  /**
+   * Sends the emails that are due to be sent, a batch at a time until there are none left or the
+   * run has lasted {@code email.outbox.max_run_seconds}, and updates the outbox metrics. Returns
+   * right away if another run is in progress.
+   */
+  public void dispatchDueEmails() {
+    if (!running.compareAndSet(false, true)) {
+      LOGGER.debug("Skipping dispatch, the previous run is still in progress");
+      return;
+    }
+    try {
+      Instant stopTime = clock.instant().plus(maxRunDuration);
+      do {
+        ImmutableList<EmailOutboxModel> emails =
+            emailOutboxRepository.claimDueEmails(batchSize, leaseDuration);
+        if (emails.isEmpty()) {
+          break;
+        }
+        CompletableFuture.allOf(
+                emails.stream()
+                    .map(
+                        email ->
+                            CompletableFuture.runAsync(() -> send(email), emailExecutionContext))
+                    .toArray(CompletableFuture<?>[]::new))
+            .join();
+      } while (clock.instant().isBefore(stopTime));
+      updateMetrics();
+    } finally {
+      running.set(false);
+    }
+  }
+
+  /** Sends a claimed email, and deletes it or records the failure. */
+  private void send(EmailOutboxModel email) {
+    EmailMessage message = email.getMessage();
+    try {
+      rateLimiter.acquire();
+      simpleEmail.deliver(message.toAddresses(), message.subject(), message.body());
+    } catch (RuntimeException e) {
+      recordFailure(email, e);
+      return;
+    }
+    email.delete();
+    SEND_ATTEMPTS.labels("sent").inc();
+  }
+
+  private void recordFailure(EmailOutboxModel email, RuntimeException e) {
+    Instant now = clock.instant();
+    if (email.getAttempts() >= maxAttempts) {
+      LOGGER.error(
+          "Giving up on sending email {} after {} attempts", email.id, email.getAttempts(), e);
+      email.setFailed(now, e.toString()).save();
+      SEND_ATTEMPTS.labels("failed").inc();
+      return;
+    }
+
+    Duration delay = retryDelay.multipliedBy(1L << Math.min(email.getAttempts() - 1, 16));
+    if (delay.compareTo(MAX_RETRY_DELAY) > 0) {
+      delay = MAX_RETRY_DELAY;
+    }
+    LOGGER.warn(
+        "Failed to send email {} on attempt {}, retrying in {}",
+        email.id,
+        email.getAttempts(),
+        delay,
+        e);
+    email.retryAt(now.plus(delay), e.toString()).save();
+    SEND_ATTEMPTS.labels("retry").inc();
+  }
+
+  private void updateMetrics() {
+    EmailOutboxRepository.OutboxStats stats = emailOutboxRepository.getStats();
+    PENDING_EMAILS.set(stats.pending());
+    FAILED_EMAILS.set(stats.failed());
+    OLDEST_PENDING_EMAIL_AGE.set(
+        stats
+            .oldestPending()
+            .map(oldest -> Math.max(0, Duration.between(oldest, clock.instant()).toMillis()))
+            .orElse(0L)
+            / 1000.0);
+  }
+}
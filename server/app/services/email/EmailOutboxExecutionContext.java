@@ -0,0 +1,21 @@
+package services.email;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import akka.actor.ActorSystem;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import play.libs.concurrent.CustomExecutionContext;
+
+/**
+ * Thread pool that the scheduled runs of {@link EmailOutboxDispatcher} happen on, so that a long
+ * run doesn't hold a thread of the pools that serve requests.
+ */
+@Singleton
+public class EmailOutboxExecutionContext extends CustomExecutionContext {
+
+  @Inject
+  public EmailOutboxExecutionContext(ActorSystem actorSystem) {
+    super(checkNotNull(actorSystem), "email.outbox-dispatcher");
+  }
+}
@@ -0,0 +1,190 @@
+package services.export;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import services.Path;
+
+/**
+ * A precomputed JSON layout for the applications of a program.
+ *
+ * <p>The layout holds the default value of every question entry that has ever been part of any
+ * version of the program, with each {@link Path} already split into segments. Exported
+ * applications start from a copy of the layout, so every application contains every question key
+ * even when it is unanswered, and answers are then written straight into a Jackson tree instead of
+ * going through JsonPath.
+ *
+ * <p>Values are written with the same rules as {@link services.CfJsonDocumentContext}: missing
+ * parent objects are created, array elements are padded with empty objects, empty strings are
+ * written as null, and null values are never appended to arrays.
+ */
+final class ApplicationJsonLayout {
+  private static final JsonNodeFactory NODE_FACTORY = JsonNodeFactory.instance;
+
+  private final ImmutableList<Field> fields;
+
+  private ApplicationJsonLayout(ImmutableList<Field> fields) {
+    this.fields = fields;
+  }
+
+  /**
+   * Creates a layout from the JSON entries of unanswered questions.
+   *
+   * @param entries the entries to include, keyed by their applicant path
+   */
+  static ApplicationJsonLayout create(ImmutableMap<Path, Optional<?>> entries) {
+    return new ApplicationJsonLayout(
+        entries.entrySet().stream()
+            .flatMap(
+                entry ->
+                    toJsonNode(entry.getValue())
+                        .map(value -> new Field(parse(entry.getKey().asApplicationPath()), value))
+                        .stream())
+            .collect(toImmutableList()));
+  }
+
+  /** Returns a new JSON object containing the default value of every field in the layout. */
+  ObjectNode newApplicationObject() {
+    ObjectNode root = NODE_FACTORY.objectNode();
+    for (Field field : fields) {
+      // Container values are copied since they may be modified by later writes.
+      JsonNode value = field.value().isContainerNode() ? field.value().deepCopy() : field.value();
+      put(root, field.segments(), value);
+    }
+    return root;
+  }
+
+  /**
+   * Writes the JSON entries of answered questions into an application object created by {@link
+   * #newApplicationObject()}, overwriting any default values.
+   *
+   * @param application the application object to write into
+   * @param entries the entries to write, keyed by their applicant path
+   */
+  static void putEntries(ObjectNode application, ImmutableMap<Path, Optional<?>> entries) {
+    for (Map.Entry<Path, Optional<?>> entry : entries.entrySet()) {
+      Optional<JsonNode> value = toJsonNode(entry.getValue());
+      if (value.isPresent()) {
+        put(application, parse(entry.getKey().asApplicationPath()), value.get());
+      }
+    }
+  }
+
+  /** Writes a string at the given key, or null if the string is empty. */
+  static void putStringOrNull(ObjectNode object, String key, String value) {
+    if (value.isEmpty()) {
+      object.putNull(key);
+    } else {
+      object.put(key, value);
+    }
+  }
+
+  private static void put(ObjectNode root, ImmutableList<Segment> segments, JsonNode value) {
+    ObjectNode parent = root;
+    for (int i = 0; i < segments.size() - 1; i++) {
+      parent = childObject(parent, segments.get(i));
+    }
+
+    Segment leaf = segments.get(segments.size() - 1);
+    if (!leaf.isArrayElement()) {
+      parent.set(leaf.key(), value);
+    } else if (!value.isNull()) {
+      arrayAt(parent, leaf.key()).add(value);
+    }
+  }
+
+  private static ObjectNode childObject(ObjectNode parent, Segment segment) {
+    if (!segment.isArrayElement()) {
+      JsonNode child = parent.get(segment.key());
+      return child instanceof ObjectNode ? (ObjectNode) child : parent.putObject(segment.key());
+    }
+
+    ArrayNode array = arrayAt(parent, segment.key());
+    while (array.size() <= segment.index()) {
+      array.addObject();
+    }
+    JsonNode element = array.get(segment.index());
+    if (element instanceof ObjectNode) {
+      return (ObjectNode) element;
+    }
+    ObjectNode replacement = NODE_FACTORY.objectNode();
+    array.set(segment.index(), replacement);
+    return replacement;
+  }
+
+  private static ArrayNode arrayAt(ObjectNode parent, String key) {
+    JsonNode child = parent.get(key);
+    return child instanceof ArrayNode ? (ArrayNode) child : parent.putArray(key);
+  }
+
+  /**
+   * Converts an exported entry value to JSON, following the same rules the JSON exporter has always
+   * used. Returns empty for value types that are not exported.
+   */
+  private static Optional<JsonNode> toJsonNode(Optional<?> maybeValue) {
+    if (maybeValue.isEmpty()) {
+      return Optional.of(NODE_FACTORY.nullNode());
+    }
+
+    Object value = maybeValue.get();
+    if (value instanceof String) {
+      String stringValue = (String) value;
+      return Optional.of(
+          stringValue.isEmpty() ? NODE_FACTORY.nullNode() : NODE_FACTORY.textNode(stringValue));
+    } else if (value instanceof Long) {
+      return Optional.of(NODE_FACTORY.numberNode((Long) value));
+    } else if (value instanceof Double) {
+      return Optional.of(NODE_FACTORY.numberNode((Double) value));
+    } else if (value instanceof ImmutableList<?>) {
+      ImmutableList<?> list = (ImmutableList<?>) value;
+      if (list.isEmpty()) {
+        return Optional.of(NODE_FACTORY.arrayNode());
+      }
+      if (list.get(0) instanceof String) {
+        ArrayNode array = NODE_FACTORY.arrayNode(list.size());
+        list.forEach(element -> array.add((String) element));
+        return Optional.of(array);
+      }
+    }
+    return Optional.empty();
+  }
+
+  private static ImmutableList<Segment> parse(Path path) {
+    checkArgument(!path.isEmpty(), "Cannot export a value at an empty path");
+    return path.segments().stream().map(Segment::parse).collect(toImmutableList());
+  }
+
+  /** A default value in the layout, at a pre-split path. */
+  private record Field(ImmutableList<Segment> segments, JsonNode value) {}
+
+  /**
+   * A single segment of a {@link Path}, such as {@code name} or {@code household_members[2]}.
+   * {@code index} is {@link #NOT_AN_ARRAY_ELEMENT} for segments that are not array elements.
+   */
+  private record Segment(String key, int index) {
+    private static final int NOT_AN_ARRAY_ELEMENT = -1;
+    private static final Pattern ARRAY_ELEMENT = Pattern.compile("^(.*)\\[(\\d+)]$");
+
+    static Segment parse(String segment) {
+      Matcher matcher = ARRAY_ELEMENT.matcher(segment);
+      if (matcher.matches()) {
+        return new Segment(matcher.group(1), Integer.parseInt(matcher.group(2)));
+      }
+      return new Segment(segment, NOT_AN_ARRAY_ELEMENT);
+    }
+
+    boolean isArrayElement() {
+      return index != NOT_AN_ARRAY_ELEMENT;
+    }
+  }
+}
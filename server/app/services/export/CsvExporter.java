@@ -233,6 +233,11 @@ public final class CsvExporter implements AutoCloseable {
         .toString();
   }
 
+  /** Flushes any buffered records to the underlying writer. */
+  public void flush() throws IOException {
+    printer.flush();
+  }
+
   @Override
   public void close() throws IOException {
     printer.close();
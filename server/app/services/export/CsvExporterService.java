@@ -2,15 +2,20 @@ package services.export;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import akka.NotUsed;
+import akka.stream.javadsl.Source;
+import akka.util.ByteString;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.typesafe.config.Config;
+import io.prometheus.client.Histogram;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
@@ -26,7 +31,6 @@ import java.util.stream.Stream;
 import javax.inject.Inject;
 import models.ApplicationModel;
 import models.QuestionTag;
-import play.libs.F;
 import repository.ExportServiceRepository;
 import repository.SubmittedApplicationFilter;
 import repository.TimeFilter;
@@ -63,6 +67,9 @@ public final class CsvExporterService {
   private final Config config;
   private final DateConverter dateConverter;
 
+  /** Number of applications loaded from the database at a time when exporting a program. */
+  private static final int EXPORT_PAGE_SIZE = 1000;
+
   private static final String HEADER_SPACER_ENUM = " - ";
   private static final String HEADER_SPACER_SCALAR = " ";
 
@@ -98,63 +105,180 @@ public final class CsvExporterService {
   /** Return a string containing a CSV of all applications at all versions of particular program. */
   public String getProgramAllVersionsCsv(long programId, SubmittedApplicationFilter filters)
       throws ProgramNotFoundException {
-    ImmutableMap<Long, ProgramDefinition> programDefinitionsForAllVersions =
-        programService.getAllVersionsFullProgramDefinition(programId).stream()
-            .collect(ImmutableMap.toImmutableMap(ProgramDefinition::id, pd -> pd));
-    ProgramDefinition currentProgram = programDefinitionsForAllVersions.get(programId);
-
-    ImmutableList<ApplicationModel> applications =
-        programService
-            .getSubmittedProgramApplicationsAllVersions(
-                programId,
-                F.Either.Left(IdentifierBasedPaginationSpec.MAX_PAGE_SIZE_SPEC_LONG),
-                filters)
-            .getPageContents();
-
-    CsvExportConfig exportConfig =
-        generateCsvConfig(
-            applications, programDefinitionsForAllVersions, currentProgram.hasEligibilityEnabled());
-
-    return exportCsv(
-        exportConfig,
-        applications,
+    StringWriter writer = new StringWriter();
+    try (ProgramCsvPager pager =
+        new ProgramCsvPager(programId, filters, EXPORT_PAGE_SIZE, writer)) {
+      while (pager.writeNextPage()) {
+        // Keep writing until every page of applications has been exported.
+      }
+    } catch (IOException e) {
+      // Since it's an in-memory writer, this shouldn't happen.  Catch so that callers don't
+      // have to deal with it.
+      throw new RuntimeException(e);
+    }
+    return writer.toString();
+  }
+
+  /**
+   * Return a {@link Source} that streams a CSV of all applications at all versions of a particular
+   * program.
+   *
+   * <p>Applications are loaded from the database {@link #EXPORT_PAGE_SIZE} at a time, and each
+   * page of rows is emitted as its own chunk, so memory use does not grow with the number of
+   * applications being exported. Work happens when the stream is materialized, on the stream's
+   * blocking IO dispatcher.
+   */
+  public Source<ByteString, NotUsed> streamProgramAllVersionsCsv(
+      long programId, SubmittedApplicationFilter filters) {
+    return streamProgramAllVersionsCsv(programId, filters, EXPORT_PAGE_SIZE);
+  }
+
+  @VisibleForTesting
+  Source<ByteString, NotUsed> streamProgramAllVersionsCsv(
+      long programId, SubmittedApplicationFilter filters, int pageSize) {
+    return Source.unfoldResource(
+        () -> new ProgramCsvPager(programId, filters, pageSize, new StringWriter()),
+        ProgramCsvPager::nextChunk,
+        ProgramCsvPager::close);
+  }
+
+  /**
+   * Walks the submitted applications of every version of a program one page at a time using
+   * identifier-based pagination, writing each page as CSV rows.
+   *
+   * <p>The column headers are computed up front with a separate paginated pass, which only retains
+   * a single representative {@link AnswerData} per question path rather than every application.
+   */
+  private final class ProgramCsvPager implements AutoCloseable {
+    private final long programId;
+    private final SubmittedApplicationFilter filters;
+    private final int pageSize;
+    private final StringWriter writer;
+    private final ImmutableMap<Long, ProgramDefinition> programDefinitionsForAllVersions;
+    private final boolean shouldCheckEligibility;
+    private final CsvExporter csvExporter;
+    private final Histogram.Timer timer =
+        ExportMetrics.EXPORT_TIME.labels("csv", "applications").startTimer();
+    private Optional<Long> nextPageOffsetIdentifier = Optional.of(Long.MAX_VALUE);
+
+    ProgramCsvPager(
+        long programId, SubmittedApplicationFilter filters, int pageSize, StringWriter writer)
+        throws ProgramNotFoundException, IOException {
+      boolean constructed = false;
+      try {
+        this.programId = programId;
+        this.filters = checkNotNull(filters);
+        this.pageSize = pageSize;
+        this.writer = checkNotNull(writer);
         // Use our local program definition cache when exporting applications,
         // it's faster then the cache in the ProgramRepository.
-        programDefinitionsForAllVersions::get,
-        Optional.of(currentProgram));
-  }
+        this.programDefinitionsForAllVersions =
+            programService.getAllVersionsFullProgramDefinition(programId).stream()
+                .collect(ImmutableMap.toImmutableMap(ProgramDefinition::id, pd -> pd));
+        if (!programDefinitionsForAllVersions.containsKey(programId)) {
+          throw new ProgramNotFoundException(programId);
+        }
+        this.shouldCheckEligibility =
+            programDefinitionsForAllVersions.get(programId).hasEligibilityEnabled();
+        this.csvExporter =
+            new CsvExporter(
+                generateCsvConfig().columns(),
+                config.getString("play.http.secret.key"),
+                writer,
+                dateConverter);
+        constructed = true;
+      } finally {
+        // A pager that fails here is never closed, so the failed export is timed here instead.
+        if (!constructed) {
+          timer.observeDuration();
+        }
+      }
+    }
 
-  private CsvExportConfig generateCsvConfig(
-      ImmutableList<ApplicationModel> applications,
-      ImmutableMap<Long, ProgramDefinition> programDefinitionsForAllVersions,
-      boolean showEligibilityColumn)
-      throws ProgramNotFoundException {
-    Map<Path, AnswerData> answerMap = new HashMap<>();
+    /**
+     * Writes the next page of applications as CSV rows.
+     *
+     * @return true if there may be more pages to write
+     */
+    boolean writeNextPage() throws IOException {
+      if (nextPageOffsetIdentifier.isEmpty()) {
+        return false;
+      }
+      ImmutableList<ApplicationModel> page = fetchPage(nextPageOffsetIdentifier.get());
+      for (ApplicationModel application : page) {
+        exportApplication(
+            csvExporter,
+            application,
+            programDefinitionsForAllVersions.get(application.getProgram().id),
+            shouldCheckEligibility);
+      }
+      nextPageOffsetIdentifier =
+          page.size() < pageSize ? Optional.empty() : Optional.of(page.get(page.size() - 1).id);
+      return nextPageOffsetIdentifier.isPresent();
+    }
 
-    applications.stream()
-        .flatMap(
-            app ->
-                applicantService
-                    .getReadOnlyApplicantProgramService(
-                        app, programDefinitionsForAllVersions.get(app.getProgram().id))
-                    .getSummaryDataOnlyActive()
-                    .stream())
-        .forEach(
-            data -> {
-              answerMap.putIfAbsent(data.contextualizedPath(), data);
-            });
-
-    // Get the list of all answers, sorted by block ID, then question index, and finally
-    // contextualized path in string form.
-    ImmutableList<AnswerData> answers =
-        answerMap.values().stream()
-            .sorted(
-                Comparator.comparing(AnswerData::blockId)
-                    .thenComparing(AnswerData::questionIndex)
-                    .thenComparing(answerData -> answerData.contextualizedPath().toString()))
-            .collect(ImmutableList.toImmutableList());
-
-    return buildColumnHeaders(answers, showEligibilityColumn);
+    /**
+     * Returns the CSV text written since the last call, or empty once every page has been emitted.
+     * The first chunk includes the header row.
+     */
+    Optional<ByteString> nextChunk() throws IOException {
+      if (nextPageOffsetIdentifier.isPresent()) {
+        writeNextPage();
+      }
+      csvExporter.flush();
+      StringBuffer buffer = writer.getBuffer();
+      if (buffer.length() == 0) {
+        return Optional.empty();
+      }
+      ByteString chunk = ByteString.fromString(buffer.toString(), StandardCharsets.UTF_8);
+      buffer.setLength(0);
+      return Optional.of(chunk);
+    }
+
+    private ImmutableList<ApplicationModel> fetchPage(long offsetIdentifier) {
+      return programService.getSubmittedProgramApplicationPageAllVersions(
+          programId, new IdentifierBasedPaginationSpec<>(pageSize, offsetIdentifier), filters);
+    }
+
+    private CsvExportConfig generateCsvConfig() {
+      Map<Path, AnswerData> answerMap = new HashMap<>();
+      Optional<Long> offsetIdentifier = Optional.of(Long.MAX_VALUE);
+      while (offsetIdentifier.isPresent()) {
+        ImmutableList<ApplicationModel> page = fetchPage(offsetIdentifier.get());
+        page.stream()
+            .flatMap(
+                app ->
+                    applicantService
+                        .getReadOnlyApplicantProgramService(
+                            app, programDefinitionsForAllVersions.get(app.getProgram().id))
+                        .getSummaryDataOnlyActive()
+                        .stream())
+            .forEach(data -> answerMap.putIfAbsent(data.contextualizedPath(), data));
+        offsetIdentifier =
+            page.size() < pageSize ? Optional.empty() : Optional.of(page.get(page.size() - 1).id);
+      }
+
+      // Get the list of all answers, sorted by block ID, then question index, and finally
+      // contextualized path in string form.
+      ImmutableList<AnswerData> answers =
+          answerMap.values().stream()
+              .sorted(
+                  Comparator.comparing(AnswerData::blockId)
+                      .thenComparing(AnswerData::questionIndex)
+                      .thenComparing(answerData -> answerData.contextualizedPath().toString()))
+              .collect(ImmutableList.toImmutableList());
+
+      return buildColumnHeaders(answers, shouldCheckEligibility);
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        csvExporter.close();
+      } finally {
+        timer.observeDuration();
+      }
+    }
   }
 
   /**
@@ -163,13 +287,11 @@ public final class CsvExporterService {
    * @param exportConfig the CsvExportConfig to use
    * @param applications the list of ApplicationModels to export
    * @param getProgramDefinition a function used to retrieve the ProgramDefinition by ID
-   * @param currentProgram the current program definition
    */
   private String exportCsv(
       CsvExportConfig exportConfig,
       ImmutableList<ApplicationModel> applications,
-      Function<Long, ProgramDefinition> getProgramDefinition,
-      Optional<ProgramDefinition> currentProgram) {
+      Function<Long, ProgramDefinition> getProgramDefinition) {
     OutputStream inMemoryBytes = new ByteArrayOutputStream();
     try (Writer writer = new OutputStreamWriter(inMemoryBytes, StandardCharsets.UTF_8)) {
       try (CsvExporter csvExporter =
@@ -178,24 +300,12 @@ public final class CsvExporterService {
               config.getString("play.http.secret.key"),
               writer,
               dateConverter)) {
-        boolean shouldCheckEligibility =
-            currentProgram.isPresent() && currentProgram.get().hasEligibilityEnabled();
-
         for (ApplicationModel application : applications) {
-          ProgramDefinition programDefForApplication =
-              getProgramDefinition.apply(application.getProgram().id);
-          ReadOnlyApplicantProgramService roApplicantService =
-              applicantService.getReadOnlyApplicantProgramService(
-                  application, programDefForApplication);
-
-          Optional<Boolean> optionalEligibilityStatus =
-              shouldCheckEligibility
-                  ? applicantService.getApplicationEligibilityStatus(
-                      application, programDefForApplication)
-                  : Optional.empty();
-
-          csvExporter.exportRecord(
-              application, roApplicantService, optionalEligibilityStatus, programDefForApplication);
+          exportApplication(
+              csvExporter,
+              application,
+              getProgramDefinition.apply(application.getProgram().id),
+              /* shouldCheckEligibility= */ false);
         }
       }
     } catch (IOException e) {
@@ -206,6 +316,25 @@ public final class CsvExporterService {
     return inMemoryBytes.toString();
   }
 
+  private void exportApplication(
+      CsvExporter csvExporter,
+      ApplicationModel application,
+      ProgramDefinition programDefForApplication,
+      boolean shouldCheckEligibility)
+      throws IOException {
+    ReadOnlyApplicantProgramService roApplicantService =
+        applicantService.getReadOnlyApplicantProgramService(application, programDefForApplication);
+
+    Optional<Boolean> optionalEligibilityStatus =
+        shouldCheckEligibility
+            ? applicantService.getApplicationEligibilityStatus(
+                application, programDefForApplication)
+            : Optional.empty();
+
+    csvExporter.exportRecord(
+        application, roApplicantService, optionalEligibilityStatus, programDefForApplication);
+  }
+
   /**
    * Produce the default {@link CsvExportConfig} for a list of {@link AnswerData}s. The config
    * includes all the questions, the application id, and the application submission time.
@@ -385,11 +514,15 @@ public final class CsvExporterService {
             throw new RuntimeException(e);
           }
         };
-    return exportCsv(
-        getDemographicsExporterConfig(),
-        applicantService.getApplications(filter),
-        getProgramDefinition,
-        /* currentProgram= */ Optional.empty());
+    Histogram.Timer timer = ExportMetrics.EXPORT_TIME.labels("csv", "demographics").startTimer();
+    try {
+      return exportCsv(
+          getDemographicsExporterConfig(),
+          applicantService.getApplications(filter),
+          getProgramDefinition);
+    } finally {
+      timer.observeDuration();
+    }
   }
 
   private CsvExportConfig getDemographicsExporterConfig() {
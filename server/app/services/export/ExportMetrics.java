@@ -0,0 +1,21 @@
+package services.export;
+
+import io.prometheus.client.Histogram;
+
+/** Prometheus metrics shared by the CSV, JSON and PDF exporters. */
+final class ExportMetrics {
+
+  /**
+   * Time taken by an export, labeled with the format and what was exported. Streamed exports are
+   * timed from when the stream starts until it's closed.
+   */
+  static final Histogram EXPORT_TIME =
+      Histogram.build()
+          .name("export_duration_seconds")
+          .help("Execution time of exporting applications and programs")
+          .labelNames("format", "export")
+          .buckets(0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60, 120, 300)
+          .register();
+
+  private ExportMetrics() {}
+}
@@ -2,15 +2,27 @@ package services.export;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import akka.NotUsed;
+import akka.stream.javadsl.Source;
+import akka.util.ByteString;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.auto.value.AutoValue;
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.jayway.jsonpath.DocumentContext;
+import io.prometheus.client.Histogram;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import javax.inject.Inject;
 import models.ApplicationModel;
 import models.LifecycleStage;
@@ -40,6 +52,10 @@ public final class JsonExporterService {
   private final DateConverter dateConverter;
   private final QuestionJsonPresenter.Factory presenterFactory;
   private static final String EMPTY_VALUE = "";
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+  /** Number of applications loaded from the database at a time when streaming an export. */
+  private static final int EXPORT_PAGE_SIZE = 1000;
 
   @Inject
   JsonExporterService(
@@ -86,16 +102,146 @@ public final class JsonExporterService {
       ProgramDefinition programDefinition,
       PaginationResult<ApplicationModel> paginationResult,
       boolean multipleFileUploadEnabled) {
-    ImmutableList<ApplicationModel> applications = paginationResult.getPageContents();
+    Histogram.Timer timer = ExportMetrics.EXPORT_TIME.labels("json", "page").startTimer();
+    StringWriter writer = new StringWriter();
+    try {
+      ProgramJsonLayout layout = buildLayout(programDefinition, multipleFileUploadEnabled);
+      try (JsonGenerator generator = OBJECT_MAPPER.getFactory().createGenerator(writer)) {
+        generator.writeStartArray();
+        for (ApplicationModel application : paginationResult.getPageContents()) {
+          writeApplication(generator, layout, application, multipleFileUploadEnabled);
+        }
+        generator.writeEndArray();
+      }
+    } catch (IOException e) {
+      // Since it's an in-memory writer, this shouldn't happen.  Catch so that callers don't
+      // have to deal with it.
+      throw new RuntimeException(e);
+    } finally {
+      timer.observeDuration();
+    }
+    return writer.toString();
+  }
 
+  /**
+   * Returns a {@link Source} that streams a JSON list of all applications to the given program
+   * that match the filters.
+   *
+   * <p>Applications are loaded from the database {@link #EXPORT_PAGE_SIZE} at a time and written
+   * one at a time with a {@link JsonGenerator}, so memory use does not grow with the number of
+   * applications being exported. Work happens when the stream is materialized, on the stream's
+   * blocking IO dispatcher.
+   *
+   * @param programDefinition the program definition of the exported applications
+   * @param filters the filters to apply
+   */
+  public Source<ByteString, NotUsed> streamExport(
+      ProgramDefinition programDefinition,
+      SubmittedApplicationFilter filters,
+      boolean multipleFileUploadEnabled) {
+    return streamExport(programDefinition, filters, multipleFileUploadEnabled, EXPORT_PAGE_SIZE);
+  }
+
+  @VisibleForTesting
+  Source<ByteString, NotUsed> streamExport(
+      ProgramDefinition programDefinition,
+      SubmittedApplicationFilter filters,
+      boolean multipleFileUploadEnabled,
+      int pageSize) {
+    return Source.unfoldResource(
+        () -> new JsonPager(programDefinition, filters, multipleFileUploadEnabled, pageSize),
+        JsonPager::nextChunk,
+        JsonPager::close);
+  }
+
+  /**
+   * Walks the submitted applications of every version of a program one page at a time using
+   * identifier-based pagination, writing each page to a JSON array.
+   */
+  private final class JsonPager implements AutoCloseable {
+    private final long programId;
+    private final SubmittedApplicationFilter filters;
+    private final boolean multipleFileUploadEnabled;
+    private final int pageSize;
+    private final ProgramJsonLayout layout;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private final JsonGenerator generator;
+    private final Histogram.Timer timer =
+        ExportMetrics.EXPORT_TIME.labels("json", "applications").startTimer();
+    private Optional<Long> nextPageOffsetIdentifier = Optional.of(Long.MAX_VALUE);
+
+    JsonPager(
+        ProgramDefinition programDefinition,
+        SubmittedApplicationFilter filters,
+        boolean multipleFileUploadEnabled,
+        int pageSize)
+        throws IOException {
+      boolean constructed = false;
+      try {
+        this.programId = programDefinition.id();
+        this.filters = checkNotNull(filters);
+        this.multipleFileUploadEnabled = multipleFileUploadEnabled;
+        this.pageSize = pageSize;
+        this.layout = buildLayout(programDefinition, multipleFileUploadEnabled);
+        this.generator = OBJECT_MAPPER.getFactory().createGenerator(buffer, JsonEncoding.UTF8);
+        generator.writeStartArray();
+        constructed = true;
+      } finally {
+        // A pager that fails here is never closed, so the failed export is timed here instead.
+        if (!constructed) {
+          timer.observeDuration();
+        }
+      }
+    }
+
+    /**
+     * Returns the JSON written since the last call, or empty once every page has been emitted.
+     */
+    Optional<ByteString> nextChunk() throws IOException {
+      if (nextPageOffsetIdentifier.isPresent()) {
+        ImmutableList<ApplicationModel> page =
+            programService.getSubmittedProgramApplicationPageAllVersions(
+                programId,
+                new IdentifierBasedPaginationSpec<>(pageSize, nextPageOffsetIdentifier.get()),
+                filters);
+        for (ApplicationModel application : page) {
+          writeApplication(generator, layout, application, multipleFileUploadEnabled);
+        }
+        nextPageOffsetIdentifier =
+            page.size() < pageSize ? Optional.empty() : Optional.of(page.get(page.size() - 1).id);
+        if (nextPageOffsetIdentifier.isEmpty()) {
+          generator.writeEndArray();
+        }
+      }
+      generator.flush();
+      if (buffer.size() == 0) {
+        return Optional.empty();
+      }
+      ByteString chunk = ByteString.fromArray(buffer.toByteArray());
+      buffer.reset();
+      return Optional.of(chunk);
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        generator.close();
+      } finally {
+        timer.observeDuration();
+      }
+    }
+  }
+
+  /**
+   * Builds the JSON layout of all possible questions that have ever been in the program, along
+   * with the program definitions of every version of the program.
+   */
+  private ProgramJsonLayout buildLayout(
+      ProgramDefinition programDefinition, boolean multipleFileUploadEnabled) {
     ImmutableMap<Long, ProgramDefinition> programDefinitionsForAllVersions =
         programService.getAllVersionsFullProgramDefinition(programDefinition.id()).stream()
             .collect(ImmutableMap.toImmutableMap(ProgramDefinition::id, pd -> pd));
 
-    // Build a template JSON document of all possible questions that have ever been in the program.
-    // TODO(#8147): Reduce code duplication once we find a long term solution. Here we've moved the
-    // template creation outside of the loop, so we don't rebuild it for each application, but as a
-    // result we've duplicated the AnswerData -> questionEntries map -> add to JSON document flow.
     Map<Path, AnswerData> answersToExport = new HashMap<>();
     for (ProgramDefinition pd : programDefinitionsForAllVersions.values()) {
       // We use an empty ApplicantData because these should all be exported as unanswered questions.
@@ -104,44 +250,67 @@ public final class JsonExporterService {
           .getSummaryDataAllQuestions()
           .forEach(ad -> answersToExport.putIfAbsent(ad.contextualizedPath(), ad));
     }
-    ImmutableMap.Builder<Path, Optional<?>> entriesBuilder = ImmutableMap.builder();
-    for (AnswerData answerData : answersToExport.values()) {
-      // We suppress the unchecked warning because create() returns a genericized
-      // QuestionJsonPresenter, but we ignore the generic's type so that we can get
-      // the json entries for any Question in one line.
-      @SuppressWarnings("unchecked")
-      ImmutableMap<Path, Optional<?>> questionEntries =
-          presenterFactory
-              .create(answerData.applicantQuestion().getType())
-              .getAllJsonEntries(answerData.createQuestion(), multipleFileUploadEnabled);
-      entriesBuilder.putAll(questionEntries);
+
+    return new ProgramJsonLayout(
+        programDefinitionsForAllVersions,
+        ApplicationJsonLayout.create(
+            buildJsonEntries(answersToExport.values(), multipleFileUploadEnabled)));
+  }
+
+  /**
+   * Writes a single application as a JSON object, starting from the program's layout so that
+   * unanswered questions are still present.
+   */
+  private void writeApplication(
+      JsonGenerator generator,
+      ProgramJsonLayout layout,
+      ApplicationModel application,
+      boolean multipleFileUploadEnabled)
+      throws IOException {
+    ApplicationExportData applicationExportData =
+        buildApplicationExportData(
+            application,
+            layout.programDefinitionsForAllVersions().get(application.getProgram().id),
+            multipleFileUploadEnabled);
+
+    ObjectNode jsonApplication = layout.applicationLayout().newApplicationObject();
+    jsonApplication.put("program_name", applicationExportData.adminName());
+    jsonApplication.put("program_version_id", applicationExportData.programId());
+    jsonApplication.put("applicant_id", applicationExportData.applicantId());
+    jsonApplication.put("application_id", applicationExportData.applicationId());
+    ApplicationJsonLayout.putStringOrNull(
+        jsonApplication, "language", applicationExportData.languageTag());
+    jsonApplication.put(
+        "create_time",
+        dateConverter.renderDateTimeIso8601ExtendedOffset(applicationExportData.createTime()));
+    jsonApplication.put("submitter_type", applicationExportData.submitterType().toString());
+    ApplicationJsonLayout.putStringOrNull(
+        jsonApplication, "ti_email", applicationExportData.tiEmail());
+    ApplicationJsonLayout.putStringOrNull(
+        jsonApplication, "ti_organization", applicationExportData.tiOrganization());
+    if (applicationExportData.submitTime() == null) {
+      jsonApplication.putNull("submit_time");
+    } else {
+      jsonApplication.put(
+          "submit_time",
+          dateConverter.renderDateTimeIso8601ExtendedOffset(applicationExportData.submitTime()));
     }
-    CfJsonDocumentContext template = new CfJsonDocumentContext();
-    exportApplicationEntriesToJsonApplication(template, entriesBuilder.build());
-    // TODO(#8147): I'm not sure if reading the template out into a string, just to re-parse it into
-    // a JsonData for each application, is more or less efficient than trying to clone a JsonData
-    // object.
-    String jsonStringTemplate = template.asJsonString();
-
-    // Then use the template when exporting each application.
-    DocumentContext jsonData =
-        applications.stream()
-            .map(
-                app ->
-                    buildApplicationExportData(
-                        app,
-                        programDefinitionsForAllVersions.get(app.getProgram().id),
-                        multipleFileUploadEnabled))
-            .collect(
-                Collectors.collectingAndThen(
-                    ImmutableList.toImmutableList(),
-                    appDataList ->
-                        convertApplicationExportDataListToJsonArray(
-                            appDataList, jsonStringTemplate)));
-
-    return jsonData.jsonString();
+    jsonApplication.put("revision_state", applicationExportData.revisionState().toString());
+    applicationExportData
+        .status()
+        .ifPresentOrElse(
+            status -> jsonApplication.put("status", status),
+            () -> jsonApplication.putNull("status"));
+    ApplicationJsonLayout.putEntries(jsonApplication, applicationExportData.applicationEntries());
+
+    generator.writeTree(jsonApplication);
   }
 
+  /** The precomputed export state shared by every application exported for a program. */
+  private record ProgramJsonLayout(
+      ImmutableMap<Long, ProgramDefinition> programDefinitionsForAllVersions,
+      ApplicationJsonLayout applicationLayout) {}
+
   /**
    * Converts a list of {@link ApplicationExportData} to a JSON array.
    *
@@ -172,19 +341,6 @@ public final class JsonExporterService {
         .getSummaryDataAllQuestions()
         .forEach(ad -> answersToExport.putIfAbsent(ad.contextualizedPath(), ad));
 
-    ImmutableMap.Builder<Path, Optional<?>> entriesBuilder = ImmutableMap.builder();
-    for (AnswerData answerData : answersToExport.values()) {
-      // We suppress the unchecked warning because create() returns a genericized
-      // QuestionJsonPresenter, but we ignore the generic's type so that we can get
-      // the json entries for any Question in one line.
-      @SuppressWarnings("unchecked")
-      ImmutableMap<Path, Optional<?>> questionEntries =
-          presenterFactory
-              .create(answerData.applicantQuestion().getType())
-              .getAllJsonEntries(answerData.createQuestion(), multipleFileUploadEnabled);
-      entriesBuilder.putAll(questionEntries);
-    }
-
     return ApplicationExportData.builder()
         .setAdminName(programDefinition.adminName())
         .setApplicantId(application.getApplicant().id)
@@ -211,10 +367,28 @@ public final class JsonExporterService {
         .setSubmitTime(application.getSubmitTime())
         .setStatus(application.getLatestStatus())
         .setRevisionState(toRevisionState(application.getLifecycleStage()))
-        .addApplicationEntries(entriesBuilder.build())
+        .addApplicationEntries(
+            buildJsonEntries(answersToExport.values(), multipleFileUploadEnabled))
         .build();
   }
 
+  private ImmutableMap<Path, Optional<?>> buildJsonEntries(
+      Collection<AnswerData> answers, boolean multipleFileUploadEnabled) {
+    ImmutableMap.Builder<Path, Optional<?>> entriesBuilder = ImmutableMap.builder();
+    for (AnswerData answerData : answers) {
+      // We suppress the unchecked warning because create() returns a genericized
+      // QuestionJsonPresenter, but we ignore the generic's type so that we can get
+      // the json entries for any Question in one line.
+      @SuppressWarnings("unchecked")
+      ImmutableMap<Path, Optional<?>> questionEntries =
+          presenterFactory
+              .create(answerData.applicantQuestion().getType())
+              .getAllJsonEntries(answerData.createQuestion(), multipleFileUploadEnabled);
+      entriesBuilder.putAll(questionEntries);
+    }
+    return entriesBuilder.build();
+  }
+
   private CfJsonDocumentContext convertExportDataToJson(
       ApplicationExportData applicationExportData, String jsonTemplate) {
     CfJsonDocumentContext jsonApplication = new CfJsonDocumentContext(jsonTemplate);
@@ -21,6 +21,7 @@ import com.itextpdf.text.pdf.draw.LineSeparator;
 import com.typesafe.config.Config;
 import controllers.admin.PredicateUtils;
 import controllers.admin.ReadablePredicate;
+import io.prometheus.client.Histogram;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.time.Instant;
@@ -94,6 +95,16 @@ public final class PdfExporter {
    */
   public InMemoryPdf exportApplication(ApplicationModel application, boolean isAdmin)
       throws DocumentException, IOException {
+    Histogram.Timer timer = ExportMetrics.EXPORT_TIME.labels("pdf", "application").startTimer();
+    try {
+      return buildApplicationExport(application, isAdmin);
+    } finally {
+      timer.observeDuration();
+    }
+  }
+
+  private InMemoryPdf buildApplicationExport(ApplicationModel application, boolean isAdmin)
+      throws DocumentException, IOException {
     ReadOnlyApplicantProgramService roApplicantService =
         applicantService
             .getReadOnlyApplicantProgramService(application)
@@ -288,10 +299,15 @@ public final class PdfExporter {
   public InMemoryPdf exportProgram(
       ProgramDefinition programDefinition, ImmutableList<QuestionDefinition> allQuestions)
       throws DocumentException, IOException, TranslationNotFoundException {
-    LocalDateTime timeCreated = nowProvider.get();
-    String filename = String.format("%s-%s.pdf", programDefinition.adminName(), timeCreated);
-    byte[] bytes = buildProgramPdf(programDefinition, allQuestions, timeCreated);
-    return new InMemoryPdf(bytes, filename);
+    Histogram.Timer timer = ExportMetrics.EXPORT_TIME.labels("pdf", "program").startTimer();
+    try {
+      LocalDateTime timeCreated = nowProvider.get();
+      String filename = String.format("%s-%s.pdf", programDefinition.adminName(), timeCreated);
+      byte[] bytes = buildProgramPdf(programDefinition, allQuestions, timeCreated);
+      return new InMemoryPdf(bytes, filename);
+    } finally {
+      timer.observeDuration();
+    }
   }
 
   private byte[] buildProgramPdf(
@@ -0,0 +1,235 @@
+package services.geo.esri;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import annotations.BindingAnnotations.UncachedEsriClient;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hashing;
+import io.prometheus.client.Counter;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import javax.inject.Inject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import play.cache.AsyncCacheApi;
+import play.cache.NamedCache;
+import play.libs.Json;
+import repository.EsriResultRepository;
+import services.geo.AddressLocation;
+import services.geo.esri.models.FindAddressCandidatesResponse;
+import services.settings.SettingsManifest;
+
+/**
+ * An {@link EsriClient} that keeps the results of the {@link UncachedEsriClient}, so that the same
+ * address isn't geocoded again each time it's corrected, and the same location isn't looked up in
+ * a service area again each time its eligibility is checked.
+ *
+ * <p>Address suggestions are kept by the normalized address, and service area features by the
+ * location and the service area URL, which answers every service area sharing that URL. Results
+ * are kept in the "esri-results" cache for ESRI_RESULT_CACHE_SECONDS, and when
+ * ESRI_RESULT_CACHE_DATABASE_ENABLED is set, in the database as well so that all servers share
+ * them. Failed calls aren't kept, so they're tried again on the next request. That includes service
+ * area queries that ArcGIS answers with an error in a successful response, or without features.
+ */
+public final class CachingEsriClient extends EsriClient {
+  private static final Logger LOGGER = LoggerFactory.getLogger(CachingEsriClient.class);
+
+  private static final Counter ESRI_RESULT_CACHE_COUNT =
+      Counter.build()
+          .name("esri_result_cache_total")
+          .help("Lookups of ESRI results by where they were found")
+          .labelNames("type", "result")
+          .register();
+
+  private static final int DEFAULT_CACHE_SECONDS = 24 * 60 * 60;
+  private static final String SUGGESTIONS_TYPE = "address_suggestions";
+  private static final String SERVICE_AREA_TYPE = "service_area_features";
+  private static final ImmutableList<String> ADDRESS_FIELDS =
+      ImmutableList.of("street", "line2", "city", "state", "zip");
+
+  private final EsriClient delegate;
+  private final SettingsManifest settingsManifest;
+  private final AsyncCacheApi resultCache;
+  private final EsriResultRepository esriResultRepository;
+
+  @Inject
+  public CachingEsriClient(
+      Clock clock,
+      EsriServiceAreaValidationConfig esriServiceAreaValidationConfig,
+      @UncachedEsriClient EsriClient delegate,
+      SettingsManifest settingsManifest,
+      @NamedCache("esri-results") AsyncCacheApi resultCache,
+      EsriResultRepository esriResultRepository) {
+    super(clock, esriServiceAreaValidationConfig);
+    this.delegate = checkNotNull(delegate);
+    this.settingsManifest = checkNotNull(settingsManifest);
+    this.resultCache = checkNotNull(resultCache);
+    this.esriResultRepository = checkNotNull(esriResultRepository);
+  }
+
+  @Override
+  CompletionStage<Optional<FindAddressCandidatesResponse>> fetchAddressSuggestions(
+      ObjectNode addressJson) {
+    return getOrFetch(
+            SUGGESTIONS_TYPE,
+            suggestionsCacheKey(addressJson),
+            () ->
+                delegate
+                    .fetchAddressSuggestions(addressJson)
+                    .thenApply(maybeResponse -> maybeResponse.map(Json::toJson)),
+            // The response was parsed, so it's the geocoding result rather than an error.
+            response -> true)
+        .thenApply(
+            maybeJson ->
+                maybeJson.map(json -> Json.fromJson(json, FindAddressCandidatesResponse.class)));
+  }
+
+  @Override
+  CompletionStage<Optional<JsonNode>> fetchServiceAreaFeatures(
+      AddressLocation location, String validationUrl) {
+    return getOrFetch(
+        SERVICE_AREA_TYPE,
+        serviceAreaCacheKey(location, validationUrl),
+        () -> delegate.fetchServiceAreaFeatures(location, validationUrl),
+        CachingEsriClient::isServiceAreaFeatures);
+  }
+
+  /**
+   * ArcGIS reports errors such as an invalid token or an overloaded service with a 200 response
+   * containing an "error" object, so only a response with a features array is a result to keep.
+   */
+  @VisibleForTesting
+  static boolean isServiceAreaFeatures(JsonNode response) {
+    return !response.has("error") && response.path("features").isArray();
+  }
+
+  /**
+   * Addresses that only differ by case or whitespace are geocoded the same way, so they share a
+   * key. The address is hashed so that it isn't stored in the key, or logged with it.
+   */
+  @VisibleForTesting
+  static String suggestionsCacheKey(ObjectNode addressJson) {
+    String normalizedAddress =
+        ADDRESS_FIELDS.stream()
+            .map(field -> addressJson.path(field).asText(""))
+            .map(value -> value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT))
+            .collect(Collectors.joining("|"));
+    return String.format(
+        "%s:%s",
+        SUGGESTIONS_TYPE,
+        Hashing.sha256().hashString(normalizedAddress, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * The location is hashed along with the service area URL so that it isn't stored in the key, or
+   * logged with it.
+   */
+  @VisibleForTesting
+  static String serviceAreaCacheKey(AddressLocation location, String validationUrl) {
+    String locationAndUrl =
+        String.format(
+            "%d|%s|%s|%s",
+            location.getWellKnownId(),
+            location.getLongitude(),
+            location.getLatitude(),
+            validationUrl);
+    return String.format(
+        "%s:%s",
+        SERVICE_AREA_TYPE,
+        Hashing.sha256().hashString(locationAndUrl, StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Returns the result kept under the key, looking in memory and then in the database. If neither
+   * has it, the result is fetched, and kept in both if it's present and {@code isCacheable}.
+   */
+  private CompletionStage<Optional<JsonNode>> getOrFetch(
+      String type,
+      String key,
+      Supplier<CompletionStage<Optional<JsonNode>>> fetch,
+      Predicate<JsonNode> isCacheable) {
+    if (!settingsManifest.getEsriResultCacheEnabled()) {
+      return fetch.get();
+    }
+
+    return resultCache
+        .<String>get(key)
+        .thenCompose(
+            maybeCached -> {
+              if (maybeCached.isPresent()) {
+                ESRI_RESULT_CACHE_COUNT.labels(type, "memory_hit").inc();
+                return CompletableFuture.completedFuture(maybeCached.map(Json::parse));
+              }
+              return lookupInDatabase(key)
+                  .thenCompose(
+                      maybeStored -> {
+                        if (maybeStored.isPresent()) {
+                          ESRI_RESULT_CACHE_COUNT.labels(type, "database_hit").inc();
+                          return resultCache
+                              .set(key, maybeStored.get(), getCacheSeconds())
+                              .thenApply(done -> maybeStored.map(Json::parse));
+                        }
+                        ESRI_RESULT_CACHE_COUNT.labels(type, "miss").inc();
+                        return fetch
+                            .get()
+                            .thenCompose(
+                                maybeResult ->
+                                    maybeResult.isPresent() && isCacheable.test(maybeResult.get())
+                                        ? store(key, maybeResult.get())
+                                        : CompletableFuture.completedFuture(maybeResult));
+                      });
+            });
+  }
+
+  /**
+   * Looks up the result in the database when it's enabled. The database is only a second place to
+   * look, so failing to read it is logged and treated as a miss.
+   */
+  private CompletionStage<Optional<String>> lookupInDatabase(String key) {
+    if (!settingsManifest.getEsriResultCacheDatabaseEnabled()) {
+      return CompletableFuture.completedFuture(Optional.empty());
+    }
+    return esriResultRepository
+        .lookupResult(key)
+        .exceptionally(
+            e -> {
+              LOGGER.warn("Failed to look up the ESRI result for {}", key, e);
+              return Optional.empty();
+            });
+  }
+
+  /** Keeps the fetched result, and returns it once it's kept. */
+  private CompletionStage<Optional<JsonNode>> store(String key, JsonNode fetched) {
+    String result = fetched.toString();
+    CompletionStage<Void> stored =
+        resultCache.set(key, result, getCacheSeconds()).thenApply(done -> null);
+    if (settingsManifest.getEsriResultCacheDatabaseEnabled()) {
+      stored =
+          stored.thenCompose(
+              unused ->
+                  esriResultRepository
+                      .storeResult(key, result, Duration.ofSeconds(getCacheSeconds()))
+                      .exceptionally(
+                          e -> {
+                            LOGGER.warn("Failed to store the ESRI result for {}", key, e);
+                            return null;
+                          }));
+    }
+    return stored.thenApply(unused -> Optional.of(fetched));
+  }
+
+  private int getCacheSeconds() {
+    return settingsManifest.getEsriResultCacheSeconds().orElse(DEFAULT_CACHE_SECONDS);
+  }
+}
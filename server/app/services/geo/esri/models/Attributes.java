@@ -13,11 +13,17 @@ import java.util.Optional;
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
 public final class Attributes {
+  @JsonProperty("SubAddr")
   private final String subAddr;
+  @JsonProperty("Address")
   private final String address;
+  @JsonProperty("City")
   private final String city;
+  @JsonProperty("Region")
   private final String region;
+  @JsonProperty("RegionAbbr")
   private final String regionAbbr;
+  @JsonProperty("Postal")
   private final String postal;
 
   public Attributes(
@@ -12,9 +12,13 @@ import com.fasterxml.jackson.annotation.JsonProperty;
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
 public final class Candidate {
+  @JsonProperty("address")
   private final String address;
+  @JsonProperty("location")
   private final Location location;
+  @JsonProperty("score")
   private final int score;
+  @JsonProperty("attributes")
   private final Attributes attributes;
 
   public Candidate(
@@ -15,7 +15,9 @@ import java.util.Optional;
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
 public final class FindAddressCandidatesResponse {
+  @JsonProperty("spatialReference")
   private final Optional<SpatialReference> spatialReference;
+  @JsonProperty("candidates")
   private ImmutableList<Candidate> candidates;
 
   public FindAddressCandidatesResponse(
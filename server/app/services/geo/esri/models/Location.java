@@ -12,7 +12,9 @@ import com.fasterxml.jackson.annotation.JsonProperty;
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
 public final class Location {
+  @JsonProperty("x")
   private final double x;
+  @JsonProperty("y")
   private final double y;
 
   public Location(@JsonProperty("x") double x, @JsonProperty("y") double y) {
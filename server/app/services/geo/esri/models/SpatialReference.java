@@ -12,7 +12,9 @@ import com.fasterxml.jackson.annotation.JsonProperty;
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
 public final class SpatialReference {
+  @JsonProperty("wkid")
   private final int wkid;
+  @JsonProperty("latestWkid")
   private final int latestWkid;
 
   public SpatialReference(
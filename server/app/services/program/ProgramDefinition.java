@@ -8,6 +8,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.google.auto.value.AutoValue;
+import com.google.auto.value.extension.memoized.Memoized;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableList;
@@ -32,6 +33,7 @@ import models.ProgramModel;
 import models.ProgramNotificationPreference;
 import modules.MainModule;
 import services.LocalizedStrings;
+import services.applicant.predicate.CompiledPredicates;
 import services.question.types.QuestionDefinition;
 import services.question.types.QuestionType;
 
@@ -754,6 +756,16 @@ public abstract class ProgramDefinition {
                     .map(ProgramQuestionDefinition::getQuestionDefinition));
   }
 
+  /**
+   * Returns the predicates of this program compiled for evaluation. They're compiled the first time
+   * they're evaluated and kept for as long as this definition is.
+   */
+  @JsonIgnore
+  @Memoized
+  public CompiledPredicates compiledPredicates() {
+    return new CompiledPredicates(streamQuestionDefinitions().collect(toImmutableList()));
+  }
+
   @JsonIgnore
   public boolean isCommonIntakeForm() {
     return this.programType() == ProgramType.COMMON_INTAKE_FORM;
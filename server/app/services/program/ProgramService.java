@@ -205,18 +205,21 @@ public final class ProgramService {
     return programRepository
         .getFullProgramDefinitionFromCache(id)
         .map(CompletableFuture::completedStage)
-        .orElse(
-            programRepository
-                .lookupProgram(id)
-                .thenComposeAsync(
-                    programMaybe -> {
-                      if (programMaybe.isEmpty()) {
-                        return CompletableFuture.failedFuture(new ProgramNotFoundException(id));
-                      }
-
-                      return syncProgramAssociations(programMaybe.get());
-                    },
-                    classLoaderExecutionContext.current()));
+        // Only look the program up when it isn't cached.
+        .orElseGet(
+            () ->
+                programRepository
+                    .lookupProgram(id)
+                    .thenComposeAsync(
+                        programMaybe -> {
+                          if (programMaybe.isEmpty()) {
+                            return CompletableFuture.failedFuture(
+                                new ProgramNotFoundException(id));
+                          }
+
+                          return syncProgramAssociations(programMaybe.get());
+                        },
+                        classLoaderExecutionContext.current()));
   }
 
   /**
@@ -234,7 +237,7 @@ public final class ProgramService {
     return programRepository
         .getFullProgramDefinitionFromCache(p)
         .map(programDef -> CompletableFuture.completedStage(programDef))
-        .orElse(syncProgramAssociations(p));
+        .orElseGet(() -> syncProgramAssociations(p));
   }
 
   /**
@@ -1616,6 +1619,22 @@ public final class ProgramService {
         programId, paginationSpecEither, filters);
   }
 
+  /**
+   * Get a page of the submitted applications for this program and all other previous and future
+   * versions of it that match the specified filters, without counting the total number of pages.
+   *
+   * @param paginationSpec the page to get. The last page is the first one with fewer applications
+   *     than the page size.
+   * @param filters a set of filters to apply to the examined applications.
+   */
+  public ImmutableList<ApplicationModel> getSubmittedProgramApplicationPageAllVersions(
+      long programId,
+      IdentifierBasedPaginationSpec<Long> paginationSpec,
+      SubmittedApplicationFilter filters) {
+    return programRepository.getApplicationPageForAllProgramVersions(
+        programId, paginationSpec, filters);
+  }
+
   private static ImmutableSet<CiviFormError> validateBlockDefinition(
       BlockDefinition blockDefinition) {
     ImmutableSet.Builder<CiviFormError> errors = ImmutableSet.builder();
@@ -19,12 +19,9 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.function.BiConsumer;
-import java.util.stream.Stream;
 import javax.inject.Inject;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
-import play.cache.NamedCache;
-import play.cache.SyncCacheApi;
 import repository.ReportingRepository;
 import services.DateConverter;
 import views.admin.reporting.ReportingTableRenderer;
@@ -32,38 +29,32 @@ import views.admin.reporting.ReportingTableRenderer;
 /** A service responsible for logic related to collating and presenting reporting data. */
 public final class ReportingService {
 
-  private static final String MONTHLY_REPORTING_DATA_CACHE_KEY = "monthly-reporting-data";
-  private static final int MONTHLY_REPORTING_DATA_CACHE_TTL_SECONDS = 60 * 60;
-
   private static final Comparator<ApplicationSubmissionsStat> STAT_TIMESTAMP_DESCENDING =
       Comparator.comparing((ApplicationSubmissionsStat stat) -> stat.timestamp().get()).reversed();
 
   private final ReportingRepository reportingRepository;
-  private final SyncCacheApi reportingDataCache;
   private final DateConverter dateConverter;
 
   @Inject
-  public ReportingService(
-      DateConverter dateConverter,
-      ReportingRepository reportingRepository,
-      @NamedCache("monthly-reporting-data") SyncCacheApi reportingDataCache) {
+  public ReportingService(DateConverter dateConverter, ReportingRepository reportingRepository) {
     this.dateConverter = checkNotNull(dateConverter);
     this.reportingRepository = Preconditions.checkNotNull(reportingRepository);
-    this.reportingDataCache = Preconditions.checkNotNull(reportingDataCache);
   }
 
   /**
    * Application stats in two groups: one grouped by program, one grouped by submission month.
    *
-   * <p>Historic monthly stats are stored in a postgres materialized view, but stats for the current
-   * month are queried directly in the database. Since that is an unbounded number of rows to scan
-   * we cache the result in server memory.
+   * <p>Stats are merged from the daily rollups counted as applications are submitted, so they're
+   * always up to date and reading them doesn't scan the applications.
    */
   public MonthlyStats getMonthlyStats() {
-    return reportingDataCache.getOrElseUpdate(
-        MONTHLY_REPORTING_DATA_CACHE_KEY,
-        this::queryAndCollateMonthlyStats,
-        MONTHLY_REPORTING_DATA_CACHE_TTL_SECONDS);
+    ImmutableList<ApplicationSubmissionsStat> submissionsByProgramByMonth =
+        reportingRepository.loadMonthlyReportingData();
+
+    return MonthlyStats.create(
+        submissionsByProgramByMonth,
+        monthlySubmissionsAggregated(submissionsByProgramByMonth),
+        totalSubmissionsByProgram(submissionsByProgramByMonth));
   }
 
   /** The applications by month reporting view as a CSV. */
@@ -166,39 +157,24 @@ public final class ReportingService {
     return inMemoryBytes.toString();
   }
 
-  private MonthlyStats queryAndCollateMonthlyStats() {
-    ImmutableList<ApplicationSubmissionsStat> submissionsByProgramByMonth =
-        reportingRepository.loadMonthlyReportingView();
-    ImmutableList<ApplicationSubmissionsStat> submissionsThisMonth =
-        reportingRepository.loadThisMonthReportingData();
-
-    return MonthlyStats.create(
-        Stream.concat(submissionsByProgramByMonth.stream(), submissionsThisMonth.stream())
-            .collect(ImmutableList.toImmutableList()),
-        monthlySubmissionsAggregated(submissionsByProgramByMonth, submissionsThisMonth),
-        totalSubmissionsByProgram(submissionsByProgramByMonth, submissionsThisMonth));
-  }
-
   /** Monthly application submission stats for all programs. */
   private ImmutableList<ApplicationSubmissionsStat> monthlySubmissionsAggregated(
-      ImmutableList<ApplicationSubmissionsStat> submissionsByProgramByMonth,
-      ImmutableList<ApplicationSubmissionsStat> submissionsThisMonth) {
+      ImmutableList<ApplicationSubmissionsStat> submissionsByProgramByMonth) {
     Map<Timestamp, ApplicationSubmissionsStat.Aggregator> aggregators = new HashMap<>();
 
-    Stream.concat(submissionsByProgramByMonth.stream(), submissionsThisMonth.stream())
-        .forEach(
-            stat -> {
-              ApplicationSubmissionsStat.Aggregator aggregator;
-              if (aggregators.containsKey(stat.timestamp().get())) {
-                aggregator = aggregators.get(stat.timestamp().get());
-              } else {
-                aggregator =
-                    new ApplicationSubmissionsStat.Aggregator("All", "All", stat.timestamp().get());
-                aggregators.put(stat.timestamp().get(), aggregator);
-              }
-
-              aggregator.update(stat);
-            });
+    submissionsByProgramByMonth.forEach(
+        stat -> {
+          ApplicationSubmissionsStat.Aggregator aggregator;
+          if (aggregators.containsKey(stat.timestamp().get())) {
+            aggregator = aggregators.get(stat.timestamp().get());
+          } else {
+            aggregator =
+                new ApplicationSubmissionsStat.Aggregator("All", "All", stat.timestamp().get());
+            aggregators.put(stat.timestamp().get(), aggregator);
+          }
+
+          aggregator.update(stat);
+        });
 
     return aggregators.values().stream()
         .map(ApplicationSubmissionsStat.Aggregator::getAggregateStat)
@@ -208,25 +184,23 @@ public final class ReportingService {
 
   /** Total application submission stats for each program. */
   private ImmutableList<ApplicationSubmissionsStat> totalSubmissionsByProgram(
-      ImmutableList<ApplicationSubmissionsStat> submissionsByProgramByMonth,
-      ImmutableList<ApplicationSubmissionsStat> submissionsThisMonth) {
+      ImmutableList<ApplicationSubmissionsStat> submissionsByProgramByMonth) {
     Map<String, ApplicationSubmissionsStat.Aggregator> aggregators = new HashMap<>();
 
-    Stream.concat(submissionsByProgramByMonth.stream(), submissionsThisMonth.stream())
-        .forEach(
-            stat -> {
-              ApplicationSubmissionsStat.Aggregator aggregator;
-              if (aggregators.containsKey(stat.programName())) {
-                aggregator = aggregators.get(stat.programName());
-              } else {
-                aggregator =
-                    new ApplicationSubmissionsStat.Aggregator(
-                        stat.programName(), stat.enUSLocalizedProgramName());
-                aggregators.put(stat.programName(), aggregator);
-              }
-
-              aggregator.update(stat);
-            });
+    submissionsByProgramByMonth.forEach(
+        stat -> {
+          ApplicationSubmissionsStat.Aggregator aggregator;
+          if (aggregators.containsKey(stat.programName())) {
+            aggregator = aggregators.get(stat.programName());
+          } else {
+            aggregator =
+                new ApplicationSubmissionsStat.Aggregator(
+                    stat.programName(), stat.enUSLocalizedProgramName());
+            aggregators.put(stat.programName(), aggregator);
+          }
+
+          aggregator.update(stat);
+        });
 
     return aggregators.values().stream()
         .map(ApplicationSubmissionsStat.Aggregator::getAggregateStat)
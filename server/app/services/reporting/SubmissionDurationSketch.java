@@ -0,0 +1,98 @@
+package services.reporting;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Counts submission durations in buckets whose bounds grow by a constant factor, so that any
+ * percentile can be estimated to within {@link #RELATIVE_ACCURACY} of the true value.
+ *
+ * <p>Sketches of the same durations split any way can be merged by adding up their buckets, which
+ * lets submissions be counted one at a time into daily sketches and the days merged into months
+ * and programs, without keeping the durations themselves.
+ */
+public final class SubmissionDurationSketch {
+
+  /** The relative error of the percentiles estimated from a sketch. */
+  public static final double RELATIVE_ACCURACY = 0.01;
+
+  /**
+   * The ratio between the upper and lower bound of a bucket. Bucket {@code i} counts durations
+   * greater than {@code GAMMA^(i-1)} seconds and at most {@code GAMMA^i} seconds, and bucket 0 also
+   * counts any durations of a second or less.
+   */
+  public static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+
+  private final TreeMap<Integer, Long> countsByBucket = new TreeMap<>();
+  private long count = 0;
+
+  /** Returns the bucket a duration is counted in. */
+  public static int bucketFor(double durationSeconds) {
+    if (durationSeconds <= 1) {
+      return 0;
+    }
+    return (int) Math.ceil(Math.log(durationSeconds) / Math.log(GAMMA));
+  }
+
+  /** Counts a duration. */
+  public SubmissionDurationSketch add(double durationSeconds) {
+    return addToBucket(bucketFor(durationSeconds), 1);
+  }
+
+  /** Counts {@code count} durations in the bucket. */
+  public SubmissionDurationSketch addToBucket(int bucket, long count) {
+    checkArgument(bucket >= 0, "Bucket must not be negative: %s", bucket);
+    checkArgument(count >= 0, "Count must not be negative: %s", count);
+    countsByBucket.merge(bucket, count, Long::sum);
+    this.count += count;
+    return this;
+  }
+
+  /** Adds the durations counted by another sketch to this one. */
+  public SubmissionDurationSketch merge(SubmissionDurationSketch other) {
+    other.countsByBucket.forEach(this::addToBucket);
+    return this;
+  }
+
+  /** The number of durations counted. */
+  public long count() {
+    return count;
+  }
+
+  /**
+   * Estimates the duration in seconds at the given percentile, between 0 and 1, of the durations
+   * counted, interpolating between the two nearest durations as Postgres' {@code percentile_cont}
+   * does. Returns 0 if none have been counted.
+   */
+  public double percentile(double percentile) {
+    checkArgument(
+        percentile >= 0 && percentile <= 1, "Percentile must be between 0 and 1: %s", percentile);
+    if (count == 0) {
+      return 0;
+    }
+    double rank = percentile * (count - 1);
+    long lowerRank = (long) Math.floor(rank);
+    double lower = estimateAtRank(lowerRank);
+    double upper = estimateAtRank((long) Math.ceil(rank));
+    return lower + (rank - lowerRank) * (upper - lower);
+  }
+
+  /** Estimates the duration at the given index of the counted durations in ascending order. */
+  private double estimateAtRank(long rank) {
+    long seen = 0;
+    for (Map.Entry<Integer, Long> bucket : countsByBucket.entrySet()) {
+      seen += bucket.getValue();
+      if (seen > rank) {
+        return estimate(bucket.getKey());
+      }
+    }
+    return estimate(countsByBucket.lastKey());
+  }
+
+  /** The value within a bucket that's within the relative accuracy of every value in it. */
+  private static double estimate(int bucket) {
+    return 2 * Math.pow(GAMMA, bucket) / (GAMMA + 1);
+  }
+}
@@ -0,0 +1,121 @@
+package services.settings;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import models.SettingsGroupModel;
+import repository.SettingsGroupRepository;
+
+/**
+ * An in-memory snapshot of the current {@link SettingsGroupModel}.
+ *
+ * <p>The snapshot is identified by the ID of the settings group it was loaded from. Once the
+ * refresh interval passes, or {@link #invalidate()} is called, the next lookup checks the ID of the
+ * current settings group and only loads the settings again if the ID changed, so settings written
+ * by any server are picked up within the refresh interval.
+ */
+@Singleton
+public final class SettingsCache {
+  private static final Duration DEFAULT_REFRESH_INTERVAL = Duration.ofSeconds(5);
+
+  private final SettingsGroupRepository settingsGroupRepository;
+  private final Clock clock;
+  private final Duration refreshInterval;
+  // Incremented by every invalidation. A snapshot is only used without checking the database while
+  // its generation is current.
+  private final AtomicLong generation = new AtomicLong();
+  private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+  @Inject
+  public SettingsCache(
+      SettingsGroupRepository settingsGroupRepository,
+      Clock clock,
+      SettingsManifest settingsManifest) {
+    this(
+        settingsGroupRepository,
+        clock,
+        settingsManifest
+            .getSettingsCacheRefreshSeconds()
+            .map(Duration::ofSeconds)
+            .orElse(DEFAULT_REFRESH_INTERVAL));
+  }
+
+  @VisibleForTesting
+  SettingsCache(
+      SettingsGroupRepository settingsGroupRepository, Clock clock, Duration refreshInterval) {
+    this.settingsGroupRepository = checkNotNull(settingsGroupRepository);
+    this.clock = checkNotNull(clock);
+    this.refreshInterval = checkNotNull(refreshInterval);
+  }
+
+  /**
+   * Returns the settings of the current {@link SettingsGroupModel}, or empty if the admin has never
+   * updated any settings.
+   */
+  public CompletionStage<Optional<ImmutableMap<String, String>>> getSettings() {
+    Instant now = clock.instant();
+    long currentGeneration = generation.get();
+    Snapshot current = snapshot.get();
+    if (current != null
+        && current.generation() == currentGeneration
+        && now.isBefore(current.checkedAt().plus(refreshInterval))) {
+      return CompletableFuture.completedFuture(current.settings());
+    }
+
+    return settingsGroupRepository
+        .getCurrentSettingsId()
+        .thenCompose(
+            settingsId -> {
+              if (current != null && current.settingsId().equals(settingsId)) {
+                return CompletableFuture.completedFuture(
+                    store(currentGeneration, now, settingsId, current.settings()));
+              }
+              return settingsGroupRepository
+                  .getCurrentSettings()
+                  .thenApply(
+                      settingsGroup ->
+                          store(
+                              currentGeneration,
+                              now,
+                              settingsGroup.map(group -> group.id),
+                              settingsGroup.map(SettingsGroupModel::getSettings)));
+            });
+  }
+
+  /** Makes the next lookup check the database for new settings. */
+  public void invalidate() {
+    generation.incrementAndGet();
+  }
+
+  private Optional<ImmutableMap<String, String>> store(
+      long loadGeneration,
+      Instant checkedAt,
+      Optional<Long> settingsId,
+      Optional<ImmutableMap<String, String>> settings) {
+    snapshot.set(new Snapshot(loadGeneration, checkedAt, settingsId, settings));
+    return settings;
+  }
+
+  /**
+   * The settings loaded from the settings group with the given ID.
+   *
+   * @param generation the generation of the cache when the settings were loaded
+   * @param checkedAt when the ID of the current settings group was last checked
+   */
+  private record Snapshot(
+      long generation,
+      Instant checkedAt,
+      Optional<Long> settingsId,
+      Optional<ImmutableMap<String, String>> settings) {}
+}
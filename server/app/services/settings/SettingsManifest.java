@@ -502,6 +502,22 @@ public final class SettingsManifest extends AbstractSettingsManifest {
     return getString("SENDER_EMAIL_ADDRESS");
   }
 
+  /**
+   * A number specifying how often in seconds each server checks for queued notification emails to
+   * send. May be fractional, such as 0.5. Default value is 5.
+   */
+  public Optional<String> getEmailOutboxPollIntervalSeconds() {
+    return getString("EMAIL_OUTBOX_POLL_INTERVAL_SECONDS");
+  }
+
+  /**
+   * The most notification emails each server sends a second. Across all servers this should stay
+   * under the maximum send rate of the AWS SES account. Default value is 10.
+   */
+  public Optional<Integer> getEmailMaxSendRate() {
+    return getInt("EMAIL_MAX_SEND_RATE");
+  }
+
   /** What static file storage provider to use. */
   public Optional<String> getStorageServiceName() {
     return getString("STORAGE_SERVICE_NAME");
@@ -633,6 +649,31 @@ public final class SettingsManifest extends AbstractSettingsManifest {
     return getString("ESRI_ARCGIS_API_TOKEN");
   }
 
+  /**
+   * Enables keeping address suggestions and service area results from Esri in memory, so the same
+   * address isn't looked up again.
+   */
+  public boolean getEsriResultCacheEnabled() {
+    return getBool("ESRI_RESULT_CACHE_ENABLED");
+  }
+
+  /**
+   * How long address suggestions and service area results from Esri are kept before Esri is called
+   * again.
+   */
+  public Optional<Integer> getEsriResultCacheSeconds() {
+    return getInt("ESRI_RESULT_CACHE_SECONDS");
+  }
+
+  /**
+   * Enables also keeping address suggestions and service area results from Esri in the database,
+   * so they're shared by all servers and kept across restarts. ESRI_RESULT_CACHE_ENABLED needs to
+   * be enabled.
+   */
+  public boolean getEsriResultCacheDatabaseEnabled() {
+    return getBool("ESRI_RESULT_CACHE_DATABASE_ENABLED");
+  }
+
   /** This email address is listed in the footer for applicants to contact support. */
   public Optional<String> getSupportEmailAddress(RequestHeader request) {
     return getString("SUPPORT_EMAIL_ADDRESS", request);
@@ -816,6 +857,14 @@ public final class SettingsManifest extends AbstractSettingsManifest {
     return getInt("CIVIFORM_API_APPLICATIONS_LIST_MAX_PAGE_SIZE");
   }
 
+  /**
+   * How often, in seconds, the API key call counts and last call IP addresses recorded in memory
+   * are written to the database. Default value is 10.
+   */
+  public Optional<Integer> getCiviformApiKeyUsageFlushIntervalSeconds() {
+    return getInt("CIVIFORM_API_KEY_USAGE_FLUSH_INTERVAL_SECONDS");
+  }
+
   /**
    * An integer specifying the polling interval in seconds for the durable job system. A smaller
    * number here increases the polling frequency, which results in jobs running sooner when they are
@@ -835,8 +884,9 @@ public final class SettingsManifest extends AbstractSettingsManifest {
   }
 
   /**
-   * The number of server threads available for the durable job runner. More than a single thread
-   * will the server execute multiple jobs in parallel. Default value is 1.
+   * The number of server threads available for the durable job runner, which is also the number of
+   * durable jobs a server runs at once. Jobs with the same name don't run at the same time. Default
+   * value is 2.
    */
   public Optional<Integer> getDurableJobsThreadPoolSize() {
     return getInt("DURABLE_JOBS_THREAD_POOL_SIZE");
@@ -912,6 +962,44 @@ public final class SettingsManifest extends AbstractSettingsManifest {
     return getBool("QUESTION_CACHE_ENABLED");
   }
 
+  /** Enables caching the IDs of the active and draft versions in memory. */
+  public boolean getVersionPointerCacheEnabled() {
+    return getBool("VERSION_POINTER_CACHE_ENABLED");
+  }
+
+  /**
+   * How long the cached IDs of the active and draft versions are used before they are reloaded
+   * from the database, so that changes made by other servers are picked up.
+   */
+  public Optional<Integer> getVersionPointerCacheRefreshSeconds() {
+    return getInt("VERSION_POINTER_CACHE_REFRESH_SECONDS");
+  }
+
+  /**
+   * Enables keeping whether an applicant may be eligible for each program in memory, until the
+   * applicant's answers or the active programs change.
+   */
+  public boolean getEligibilityCacheEnabled() {
+    return getBool("ELIGIBILITY_CACHE_ENABLED");
+  }
+
+  /**
+   * How long the server settings are kept in memory before checking the database for settings
+   * saved by other servers.
+   */
+  public Optional<Integer> getSettingsCacheRefreshSeconds() {
+    return getInt("SETTINGS_CACHE_REFRESH_SECONDS");
+  }
+
+  /**
+   * Enables broadcasting cache invalidations to all servers with Postgres LISTEN/NOTIFY, so that
+   * the program, question, version, and API key caches stay consistent when more than one server
+   * is running.
+   */
+  public boolean getCacheInvalidationBusEnabled() {
+    return getBool("CACHE_INVALIDATION_BUS_ENABLED");
+  }
+
   /** Enables populating more fields in OIDC logout requests to admin identity provider. */
   public boolean getAdminOidcEnhancedLogoutEnabled() {
     return getBool("ADMIN_OIDC_ENHANCED_LOGOUT_ENABLED");
@@ -1745,6 +1833,30 @@ public final class SettingsManifest extends AbstractSettingsManifest {
                                           + " API.",
                                       /* isRequired= */ false,
                                       SettingType.STRING,
+                                      SettingMode.HIDDEN),
+                                  SettingDescription.create(
+                                      "ESRI_RESULT_CACHE_ENABLED",
+                                      "Enables keeping address suggestions and service area"
+                                          + " results from Esri in memory, so the same address"
+                                          + " isn't looked up again.",
+                                      /* isRequired= */ false,
+                                      SettingType.BOOLEAN,
+                                      SettingMode.HIDDEN),
+                                  SettingDescription.create(
+                                      "ESRI_RESULT_CACHE_SECONDS",
+                                      "How long address suggestions and service area results from"
+                                          + " Esri are kept before Esri is called again.",
+                                      /* isRequired= */ false,
+                                      SettingType.INT,
+                                      SettingMode.HIDDEN),
+                                  SettingDescription.create(
+                                      "ESRI_RESULT_CACHE_DATABASE_ENABLED",
+                                      "Enables also keeping address suggestions and service area"
+                                          + " results from Esri in the database, so they're shared"
+                                          + " by all servers and kept across restarts."
+                                          + " ESRI_RESULT_CACHE_ENABLED needs to be enabled.",
+                                      /* isRequired= */ false,
+                                      SettingType.BOOLEAN,
                                       SettingMode.HIDDEN)))),
                       ImmutableList.of())),
               ImmutableList.of(
@@ -1761,6 +1873,23 @@ public final class SettingsManifest extends AbstractSettingsManifest {
                           + " CiviForm.",
                       /* isRequired= */ true,
                       SettingType.STRING,
+                      SettingMode.HIDDEN)),
+                  SettingDescription.create(
+                      "EMAIL_OUTBOX_POLL_INTERVAL_SECONDS",
+                      "A number specifying how often in seconds each server checks for queued"
+                          + " notification emails to send. May be fractional, such as 0.5."
+                          + " Default value is 5.",
+                      /* isRequired= */ false,
+                      SettingType.STRING,
+                      SettingMode.HIDDEN,
+                      Pattern.compile("^[0-9]+(\\.[0-9]+)?$")),
+                  SettingDescription.create(
+                      "EMAIL_MAX_SEND_RATE",
+                      "The most notification emails each server sends a second. Across all"
+                          + " servers this should stay under the maximum send rate of the AWS SES"
+                          + " account. Default value is 10.",
+                      /* isRequired= */ false,
+                      SettingType.INT,
                       SettingMode.HIDDEN))),
           "Email Addresses",
           SettingsSection.create(
@@ -1881,7 +2010,15 @@ public final class SettingsManifest extends AbstractSettingsManifest {
                           + " results for the applications export API.",
                       /* isRequired= */ false,
                       SettingType.INT,
-                      SettingMode.ADMIN_READABLE))),
+                      SettingMode.ADMIN_READABLE),
+                  SettingDescription.create(
+                      "CIVIFORM_API_KEY_USAGE_FLUSH_INTERVAL_SECONDS",
+                      "How often, in seconds, the API key call counts and last call IP addresses"
+                          + " recorded in memory are written to the database. Default value is"
+                          + " 10.",
+                      /* isRequired= */ false,
+                      SettingType.INT,
+                      SettingMode.HIDDEN))),
           "Durable Jobs",
           SettingsSection.create(
               "Durable Jobs",
@@ -1908,9 +2045,9 @@ public final class SettingsManifest extends AbstractSettingsManifest {
                       SettingMode.HIDDEN),
                   SettingDescription.create(
                       "DURABLE_JOBS_THREAD_POOL_SIZE",
-                      "The number of server threads available for the durable job runner. More than"
-                          + " a single thread will the server execute multiple jobs in parallel."
-                          + " Default value is 1.",
+                      "The number of server threads available for the durable job runner, which is"
+                          + " also the number of durable jobs a server runs at once. Jobs with the"
+                          + " same name don't run at the same time. Default value is 2.",
                       /* isRequired= */ false,
                       SettingType.INT,
                       SettingMode.HIDDEN))),
@@ -1996,6 +2133,43 @@ public final class SettingsManifest extends AbstractSettingsManifest {
                       /* isRequired= */ false,
                       SettingType.BOOLEAN,
                       SettingMode.HIDDEN),
+                  SettingDescription.create(
+                      "VERSION_POINTER_CACHE_ENABLED",
+                      "Enables caching the IDs of the active and draft versions in memory.",
+                      /* isRequired= */ false,
+                      SettingType.BOOLEAN,
+                      SettingMode.HIDDEN),
+                  SettingDescription.create(
+                      "VERSION_POINTER_CACHE_REFRESH_SECONDS",
+                      "How long the cached IDs of the active and draft versions are used before"
+                          + " they are reloaded from the database, so that changes made by other"
+                          + " servers are picked up.",
+                      /* isRequired= */ false,
+                      SettingType.INT,
+                      SettingMode.HIDDEN),
+                  SettingDescription.create(
+                      "ELIGIBILITY_CACHE_ENABLED",
+                      "Enables keeping whether an applicant may be eligible for each program in"
+                          + " memory, until the applicant's answers or the active programs"
+                          + " change.",
+                      /* isRequired= */ false,
+                      SettingType.BOOLEAN,
+                      SettingMode.HIDDEN),
+                  SettingDescription.create(
+                      "SETTINGS_CACHE_REFRESH_SECONDS",
+                      "How long the server settings are kept in memory before checking the"
+                          + " database for settings saved by other servers.",
+                      /* isRequired= */ false,
+                      SettingType.INT,
+                      SettingMode.HIDDEN),
+                  SettingDescription.create(
+                      "CACHE_INVALIDATION_BUS_ENABLED",
+                      "Enables broadcasting cache invalidations to all servers with Postgres"
+                          + " LISTEN/NOTIFY, so that the program, question, version, and API key"
+                          + " caches stay consistent when more than one server is running.",
+                      /* isRequired= */ false,
+                      SettingType.BOOLEAN,
+                      SettingMode.HIDDEN),
                   SettingDescription.create(
                       "ADMIN_OIDC_ENHANCED_LOGOUT_ENABLED",
                       "Enables populating more fields in OIDC logout requests to admin identity"
@@ -23,6 +23,8 @@ import org.slf4j.LoggerFactory;
 import play.libs.typedmap.TypedKey;
 import play.libs.typedmap.TypedMap;
 import play.mvc.Http;
+import repository.CacheInvalidationBus;
+import repository.CacheInvalidationBus.CacheName;
 import repository.SettingsGroupRepository;
 
 /**
@@ -31,9 +33,9 @@ import repository.SettingsGroupRepository;
  * <p>Each time an admin updates the server settings using the admin UI, a SettingsGroup is saved.
  * The latest snapshot is used to provide settings for a given request to the server.
  *
- * <p>On each incoming request, the most recent SettingsGroup is loaded and its settings map stored
- * in the attributes of the incoming {@link play.mvc.Http.Request} object for ease of access
- * throughout the request lifecycle.
+ * <p>On each incoming request, the settings map of the most recent SettingsGroup is taken from the
+ * {@link SettingsCache} and stored in the attributes of the incoming {@link
+ * play.mvc.Http.Request} object for ease of access throughout the request lifecycle.
  */
 public final class SettingsService {
 
@@ -45,12 +47,19 @@ public final class SettingsService {
 
   private final SettingsGroupRepository settingsGroupRepository;
   private final SettingsManifest settingsManifest;
+  private final SettingsCache settingsCache;
+  private final CacheInvalidationBus cacheInvalidationBus;
 
   @Inject
   public SettingsService(
-      SettingsGroupRepository settingsGroupRepository, SettingsManifest settingsManifest) {
+      SettingsGroupRepository settingsGroupRepository,
+      SettingsManifest settingsManifest,
+      SettingsCache settingsCache,
+      CacheInvalidationBus cacheInvalidationBus) {
     this.settingsGroupRepository = checkNotNull(settingsGroupRepository);
     this.settingsManifest = checkNotNull(settingsManifest);
+    this.settingsCache = checkNotNull(settingsCache);
+    this.cacheInvalidationBus = checkNotNull(cacheInvalidationBus);
   }
 
   /**
@@ -64,12 +73,13 @@ public final class SettingsService {
   }
 
   /**
-   * Loads the server settings from the database and returns a new request that has the settings in
-   * the request attributes. If no settings are found an error is logged and the request argument is
-   * returned.
+   * Returns a new request that has the current server settings in the request attributes. The
+   * settings come from the {@link SettingsCache}, so most requests do not query the database. If no
+   * settings are found an error is logged and the request argument is returned.
    */
   public CompletionStage<Http.RequestHeader> applySettingsToRequest(Http.RequestHeader request) {
-    return loadSettings()
+    return settingsCache
+        .getSettings()
         .thenApply(
             maybeSettings -> {
               if (maybeSettings.isEmpty()) {
@@ -113,6 +123,7 @@ public final class SettingsService {
 
     var newSettingsGroup = new SettingsGroupModel(newSettings, papertrail);
     newSettingsGroup.save();
+    cacheInvalidationBus.invalidateAll(CacheName.SETTINGS);
 
     return SettingsGroupUpdateResult.success();
   }
@@ -269,6 +280,7 @@ public final class SettingsService {
 
     var group = new SettingsGroupModel(settings, "system");
     group.save();
+    cacheInvalidationBus.invalidateAll(CacheName.SETTINGS);
 
     LOGGER.info("Migrated {} settings from config to database.", settings.size());
 
@@ -3,26 +3,26 @@ package services.ti;
 import com.google.common.collect.ImmutableList;
 import java.util.Optional;
 import models.AccountModel;
+import services.PaginationResult;
 
 /**
- * Holds list of account after filtering out the account list per the SearchParamaters
+ * Holds a page of accounts after filtering out the account list per the SearchParamaters
  *
  * <p>If the filtering attempt was successful, contains the filtered accounts.
  *
- * <p>If the filtering attempt was not successful, contains all the accounts of the TIGroup along
- * with the error message of why the filtering failed.
+ * <p>If the filtering attempt was not successful, contains the accounts of the TIGroup along with
+ * the error message of why the filtering failed.
  */
 public final record TrustedIntermediarySearchResult(
-    ImmutableList<AccountModel> accounts, Optional<String> errorMessage) {
+    ImmutableList<AccountModel> accounts, int pageCount, Optional<String> errorMessage) {
 
   public TrustedIntermediarySearchResult(
-      ImmutableList<AccountModel> accounts, Optional<String> errorMessage) {
-    this.accounts = accounts;
-    this.errorMessage = errorMessage;
+      PaginationResult<AccountModel> accountsPage, Optional<String> errorMessage) {
+    this(accountsPage.getPageContents(), accountsPage.getNumPages(), errorMessage);
   }
 
-  public TrustedIntermediarySearchResult(ImmutableList<AccountModel> accounts) {
-    this(accounts, Optional.empty());
+  public TrustedIntermediarySearchResult(PaginationResult<AccountModel> accountsPage) {
+    this(accountsPage, Optional.empty());
   }
 
   public boolean isSuccessful() {
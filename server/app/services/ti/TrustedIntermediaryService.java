@@ -8,7 +8,6 @@ import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
 import java.util.Optional;
 import javax.inject.Inject;
 import models.AccountModel;
@@ -20,6 +19,8 @@ import repository.AccountRepository;
 import repository.SearchParameters;
 import services.DateConverter;
 import services.MessageKey;
+import services.PageNumberBasedPaginationSpec;
+import services.PaginationResult;
 import services.PhoneValidationUtils;
 import services.applicant.exception.ApplicantNotFoundException;
 
@@ -222,62 +223,58 @@ public final class TrustedIntermediaryService {
   }
 
   /**
-   * Gets all the TrustedIntermediaryAccount managed by the given TI Group with/without filtering
+   * Gets a page of the TrustedIntermediaryAccounts managed by the given TI Group with/without
+   * filtering
    *
    * @param searchParameters - This object contains a nameQuery, a dayQuery, a monthQuery and a
    *     yearQuery String. If all are empty, an unfiltered list of accounts is returned. If
-   *     nameQuery is present, a match between the Account holder's name and the nameQuery is
-   *     performed. If dayQuery, monthQuery and yearQuery are present, a match between the Account
-   *     holder's Date of Birth and the date queries is performed. The matched results are collected
-   *     and sent as an Immutable List. If name query is empty and only some of the date queries are
-   *     present, but not all, an empty list is returned.
+   *     nameQuery is present, a match between the Account holder's name, email or phone number and
+   *     the nameQuery is performed. If dayQuery, monthQuery and yearQuery are present, a match
+   *     between the Account holder's Date of Birth and the date queries is performed. The matched
+   *     results are collected and sent as an Immutable List. If name query is empty and only some
+   *     of the date queries are present, but not all, an empty list is returned.
    * @param tiGroup - this is TrustedIntermediaryGroup for which the list of associated account is
    *     requested. This is needed to fetch all the accounts from the user repository.
-   * @return a result object containing the ListOfAccounts which may be filtered by the Search
-   *     Parameter and an optional errorMessage which is generated if the filtering has failed.
+   * @param paginationSpec - the page of matching accounts to return.
+   * @return a result object containing the page of accounts, which may be filtered by the Search
+   *     Parameter, and an optional errorMessage which is generated if the filtering has failed.
    */
   public TrustedIntermediarySearchResult getManagedAccounts(
-      SearchParameters searchParameters, TrustedIntermediaryGroupModel tiGroup) {
-    ImmutableList<AccountModel> allAccounts = tiGroup.getManagedAccounts();
+      SearchParameters searchParameters,
+      TrustedIntermediaryGroupModel tiGroup,
+      PageNumberBasedPaginationSpec paginationSpec) {
     List<SearchParameters.ParamTypes> missingParams = findMissingSearchParams(searchParameters);
     if (missingParams.size() == 4) {
-      return new TrustedIntermediarySearchResult(allAccounts);
+      return new TrustedIntermediarySearchResult(
+          searchManagedAccounts(tiGroup, Optional.empty(), Optional.empty(), paginationSpec));
     }
-    final ImmutableList<AccountModel> searchedResult;
+    final Optional<LocalDate> maybeDOB;
     try {
-      searchedResult = searchAccounts(searchParameters, allAccounts, missingParams);
+      maybeDOB = validateAndConvertSearchParamDOB(searchParameters, missingParams);
     } catch (DateTimeParseException e) {
       return new TrustedIntermediarySearchResult(
-          allAccounts, Optional.of("Please enter a valid birth date."));
+          searchManagedAccounts(tiGroup, Optional.empty(), Optional.empty(), paginationSpec),
+          Optional.of("Please enter a valid birth date."));
     }
-    return new TrustedIntermediarySearchResult(searchedResult);
+    Optional<String> maybeName =
+        missingParams.contains(SearchParameters.ParamTypes.NAME)
+            ? Optional.empty()
+            : searchParameters.nameQuery().map(String::trim);
+    if (maybeName.isEmpty() && maybeDOB.isEmpty()) {
+      return new TrustedIntermediarySearchResult(
+          new PaginationResult<>(/* hasNext= */ false, /* numPages= */ 1, ImmutableList.of()));
+    }
+    return new TrustedIntermediarySearchResult(
+        searchManagedAccounts(tiGroup, maybeName, maybeDOB, paginationSpec));
   }
 
-  private ImmutableList<AccountModel> searchAccounts(
-      SearchParameters searchParameters,
-      ImmutableList<AccountModel> allAccounts,
-      List<SearchParameters.ParamTypes> missingParams) {
-    Optional<LocalDate> maybeDOB =
-        validateAndConvertSearchParamDOB(searchParameters, missingParams);
-    return allAccounts.stream()
-        .filter(
-            account ->
-                ((account.newestApplicant().get().getApplicantData().getDateOfBirth().isPresent()
-                        && maybeDOB.isPresent()
-                        && account
-                            .newestApplicant()
-                            .get()
-                            .getApplicantData()
-                            .getDateOfBirth()
-                            .get()
-                            .equals(maybeDOB.get()))
-                    || (!missingParams.contains(SearchParameters.ParamTypes.NAME)
-                        && account
-                            .getApplicantDisplayName()
-                            .toLowerCase(Locale.ROOT)
-                            .contains(
-                                searchParameters.nameQuery().get().toLowerCase(Locale.ROOT)))))
-        .collect(ImmutableList.toImmutableList());
+  private PaginationResult<AccountModel> searchManagedAccounts(
+      TrustedIntermediaryGroupModel tiGroup,
+      Optional<String> nameQuery,
+      Optional<LocalDate> dateOfBirth,
+      PageNumberBasedPaginationSpec paginationSpec) {
+    return accountRepository.searchManagedAccounts(
+        tiGroup.id, nameQuery, dateOfBirth, paginationSpec);
   }
 
   public static List<SearchParameters.ParamTypes> findMissingSearchParams(
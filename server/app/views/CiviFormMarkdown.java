@@ -3,6 +3,7 @@ package views;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.commonmark.Extension;
 import org.commonmark.ext.autolink.AutolinkExtension;
 import org.commonmark.node.BulletList;
@@ -27,23 +28,44 @@ public final class CiviFormMarkdown {
 
   /** Renders markdown to HTML with styles consistent with CiviForm's UI. */
   public String render(String markdown) {
+    return render(markdown, ariaLabel);
+  }
+
+  /**
+   * Renders markdown to HTML with styles consistent with CiviForm's UI, labeling links with the
+   * given aria label. Unlike {@link #setAriaLabel}, this doesn't affect other renders.
+   */
+  public String render(String markdown, String ariaLabel) {
     Node markdownRootNode = PARSER.parse(markdown);
-    return RENDERER.render(markdownRootNode);
+    return RENDERERS_BY_ARIA_LABEL
+        .computeIfAbsent(ariaLabel, CiviFormMarkdown::buildRenderer)
+        .render(markdownRootNode);
   }
 
   private static final List<Extension> extensions = Arrays.asList(AutolinkExtension.create());
 
   private static final Parser PARSER = Parser.builder().extensions(extensions).build();
 
-  private static final HtmlRenderer RENDERER =
-      HtmlRenderer.builder()
-          .extensions(extensions)
-          .attributeProviderFactory(context -> new CiviFormAttributeProvider())
-          .softbreak("<br/>")
-          .build();
+  // Renderers are immutable and thread-safe. There's one per aria label, and there are only as many
+  // aria labels as there are translations of the label.
+  private static final ConcurrentHashMap<String, HtmlRenderer> RENDERERS_BY_ARIA_LABEL =
+      new ConcurrentHashMap<>();
+
+  private static HtmlRenderer buildRenderer(String ariaLabel) {
+    return HtmlRenderer.builder()
+        .extensions(extensions)
+        .attributeProviderFactory(context -> new CiviFormAttributeProvider(ariaLabel))
+        .softbreak("<br/>")
+        .build();
+  }
 
   /** Customizes HTML element attributes for the CiviForm UI. */
   private static class CiviFormAttributeProvider implements AttributeProvider {
+    private final String ariaLabel;
+
+    CiviFormAttributeProvider(String ariaLabel) {
+      this.ariaLabel = ariaLabel;
+    }
 
     @Override
     public void setAttributes(Node node, String tagName, Map<String, String> attributes) {
@@ -3,7 +3,6 @@ package views.admin.reporting;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static j2html.TagCreator.div;
 import static j2html.TagCreator.h1;
-import static j2html.TagCreator.p;
 import static j2html.TagCreator.td;
 import static j2html.TagCreator.tr;
 
@@ -45,11 +44,7 @@ public final class AdminReportingIndexView extends BaseHtmlView {
 
     var title = "Reporting";
 
-    DivTag headerDiv =
-        div()
-            .withClasses("my-8")
-            .with(h1(title).withClasses("my-4"))
-            .with(p("Data may be up to an hour delayed."));
+    DivTag headerDiv = div().withClasses("my-8").with(h1(title).withClasses("my-4"));
 
     DivTag contentDiv = div().withClasses("px-20").with(headerDiv);
 
@@ -3,7 +3,6 @@ package views.admin.reporting;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static j2html.TagCreator.div;
 import static j2html.TagCreator.h1;
-import static j2html.TagCreator.p;
 import static j2html.TagCreator.td;
 import static j2html.TagCreator.tr;
 
@@ -68,11 +67,7 @@ public class AdminReportingShowView extends BaseHtmlView {
       ReportingService.MonthlyStats monthlyStats) {
     var title = String.format("%s reporting", enUSLocalizedProgramName);
 
-    DivTag headerDiv =
-        div()
-            .withClasses("my-8")
-            .with(h1(title).withClasses("my-4"))
-            .with(p("Data may be up to an hour delayed."));
+    DivTag headerDiv = div().withClasses("my-8").with(h1(title).withClasses("my-4"));
 
     DivTag contentDiv = div().withClasses("px-20").with(headerDiv);
 
@@ -2,9 +2,13 @@ package views.components;
 
 import static j2html.TagCreator.rawHtml;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Splitter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
+import io.prometheus.client.Counter;
 import j2html.tags.DomContent;
 import java.util.List;
 import org.owasp.html.HtmlChangeListener;
@@ -16,18 +20,48 @@ import org.slf4j.LoggerFactory;
 import views.CiviFormMarkdown;
 import views.ViewUtils;
 
-/** The TextFormatter class formats text using Markdown and some custom logic. */
+/**
+ * The TextFormatter class formats text using Markdown and some custom logic.
+ *
+ * <p>The formatted HTML only depends on the text and the formatting options, and the same program
+ * and question text is formatted on every page view, so the HTML is cached in a bounded cache
+ * weighted by the size of the text and the HTML.
+ */
 public final class TextFormatter {
 
   private static final Logger logger = LoggerFactory.getLogger(TextFormatter.class);
   private static final CiviFormMarkdown CIVIFORM_MARKDOWN = new CiviFormMarkdown();
   public static final String DEFAULT_ARIA_LABEL = "opens in a new tab";
 
+  // Roughly the number of characters of text and HTML kept in the cache.
+  private static final long FORMATTED_HTML_CACHE_MAX_WEIGHT = 16L * 1024 * 1024;
+
+  private static final PolicyFactory SANITIZER_POLICY = buildSanitizerPolicy();
+
+  private static final Cache<FormatKey, String> FORMATTED_HTML_CACHE =
+      CacheBuilder.newBuilder()
+          .maximumWeight(FORMATTED_HTML_CACHE_MAX_WEIGHT)
+          .weigher((FormatKey key, String html) -> key.text().length() + html.length())
+          .build();
+
+  private static final Counter FORMATTED_HTML_CACHE_REQUESTS =
+      Counter.build()
+          .name("formatted_html_cache_requests_total")
+          .help("Count of text formatted to HTML, by whether the HTML was cached")
+          .labelNames("result")
+          .register();
+
+  /** The inputs that determine the HTML formatted from a text. */
+  private record FormatKey(
+      String text, String ariaLabel, boolean preserveEmptyLines, boolean addRequiredIndicator) {}
+
   /** Adds an aria label to links before passing provided text through Markdown formatter. */
   public static ImmutableList<DomContent> formatTextWithAriaLabel(
       String text, boolean preserveEmptyLines, boolean addRequiredIndicator, String ariaLabel) {
-    CIVIFORM_MARKDOWN.setAriaLabel(ariaLabel);
-    return formatText(text, preserveEmptyLines, addRequiredIndicator);
+    return ImmutableList.of(
+        rawHtml(
+            formatTextToSanitizedHTMLWithAriaLabel(
+                text, preserveEmptyLines, addRequiredIndicator, ariaLabel)));
   }
 
   /** Passes provided text through Markdown formatter. */
@@ -52,36 +86,61 @@ public final class TextFormatter {
    */
   public static String formatTextToSanitizedHTMLWithAriaLabel(
       String text, boolean preserveEmptyLines, boolean addRequiredIndicator, String ariaLabel) {
-    CIVIFORM_MARKDOWN.setAriaLabel(ariaLabel);
-    return formatTextToSanitizedHTML(text, preserveEmptyLines, addRequiredIndicator);
+    return formatWithCache(
+        new FormatKey(text, ariaLabel, preserveEmptyLines, addRequiredIndicator));
   }
 
   /** Passes provided text through Markdown formatter, generating an HTML String */
   public static String formatTextToSanitizedHTML(
       String text, boolean preserveEmptyLines, boolean addRequiredIndicator) {
-    if (text.isBlank()) {
+    return formatWithCache(
+        new FormatKey(text, DEFAULT_ARIA_LABEL, preserveEmptyLines, addRequiredIndicator));
+  }
+
+  /** Used for testing */
+  public static void resetAriaLabelToDefault() {
+    CIVIFORM_MARKDOWN.setAriaLabel(DEFAULT_ARIA_LABEL);
+  }
+
+  /** Clears the cached HTML. Used for testing. */
+  @VisibleForTesting
+  static void clearCache() {
+    FORMATTED_HTML_CACHE.invalidateAll();
+  }
+
+  private static String formatWithCache(FormatKey key) {
+    if (key.text().isBlank()) {
       return "";
     }
 
-    if (preserveEmptyLines) {
+    String html = FORMATTED_HTML_CACHE.getIfPresent(key);
+    if (html != null) {
+      FORMATTED_HTML_CACHE_REQUESTS.labels("hit").inc();
+      return html;
+    }
+    FORMATTED_HTML_CACHE_REQUESTS.labels("miss").inc();
+    // Two requests may format the same text at once, which is harmless since the HTML is the same.
+    html = format(key);
+    FORMATTED_HTML_CACHE.put(key, html);
+    return html;
+  }
+
+  private static String format(FormatKey key) {
+    String text = key.text();
+    if (key.preserveEmptyLines()) {
       text = preserveEmptyLines(text);
     }
 
-    String markdownText = CIVIFORM_MARKDOWN.render(text);
+    String markdownText = CIVIFORM_MARKDOWN.render(text, key.ariaLabel());
     markdownText = addIconToLinks(markdownText);
     markdownText = addTextSize(markdownText);
-    if (addRequiredIndicator) {
+    if (key.addRequiredIndicator()) {
       markdownText = addRequiredIndicator(markdownText);
     }
 
     return sanitizeHtml(markdownText);
   }
 
-  /** Used for testing */
-  public static void resetAriaLabelToDefault() {
-    CIVIFORM_MARKDOWN.setAriaLabel(DEFAULT_ARIA_LABEL);
-  }
-
   private static String preserveEmptyLines(String text) {
     String[] lines = Iterables.toArray(Splitter.on("\n").split(text), String.class);
     for (int i = 0; i < lines.length; i++) {
@@ -162,6 +221,10 @@ public final class TextFormatter {
   }
 
   public static String sanitizeHtml(String markdownText) {
+    return SANITIZER_POLICY.sanitize(markdownText, buildHtmlChangeListener(), /* context= */ null);
+  }
+
+  private static PolicyFactory buildSanitizerPolicy() {
     PolicyFactory customPolicy =
         new HtmlPolicyBuilder()
             .allowElements(
@@ -193,8 +256,7 @@ public final class TextFormatter {
             .globally()
             .toFactory();
 
-    PolicyFactory policy = customPolicy.and(Sanitizers.LINKS);
-    return policy.sanitize(markdownText, buildHtmlChangeListener(), /* context= */ null);
+    return customPolicy.and(Sanitizers.LINKS);
   }
 
   private static HtmlChangeListener<Object> buildHtmlChangeListener() {
@@ -0,0 +1,61 @@
+package benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import services.applicant.ApplicantData;
+
+/** Measures parsing applicant data as it's loaded from the database and serializing it back. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApplicantDataBenchmark {
+  @Param({"10", "50"})
+  public int blockCount;
+
+  private ApplicantData applicantData;
+  private JsonNode jsonNode;
+  private String jsonString;
+
+  @Setup
+  public void setUp() {
+    applicantData =
+        BenchmarkPrograms.halfAnsweredApplicantData(BenchmarkPrograms.program(blockCount));
+    jsonNode = applicantData.asJsonNode();
+    jsonString = applicantData.asJsonString();
+  }
+
+  @Benchmark
+  public ApplicantData parseJsonNode() {
+    return new ApplicantData(Optional.empty(), jsonNode, /* applicant= */ null);
+  }
+
+  @Benchmark
+  public ApplicantData parseJsonString() {
+    return new ApplicantData(Optional.empty(), jsonString, /* applicant= */ null);
+  }
+
+  @Benchmark
+  public JsonNode serializeJsonNode() {
+    return applicantData.asJsonNode();
+  }
+
+  @Benchmark
+  public String serializeJsonString() {
+    return applicantData.asJsonString();
+  }
+}
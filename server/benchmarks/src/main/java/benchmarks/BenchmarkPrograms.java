@@ -0,0 +1,143 @@
+package benchmarks;
+
+import com.google.common.collect.ImmutableList;
+import java.util.Locale;
+import java.util.Optional;
+import models.DisplayMode;
+import models.ProgramType;
+import services.LocalizedStrings;
+import services.Path;
+import services.applicant.ApplicantData;
+import services.applicant.question.Scalar;
+import services.program.BlockDefinition;
+import services.program.ProgramAcls;
+import services.program.ProgramDefinition;
+import services.program.ProgramQuestionDefinition;
+import services.program.predicate.LeafOperationExpressionNode;
+import services.program.predicate.Operator;
+import services.program.predicate.PredicateAction;
+import services.program.predicate.PredicateDefinition;
+import services.program.predicate.PredicateExpressionNode;
+import services.program.predicate.PredicateValue;
+import services.question.QuestionAnswerer;
+import services.question.types.NumberQuestionDefinition;
+import services.question.types.QuestionDefinition;
+import services.question.types.QuestionDefinitionConfig;
+import services.question.types.TextQuestionDefinition;
+
+/** Builds synthetic programs and applicant data in memory for the benchmarks. */
+final class BenchmarkPrograms {
+  static final long PROGRAM_ID = 1L;
+  static final long SHOWN_IF_GREATER_THAN = -1L;
+
+  private BenchmarkPrograms() {}
+
+  /**
+   * Returns a program with the given number of blocks, each asking one text question and one number
+   * question.
+   */
+  static ProgramDefinition program(int blockCount) {
+    return program(blockCount, /* withVisibilityPredicates= */ false);
+  }
+
+  /**
+   * Returns a program with the given number of blocks, each asking one text question and one number
+   * question. If {@code withVisibilityPredicates} is set, every block after the first is only shown
+   * if the number answered in the previous block is {@link #SHOWN_IF_GREATER_THAN} or more, so
+   * every block evaluates a predicate.
+   */
+  static ProgramDefinition program(int blockCount, boolean withVisibilityPredicates) {
+    ProgramDefinition.Builder builder =
+        ProgramDefinition.builder()
+            .setId(PROGRAM_ID)
+            .setAdminName("benchmark-program")
+            .setAdminDescription("Benchmark program")
+            .setLocalizedName(LocalizedStrings.of(Locale.US, "Benchmark program"))
+            .setLocalizedDescription(LocalizedStrings.of(Locale.US, "Benchmark program"))
+            .setExternalLink("")
+            .setDisplayMode(DisplayMode.PUBLIC)
+            .setProgramType(ProgramType.DEFAULT)
+            .setEligibilityIsGating(true)
+            .setAcls(new ProgramAcls())
+            .setCategories(ImmutableList.of());
+    for (int i = 1; i <= blockCount; i++) {
+      builder.addBlockDefinition(
+          BlockDefinition.builder()
+              .setId(i)
+              .setName("Screen " + i)
+              .setDescription("Screen " + i)
+              .setLocalizedName(LocalizedStrings.withDefaultValue("Screen " + i))
+              .setLocalizedDescription(LocalizedStrings.withDefaultValue("Screen " + i))
+              .setProgramQuestionDefinitions(
+                  ImmutableList.of(
+                      programQuestion(textQuestion(textQuestionId(i))),
+                      programQuestion(numberQuestion(numberQuestionId(i)))))
+              .setVisibilityPredicate(
+                  withVisibilityPredicates && i > 1
+                      ? Optional.of(
+                          PredicateDefinition.create(
+                              numberGreaterThan(numberQuestionId(i - 1), SHOWN_IF_GREATER_THAN),
+                              PredicateAction.SHOW_BLOCK))
+                      : Optional.empty())
+              .build());
+    }
+    return builder.build();
+  }
+
+  /** Returns applicant data answering the questions of every other block of the program. */
+  static ApplicantData halfAnsweredApplicantData(ProgramDefinition program) {
+    ApplicantData applicantData = new ApplicantData();
+    ImmutableList<BlockDefinition> blocks = program.blockDefinitions();
+    for (int i = 0; i < blocks.size(); i += 2) {
+      for (ProgramQuestionDefinition programQuestion : blocks.get(i).programQuestionDefinitions()) {
+        QuestionDefinition question = programQuestion.getQuestionDefinition();
+        Path path = question.getContextualizedPath(Optional.empty(), ApplicantData.APPLICANT_PATH);
+        if (question instanceof TextQuestionDefinition) {
+          QuestionAnswerer.answerTextQuestion(applicantData, path, "answer " + i);
+        } else {
+          QuestionAnswerer.answerNumberQuestion(applicantData, path, i);
+        }
+        QuestionAnswerer.addMetadata(applicantData, path, PROGRAM_ID, 0L);
+      }
+    }
+    return applicantData;
+  }
+
+  /** Returns the ID of the text question asked in the block with the given ID. */
+  static long textQuestionId(long blockId) {
+    return 2 * blockId;
+  }
+
+  /** Returns the ID of the number question asked in the block with the given ID. */
+  static long numberQuestionId(long blockId) {
+    return 2 * blockId + 1;
+  }
+
+  /** Returns a predicate that the number question with the given ID was answered above a value. */
+  static PredicateExpressionNode numberGreaterThan(long questionId, long value) {
+    return PredicateExpressionNode.create(
+        LeafOperationExpressionNode.create(
+            questionId, Scalar.NUMBER, Operator.GREATER_THAN, PredicateValue.of(value)));
+  }
+
+  private static ProgramQuestionDefinition programQuestion(QuestionDefinition question) {
+    return ProgramQuestionDefinition.create(question, Optional.of(PROGRAM_ID));
+  }
+
+  private static QuestionDefinition textQuestion(long id) {
+    return new TextQuestionDefinition(config(id, "text question " + id));
+  }
+
+  private static QuestionDefinition numberQuestion(long id) {
+    return new NumberQuestionDefinition(config(id, "number question " + id));
+  }
+
+  private static QuestionDefinitionConfig config(long id, String name) {
+    return QuestionDefinitionConfig.builder()
+        .setName(name)
+        .setDescription(name)
+        .setQuestionText(LocalizedStrings.of(Locale.US, name))
+        .setId(id)
+        .build();
+  }
+}
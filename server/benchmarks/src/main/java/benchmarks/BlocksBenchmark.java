@@ -0,0 +1,64 @@
+package benchmarks;
+
+import com.google.common.collect.ImmutableList;
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import services.DateConverter;
+import services.applicant.ApplicantData;
+import services.applicant.Block;
+import services.applicant.ReadOnlyApplicantProgramServiceImpl;
+import services.applicant.predicate.JsonPathPredicateGeneratorFactory;
+import services.program.ProgramDefinition;
+
+/**
+ * Measures building the blocks of a large program for an applicant, where every block has a
+ * visibility predicate. A new service is created for each call since it memoizes its blocks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BlocksBenchmark {
+  @Param({"50", "200"})
+  public int blockCount;
+
+  private JsonPathPredicateGeneratorFactory predicateGeneratorFactory;
+  private ProgramDefinition program;
+  private ApplicantData applicantData;
+
+  @Setup
+  public void setUp() {
+    predicateGeneratorFactory =
+        new JsonPathPredicateGeneratorFactory(new DateConverter(Clock.systemUTC()));
+    program = BenchmarkPrograms.program(blockCount, /* withVisibilityPredicates= */ true);
+    applicantData = BenchmarkPrograms.halfAnsweredApplicantData(program);
+  }
+
+  @Benchmark
+  public ImmutableList<Block> getAllActiveBlocks() {
+    return newService().getAllActiveBlocks();
+  }
+
+  @Benchmark
+  public ImmutableList<Block> getInProgressBlocks() {
+    return newService().getInProgressBlocks();
+  }
+
+  private ReadOnlyApplicantProgramServiceImpl newService() {
+    return new ReadOnlyApplicantProgramServiceImpl(
+        predicateGeneratorFactory, applicantData, program, "http://localhost");
+  }
+}
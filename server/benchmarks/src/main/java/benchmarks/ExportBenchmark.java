@@ -0,0 +1,185 @@
+package benchmarks;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.typesafe.config.ConfigFactory;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import models.AccountModel;
+import models.ApplicantModel;
+import models.ApplicationModel;
+import models.LifecycleStage;
+import models.ProgramModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import services.DateConverter;
+import services.PaginationResult;
+import services.applicant.AnswerData;
+import services.applicant.ApplicantData;
+import services.applicant.ApplicantService;
+import services.applicant.ReadOnlyApplicantProgramService;
+import services.applicant.ReadOnlyApplicantProgramServiceImpl;
+import services.applicant.predicate.JsonPathPredicateGeneratorFactory;
+import services.export.CsvExporter;
+import services.export.JsonExporterService;
+import services.program.Column;
+import services.program.ColumnType;
+import services.program.ProgramDefinition;
+import services.program.ProgramService;
+import services.settings.SettingsManifest;
+
+/**
+ * Measures exporting applications as CSV and JSON.
+ *
+ * <p>The services that load programs and applications from the database are replaced by mocks
+ * returning the synthetic program, so only the export itself is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExportBenchmark {
+  private static final String BASE_URL = "http://localhost";
+
+  @Param({"10", "50"})
+  public int blockCount;
+
+  @Param({"100"})
+  public int pageSize;
+
+  private DateConverter dateConverter;
+  private JsonPathPredicateGeneratorFactory predicateGeneratorFactory;
+  private ProgramDefinition program;
+  private ApplicationModel application;
+  private ImmutableList<Column> csvColumns;
+  private PaginationResult<ApplicationModel> page;
+  private JsonExporterService jsonExporterService;
+
+  @Setup
+  public void setUp() {
+    dateConverter = new DateConverter(Clock.systemUTC());
+    predicateGeneratorFactory = new JsonPathPredicateGeneratorFactory(dateConverter);
+    program = BenchmarkPrograms.program(blockCount);
+    ApplicantData applicantData = BenchmarkPrograms.halfAnsweredApplicantData(program);
+
+    ProgramModel programModel = new ProgramModel(program);
+    ImmutableList.Builder<ApplicationModel> applications = ImmutableList.builder();
+    for (long id = 1; id <= pageSize; id++) {
+      applications.add(newApplication(id, programModel, applicantData));
+    }
+    page = new PaginationResult<>(/* hasNext= */ false, /* numPages= */ 1, applications.build());
+    application = page.getPageContents().get(0);
+    csvColumns = csvColumns(newService(applicantData));
+
+    ProgramService programService = mock(ProgramService.class);
+    when(programService.getAllVersionsFullProgramDefinition(BenchmarkPrograms.PROGRAM_ID))
+        .thenReturn(ImmutableList.of(program));
+    ApplicantService applicantService = mock(ApplicantService.class);
+    when(applicantService.getReadOnlyApplicantProgramService(
+            any(ApplicantData.class), any(ProgramDefinition.class)))
+        .thenAnswer(invocation -> newService(invocation.getArgument(0)));
+    when(applicantService.getReadOnlyApplicantProgramService(
+            any(ApplicationModel.class), any(ProgramDefinition.class)))
+        .thenAnswer(
+            invocation ->
+                newService(invocation.<ApplicationModel>getArgument(0).getApplicantData()));
+    Injector injector =
+        Guice.createInjector(
+            binder -> {
+              binder.bind(ProgramService.class).toInstance(programService);
+              binder.bind(ApplicantService.class).toInstance(applicantService);
+              binder.bind(DateConverter.class).toInstance(dateConverter);
+              binder
+                  .bind(SettingsManifest.class)
+                  .toInstance(new SettingsManifest(ConfigFactory.empty()));
+            });
+    jsonExporterService = injector.getInstance(JsonExporterService.class);
+  }
+
+  @Benchmark
+  public String csvExportRecord() throws IOException {
+    StringWriter writer = new StringWriter();
+    try (CsvExporter exporter = new CsvExporter(csvColumns, "", writer, dateConverter)) {
+      exporter.exportRecord(
+          application,
+          newService(application.getApplicantData()),
+          /* optionalEligibilityStatus= */ Optional.empty(),
+          program);
+    }
+    return writer.toString();
+  }
+
+  @Benchmark
+  public String jsonExportPage() {
+    return jsonExporterService.exportPage(program, page, /* multipleFileUploadEnabled= */ false);
+  }
+
+  private ReadOnlyApplicantProgramService newService(ApplicantData applicantData) {
+    return new ReadOnlyApplicantProgramServiceImpl(
+        predicateGeneratorFactory, applicantData, program, BASE_URL);
+  }
+
+  private static ApplicationModel newApplication(
+      long id, ProgramModel programModel, ApplicantData applicantData) {
+    ApplicantModel applicant = new ApplicantModel().setAccount(new AccountModel());
+    applicant.id = id;
+    ApplicationModel application =
+        new ApplicationModel(applicant, programModel, LifecycleStage.ACTIVE)
+            .setApplicantData(applicantData)
+            .setCreateTimeForTest(Instant.EPOCH)
+            .setSubmitTimeForTest(Instant.EPOCH);
+    application.id = id;
+    return application;
+  }
+
+  /** Returns the metadata columns and a column for every scalar of the program's questions. */
+  private static ImmutableList<Column> csvColumns(ReadOnlyApplicantProgramService service) {
+    ImmutableList.Builder<Column> columns = ImmutableList.builder();
+    for (ColumnType columnType :
+        ImmutableList.of(
+            ColumnType.APPLICANT_ID,
+            ColumnType.APPLICATION_ID,
+            ColumnType.LANGUAGE,
+            ColumnType.SUBMIT_TIME,
+            ColumnType.SUBMITTER_TYPE,
+            ColumnType.TI_EMAIL,
+            ColumnType.TI_ORGANIZATION,
+            ColumnType.STATUS_TEXT)) {
+      columns.add(Column.builder().setHeader(columnType.name()).setColumnType(columnType).build());
+    }
+    for (AnswerData answerData : service.getSummaryDataAllQuestions()) {
+      answerData
+          .scalarAnswersInDefaultLocale()
+          .keySet()
+          .forEach(
+              path ->
+                  columns.add(
+                      Column.builder()
+                          .setHeader(path.toString())
+                          .setJsonPath(path)
+                          .setColumnType(ColumnType.APPLICANT_ANSWER)
+                          .build()));
+    }
+    return columns.build();
+  }
+}
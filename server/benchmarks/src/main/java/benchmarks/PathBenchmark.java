@@ -0,0 +1,40 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import services.Path;
+import services.applicant.question.Scalar;
+
+/** Measures creating and joining {@link Path}s, which happens for every question of every page. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PathBenchmark {
+  private final Path questionPath = Path.create("applicant.household_members[3].member_name");
+
+  @Benchmark
+  public Path create() {
+    return Path.create("applicant.household_members[3].member_name.first_name");
+  }
+
+  @Benchmark
+  public Path joinString() {
+    return questionPath.join("first_name");
+  }
+
+  @Benchmark
+  public Path joinScalar() {
+    return questionPath.join(Scalar.FIRST_NAME);
+  }
+}
@@ -0,0 +1,84 @@
+package benchmarks;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.PathNotFoundException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import services.Path;
+import services.applicant.ApplicantData;
+import services.applicant.question.Scalar;
+import services.program.ProgramDefinition;
+import services.question.types.QuestionDefinition;
+
+/**
+ * Compares checking whether applicant data has a path with {@link ApplicantData#hasPath} against
+ * the previous approach of evaluating the path as a JsonPath string and catching the exception
+ * thrown for a missing path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PathLookupBenchmark {
+  private ApplicantData applicantData;
+  private Path presentPath;
+  private Path missingPath;
+
+  @Setup
+  public void setUp() {
+    ProgramDefinition program = BenchmarkPrograms.program(2);
+    applicantData = BenchmarkPrograms.halfAnsweredApplicantData(program);
+    presentPath = textPath(program, 0);
+    missingPath = textPath(program, 1);
+  }
+
+  @Benchmark
+  public boolean hasPath_present() {
+    return applicantData.hasPath(presentPath);
+  }
+
+  @Benchmark
+  public boolean hasPath_missing() {
+    return applicantData.hasPath(missingPath);
+  }
+
+  @Benchmark
+  public boolean jsonPathString_present() {
+    return readAsJsonPathString(presentPath);
+  }
+
+  @Benchmark
+  public boolean jsonPathString_missing() {
+    return readAsJsonPathString(missingPath);
+  }
+
+  private boolean readAsJsonPathString(Path path) {
+    DocumentContext documentContext = applicantData.getDocumentContext();
+    try {
+      documentContext.read(path.toString());
+    } catch (PathNotFoundException e) {
+      return false;
+    }
+    return true;
+  }
+
+  private static Path textPath(ProgramDefinition program, int blockIndex) {
+    QuestionDefinition question =
+        program.blockDefinitions().get(blockIndex).getQuestionDefinition(0);
+    return question
+        .getContextualizedPath(/* repeatedEntity= */ Optional.empty(), ApplicantData.APPLICANT_PATH)
+        .join(Scalar.TEXT);
+  }
+}
@@ -0,0 +1,116 @@
+package benchmarks;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.time.Clock;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import services.DateConverter;
+import services.applicant.ApplicantData;
+import services.applicant.predicate.CompiledPredicate;
+import services.applicant.predicate.JsonPathPredicateGeneratorFactory;
+import services.applicant.predicate.PredicateEvaluator;
+import services.program.ProgramDefinition;
+import services.program.predicate.AndNode;
+import services.program.predicate.OrNode;
+import services.program.predicate.PredicateExpressionNode;
+import services.question.types.QuestionDefinition;
+
+/** Measures evaluating visibility and eligibility predicates against applicant data. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PredicateEvaluatorBenchmark {
+  private final DateConverter dateConverter = new DateConverter(Clock.systemUTC());
+  private ApplicantData applicantData;
+  private PredicateEvaluator evaluator;
+  private PredicateExpressionNode answeredLeaf;
+  private PredicateExpressionNode unansweredLeaf;
+  private PredicateExpressionNode compound;
+  private CompiledPredicate compiledAnsweredLeaf;
+  private CompiledPredicate compiledUnansweredLeaf;
+  private CompiledPredicate compiledCompound;
+
+  @Setup
+  public void setUp() {
+    ProgramDefinition program = BenchmarkPrograms.program(20);
+    applicantData = BenchmarkPrograms.halfAnsweredApplicantData(program);
+    evaluator =
+        new PredicateEvaluator(
+            applicantData,
+            new JsonPathPredicateGeneratorFactory(dateConverter)
+                .create(
+                    program.streamQuestionDefinitions().collect(ImmutableList.toImmutableList()),
+                    Optional.empty()));
+
+    // Every other block, starting with the first, is answered.
+    answeredLeaf = BenchmarkPrograms.numberGreaterThan(BenchmarkPrograms.numberQuestionId(1), -1);
+    unansweredLeaf = BenchmarkPrograms.numberGreaterThan(BenchmarkPrograms.numberQuestionId(2), -1);
+    ImmutableList.Builder<PredicateExpressionNode> orChildren = ImmutableList.builder();
+    for (int blockId = 1; blockId <= 20; blockId++) {
+      orChildren.add(
+          PredicateExpressionNode.create(
+              AndNode.create(
+                  ImmutableList.of(
+                      BenchmarkPrograms.numberGreaterThan(
+                          BenchmarkPrograms.numberQuestionId(blockId), -1),
+                      BenchmarkPrograms.numberGreaterThan(
+                          BenchmarkPrograms.numberQuestionId(blockId), 1_000_000)))));
+    }
+    compound = PredicateExpressionNode.create(OrNode.create(orChildren.build()));
+
+    ImmutableMap<Long, QuestionDefinition> questionsById =
+        program
+            .streamQuestionDefinitions()
+            .collect(toImmutableMap(QuestionDefinition::getId, q -> q));
+    compiledAnsweredLeaf = CompiledPredicate.compile(answeredLeaf, questionsById);
+    compiledUnansweredLeaf = CompiledPredicate.compile(unansweredLeaf, questionsById);
+    compiledCompound = CompiledPredicate.compile(compound, questionsById);
+  }
+
+  @Benchmark
+  public boolean evaluate_answeredLeaf() {
+    return evaluator.evaluate(answeredLeaf);
+  }
+
+  @Benchmark
+  public boolean evaluate_unansweredLeaf() {
+    return evaluator.evaluate(unansweredLeaf);
+  }
+
+  /** An OR of 20 ANDs that are all false, so every leaf is evaluated. */
+  @Benchmark
+  public boolean evaluate_compound() {
+    return evaluator.evaluate(compound);
+  }
+
+  @Benchmark
+  public boolean evaluateCompiled_answeredLeaf() {
+    return compiledAnsweredLeaf.evaluate(applicantData, Optional.empty(), dateConverter);
+  }
+
+  @Benchmark
+  public boolean evaluateCompiled_unansweredLeaf() {
+    return compiledUnansweredLeaf.evaluate(applicantData, Optional.empty(), dateConverter);
+  }
+
+  @Benchmark
+  public boolean evaluateCompiled_compound() {
+    return compiledCompound.evaluate(applicantData, Optional.empty(), dateConverter);
+  }
+}
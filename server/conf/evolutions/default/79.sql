@@ -0,0 +1,9 @@
+# --- Generation numbers for the cache invalidation notifications sent between servers.
+
+# --- !Ups
+
+create sequence if not exists cache_invalidation_generation_seq;
+
+# --- !Downs
+
+drop sequence if exists cache_invalidation_generation_seq;
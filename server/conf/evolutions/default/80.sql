@@ -0,0 +1,32 @@
+# --- Add a trigram indexed search column for the admin application list.
+
+# --- !Ups
+ALTER TABLE applications ADD COLUMN IF NOT EXISTS applicant_search_text varchar;
+
+-- Mirrors ApplicationModel#updateApplicantSearchText for applications submitted before this
+-- column existed. Drafts are skipped since they are set when next saved and never searched.
+UPDATE applications app
+SET applicant_search_text = NULLIF(lower(concat_ws(E'\n',
+  applicant.first_name || ' ' || applicant.last_name,
+  applicant.last_name || ' ' || applicant.first_name,
+  applicant.last_name || ', ' || applicant.first_name,
+  ((app.object #>> '{}')::jsonb -> 'applicant' -> 'name' ->> 'first_name') || ' ' ||
+    ((app.object #>> '{}')::jsonb -> 'applicant' -> 'name' ->> 'last_name'),
+  ((app.object #>> '{}')::jsonb -> 'applicant' -> 'name' ->> 'last_name') || ' ' ||
+    ((app.object #>> '{}')::jsonb -> 'applicant' -> 'name' ->> 'first_name'),
+  ((app.object #>> '{}')::jsonb -> 'applicant' -> 'name' ->> 'last_name') || ', ' ||
+    ((app.object #>> '{}')::jsonb -> 'applicant' -> 'name' ->> 'first_name'),
+  applicant.email_address,
+  account.email_address,
+  app.submitter_email)), '')
+FROM applicants applicant
+LEFT JOIN accounts account ON account.id = applicant.account_id
+WHERE app.applicant_id = applicant.id
+  AND app.lifecycle_stage <> 'draft';
+
+CREATE INDEX IF NOT EXISTS index_applications_applicant_search_text
+  ON applications USING gin (applicant_search_text gin_trgm_ops);
+
+# --- !Downs
+DROP INDEX IF EXISTS index_applications_applicant_search_text;
+ALTER TABLE applications DROP COLUMN IF EXISTS applicant_search_text;
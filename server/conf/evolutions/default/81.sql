@@ -0,0 +1,13 @@
+# --- Track applicant data that still needs converting from a JSON string to a jsonb document.
+
+# --- !Ups
+-- ConvertApplicantDataToJsonbJob finds the rows to convert with these, and they shrink to nothing
+-- as it converts them.
+CREATE INDEX IF NOT EXISTS index_applicants_string_object
+  ON applicants (id) WHERE jsonb_typeof(object) = 'string';
+CREATE INDEX IF NOT EXISTS index_applications_string_object
+  ON applications (id) WHERE jsonb_typeof(object) = 'string';
+
+# --- !Downs
+DROP INDEX IF EXISTS index_applicants_string_object;
+DROP INDEX IF EXISTS index_applications_string_object;
@@ -0,0 +1,13 @@
+# --- Keep Esri address suggestions and service area results, shared by all servers.
+
+# --- !Ups
+CREATE TABLE IF NOT EXISTS esri_results (
+  cache_key varchar PRIMARY KEY,
+  result jsonb NOT NULL,
+  expires_at timestamp NOT NULL
+);
+CREATE INDEX IF NOT EXISTS index_esri_results_expires_at ON esri_results (expires_at);
+
+# --- !Downs
+DROP INDEX IF EXISTS index_esri_results_expires_at;
+DROP TABLE IF EXISTS esri_results;
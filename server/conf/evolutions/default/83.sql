@@ -0,0 +1,12 @@
+# --- Index the accounts managed by a TI group and the applicants of an account.
+
+# --- !Ups
+-- AccountRepository#searchManagedAccounts finds a TI group's clients with the first, and each
+-- client's newest applicant with the second.
+CREATE INDEX IF NOT EXISTS index_accounts_managed_by_group_id ON accounts (managed_by_group_id);
+CREATE INDEX IF NOT EXISTS index_applicants_account_id_when_created
+  ON applicants (account_id, when_created DESC);
+
+# --- !Downs
+DROP INDEX IF EXISTS index_accounts_managed_by_group_id;
+DROP INDEX IF EXISTS index_applicants_account_id_when_created;
@@ -0,0 +1,65 @@
+# --- Count submissions into daily rollups instead of refreshing a monthly materialized view.
+
+# --- !Ups
+CREATE TABLE IF NOT EXISTS application_submission_rollups (
+  program_name varchar NOT NULL,
+  submit_day date NOT NULL,
+  duration_buckets jsonb NOT NULL,
+  PRIMARY KEY (program_name, submit_day)
+);
+
+-- Buckets match SubmissionDurationSketch, whose GAMMA is (1 + 0.01) / (1 - 0.01).
+INSERT INTO application_submission_rollups (program_name, submit_day, duration_buckets)
+SELECT program_name, submit_day, jsonb_object_agg(bucket, submissions)
+FROM (
+  SELECT
+    programs.name AS program_name,
+    CAST(applications.submit_time AS date) AS submit_day,
+    CASE WHEN EXTRACT(EPOCH FROM applications.submission_duration) > 1
+      THEN CAST(CEIL(
+        LN(CAST(EXTRACT(EPOCH FROM applications.submission_duration) AS double precision))
+        / LN((1 + 0.01) / (1 - 0.01))) AS int)
+      ELSE 0 END AS bucket,
+    count(*) AS submissions
+  FROM applications
+  INNER JOIN programs ON applications.program_id = programs.id
+  WHERE applications.lifecycle_stage IN ('active', 'obsolete')
+    AND applications.submit_time IS NOT NULL
+  GROUP BY program_name, submit_day, bucket) AS buckets
+GROUP BY program_name, submit_day
+ON CONFLICT DO NOTHING;
+
+DROP MATERIALIZED VIEW IF EXISTS monthly_submissions_reporting_view;
+
+# --- !Downs
+CREATE MATERIALIZED VIEW IF NOT EXISTS monthly_submissions_reporting_view AS
+  SELECT
+  programs.name AS program_name,
+  active_program.en_us_localized_name AS en_us_localized_name,
+  date_trunc('month', applications.submit_time) AS submit_month,
+  count(*),
+  percentile_cont(0.25) WITHIN GROUP (
+  ORDER BY applications.submission_duration) AS p25,
+  percentile_cont(0.5) WITHIN GROUP (
+  ORDER BY applications.submission_duration) AS p50,
+  percentile_cont(0.75) WITHIN GROUP (
+  ORDER BY applications.submission_duration) AS p75,
+  percentile_cont(0.99) WITHIN GROUP (
+  ORDER BY applications.submission_duration) AS p99
+  FROM applications
+  INNER JOIN programs ON applications.program_id = programs.id
+  INNER JOIN
+  (SELECT
+    p.name,
+    ((p.localized_name #>> '{}')::jsonb #>> '{translations,en_US}') AS en_us_localized_name
+    FROM programs p
+    INNER JOIN versions_programs vp ON
+    vp.programs_id = p.id
+    INNER JOIN versions v ON
+    vp.versions_id = v.id WHERE v.lifecycle_stage IN ('active')) AS active_program
+  ON active_program.name = programs.name
+WHERE applications.lifecycle_stage IN ('active', 'obsolete')
+GROUP BY programs.name, active_program.en_us_localized_name, DATE_TRUNC('month', applications.submit_time)
+ORDER BY programs.name,active_program.en_us_localized_name, DATE_TRUNC('month', applications.submit_time) DESC;
+
+DROP TABLE IF EXISTS application_submission_rollups;
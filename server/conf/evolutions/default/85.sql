@@ -0,0 +1,7 @@
+# --- Lease durable jobs to the runner running them, so each runs in its own short transactions.
+
+# --- !Ups
+ALTER TABLE persisted_durable_jobs ADD COLUMN IF NOT EXISTS lease_expiration_time timestamp;
+
+# --- !Downs
+ALTER TABLE persisted_durable_jobs DROP COLUMN IF EXISTS lease_expiration_time;
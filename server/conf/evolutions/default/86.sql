@@ -0,0 +1,9 @@
+# --- Record where chunked durable jobs got to, so they resume from there when they run again.
+
+# --- !Ups
+ALTER TABLE persisted_durable_jobs ADD COLUMN IF NOT EXISTS batch_step varchar;
+ALTER TABLE persisted_durable_jobs ADD COLUMN IF NOT EXISTS batch_last_id bigint;
+
+# --- !Downs
+ALTER TABLE persisted_durable_jobs DROP COLUMN IF EXISTS batch_last_id;
+ALTER TABLE persisted_durable_jobs DROP COLUMN IF EXISTS batch_step;
@@ -0,0 +1,22 @@
+# --- Queue notification emails in the transaction that causes them, to be sent in the background.
+
+# --- !Ups
+CREATE TABLE IF NOT EXISTS email_outbox (
+  id bigserial PRIMARY KEY,
+  to_addresses varchar[] NOT NULL,
+  subject varchar NOT NULL,
+  body text NOT NULL,
+  create_time timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  attempts int NOT NULL DEFAULT 0,
+  next_attempt_time timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  lease_expiration_time timestamp,
+  last_error varchar,
+  failed_time timestamp
+);
+
+CREATE INDEX IF NOT EXISTS index_email_outbox_pending
+  ON email_outbox (next_attempt_time) WHERE failed_time IS NULL;
+
+# --- !Downs
+DROP INDEX IF EXISTS index_email_outbox_pending;
+DROP TABLE IF EXISTS email_outbox;
@@ -6,6 +6,8 @@ import static support.FakeRequestBuilder.fakeRequest;
 import static support.FakeRequestBuilder.fakeRequestBuilder;
 
 import com.google.common.collect.ImmutableList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 import models.AccountModel;
 import models.ApplicantModel;
 import org.junit.Before;
@@ -24,6 +26,43 @@ public class CiviFormProfileTest extends ResetPostgres {
     profileFactory = instanceOf(ProfileFactory.class);
   }
 
+  @Test
+  public void getAccount_withRequestAccount_looksUpTheAccountOnce() {
+    AccountModel account = resourceCreator.insertAccount();
+    CiviFormProfile first = profileFactory.wrap(account);
+    CiviFormProfile second = profileFactory.wrap(account);
+    CiviFormProfile lookupProfile = profileFactory.wrap(account);
+    AtomicInteger lookups = new AtomicInteger();
+    RequestAccount requestAccount =
+        new RequestAccount(
+            first.getId(),
+            () -> {
+              lookups.incrementAndGet();
+              return lookupProfile.getAccount();
+            });
+    first.useRequestAccount(requestAccount);
+    second.useRequestAccount(requestAccount);
+
+    CompletableFuture<AccountModel> filterAccount = requestAccount.getAccount();
+    CompletableFuture<AccountModel> firstAccount = first.getAccount();
+
+    assertThat(firstAccount).isSameAs(filterAccount);
+    assertThat(first.getAccount()).isSameAs(filterAccount);
+    assertThat(second.getAccount()).isSameAs(filterAccount);
+    assertThat(firstAccount.join().id).isEqualTo(account.id);
+    assertThat(lookups.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void useRequestAccount_otherAccount_throws() {
+    CiviFormProfile profile = profileFactory.wrap(resourceCreator.insertAccount());
+    RequestAccount otherRequestAccount =
+        profileFactory.wrap(resourceCreator.insertAccount()).newRequestAccount();
+
+    assertThatThrownBy(() -> profile.useRequestAccount(otherRequestAccount))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
   @Test
   public void checkAuthorization_admin_failsForApplicantId() {
     CiviFormProfileData data = profileFactory.createNewAdmin();
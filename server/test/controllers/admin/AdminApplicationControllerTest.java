@@ -2,8 +2,11 @@ package controllers.admin;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 import static play.mvc.Http.Status.BAD_REQUEST;
+import static play.mvc.Http.Status.NOT_FOUND;
 import static play.mvc.Http.Status.OK;
 import static play.mvc.Http.Status.SEE_OTHER;
 import static play.mvc.Http.Status.UNAUTHORIZED;
@@ -416,6 +419,59 @@ public class AdminApplicationControllerTest extends ResetPostgres {
     assertThat(gotEvent.getCreateTime()).isAfter(start);
   }
 
+  @Test
+  public void updateStatuses_bulkStatusUpdateDisabled_notFound() throws Exception {
+    controller = makeNoOpProfileController(Optional.of(resourceCreator.insertAccount()));
+    ProgramModel program = ProgramBuilder.newActiveProgram("test name", "test description").build();
+
+    Result result = controller.updateStatuses(fakeRequest(), program.id);
+
+    assertThat(result.status()).isEqualTo(NOT_FOUND);
+  }
+
+  @Test
+  public void updateStatuses_succeeds() throws Exception {
+    AccountModel adminAccount = resourceCreator.insertAccount();
+    controller = makeNoOpProfileController(Optional.of(adminAccount));
+    when(settingsManifestMock.getBulkStatusUpdateEnabled(any())).thenReturn(true);
+    ProgramModel program = ProgramBuilder.newActiveProgram("test name", "test description").build();
+    repo.createOrUpdateStatusDefinitions(
+        program.getProgramDefinition().adminName(), new StatusDefinitions(ORIGINAL_STATUSES));
+    ApplicationModel first =
+        ApplicationModel.create(
+                resourceCreator.insertApplicantWithAccount(), program, LifecycleStage.ACTIVE)
+            .setSubmitTimeToNow();
+    ApplicationModel second =
+        ApplicationModel.create(
+                resourceCreator.insertApplicantWithAccount(), program, LifecycleStage.ACTIVE)
+            .setSubmitTimeToNow();
+
+    Request request =
+        fakeRequestBuilder()
+            .bodyForm(
+                Map.of(
+                    "redirectUri",
+                    "/",
+                    "applicationIds[0]",
+                    String.valueOf(first.id),
+                    "applicationIds[1]",
+                    String.valueOf(second.id),
+                    "newStatus",
+                    REJECTED_STATUS.statusText()))
+            .build();
+
+    Result result = controller.updateStatuses(request, program.id);
+
+    assertThat(result.status()).isEqualTo(SEE_OTHER);
+    assertThat(result.flash().get(FlashKey.SUCCESS)).contains("Status updated on 2 applications");
+    for (ApplicationModel application : ImmutableList.of(first, second)) {
+      application.refresh();
+      assertThat(application.getLatestStatus()).contains(REJECTED_STATUS.statusText());
+      assertThat(application.getApplicationEvents().get(0).getCreator())
+          .isEqualTo(Optional.of(adminAccount));
+    }
+  }
+
   @Test
   public void updateStatus_emptySendEmail_succeeds() throws Exception {
     // Setup
@@ -38,7 +38,10 @@ public class MetricsControllerTest extends WithMockedProfiles {
                 .build());
     MetricsController controllerWithMetricsEnabled =
         new MetricsController(
-            config, instanceOf(ProfileUtils.class), instanceOf(VersionRepository.class));
+            config,
+            instanceOf(ProfileUtils.class),
+            instanceOf(VersionRepository.class),
+            instanceOf(CacheMetrics.class));
 
     ProgramDefinition programDefinition =
         ProgramBuilder.newActiveProgram("test program", "desc").buildDefinition();
@@ -65,6 +68,10 @@ public class MetricsControllerTest extends WithMockedProfiles {
     assertThat(metricsContent).contains(getEbeanCountName("VersionModel.byId"));
     assertThat(metricsContent).contains("location=\"VersionRepository.getActiveVersion");
     assertThat(metricsContent).contains("className=\"models.VersionModel");
+    assertThat(metricsContent).contains("ebean_query_mean_latency_seconds{");
+    assertThat(metricsContent).contains("ebean_query_max_latency_seconds{");
+    assertThat(metricsContent).contains("cache_requests_total{cache=\"accounts\",result=\"hit\",}");
+    assertThat(metricsContent).contains("cache_estimated_size{cache=\"accounts\",}");
   }
 
   @Test
@@ -76,7 +83,10 @@ public class MetricsControllerTest extends WithMockedProfiles {
                 .build());
     MetricsController controllerWithoutMetricsEnabled =
         new MetricsController(
-            config, instanceOf(ProfileUtils.class), instanceOf(VersionRepository.class));
+            config,
+            instanceOf(ProfileUtils.class),
+            instanceOf(VersionRepository.class),
+            instanceOf(CacheMetrics.class));
     assertThat(controllerWithoutMetricsEnabled.getMetrics().status()).isEqualTo(404);
   }
 
@@ -0,0 +1,145 @@
+package durablejobs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import io.ebean.DB;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import models.ApplicantModel;
+import models.JobType;
+import models.PersistedDurableJobModel;
+import org.junit.Before;
+import org.junit.Test;
+import repository.ResetPostgres;
+
+public class BatchDurableJobTest extends ResetPostgres {
+
+  private static final BatchSettings CHUNKS_OF_TWO =
+      new BatchSettings(/* chunkSize= */ 2, Duration.ZERO, Duration.ofMinutes(1));
+
+  private PersistedDurableJobModel persistedJob;
+  private ImmutableList<Long> applicantIds;
+  private List<Long> processedIds;
+
+  @Before
+  public void setUp() {
+    persistedJob = new PersistedDurableJobModel("fake-job", JobType.RUN_ONCE, Instant.now());
+    persistedJob.save();
+    applicantIds =
+        ImmutableList.of(
+            resourceCreator.insertApplicant().id,
+            resourceCreator.insertApplicant().id,
+            resourceCreator.insertApplicant().id,
+            resourceCreator.insertApplicant().id,
+            resourceCreator.insertApplicant().id);
+    processedIds = new ArrayList<>();
+  }
+
+  @Test
+  public void run_processesEveryRowInOrderAndClearsTheCheckpoint() {
+    FakeBatchJob job = new FakeBatchJob(persistedJob, CHUNKS_OF_TWO, testClock, Optional.empty());
+
+    job.run();
+
+    assertThat(processedIds).containsExactlyElementsOf(applicantIds);
+    assertThat(job.hasMoreWork()).isFalse();
+    persistedJob.refresh();
+    assertThat(persistedJob.getBatchStep()).isEmpty();
+    assertThat(persistedJob.getBatchLastId()).isEmpty();
+  }
+
+  @Test
+  public void run_resumesAfterTheCheckpoint() {
+    DB.getDefault()
+        .sqlUpdate(
+            "UPDATE persisted_durable_jobs SET batch_step = 'applicants', batch_last_id = :last_id"
+                + " WHERE id = :id")
+        .setParameter("last_id", applicantIds.get(2))
+        .setParameter("id", persistedJob.id)
+        .execute();
+    persistedJob.refresh();
+
+    new FakeBatchJob(persistedJob, CHUNKS_OF_TWO, testClock, Optional.empty()).run();
+
+    assertThat(processedIds).containsExactly(applicantIds.get(3), applicantIds.get(4));
+  }
+
+  @Test
+  public void run_failedRow_rollsBackItsChunkAndKeepsTheLastCheckpoint() {
+    FakeBatchJob job =
+        new FakeBatchJob(persistedJob, CHUNKS_OF_TWO, testClock, Optional.of(applicantIds.get(3)));
+
+    assertThatThrownBy(job::run).isInstanceOf(IllegalStateException.class);
+
+    persistedJob.refresh();
+    assertThat(persistedJob.getBatchStep()).contains("applicants");
+    assertThat(persistedJob.getBatchLastId()).contains(applicantIds.get(1));
+  }
+
+  @Test
+  public void run_pastMaxRunTime_stopsWithMoreWork() {
+    FakeBatchJob job =
+        new FakeBatchJob(
+            persistedJob,
+            new BatchSettings(/* chunkSize= */ 2, Duration.ZERO, Duration.ZERO),
+            testClock,
+            Optional.empty());
+
+    job.run();
+
+    assertThat(processedIds).isEmpty();
+    assertThat(job.hasMoreWork()).isTrue();
+  }
+
+  @Test
+  public void run_clockPassesMaxRunTime_stopsAtTheLastCheckpoint() {
+    Instant start = Instant.parse("2021-01-15T00:00:00.00Z");
+    Clock clock = mock(Clock.class);
+    // The stop time is read at the start of the run, then the clock is checked before each chunk.
+    when(clock.instant()).thenReturn(start, start, start, start.plus(Duration.ofMinutes(2)));
+    FakeBatchJob job = new FakeBatchJob(persistedJob, CHUNKS_OF_TWO, clock, Optional.empty());
+
+    job.run();
+
+    assertThat(processedIds).containsExactlyElementsOf(applicantIds.subList(0, 4));
+    assertThat(job.hasMoreWork()).isTrue();
+    persistedJob.refresh();
+    assertThat(persistedJob.getBatchLastId()).contains(applicantIds.get(3));
+  }
+
+  /** Records the applicants it processes, and fails on {@code failingId} if it's present. */
+  private final class FakeBatchJob extends BatchDurableJob {
+    private final Optional<Long> failingId;
+
+    FakeBatchJob(
+        PersistedDurableJobModel persistedJob,
+        BatchSettings settings,
+        Clock clock,
+        Optional<Long> failingId) {
+      super(persistedJob, settings, clock);
+      this.failingId = failingId;
+    }
+
+    @Override
+    protected ImmutableList<BatchStep<?>> steps() {
+      return ImmutableList.of(
+          BatchStep.forModels(
+              "applicants",
+              () -> DB.getDefault().find(ApplicantModel.class).where(),
+              (applicant, transaction) -> {
+                if (failingId.equals(Optional.of(applicant.id))) {
+                  throw new IllegalArgumentException("Failing on purpose");
+                }
+                processedIds.add(applicant.id);
+              }));
+    }
+  }
+}
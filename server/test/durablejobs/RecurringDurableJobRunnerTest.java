@@ -12,6 +12,9 @@ import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import models.JobType;
 import models.PersistedDurableJobModel;
@@ -47,7 +50,9 @@ public class RecurringDurableJobRunnerTest extends ResetPostgres {
                 "durable_jobs.job_timeout_minutes",
                 0,
                 "durable_jobs.poll_interval_seconds",
-                0));
+                0,
+                "durable_jobs.dispatcher.thread-pool-executor.fixed-pool-size",
+                2));
 
     durableJobRegistry = new DurableJobRegistry();
 
@@ -89,6 +94,73 @@ public class RecurringDurableJobRunnerTest extends ResetPostgres {
     assertThat(job.getErrorMessage().get()).contains("JobRunner_JobTimeout");
   }
 
+  @Test
+  public void runJobs_timedOutJobThatIgnoresTheInterrupt_isNotRunAgainUntilItReturns() {
+    AtomicInteger runCount = new AtomicInteger(0);
+    AtomicInteger runningCount = new AtomicInteger(0);
+    AtomicInteger maxRunningCount = new AtomicInteger(0);
+    AtomicBoolean interrupted = new AtomicBoolean(false);
+    durableJobRegistry.registerWithNoTimeResolver(
+        DurableJobName.TEST,
+        JobType.RECURRING,
+        (persistedDurableJob) ->
+            makeTestJob(
+                persistedDurableJob,
+                () -> {
+                  maxRunningCount.accumulateAndGet(runningCount.incrementAndGet(), Math::max);
+                  try {
+                    if (runCount.incrementAndGet() == 1) {
+                      // Keep running past the timeout, ignoring the interrupt.
+                      long stopTime = System.currentTimeMillis() + 3500L;
+                      while (System.currentTimeMillis() < stopTime) {
+                        try {
+                          Thread.sleep(/* millis= */ 50L);
+                        } catch (InterruptedException e) {
+                          interrupted.set(true);
+                        }
+                      }
+                      throw new IllegalStateException("Ran past the timeout");
+                    }
+                  } finally {
+                    runningCount.decrementAndGet();
+                  }
+                }));
+
+    PersistedDurableJobModel job = createPersistedJobToExecute();
+
+    recurringDurableJobRunner.runJobs();
+
+    job.refresh();
+    assertThat(interrupted).isTrue();
+    assertThat(runCount).hasValue(2);
+    assertThat(maxRunningCount).hasValue(1);
+    assertThat(job.getErrorMessage().get()).contains("JobRunner_JobTimeout");
+    assertThat(job.getSuccessTime()).isPresent();
+    assertThat(job.getLeaseExpirationTime()).isEmpty();
+  }
+
+  @Test
+  public void runJobs_jobWithTheSameNameLeasedElsewhere_isNotRun() {
+    AtomicInteger runCount = new AtomicInteger(0);
+    durableJobRegistry.registerWithNoTimeResolver(
+        DurableJobName.TEST,
+        JobType.RECURRING,
+        (persistedDurableJob) ->
+            makeTestJob(persistedDurableJob, () -> runCount.getAndIncrement()));
+
+    // A job with the same name is running on another server.
+    createPersistedJobToExecute()
+        .setLeaseExpirationTime(Instant.now().plus(10, ChronoUnit.MINUTES))
+        .save();
+    PersistedDurableJobModel job = createPersistedJobToExecute();
+
+    recurringDurableJobRunner.runJobs();
+
+    job.refresh();
+    assertThat(runCount).hasValue(0);
+    assertThat(job.getSuccessTime()).isEmpty();
+  }
+
   @Test
   public void rubJobs_executionException() {
     durableJobRegistry.registerWithNoTimeResolver(
@@ -145,6 +217,109 @@ public class RecurringDurableJobRunnerTest extends ResetPostgres {
     Mockito.verifyNoInteractions(simpleEmailMock);
   }
 
+  @Test
+  public void runJobs_runsJobsWithDifferentNamesAtTheSameTime() {
+    CountDownLatch bothJobsStarted = new CountDownLatch(2);
+    Runnable waitForBothJobs =
+        () -> {
+          bothJobsStarted.countDown();
+          try {
+            if (!bothJobsStarted.await(/* timeout= */ 2, TimeUnit.SECONDS)) {
+              throw new IllegalStateException("The other job didn't run at the same time");
+            }
+          } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+        };
+    durableJobRegistry.registerWithNoTimeResolver(
+        DurableJobName.OLD_JOB_CLEANUP,
+        JobType.RECURRING,
+        (persistedDurableJob) -> makeTestJob(persistedDurableJob, waitForBothJobs));
+    durableJobRegistry.registerWithNoTimeResolver(
+        DurableJobName.UNUSED_ACCOUNT_CLEANUP,
+        JobType.RECURRING,
+        (persistedDurableJob) -> makeTestJob(persistedDurableJob, waitForBothJobs));
+
+    PersistedDurableJobModel jobA = createPersistedJobToExecute(DurableJobName.OLD_JOB_CLEANUP);
+    PersistedDurableJobModel jobB =
+        createPersistedJobToExecute(DurableJobName.UNUSED_ACCOUNT_CLEANUP);
+
+    recurringDurableJobRunner.runJobs();
+
+    jobA.refresh();
+    jobB.refresh();
+    assertThat(jobA.getSuccessTime()).isPresent();
+    assertThat(jobB.getSuccessTime()).isPresent();
+    assertThat(jobA.getLeaseExpirationTime()).isEmpty();
+    assertThat(jobB.getLeaseExpirationTime()).isEmpty();
+  }
+
+  @Test
+  public void runJobs_runsJobsWithTheSameNameOneAtATime() {
+    AtomicInteger runningCount = new AtomicInteger(0);
+    AtomicInteger maxRunningCount = new AtomicInteger(0);
+    durableJobRegistry.registerWithNoTimeResolver(
+        DurableJobName.TEST,
+        JobType.RECURRING,
+        (persistedDurableJob) ->
+            makeTestJob(
+                persistedDurableJob,
+                () -> {
+                  maxRunningCount.accumulateAndGet(runningCount.incrementAndGet(), Math::max);
+                  try {
+                    Thread.sleep(/* millis= */ 200L);
+                  } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                  }
+                  runningCount.decrementAndGet();
+                }));
+
+    PersistedDurableJobModel jobA = createPersistedJobToExecute();
+    PersistedDurableJobModel jobB = createPersistedJobToExecute();
+
+    recurringDurableJobRunner.runJobs();
+
+    jobA.refresh();
+    jobB.refresh();
+    assertThat(jobA.getSuccessTime()).isPresent();
+    assertThat(jobB.getSuccessTime()).isPresent();
+    assertThat(maxRunningCount).hasValue(1);
+  }
+
+  @Test
+  public void runJobs_jobWithMoreWork_runsAgainWithoutUsingAnAttempt() {
+    AtomicInteger runCount = new AtomicInteger(0);
+    durableJobRegistry.registerWithNoTimeResolver(
+        DurableJobName.TEST,
+        JobType.RECURRING,
+        (persistedDurableJob) ->
+            new DurableJob() {
+              @Override
+              public PersistedDurableJobModel getPersistedDurableJob() {
+                return persistedDurableJob;
+              }
+
+              @Override
+              public void run() {
+                runCount.getAndIncrement();
+              }
+
+              @Override
+              public boolean hasMoreWork() {
+                return runCount.get() < 2;
+              }
+            });
+
+    PersistedDurableJobModel job = createPersistedJobToExecute();
+
+    recurringDurableJobRunner.runJobs();
+
+    job.refresh();
+    assertThat(runCount).hasValue(2);
+    assertThat(job.getRemainingAttempts()).isEqualTo(2);
+    assertThat(job.getSuccessTime()).isPresent();
+  }
+
   @Test
   public void runJobs_jobNotFound_deletesJobFromDb() {
     PersistedDurableJobModel job = createPersistedJobToExecute();
@@ -185,9 +360,13 @@ public class RecurringDurableJobRunnerTest extends ResetPostgres {
   }
 
   private PersistedDurableJobModel createPersistedJobToExecute() {
+    return createPersistedJobToExecute(DurableJobName.TEST);
+  }
+
+  private PersistedDurableJobModel createPersistedJobToExecute(DurableJobName jobName) {
     var persistedJob =
         new PersistedDurableJobModel(
-            DurableJobName.TEST.getJobNameString(),
+            jobName.getJobNameString(),
             JobType.RECURRING,
             Instant.now().minus(1, ChronoUnit.DAYS));
 
@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import durablejobs.BatchSettings;
 import io.ebean.DB;
 import io.ebean.Database;
 import io.ebean.SqlRow;
@@ -1052,7 +1053,9 @@ public class AddOperatorToLeafAddressServiceAreaJobTest extends ResetPostgres {
   private void runJob() {
     AddOperatorToLeafAddressServiceAreaJob job =
         new AddOperatorToLeafAddressServiceAreaJob(
-            new PersistedDurableJobModel("fake-job", JobType.RUN_ONCE, Instant.now()));
+            new PersistedDurableJobModel("fake-job", JobType.RUN_ONCE, Instant.now()),
+            BatchSettings.DEFAULT,
+            testClock);
 
     job.run();
   }
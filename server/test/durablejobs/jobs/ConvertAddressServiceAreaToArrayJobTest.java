@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.google.common.collect.ImmutableList;
+import durablejobs.BatchSettings;
 import java.time.Instant;
 import junitparams.JUnitParamsRunner;
 import junitparams.Parameters;
@@ -305,10 +306,12 @@ public class ConvertAddressServiceAreaToArrayJobTest extends ResetPostgres {
         Path.create("applicant.enumerator_one[1].applicant_address_child"), newApplicationData);
   }
 
-  private static void runJob() {
+  private void runJob() {
     ConvertAddressServiceAreaToArrayJob job =
         new ConvertAddressServiceAreaToArrayJob(
-            new PersistedDurableJobModel("fake-job", JobType.RUN_ONCE, Instant.now()));
+            new PersistedDurableJobModel("fake-job", JobType.RUN_ONCE, Instant.now()),
+            BatchSettings.DEFAULT,
+            testClock);
 
     job.run();
   }
@@ -0,0 +1,124 @@
+package durablejobs.jobs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import durablejobs.BatchSettings;
+import io.ebean.DB;
+import java.time.Instant;
+import java.util.Optional;
+import models.ApplicantModel;
+import models.ApplicationModel;
+import models.JobType;
+import models.PersistedDurableJobModel;
+import models.ProgramModel;
+import org.junit.Test;
+import repository.ResetPostgres;
+import services.Path;
+import services.applicant.ApplicantData;
+import support.ProgramBuilder;
+
+public class ConvertApplicantDataToJsonbJobTest extends ResetPostgres {
+  private static final Path NAME_PATH = Path.create("applicant.name.first_name");
+
+  @Test
+  public void run_convertsStringEncodedRowsToJsonbDocuments() {
+    ProgramModel program = ProgramBuilder.newActiveProgram("test program").build();
+    ApplicantModel applicant = resourceCreator.insertApplicantWithAccount();
+    ApplicantData applicantData = applicant.getApplicantData();
+    applicantData.putString(NAME_PATH, "Jane");
+    applicant.save();
+    ApplicationModel application = resourceCreator.insertActiveApplication(applicant, program);
+    application.setApplicantData(applicantData).save();
+    encodeAsString("applicants", applicant.id);
+    encodeAsString("applications", application.id);
+
+    // Rows written before the conversion can still be read.
+    assertThat(readFirstName(applicant)).contains("Jane");
+    assertThat(readFirstName(application)).contains("Jane");
+
+    runJob();
+
+    assertThat(getObjectType("applicants", applicant.id)).isEqualTo("object");
+    assertThat(getObjectType("applications", application.id)).isEqualTo("object");
+    assertThat(readFirstName(applicant)).contains("Jane");
+    assertThat(readFirstName(application)).contains("Jane");
+  }
+
+  @Test
+  public void run_resumesAfterTheCheckpoint() {
+    ApplicantModel converted = resourceCreator.insertApplicantWithAccount();
+    ApplicantModel pending = resourceCreator.insertApplicantWithAccount();
+    encodeAsString("applicants", converted.id);
+    encodeAsString("applicants", pending.id);
+    PersistedDurableJobModel persistedJob =
+        new PersistedDurableJobModel("fake-job", JobType.RUN_ONCE, Instant.now());
+    persistedJob.save();
+    // As if a previous run was interrupted after converting the first applicant.
+    DB.sqlUpdate(
+            "UPDATE persisted_durable_jobs SET batch_step = 'applicants', batch_last_id = :last_id"
+                + " WHERE id = :id")
+        .setParameter("last_id", converted.id)
+        .setParameter("id", persistedJob.id)
+        .execute();
+    persistedJob.refresh();
+
+    runJob(persistedJob);
+
+    assertThat(getObjectType("applicants", converted.id)).isEqualTo("string");
+    assertThat(getObjectType("applicants", pending.id)).isEqualTo("object");
+    persistedJob.refresh();
+    assertThat(persistedJob.getBatchStep()).isEmpty();
+  }
+
+  @Test
+  public void run_withNothingToConvert_leavesRowsUnchanged() {
+    ApplicantModel applicant = resourceCreator.insertApplicantWithAccount();
+    applicant.getApplicantData().putString(NAME_PATH, "Jane");
+    applicant.save();
+
+    runJob();
+
+    assertThat(getObjectType("applicants", applicant.id)).isEqualTo("object");
+    assertThat(readFirstName(applicant)).contains("Jane");
+  }
+
+  @Test
+  public void save_writesJsonbDocument() {
+    ApplicantModel applicant = resourceCreator.insertApplicantWithAccount();
+    applicant.getApplicantData().putString(NAME_PATH, "Jane");
+    applicant.save();
+
+    assertThat(getObjectType("applicants", applicant.id)).isEqualTo("object");
+  }
+
+  private static Optional<String> readFirstName(ApplicantModel applicant) {
+    return DB.find(ApplicantModel.class, applicant.id).getApplicantData().readString(NAME_PATH);
+  }
+
+  private static Optional<String> readFirstName(ApplicationModel application) {
+    return DB.find(ApplicationModel.class, application.id).getApplicantData().readString(NAME_PATH);
+  }
+
+  private static void encodeAsString(String table, long id) {
+    DB.sqlUpdate(
+            String.format("UPDATE %s SET object = to_jsonb(object::text) WHERE id = :id", table))
+        .setParameter("id", id)
+        .execute();
+  }
+
+  private static String getObjectType(String table, long id) {
+    return DB.sqlQuery(
+            String.format("SELECT jsonb_typeof(object) AS type FROM %s WHERE id = :id", table))
+        .setParameter("id", id)
+        .findOne()
+        .getString("type");
+  }
+
+  private void runJob() {
+    runJob(new PersistedDurableJobModel("fake-job", JobType.RUN_ONCE, Instant.now()));
+  }
+
+  private void runJob(PersistedDurableJobModel persistedJob) {
+    new ConvertApplicantDataToJsonbJob(persistedJob, BatchSettings.DEFAULT, testClock).run();
+  }
+}
@@ -3,6 +3,7 @@ package durablejobs.jobs;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.google.common.collect.ImmutableList;
+import durablejobs.BatchSettings;
 import java.time.Instant;
 import java.util.Optional;
 import models.ApplicantModel;
@@ -546,7 +547,9 @@ public class CopyFileKeyForMultipleFileUploadTest extends ResetPostgres {
   private void runJob() {
     CopyFileKeyForMultipleFileUpload job =
         new CopyFileKeyForMultipleFileUpload(
-            new PersistedDurableJobModel("fake-job", JobType.RUN_ONCE, Instant.now()));
+            new PersistedDurableJobModel("fake-job", JobType.RUN_ONCE, Instant.now()),
+            BatchSettings.DEFAULT,
+            testClock);
 
     job.run();
   }
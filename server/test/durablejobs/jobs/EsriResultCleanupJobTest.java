@@ -0,0 +1,53 @@
+package durablejobs.jobs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import durablejobs.DurableJobName;
+import io.ebean.DB;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import models.JobType;
+import models.PersistedDurableJobModel;
+import org.junit.Before;
+import org.junit.Test;
+import repository.EsriResultRepository;
+import repository.ResetPostgres;
+
+public class EsriResultCleanupJobTest extends ResetPostgres {
+  private EsriResultRepository esriResultRepository;
+  private final PersistedDurableJobModel jobModel =
+      new PersistedDurableJobModel(
+          DurableJobName.ESRI_RESULT_CLEANUP.toString(),
+          JobType.RECURRING,
+          Instant.ofEpochMilli(1000));
+
+  @Before
+  public void setUp() {
+    esriResultRepository = instanceOf(EsriResultRepository.class);
+    DB.getDefault().sqlUpdate("DELETE FROM esri_results").execute();
+  }
+
+  @Test
+  public void run_deletesOnlyExpiredResults() {
+    esriResultRepository
+        .storeResult("expired", "{}", Duration.ofSeconds(-1))
+        .toCompletableFuture()
+        .join();
+    esriResultRepository
+        .storeResult("current", "{}", Duration.ofHours(1))
+        .toCompletableFuture()
+        .join();
+
+    new EsriResultCleanupJob(esriResultRepository, jobModel).run();
+
+    assertThat(
+            DB.getDefault()
+                .sqlQuery("SELECT cache_key FROM esri_results")
+                .mapToScalar(String.class)
+                .findList())
+        .containsExactly("current");
+    assertThat(esriResultRepository.lookupResult("current").toCompletableFuture().join())
+        .isEqualTo(Optional.of("{}"));
+  }
+}
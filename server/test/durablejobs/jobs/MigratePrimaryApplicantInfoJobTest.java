@@ -5,6 +5,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import com.google.common.collect.ImmutableMap;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
+import durablejobs.BatchSettings;
 import durablejobs.DurableJobName;
 import io.ebean.DB;
 import io.ebean.Database;
@@ -82,7 +83,12 @@ public class MigratePrimaryApplicantInfoJobTest extends ResetPostgres {
             Instant.ofEpochMilli(0));
     MigratePrimaryApplicantInfoJob migrateJob =
         new MigratePrimaryApplicantInfoJob(
-            job, instanceOf(AccountRepository.class), settingsService, config);
+            job,
+            instanceOf(AccountRepository.class),
+            settingsService,
+            config,
+            BatchSettings.DEFAULT,
+            testClock);
     migrateJob.run();
     database.commitTransaction();
   }
@@ -105,4 +105,21 @@ public class ApplicationModelTest extends ResetPostgres {
     ApplicationModel application = resourceCreator.insertActiveApplication(applicant, program);
     assertThat(application.getIsAdmin()).isTrue();
   }
+
+  @Test
+  public void applicantSearchText_includesNamesAndEmailsInLowercase() {
+    ProgramModel program = ProgramBuilder.newActiveProgram("test program", "description").build();
+    ApplicantModel applicant =
+        resourceCreator.insertApplicantWithAccount(Optional.of("Account@Example.com"));
+    applicant.setFirstName("Jane");
+    applicant.setLastName("Doe");
+    applicant.save();
+
+    ApplicationModel application = resourceCreator.insertActiveApplication(applicant, program);
+    application.setSubmitterEmail("ti@example.com").save();
+    application.refresh();
+
+    assertThat(application.getApplicantSearchText())
+        .contains("jane doe\ndoe jane\ndoe, jane\naccount@example.com\nti@example.com");
+  }
 }
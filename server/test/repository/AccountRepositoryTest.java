@@ -3,9 +3,12 @@ package repository;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.nimbusds.jwt.JWT;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.PlainJWT;
+import io.ebean.DB;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -17,11 +20,13 @@ import java.util.Optional;
 import java.util.Set;
 import models.AccountModel;
 import models.ApplicantModel;
+import models.ApplicationModel;
 import models.LifecycleStage;
 import models.TrustedIntermediaryGroupModel;
 import org.junit.Before;
 import org.junit.Test;
 import services.CiviFormError;
+import services.Path;
 import services.WellKnownPaths;
 import services.applicant.ApplicantData;
 import services.program.ProgramDefinition;
@@ -188,6 +193,23 @@ public class AccountRepositoryTest extends ResetPostgres {
     assertThat(repo.lookupAccountByEmail(EMAIL).get().getAuthorityId()).isEqualTo(AUTHORITY_ID);
   }
 
+  @Test
+  public void lookupAccountsByEmail() {
+    AccountModel account = new AccountModel().setEmailAddress(EMAIL).setAuthorityId(AUTHORITY_ID);
+    account.save();
+    ApplicantModel applicant = new ApplicantModel();
+    applicant.setAccount(account);
+    applicant.save();
+    new AccountModel().setEmailAddress("other@email.com").save();
+
+    ImmutableMap<String, AccountModel> accounts =
+        repo.lookupAccountsByEmail(ImmutableSet.of(EMAIL, "missing@email.com"));
+
+    assertThat(accounts.keySet()).containsExactly(EMAIL);
+    assertThat(accounts.get(EMAIL).getAuthorityId()).isEqualTo(AUTHORITY_ID);
+    assertThat(accounts.get(EMAIL).newestApplicant().map(a -> a.id)).contains(applicant.id);
+  }
+
   @Test
   public void lookupByEmailAddressAsync() {
     new AccountModel().setEmailAddress(EMAIL).setAuthorityId(AUTHORITY_ID).save();
@@ -228,6 +250,68 @@ public class AccountRepositoryTest extends ResetPostgres {
     assertThat(a.getApplicantData().getDateOfBirth().get().toString()).isEqualTo("2021-01-01");
   }
 
+  @Test
+  public void updateApplicantSync_writesOnlyTheChangedEntries() {
+    ApplicantModel applicant = new ApplicantModel();
+    repo.insertApplicant(applicant).toCompletableFuture().join();
+    ApplicantModel loaded = repo.lookupApplicantSync(applicant.id).get();
+    // Change another entry behind the loaded applicant's back, which a full rewrite would undo.
+    setStoredEntry(applicant.id, "other_question", "{\"text\": \"kept\"}");
+
+    loaded.getApplicantData().setDateOfBirth("2021-01-01");
+    repo.updateApplicantSync(loaded);
+
+    ApplicantData stored = repo.lookupApplicantSync(applicant.id).get().getApplicantData();
+    assertThat(stored.getDateOfBirth().get().toString()).isEqualTo("2021-01-01");
+    assertThat(stored.readString(Path.create("applicant.other_question.text"))).hasValue("kept");
+  }
+
+  @Test
+  public void updateApplicantSync_removesDeletedEntries() {
+    ApplicantModel applicant = new ApplicantModel();
+    applicant.getApplicantData().putString(Path.create("applicant.removed.text"), "gone");
+    repo.insertApplicant(applicant).toCompletableFuture().join();
+    ApplicantModel loaded = repo.lookupApplicantSync(applicant.id).get();
+
+    loaded.getApplicantData().maybeDelete(Path.create("applicant.removed"));
+    repo.updateApplicantSync(loaded);
+
+    assertThat(
+            repo.lookupApplicantSync(applicant.id)
+                .get()
+                .getApplicantData()
+                .hasPath(Path.create("applicant.removed")))
+        .isFalse();
+  }
+
+  @Test
+  public void updateApplicantSync_replacedApplicantData_writesTheWholeDocument() {
+    ApplicantModel applicant = new ApplicantModel();
+    repo.insertApplicant(applicant).toCompletableFuture().join();
+    ApplicantModel loaded = repo.lookupApplicantSync(applicant.id).get();
+    setStoredEntry(applicant.id, "other_question", "{\"text\": \"overwritten\"}");
+
+    ApplicantData replacement = new ApplicantData(loaded);
+    replacement.setDateOfBirth("2021-01-01");
+    loaded.setApplicantData(replacement);
+    repo.updateApplicantSync(loaded);
+
+    ApplicantData stored = repo.lookupApplicantSync(applicant.id).get().getApplicantData();
+    assertThat(stored.getDateOfBirth().get().toString()).isEqualTo("2021-01-01");
+    assertThat(stored.hasPath(Path.create("applicant.other_question"))).isFalse();
+  }
+
+  private static void setStoredEntry(long applicantId, String key, String json) {
+    DB.getDefault()
+        .sqlUpdate(
+            "UPDATE applicants SET object = jsonb_set(object, ARRAY['applicant', :key],"
+                + " CAST(:json AS jsonb)) WHERE id = :id")
+        .setParameter("key", key)
+        .setParameter("json", json)
+        .setParameter("id", applicantId)
+        .execute();
+  }
+
   @Test
   public void lookupApplicantSync_returnsEmptyOptionalWhenApplicantNotFound() {
     Optional<ApplicantModel> found = repo.lookupApplicantSync(1L);
@@ -358,6 +442,37 @@ public class AccountRepositoryTest extends ResetPostgres {
     assertThat(remainingApplicants).hasSize(3);
   }
 
+  @Test
+  public void rememberAccountExists_makesAccountKnownToExist() {
+    AccountModel account = resourceCreator.insertAccount();
+
+    assertThat(repo.isAccountKnownToExist(account.id).toCompletableFuture().join()).isFalse();
+
+    repo.rememberAccountExists(account.id).toCompletableFuture().join();
+
+    assertThat(repo.isAccountKnownToExist(account.id).toCompletableFuture().join()).isTrue();
+  }
+
+  @Test
+  public void deleteUnusedGuestAccounts_forgetsAccountsKnownToExist() {
+    ApplicantModel oldUnusedGuest = resourceCreator.insertApplicantWithAccount();
+    oldUnusedGuest
+        .setWhenCreated(
+            LocalDateTime.now(Clock.systemUTC())
+                .minus(10, ChronoUnit.DAYS)
+                .toInstant(ZoneOffset.UTC))
+        .save();
+    repo.rememberAccountExists(oldUnusedGuest.getAccount().id).toCompletableFuture().join();
+
+    assertThat(repo.deleteUnusedGuestAccounts(5)).isEqualTo(1);
+
+    assertThat(
+            repo.isAccountKnownToExist(oldUnusedGuest.getAccount().id)
+                .toCompletableFuture()
+                .join())
+        .isFalse();
+  }
+
   @Test
   public void findApplicantsNeedingPrimaryApplicantInfoDataMigration() {
     // First name only
@@ -398,11 +513,67 @@ public class AccountRepositoryTest extends ResetPostgres {
     ApplicantModel applicantNoData = savePlainApplicant();
 
     List<ApplicantModel> applicants =
-        repo.findApplicantsNeedingPrimaryApplicantInfoDataMigration().findList();
+        repo.findApplicantsNeedingPrimaryApplicantInfoDataMigration(
+                /* afterId= */ 0, /* limit= */ 100)
+            .findList();
     assertThat(applicants)
         .containsOnly(applicantFirstName, applicantDob, applicantTiClient, applicantAccountEmail);
     assertThat(applicants).doesNotContain(applicantNoData);
     assertThat(applicants).doesNotContain(applicantPaiEmail);
+    assertThat(
+            repo.findApplicantsNeedingPrimaryApplicantInfoDataMigration(
+                    /* afterId= */ applicantFirstName.id, /* limit= */ 1)
+                .findList())
+        .containsExactly(applicantDob);
+  }
+
+  @Test
+  public void updateApplicationSearchText_searchesByTheApplicantsCurrentNameAndEmail() {
+    ApplicantModel applicant = resourceCreator.insertApplicantWithAccount();
+    ApplicationModel application =
+        resourceCreator.insertActiveApplication(
+            applicant, resourceCreator.insertActiveProgram("test-program"));
+    applicant.setFirstName("Jane");
+    applicant.setLastName("Doe");
+    applicant.setEmailAddress("jane@example.com");
+    applicant.save();
+
+    repo.updateApplicationSearchText(applicant.id);
+
+    application.refresh();
+    assertThat(application.getApplicantSearchText())
+        .hasValueSatisfying(
+            text -> assertThat(text).contains("jane doe").contains("jane@example.com"));
+  }
+
+  @Test
+  public void updateTiClient_updatesApplicationSearchText() {
+    ApplicantModel applicant =
+        resourceCreator.insertApplicantWithAccount(Optional.of("old@example.com"));
+    ApplicationModel application =
+        resourceCreator.insertActiveApplication(
+            applicant, resourceCreator.insertActiveProgram("test-program"));
+
+    repo.updateTiClient(
+        applicant.getAccount(),
+        applicant,
+        "Jane",
+        /* middleName= */ "",
+        "Doe",
+        /* nameSuffix= */ "",
+        /* phoneNumber= */ "",
+        /* tiNote= */ "",
+        "new@example.com",
+        "2000-01-01");
+
+    application.refresh();
+    assertThat(application.getApplicantSearchText())
+        .hasValueSatisfying(
+            text ->
+                assertThat(text)
+                    .contains("jane doe")
+                    .contains("new@example.com")
+                    .doesNotContain("old@example.com"));
   }
 
   @Test
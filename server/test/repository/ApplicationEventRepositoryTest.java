@@ -16,6 +16,7 @@ import org.junit.Before;
 import org.junit.Test;
 import services.application.ApplicationEventDetails;
 import services.application.ApplicationEventDetails.StatusEvent;
+import services.email.EmailMessage;
 
 public class ApplicationEventRepositoryTest extends ResetPostgres {
 
@@ -85,6 +86,42 @@ public class ApplicationEventRepositoryTest extends ResetPostgres {
     assertThat(insertedEvent.getEventType()).isEqualTo(ApplicationEventDetails.Type.STATUS_CHANGE);
   }
 
+  @Test
+  public void insertStatusEvents_insertsAnEventAndSetsTheStatusOfEachApplication() {
+    ProgramModel program = resourceCreator.insertActiveProgram("Program");
+    AccountModel actor = resourceCreator.insertAccount();
+    ApplicationModel first =
+        resourceCreator.insertActiveApplication(
+            resourceCreator.insertApplicantWithAccount(), program);
+    ApplicationModel second =
+        resourceCreator.insertActiveApplication(
+            resourceCreator.insertApplicantWithAccount(), program);
+    StatusEvent statusEvent =
+        StatusEvent.builder().setStatusText("Status").setEmailSent(false).build();
+
+    ImmutableList<ApplicationEventModel> events =
+        repo.insertStatusEvents(
+                ImmutableList.of(first, second),
+                Optional.of(actor),
+                statusEvent,
+                ImmutableList.of(EmailMessage.create("first@example.com", "Subject", "Body")))
+            .toCompletableFuture()
+            .join();
+
+    assertThat(events).hasSize(2);
+    assertThat(instanceOf(EmailOutboxRepository.class).getPendingEmails())
+        .containsExactly(EmailMessage.create("first@example.com", "Subject", "Body"));
+    for (ApplicationModel application : ImmutableList.of(first, second)) {
+      ImmutableList<ApplicationEventModel> gotEvents =
+          repo.getEventsOrderByCreateTimeDesc(application.id);
+      assertThat(gotEvents).hasSize(1);
+      assertThat(gotEvents.get(0).getDetails().statusEvent()).contains(statusEvent);
+      assertThat(gotEvents.get(0).getCreator()).isEqualTo(Optional.of(actor));
+      application.refresh();
+      assertThat(application.getLatestStatus()).contains("Status");
+    }
+  }
+
   @Test
   public void insertMultipleEventsOnApplication() {
     Instant startInstant = Instant.now();
@@ -6,6 +6,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import auth.ProgramAcls;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import io.ebean.DB;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Locale;
@@ -86,6 +87,30 @@ public class ApplicationRepositoryTest extends ResetPostgres {
         .isEqualTo(initialSubmitTime.truncatedTo(ChronoUnit.SECONDS));
   }
 
+  @Test
+  public void submitApplication_countsSubmissionInReportingRollups() {
+    ApplicantModel applicant = saveApplicant("Alice");
+    ProgramModel program = createDraftProgram("Program");
+
+    repo.submitApplication(applicant, program, Optional.empty()).toCompletableFuture().join();
+    applicant.getApplicantData().putString(Path.create("text"), "text");
+    repo.submitApplication(applicant, program, Optional.empty()).toCompletableFuture().join();
+
+    assertThat(
+            DB.getDefault()
+                .sqlQuery(
+                    """
+                    SELECT sum(CAST(buckets.value AS bigint))
+                    FROM application_submission_rollups
+                    CROSS JOIN LATERAL jsonb_each_text(duration_buckets) AS buckets
+                    WHERE program_name = :program_name
+                    """)
+                .setParameter("program_name", "Program")
+                .mapToScalar(Long.class)
+                .findOne())
+        .isEqualTo(2L);
+  }
+
   @Test
   public void submitApplication_doesNotUpdateOtherProgramApplications() {
     ApplicantModel applicant1 = saveApplicant("Alice");
@@ -392,6 +417,47 @@ public class ApplicationRepositoryTest extends ResetPostgres {
         .hasMessageContaining("Program not found");
   }
 
+  @Test
+  public void updateApplicantAndCreateDraft_savesApplicantAndCreatesOneDraft() {
+    ApplicantModel applicant = saveApplicant("Alice");
+    ProgramModel program = createActiveProgram("Program");
+
+    applicant.getApplicantData().putString(Path.create("text"), "first");
+    repo.updateApplicantAndCreateDraft(applicant, program.getProgramDefinition())
+        .toCompletableFuture()
+        .join();
+    applicant.getApplicantData().putString(Path.create("text"), "second");
+    repo.updateApplicantAndCreateDraft(applicant, program.getProgramDefinition())
+        .toCompletableFuture()
+        .join();
+
+    applicant.refresh();
+    assertThat(applicant.getApplicantData().readString(Path.create("text"))).contains("second");
+    assertThat(
+            repo.getApplicationsForApplicant(applicant.id, ImmutableSet.of(LifecycleStage.DRAFT))
+                .toCompletableFuture()
+                .join())
+        .hasSize(1);
+  }
+
+  @Test
+  public void createDraftIfMissing_keepsAnExistingDraft() {
+    ApplicantModel applicant = saveApplicant("Alice");
+    ProgramModel program = createActiveProgram("Program");
+    ApplicationModel draft =
+        repo.createOrUpdateDraft(applicant, program).toCompletableFuture().join();
+
+    repo.createDraftIfMissing(applicant, program.getProgramDefinition())
+        .toCompletableFuture()
+        .join();
+
+    assertThat(
+            repo.getApplicationsForApplicant(applicant.id, ImmutableSet.of(LifecycleStage.DRAFT))
+                .toCompletableFuture()
+                .join())
+        .containsExactly(draft);
+  }
+
   private ApplicantModel saveApplicant(String name) {
     AccountModel account = new AccountModel();
     // TODO (#5503): This can be removed when we are no longer checking name
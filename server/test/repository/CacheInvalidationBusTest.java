@@ -0,0 +1,130 @@
+package repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableSet;
+import com.typesafe.config.Config;
+import java.sql.Connection;
+import java.sql.Statement;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import play.cache.AsyncCacheApi;
+import play.cache.NamedCacheImpl;
+import play.cache.SyncCacheApi;
+import play.inject.ApplicationLifecycle;
+import play.inject.BindingKey;
+import repository.CacheInvalidationBus.CacheName;
+import services.settings.SettingsCache;
+import services.settings.SettingsManifest;
+
+public class CacheInvalidationBusTest extends ResetPostgres {
+
+  private SettingsManifest mockSettingsManifest;
+  private VersionPointerCache versionPointerCache;
+  private SyncCacheApi programCache;
+  private SyncCacheApi programDefCache;
+  private CacheInvalidationBus bus;
+
+  @Before
+  public void setUp() {
+    mockSettingsManifest = Mockito.mock(SettingsManifest.class);
+    versionPointerCache = instanceOf(VersionPointerCache.class);
+    programCache = namedCache(SyncCacheApi.class, "program");
+    programDefCache = namedCache(SyncCacheApi.class, "full-program-definition");
+    namedCache(AsyncCacheApi.class, "program").removeAll().toCompletableFuture().join();
+    namedCache(AsyncCacheApi.class, "full-program-definition")
+        .removeAll()
+        .toCompletableFuture()
+        .join();
+    bus =
+        new CacheInvalidationBus(
+            instanceOf(Config.class),
+            mockSettingsManifest,
+            instanceOf(ApplicationLifecycle.class),
+            versionPointerCache,
+            instanceOf(SettingsCache.class),
+            namedCache(AsyncCacheApi.class, "accounts"),
+            namedCache(AsyncCacheApi.class, "api-keys"),
+            namedCache(AsyncCacheApi.class, "full-program-definition"),
+            namedCache(AsyncCacheApi.class, "program"),
+            namedCache(AsyncCacheApi.class, "program-versions"),
+            namedCache(AsyncCacheApi.class, "version-programs"),
+            namedCache(AsyncCacheApi.class, "version-questions"));
+  }
+
+  @Test
+  public void invalidate_evictsOnlyTheGivenKeys() {
+    programCache.set("1", "first");
+    programCache.set("2", "second");
+
+    bus.invalidate(CacheName.PROGRAM, ImmutableSet.of("1"));
+
+    assertThat(programCache.get("1")).isEmpty();
+    assertThat(programCache.<String>get("2")).contains("second");
+  }
+
+  @Test
+  public void invalidateAll_clearsTheCache() {
+    programCache.set("1", "first");
+    programCache.set("2", "second");
+
+    bus.invalidateAll(CacheName.PROGRAM);
+
+    assertThat(programCache.get("1")).isEmpty();
+    assertThat(programCache.get("2")).isEmpty();
+  }
+
+  @Test
+  public void handleNotification_evictsTheKeysInTheNotification() {
+    programCache.set("1", "first");
+    programCache.set("2", "second");
+
+    bus.handleNotification("7:{\"cache\":\"program\",\"keys\":[\"2\"]}");
+
+    assertThat(programCache.<String>get("1")).contains("first");
+    assertThat(programCache.get("2")).isEmpty();
+    assertThat(bus.getLastGeneration()).contains(7L);
+  }
+
+  @Test
+  public void handleNotification_missedGeneration_clearsAllCaches() {
+    bus.handleNotification("7:{\"cache\":\"program\",\"keys\":[\"1\"]}");
+    programCache.set("1", "first");
+    programCache.set("2", "second");
+    programDefCache.set("3", "definition");
+
+    // Generation 8 was never received.
+    bus.handleNotification("9:{\"cache\":\"program\",\"keys\":[\"1\"]}");
+
+    assertThat(programCache.get("2")).isEmpty();
+    assertThat(programDefCache.get("3")).isEmpty();
+    assertThat(bus.getLastGeneration()).contains(9L);
+  }
+
+  @Test
+  public void invalidate_whenEnabled_notifiesListeners() throws Exception {
+    Mockito.when(mockSettingsManifest.getCacheInvalidationBusEnabled()).thenReturn(true);
+
+    try (Connection connection = bus.openListenerConnection()) {
+      try (Statement statement = connection.createStatement()) {
+        statement.execute("LISTEN " + CacheInvalidationBus.CHANNEL);
+      }
+
+      bus.invalidate(CacheName.PROGRAM, ImmutableSet.of("1", "2"));
+
+      PGNotification[] notifications =
+          connection.unwrap(PGConnection.class).getNotifications(/* timeoutMillis= */ 5000);
+      assertThat(notifications).hasSize(1);
+      assertThat(notifications[0].getParameter())
+          .matches("\\d+:\\{\"cache\":\"program\",\"keys\":\\[\"1\",\"2\"]}");
+    }
+  }
+
+  private <T> T namedCache(Class<T> cacheClass, String name) {
+    return instanceOf(
+        new BindingKey<>(cacheClass).qualifiedWith(new NamedCacheImpl(name)).asScala());
+  }
+}
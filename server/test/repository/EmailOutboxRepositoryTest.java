@@ -0,0 +1,97 @@
+package repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import io.ebean.DB;
+import java.time.Duration;
+import java.time.Instant;
+import models.EmailOutboxModel;
+import org.junit.Before;
+import org.junit.Test;
+import services.email.EmailMessage;
+
+public class EmailOutboxRepositoryTest extends ResetPostgres {
+
+  private static final EmailMessage FIRST = EmailMessage.create("a@example.com", "One", "Body");
+  private static final EmailMessage SECOND = EmailMessage.create("b@example.com", "Two", "Body");
+
+  private EmailOutboxRepository repo;
+
+  @Before
+  public void setUp() {
+    repo = instanceOf(EmailOutboxRepository.class);
+  }
+
+  @Test
+  public void enqueue_queuesTheEmailsInOrder() {
+    repo.enqueue(ImmutableList.of(FIRST, SECOND));
+
+    assertThat(repo.getPendingEmails()).containsExactly(FIRST, SECOND);
+  }
+
+  @Test
+  public void enqueue_rolledBackTransaction_queuesNothing() {
+    try (var transaction = DB.getDefault().beginTransaction()) {
+      repo.enqueue(ImmutableList.of(FIRST));
+    }
+
+    assertThat(repo.getPendingEmails()).isEmpty();
+  }
+
+  @Test
+  public void claimDueEmails_leasesTheEmailsAndCountsTheAttempt() {
+    repo.enqueue(ImmutableList.of(FIRST, SECOND));
+
+    ImmutableList<EmailOutboxModel> claimed = repo.claimDueEmails(1, Duration.ofMinutes(5));
+
+    assertThat(claimed).hasSize(1);
+    assertThat(claimed.get(0).getMessage()).isEqualTo(FIRST);
+    claimed.get(0).refresh();
+    assertThat(claimed.get(0).getAttempts()).isEqualTo(1);
+    assertThat(claimed.get(0).getLeaseExpirationTime()).isPresent();
+
+    // The first email is leased, so only the second one is left to claim.
+    assertThat(repo.claimDueEmails(5, Duration.ofMinutes(5)))
+        .extracting(EmailOutboxModel::getMessage)
+        .containsExactly(SECOND);
+    assertThat(repo.claimDueEmails(5, Duration.ofMinutes(5))).isEmpty();
+  }
+
+  @Test
+  public void claimDueEmails_reclaimsEmailsWhoseLeaseExpired() {
+    repo.enqueue(ImmutableList.of(FIRST));
+    repo.claimDueEmails(5, Duration.ZERO);
+
+    ImmutableList<EmailOutboxModel> claimed = repo.claimDueEmails(5, Duration.ofMinutes(5));
+
+    assertThat(claimed).hasSize(1);
+    assertThat(claimed.get(0).getAttempts()).isEqualTo(2);
+  }
+
+  @Test
+  public void claimDueEmails_skipsEmailsNotYetDueAndFailedEmails() {
+    repo.enqueue(ImmutableList.of(FIRST, SECOND));
+    ImmutableList<EmailOutboxModel> claimed = repo.claimDueEmails(2, Duration.ofMinutes(5));
+    claimed.get(0).retryAt(Instant.now().plus(Duration.ofHours(1)), "Throttled").save();
+    claimed.get(1).setFailed(Instant.now(), "Rejected").save();
+
+    assertThat(repo.claimDueEmails(5, Duration.ofMinutes(5))).isEmpty();
+  }
+
+  @Test
+  public void getStats_countsPendingAndFailedEmails() {
+    assertThat(repo.getStats().pending()).isEqualTo(0);
+    assertThat(repo.getStats().oldestPending()).isEmpty();
+
+    repo.enqueue(ImmutableList.of(FIRST, SECOND));
+    EmailOutboxModel claimed = repo.claimDueEmails(1, Duration.ofMinutes(5)).get(0);
+    claimed.setFailed(Instant.now(), "Rejected").save();
+
+    EmailOutboxRepository.OutboxStats stats = repo.getStats();
+    assertThat(stats.pending()).isEqualTo(1);
+    assertThat(stats.oldestPending()).isPresent();
+    assertThat(stats.failed()).isEqualTo(1);
+    assertThat(repo.getPendingEmails()).containsExactly(SECOND);
+  }
+}
@@ -3,6 +3,7 @@ package repository;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import io.ebean.DB;
 import io.ebean.Database;
 import io.ebean.Transaction;
@@ -140,6 +141,38 @@ public class PersistedDurableJobRepositoryTest extends ResetPostgres {
     }
   }
 
+  @Test
+  public void getRecurringJobsForExecution_skipsLeasedJobsUntilTheLeaseExpires() {
+    Instant yesterday = Instant.now().minus(1, ChronoUnit.DAYS);
+    var leasedJob = new PersistedDurableJobModel("fake-name", JobType.RECURRING, yesterday);
+    leasedJob.setLeaseExpirationTime(Instant.now().plus(1, ChronoUnit.HOURS));
+    leasedJob.save();
+    var expiredLeaseJob = new PersistedDurableJobModel("fake-name", JobType.RECURRING, yesterday);
+    expiredLeaseJob.setLeaseExpirationTime(Instant.now().minus(1, ChronoUnit.HOURS));
+    expiredLeaseJob.save();
+
+    assertThat(repo.getRecurringJobsForExecution(10, ImmutableSet.of()))
+        .containsExactly(expiredLeaseJob);
+    assertThat(repo.countRecurringJobsReadyForExecution()).isEqualTo(1);
+  }
+
+  @Test
+  public void getRecurringJobsForExecution_skipsExcludedNamesAndReturnsAtMostMaxJobs() {
+    Instant yesterday = Instant.now().minus(1, ChronoUnit.DAYS);
+    var jobA = new PersistedDurableJobModel("name-a", JobType.RECURRING, yesterday.minusSeconds(2));
+    jobA.save();
+    var jobB = new PersistedDurableJobModel("name-b", JobType.RECURRING, yesterday.minusSeconds(1));
+    jobB.save();
+    var jobC = new PersistedDurableJobModel("name-c", JobType.RECURRING, yesterday);
+    jobC.save();
+
+    assertThat(repo.getRecurringJobsForExecution(1, ImmutableSet.of("name-a")))
+        .containsExactly(jobB);
+    assertThat(repo.getRecurringJobsForExecution(3, ImmutableSet.of("name-b")))
+        .containsExactly(jobA, jobC);
+    assertThat(repo.getRecurringJobsForExecution(0, ImmutableSet.of())).isEmpty();
+  }
+
   @Test
   public void deleteJobsOlderThanSixMonths() {
     Instant oneYearAgo = Instant.now().minus(365, ChronoUnit.DAYS);
@@ -876,6 +876,42 @@ public class ProgramRepositoryTest extends ResetPostgres {
     assertThat(paginationResult.getPageContents().get(0).getApplicant()).isEqualTo(applicantOne);
   }
 
+  @Test
+  public void getApplicationPageForAllProgramVersions_multipleVersions() {
+    ApplicantModel applicantOne =
+        resourceCreator.insertApplicantWithAccount(Optional.of("one@example.com"));
+    ProgramModel originalVersion = resourceCreator.insertActiveProgram("test program");
+
+    resourceCreator.insertActiveApplication(applicantOne, originalVersion);
+
+    ProgramModel nextVersion = resourceCreator.insertDraftProgram("test program");
+    resourceCreator.publishNewSynchronizedVersion();
+
+    ApplicantModel applicantTwo =
+        resourceCreator.insertApplicantWithAccount(Optional.of("two@example.com"));
+    ApplicantModel applicantThree =
+        resourceCreator.insertApplicantWithAccount(Optional.of("three@example.com"));
+    resourceCreator.insertActiveApplication(applicantTwo, nextVersion);
+    resourceCreator.insertActiveApplication(applicantThree, nextVersion);
+
+    ImmutableList<ApplicationModel> page =
+        repo.getApplicationPageForAllProgramVersions(
+            nextVersion.id,
+            new IdentifierBasedPaginationSpec<>(2, Long.MAX_VALUE),
+            SubmittedApplicationFilter.EMPTY);
+
+    assertThat(page.stream().map(ApplicationModel::getApplicant))
+        .containsExactly(applicantThree, applicantTwo);
+
+    page =
+        repo.getApplicationPageForAllProgramVersions(
+            nextVersion.id,
+            new IdentifierBasedPaginationSpec<>(2, page.get(1).id),
+            SubmittedApplicationFilter.EMPTY);
+
+    assertThat(page.stream().map(ApplicationModel::getApplicant)).containsExactly(applicantOne);
+  }
+
   @Test
   public void getMostRecentActiveProgramVersion_returnsDifferentProgramIdWhichIsTheLatest() {
     ProgramModel programModel1 = resourceCreator.insertActiveProgram("program-name-1");
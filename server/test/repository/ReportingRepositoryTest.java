@@ -2,6 +2,8 @@ package repository;
 
 import static java.time.ZoneOffset.UTC;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.assertj.core.api.Assertions.withinPercentage;
 
 import com.google.common.collect.ImmutableList;
 import java.sql.Timestamp;
@@ -12,7 +14,7 @@ import models.ApplicantModel;
 import models.ApplicationModel;
 import models.LifecycleStage;
 import models.ProgramModel;
-import org.apache.commons.lang3.tuple.Triple;
+import org.apache.commons.lang3.tuple.Pair;
 import org.junit.Before;
 import org.junit.Test;
 import services.reporting.ApplicationSubmissionsStat;
@@ -27,7 +29,7 @@ public class ReportingRepositoryTest extends ResetPostgres {
 
   @Before
   public void setUp() {
-    repo = new ReportingRepository(testClock);
+    repo = new ReportingRepository();
     applicant = resourceCreator.insertApplicantWithAccount();
     programA =
         ProgramBuilder.newActiveProgramWithDisplayName("fake-program-a", "Fake Program A").build();
@@ -36,118 +38,63 @@ public class ReportingRepositoryTest extends ResetPostgres {
   }
 
   @Test
-  public void monthlyReportingView() {
-    Instant lastMonth = testClock.instant().minus(40, ChronoUnit.DAYS);
-    Instant twoMonthsAgo = testClock.instant().minus(70, ChronoUnit.DAYS);
-
-    ImmutableList.of(
-            Triple.of(LifecycleStage.ACTIVE, lastMonth, lastMonth.plusSeconds(100)),
-            Triple.of(LifecycleStage.OBSOLETE, lastMonth, lastMonth.plusSeconds(1000)),
-            Triple.of(LifecycleStage.OBSOLETE, lastMonth, lastMonth.plusSeconds(500)),
-            Triple.of(LifecycleStage.DRAFT, lastMonth, lastMonth.plusSeconds(1)))
-        .stream()
-        .forEach(
-            applicationSpec ->
-                createFakeApplication(
-                    programA,
-                    applicationSpec.getLeft(),
-                    applicationSpec.getMiddle(),
-                    applicationSpec.getRight()));
+  public void loadMonthlyReportingData() {
+    Instant today = testClock.instant();
+    Instant lastMonth = today.minus(40, ChronoUnit.DAYS);
+    Instant earlierLastMonth = lastMonth.minus(1, ChronoUnit.DAYS);
 
     ImmutableList.of(
-            Triple.of(LifecycleStage.ACTIVE, twoMonthsAgo, twoMonthsAgo.plusSeconds(100)),
-            Triple.of(LifecycleStage.OBSOLETE, twoMonthsAgo, twoMonthsAgo.plusSeconds(1000)),
-            Triple.of(LifecycleStage.OBSOLETE, twoMonthsAgo, twoMonthsAgo.plusSeconds(500)),
-            Triple.of(LifecycleStage.DRAFT, twoMonthsAgo, twoMonthsAgo.plusSeconds(1)))
-        .stream()
-        .forEach(
-            applicationSpec ->
-                createFakeApplication(
-                    programB,
-                    applicationSpec.getLeft(),
-                    applicationSpec.getMiddle(),
-                    applicationSpec.getRight()));
-
-    repo.refreshMonthlyReportingView();
-
-    assertThat(repo.loadMonthlyReportingView())
+            Pair.of(today, today.plusSeconds(100)),
+            Pair.of(today, today.plusSeconds(1000)),
+            Pair.of(today, today.plusSeconds(500)),
+            // Submissions on different days of the same month are merged.
+            Pair.of(lastMonth, lastMonth.plusSeconds(100)),
+            Pair.of(earlierLastMonth, earlierLastMonth.plusSeconds(1000)),
+            Pair.of(earlierLastMonth, earlierLastMonth.plusSeconds(500)))
+        .forEach(times -> submitFakeApplication(programA, times.getLeft(), times.getRight()));
+    submitFakeApplication(programB, lastMonth, lastMonth.plusSeconds(60));
+
+    ImmutableList<ApplicationSubmissionsStat> stats = repo.loadMonthlyReportingData();
+
+    assertThat(stats)
+        .extracting(
+            ApplicationSubmissionsStat::programName,
+            ApplicationSubmissionsStat::enUSLocalizedProgramName,
+            ApplicationSubmissionsStat::timestamp,
+            ApplicationSubmissionsStat::applicationCount)
         .containsExactly(
-            // The expected values here have submission duration percentile stats calculated from
-            // the submitted (i.e. active and obsolete) applications.
-            ApplicationSubmissionsStat.create(
-                "fake-program-a",
-                "Fake Program A",
-                getMonthTimestamp(lastMonth),
-                3L,
-                300,
-                500,
-                750,
-                990),
-            ApplicationSubmissionsStat.create(
-                "fake-program-b",
-                "Fake Program B",
-                getMonthTimestamp(twoMonthsAgo),
-                3L,
-                300,
-                500,
-                750,
-                990));
+            tuple("fake-program-a", "Fake Program A", getMonthTimestamp(today), 3L),
+            tuple("fake-program-a", "Fake Program A", getMonthTimestamp(lastMonth), 3L),
+            tuple("fake-program-b", "Fake Program B", getMonthTimestamp(lastMonth), 1L));
+    // The percentiles are estimated to within 1% of percentile_cont over the durations.
+    for (ApplicationSubmissionsStat stat : stats.subList(0, 2)) {
+      assertThat(stat.submissionDurationSeconds25p()).isCloseTo(300, withinPercentage(1));
+      assertThat(stat.submissionDurationSeconds50p()).isCloseTo(500, withinPercentage(1));
+      assertThat(stat.submissionDurationSeconds75p()).isCloseTo(750, withinPercentage(1));
+      assertThat(stat.submissionDurationSeconds99p()).isCloseTo(990, withinPercentage(1));
+    }
+    assertThat(stats.get(2).submissionDurationSeconds50p()).isCloseTo(60, withinPercentage(1));
   }
 
   @Test
-  public void loadThisMonthReportingData() {
-    Instant today = testClock.instant();
+  public void recordSubmission_ignoresUnsubmittedApplications() {
+    ApplicationModel draft = new ApplicationModel(applicant, programA, LifecycleStage.DRAFT);
+    draft.save();
 
-    ImmutableList.of(
-            Triple.of(LifecycleStage.ACTIVE, today, today.plusSeconds(100)),
-            Triple.of(LifecycleStage.OBSOLETE, today, today.plusSeconds(1000)),
-            Triple.of(LifecycleStage.OBSOLETE, today, today.plusSeconds(500)),
-            Triple.of(LifecycleStage.DRAFT, today, today.plusSeconds(1)))
-        .stream()
-        .forEach(
-            applicationSpec ->
-                createFakeApplication(
-                    programA,
-                    applicationSpec.getLeft(),
-                    applicationSpec.getMiddle(),
-                    applicationSpec.getRight()));
+    repo.recordSubmission(draft.id);
 
-    ImmutableList.of(
-            Triple.of(LifecycleStage.ACTIVE, today, today.plusSeconds(100)),
-            Triple.of(LifecycleStage.OBSOLETE, today, today.plusSeconds(1000)),
-            Triple.of(LifecycleStage.OBSOLETE, today, today.plusSeconds(500)),
-            Triple.of(LifecycleStage.DRAFT, today, today.plusSeconds(1)))
-        .stream()
-        .forEach(
-            applicationSpec ->
-                createFakeApplication(
-                    programB,
-                    applicationSpec.getLeft(),
-                    applicationSpec.getMiddle(),
-                    applicationSpec.getRight()));
-
-    assertThat(repo.loadThisMonthReportingData())
-        .containsExactly(
-            // The expected values here have submission duration percentile stats calculated from
-            // the submitted (i.e. active and obsolete) applications.
-            ApplicationSubmissionsStat.create(
-                "fake-program-a",
-                "Fake Program A",
-                getMonthTimestamp(today),
-                3L,
-                300,
-                500,
-                750,
-                990),
-            ApplicationSubmissionsStat.create(
-                "fake-program-b",
-                "Fake Program B",
-                getMonthTimestamp(today),
-                3L,
-                300,
-                500,
-                750,
-                990));
+    assertThat(repo.loadMonthlyReportingData()).isEmpty();
+  }
+
+  @Test
+  public void loadMonthlyReportingData_onlyIncludesActivePrograms() {
+    ProgramModel draftProgram = ProgramBuilder.newDraftProgram("fake-program-c").build();
+    submitFakeApplication(programA, testClock.instant(), testClock.instant().plusSeconds(10));
+    submitFakeApplication(draftProgram, testClock.instant(), testClock.instant().plusSeconds(10));
+
+    assertThat(repo.loadMonthlyReportingData())
+        .extracting(ApplicationSubmissionsStat::programName)
+        .containsExactly("fake-program-a");
   }
 
   private static Optional<Timestamp> getMonthTimestamp(Instant lastMonth) {
@@ -156,9 +103,8 @@ public class ReportingRepositoryTest extends ResetPostgres {
             lastMonth.atZone(UTC).truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1).toInstant()));
   }
 
-  private ApplicationModel createFakeApplication(
-      ProgramModel program, LifecycleStage lifecycleStage, Instant createTime, Instant submitTime) {
-    ApplicationModel application = new ApplicationModel(applicant, program, lifecycleStage);
+  private void submitFakeApplication(ProgramModel program, Instant createTime, Instant submitTime) {
+    ApplicationModel application = new ApplicationModel(applicant, program, LifecycleStage.ACTIVE);
     application.setApplicantData(applicant.getApplicantData());
     application.save();
 
@@ -167,7 +113,6 @@ public class ReportingRepositoryTest extends ResetPostgres {
     application.setCreateTimeForTest(createTime);
     application.setSubmitTimeForTest(submitTime);
     application.save();
-
-    return application;
+    repo.recordSubmission(application.id);
   }
 }
@@ -64,6 +64,8 @@ public class ResetPostgres {
   public void resetTables() {
     Database database = DB.getDefault();
     Models.truncate(database);
+    // Reporting rollups aren't a model, so they're truncated separately.
+    database.sqlUpdate("TRUNCATE application_submission_rollups").execute();
     VersionModel newActiveVersion = new VersionModel(LifecycleStage.ACTIVE);
     newActiveVersion.save();
     instanceOf(SettingsService.class).migrateConfigValuesToSettingsGroup();
@@ -7,6 +7,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import io.ebean.DB;
 import io.ebean.Transaction;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
@@ -17,6 +18,8 @@ import models.VersionModel;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import play.cache.SyncCacheApi;
 import services.applicant.question.Scalar;
 import services.program.CantPublishProgramWithSharedQuestionsException;
@@ -33,21 +36,24 @@ import services.program.predicate.PredicateDefinition;
 import services.program.predicate.PredicateExpressionNode;
 import services.program.predicate.PredicateExpressionNodeType;
 import services.program.predicate.PredicateValue;
-import services.question.types.QuestionDefinition;
 import services.settings.SettingsManifest;
 import support.ProgramBuilder;
 
 public class VersionRepositoryTest extends ResetPostgres {
+  private static final Logger logger = LoggerFactory.getLogger(VersionRepositoryTest.class);
+
   private VersionRepository versionRepository;
   private SyncCacheApi questionsByVersionCache;
   private SyncCacheApi programsByVersionCache;
   private SettingsManifest mockSettingsManifest;
+  private VersionPointerCache versionPointerCache;
 
   @Before
   public void setupVersionRepository() {
     mockSettingsManifest = Mockito.mock(SettingsManifest.class);
     questionsByVersionCache = instanceOf(SyncCacheApi.class);
     programsByVersionCache = instanceOf(SyncCacheApi.class);
+    versionPointerCache = new VersionPointerCache(testClock, Duration.ofHours(1));
     versionRepository =
         new VersionRepository(
             instanceOf(ProgramRepository.class),
@@ -55,7 +61,9 @@ public class VersionRepositoryTest extends ResetPostgres {
             instanceOf(DatabaseExecutionContext.class),
             mockSettingsManifest,
             questionsByVersionCache,
-            programsByVersionCache);
+            programsByVersionCache,
+            versionPointerCache,
+            instanceOf(CacheInvalidationBus.class));
   }
 
   @Test
@@ -625,6 +633,136 @@ public class VersionRepositoryTest extends ResetPostgres {
     assertThat(beforeQuestionTimestamps).isEqualTo(afterQuestionTimestamps);
   }
 
+  @Test
+  public void testPublish_removesProgramsAndQuestionsAddedAndDeletedInTheDraft() throws Exception {
+    QuestionModel activeQuestion = insertActiveQuestion("active-question");
+    QuestionModel draftOnlyQuestion = insertDraftQuestion("draft-only-question");
+    ProgramModel draftOnlyProgram = resourceCreator.insertDraftProgram("draft-only-program");
+    VersionModel draft = versionRepository.getDraftVersionOrCreate();
+    versionRepository.addTombstoneForQuestionInVersion(draftOnlyQuestion, draft);
+    draft.addTombstoneForProgramForTest(draftOnlyProgram);
+    draft.save();
+
+    versionRepository.publishNewSynchronizedVersion();
+
+    VersionModel active = versionRepository.getActiveVersion();
+    assertThat(active.id).isEqualTo(draft.id);
+    assertThat(active.getPrograms()).isEmpty();
+    assertThat(active.getQuestions().stream().map(q -> q.id)).containsExactly(activeQuestion.id);
+    assertThat(active.getTombstonedProgramNames()).isEmpty();
+    assertThat(active.getTombstonedQuestionNames()).isEmpty();
+  }
+
+  @Test
+  public void testPublish_timesEachPhaseAndAssociatesEveryProgramAndQuestion() {
+    QuestionModel firstQuestion = insertActiveQuestion("first-question");
+    QuestionModel secondQuestion = insertActiveQuestion("second-question");
+    ProgramBuilder.newActiveProgram("active-program")
+        .withBlock("Screen 1")
+        .withRequiredQuestions(ImmutableList.of(firstQuestion, secondQuestion))
+        .build();
+    resourceCreator.insertDraftProgram("draft-program");
+
+    VersionRepository.PublishTimings timings = versionRepository.publishNewSynchronizedVersion();
+
+    assertThat(timings.associate()).isGreaterThanOrEqualTo(Duration.ZERO);
+    assertThat(timings.validate()).isGreaterThanOrEqualTo(Duration.ZERO);
+    assertThat(timings.commit()).isGreaterThanOrEqualTo(Duration.ZERO);
+    assertThat(timings.invalidateCaches()).isGreaterThanOrEqualTo(Duration.ZERO);
+    long activeVersionId = versionRepository.getActiveVersion().id;
+    assertThat(countRows("versions_programs", activeVersionId)).isEqualTo(2);
+    assertThat(countRows("versions_questions", activeVersionId)).isEqualTo(2);
+  }
+
+  /**
+   * Publishes a synthetic catalog of many programs and questions, most of which are carried forward
+   * from the active version, and logs how long each phase took compared to publishing a catalog of
+   * one program.
+   *
+   * <p>Run with {@code -Dversion_repository.publish_benchmark=true} to publish hundreds of programs
+   * and thousands of questions. The counts can be set with {@code
+   * -Dversion_repository.publish_benchmark.programs} and {@code
+   * -Dversion_repository.publish_benchmark.questions_per_program}.
+   */
+  @Test
+  public void testPublish_largeCatalog() {
+    boolean benchmark = Boolean.getBoolean("version_repository.publish_benchmark");
+    int programCount =
+        Integer.getInteger("version_repository.publish_benchmark.programs", benchmark ? 300 : 50);
+    int questionsPerProgram =
+        Integer.getInteger("version_repository.publish_benchmark.questions_per_program", 10);
+
+    // Publish the same edit to a catalog of one program, to compare against.
+    QuestionModel baselineQuestion = insertActiveQuestion("baseline-question");
+    ProgramBuilder.newActiveProgram("baseline-program")
+        .withBlock("Screen 1")
+        .withRequiredQuestion(baselineQuestion)
+        .build();
+    ProgramBuilder.newDraftProgram("baseline-program")
+        .withBlock("Screen 1")
+        .withRequiredQuestion(insertDraftQuestion("baseline-question"))
+        .build();
+    VersionRepository.PublishTimings baselineTimings =
+        versionRepository.publishNewSynchronizedVersion();
+
+    VersionModel oldActive = versionRepository.getActiveVersion();
+    ImmutableList.Builder<Long> activeProgramIds = ImmutableList.builder();
+    for (int i = 0; i < programCount; i++) {
+      ImmutableList.Builder<QuestionModel> questions = ImmutableList.builder();
+      for (int j = 0; j < questionsPerProgram; j++) {
+        questions.add(insertActiveQuestion(String.format("question-%d-%d", i, j)));
+      }
+      activeProgramIds.add(
+          ProgramBuilder.newActiveProgram(String.format("program-%d", i))
+              .withBlock("Screen 1")
+              .withRequiredQuestions(questions.build())
+              .build()
+              .id);
+    }
+    // Edit one program and one of its questions in the draft.
+    QuestionModel updatedQuestion = insertDraftQuestion("question-0-0");
+    ProgramModel updatedProgram =
+        ProgramBuilder.newDraftProgram("program-0")
+            .withBlock("Screen 1")
+            .withRequiredQuestion(updatedQuestion)
+            .build();
+
+    VersionRepository.PublishTimings timings = versionRepository.publishNewSynchronizedVersion();
+
+    logger.info(
+        "Published {} programs and {} questions: associated in {} ms, validated in {} ms,"
+            + " committed in {} ms, {} ms in total. One program took {} ms, {} ms, {} ms and"
+            + " {} ms in total.",
+        programCount + 1,
+        programCount * questionsPerProgram + 1,
+        timings.associate().toMillis(),
+        timings.validate().toMillis(),
+        timings.commit().toMillis(),
+        timings.total().toMillis(),
+        baselineTimings.associate().toMillis(),
+        baselineTimings.validate().toMillis(),
+        baselineTimings.commit().toMillis(),
+        baselineTimings.total().toMillis());
+    VersionModel active = versionRepository.getActiveVersion();
+    assertThat(active.getPrograms().stream().map(p -> p.id))
+        .hasSize(programCount + 1)
+        .contains(updatedProgram.id)
+        .doesNotContain(activeProgramIds.build().get(0));
+    assertThat(active.getQuestions().stream().map(q -> q.id))
+        .hasSize(programCount * questionsPerProgram + 1)
+        .contains(updatedQuestion.id);
+    oldActive.refresh();
+    assertThat(oldActive.getLifecycleStage()).isEqualTo(LifecycleStage.OBSOLETE);
+  }
+
+  private static long countRows(String joinTable, long versionId) {
+    return DB.getDefault()
+        .sqlQuery("SELECT count(*) AS count FROM " + joinTable + " WHERE versions_id = :version_id")
+        .setParameter("version_id", versionId)
+        .findOne()
+        .getLong("count");
+  }
+
   @Test
   public void testTransactionality() {
     Transaction outer = DB.getDefault().beginTransaction();
@@ -861,18 +999,12 @@ public class VersionRepositoryTest extends ResetPostgres {
 
   @Test
   public void validateNoDuplicateQuestions_duplicatesThrowException() {
-    QuestionDefinition firstQuestion =
-        resourceCreator.insertQuestion("first-question").getQuestionDefinition();
-    QuestionDefinition secondQuestion =
-        resourceCreator.insertQuestion("second-question").getQuestionDefinition();
-    QuestionDefinition secondQuestion2 =
-        resourceCreator.insertQuestion("second-question").getQuestionDefinition();
-
     assertThatThrownBy(
             () ->
                 versionRepository.validateNoDuplicateQuestions(
-                    ImmutableList.of(firstQuestion, secondQuestion2, secondQuestion)))
-        .isInstanceOf(IllegalStateException.class);
+                    ImmutableList.of("first-question", "second-question", "second-question")))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("second-question");
   }
 
   @Test
@@ -1094,4 +1226,53 @@ public class VersionRepositoryTest extends ResetPostgres {
 
     assertThat(programsByVersionCache.get(version1Key).isPresent()).isFalse();
   }
+
+  @Test
+  public void getActiveVersion_withPointerCache_usesCachedIdUntilInvalidated() {
+    Mockito.when(mockSettingsManifest.getVersionPointerCacheEnabled()).thenReturn(true);
+    VersionModel originalActive = versionRepository.getActiveVersion();
+
+    // Move the active version behind the repository's back.
+    originalActive.setLifecycleStage(LifecycleStage.OBSOLETE).save();
+    VersionModel newActive = new VersionModel(LifecycleStage.ACTIVE);
+    newActive.save();
+
+    assertThat(versionRepository.getActiveVersion().id).isEqualTo(originalActive.id);
+
+    versionPointerCache.invalidate();
+
+    assertThat(versionRepository.getActiveVersion().id).isEqualTo(newActive.id);
+  }
+
+  @Test
+  public void getActiveVersion_withPointerCache_readsDatabaseInsideTransaction() {
+    Mockito.when(mockSettingsManifest.getVersionPointerCacheEnabled()).thenReturn(true);
+    VersionModel originalActive = versionRepository.getActiveVersion();
+    originalActive.setLifecycleStage(LifecycleStage.OBSOLETE).save();
+    VersionModel newActive = new VersionModel(LifecycleStage.ACTIVE);
+    newActive.save();
+
+    Transaction transaction = DB.getDefault().beginTransaction();
+    try {
+      assertThat(versionRepository.getActiveVersion().id).isEqualTo(newActive.id);
+    } finally {
+      transaction.end();
+    }
+  }
+
+  @Test
+  public void getDraftVersion_withPointerCache_isUpdatedByDraftCreationAndPublish() {
+    Mockito.when(mockSettingsManifest.getVersionPointerCacheEnabled()).thenReturn(true);
+    assertThat(versionRepository.getDraftVersion()).isEmpty();
+
+    VersionModel draft = versionRepository.getDraftVersionOrCreate();
+
+    assertThat(versionRepository.getDraftVersion().map(version -> version.id)).contains(draft.id);
+
+    resourceCreator.insertDraftProgram("first-program");
+    versionRepository.publishNewSynchronizedVersion();
+
+    assertThat(versionRepository.getActiveVersion().id).isEqualTo(draft.id);
+    assertThat(versionRepository.getDraftVersion()).isEmpty();
+  }
 }
@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.testing.EqualsTester;
 import com.jayway.jsonpath.PathNotFoundException;
 import java.time.LocalDate;
@@ -51,6 +52,49 @@ public class CfJsonDocumentContextTest {
         .testEquals();
   }
 
+  @Test
+  public void getChangedEntries_returnsTheCurrentValueOfEachChangedEntry() {
+    CfJsonDocumentContext data =
+        new CfJsonDocumentContext(
+            "{\"applicant\": {\"kept\": {\"text\": \"a\"}, \"removed\": {\"text\": \"b\"}}}");
+
+    data.putString(Path.create("applicant.name.first_name"), "Alice");
+    data.putString(Path.create("applicant.children[0].entity_name"), "Bob");
+    data.maybeDelete(Path.create("applicant.removed"));
+
+    assertThat(data.getChangedEntries())
+        .hasValue(
+            ImmutableMap.of(
+                Path.create("applicant.name"),
+                Optional.of("{\"first_name\":\"Alice\"}"),
+                Path.create("applicant.children"),
+                Optional.of("[{\"entity_name\":\"Bob\"}]"),
+                Path.create("applicant.removed"),
+                Optional.empty()));
+  }
+
+  @Test
+  public void getChangedEntries_afterATopLevelChange_isEmpty() {
+    CfJsonDocumentContext data = new CfJsonDocumentContext();
+
+    data.putString(Path.create("applicant.name.first_name"), "Alice");
+
+    // Creating the applicant object itself can't be written as a change to one of its entries.
+    assertThat(data.getChangedEntries()).isEmpty();
+  }
+
+  @Test
+  public void getChangedEntries_afterClearChanges_tracksOnlyNewChanges() {
+    CfJsonDocumentContext data = new CfJsonDocumentContext();
+    data.putString(Path.create("applicant.name.first_name"), "Alice");
+
+    data.clearChanges();
+    data.putLong(Path.create("applicant.age.number"), 30);
+
+    assertThat(data.getChangedEntries())
+        .hasValue(ImmutableMap.of(Path.create("applicant.age"), Optional.of("{\"number\":30}")));
+  }
+
   @Test
   public void overwriteDataAtSamePath_succeeds() {
     CfJsonDocumentContext data = new CfJsonDocumentContext();
@@ -102,6 +146,32 @@ public class CfJsonDocumentContextTest {
     assertThat(data.hasPath(Path.create("I_don't_exist!"))).isFalse();
   }
 
+  @Test
+  public void hasPath_returnsFalseForMissingArrayIndex() {
+    CfJsonDocumentContext data = new CfJsonDocumentContext();
+    data.putString(Path.create("applicant.chores[0]"), "wash dishes");
+
+    assertThat(data.hasPath(Path.create("applicant.chores[1]"))).isFalse();
+  }
+
+  @Test
+  public void hasPath_returnsFalseForPathThroughScalar() {
+    CfJsonDocumentContext data = new CfJsonDocumentContext();
+    data.putString(Path.create("applicant.school"), "Elementary School");
+
+    assertThat(data.hasPath(Path.create("applicant.school.name"))).isFalse();
+    assertThat(data.hasPath(Path.create("applicant.school[0]"))).isFalse();
+  }
+
+  @Test
+  public void hasPath_returnsTrueForNullValue() {
+    CfJsonDocumentContext data = new CfJsonDocumentContext();
+    Path path = Path.create("applicant.horses");
+    data.putLong(path, "");
+
+    assertThat(data.hasPath(path)).isTrue();
+  }
+
   @Test
   public void hasValueAtPath_returnsTrueIfValuePresent() {
     CfJsonDocumentContext data = new CfJsonDocumentContext();
@@ -2,6 +2,7 @@ package services;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.google.common.collect.ImmutableList;
 import org.junit.Test;
 import services.applicant.question.Scalar;
 import services.export.enums.ApiPathSegment;
@@ -48,6 +49,24 @@ public class PathTest {
     assertThat(Path.create("a.b.c[3].d").toString()).isEqualTo("a.b.c[3].d");
   }
 
+  @Test
+  public void documentSteps_keysAndArrayIndices() {
+    assertThat(Path.create("applicant.children[3].name").documentSteps())
+        .hasValue(ImmutableList.of("applicant", "children", 3, "name"));
+    assertThat(Path.empty().documentSteps()).hasValue(ImmutableList.of());
+  }
+
+  @Test
+  public void documentSteps_arraySuffixWithoutIndex_isEmpty() {
+    assertThat(Path.create("applicant.children[].name").documentSteps()).isEmpty();
+  }
+
+  @Test
+  public void jsonPath_isSharedBetweenEqualPaths() {
+    assertThat(Path.create("applicant.name").jsonPath())
+        .isSameAs(Path.create("applicant").join("name").jsonPath());
+  }
+
   @Test
   public void toString_empty_hasSuffix() {
     assertThat(Path.empty().toString()).isEqualTo("$");
@@ -119,6 +119,33 @@ public class ApiKeyServiceTest extends ResetPostgres {
         .containsExactly("test key 2", "test key 1", "test key 0");
   }
 
+  @Test
+  public void listActiveApiKeys_includesUsageRecordedInMemory() {
+    resourceCreator.insertActiveProgram("test program");
+    ApiKeyModel apiKey =
+        apiKeyService
+            .createApiKey(
+                buildForm(
+                    ImmutableMap.of(
+                        "keyName",
+                        "test key",
+                        "expiration",
+                        getApiKeyExpirationDate(Instant.now().plusSeconds(60 * 60 * 24 * 7)),
+                        "subnet",
+                        "0.0.0.1/32",
+                        "grant-program-read[test-program]",
+                        "true")),
+                adminProfile)
+            .getApiKey();
+
+    apiKeyService.recordApiKeyUsage(apiKey.getKeyId(), "1.1.1.1");
+    apiKeyService.recordApiKeyUsage(apiKey.getKeyId(), "2.2.2.2");
+
+    ApiKeyModel listedKey = Iterables.getOnlyElement(apiKeyService.listActiveApiKeys());
+    assertThat(listedKey.getCallCount()).isEqualTo(2L);
+    assertThat(listedKey.getLastCallIpAddress()).contains("2.2.2.2");
+  }
+
   @Test
   public void listRetiredApiKeys() {
     resourceCreator.insertActiveProgram("test program");
@@ -0,0 +1,59 @@
+package services.apikey;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import models.ApiKeyModel;
+import org.junit.Before;
+import org.junit.Test;
+import repository.ResetPostgres;
+
+public class ApiKeyUsageRecorderTest extends ResetPostgres {
+
+  private ApiKeyUsageRecorder recorder;
+
+  @Before
+  public void setUp() {
+    recorder = instanceOf(ApiKeyUsageRecorder.class);
+    // Drop anything recorded by earlier tests.
+    recorder.flush();
+  }
+
+  @Test
+  public void flush_writesCoalescedUsageForEveryKey() {
+    ApiKeyModel keyA = resourceCreator.createActiveApiKey("key-a", "key-a-id", "secret-a");
+    ApiKeyModel keyB = resourceCreator.createActiveApiKey("key-b", "key-b-id", "secret-b");
+
+    recorder.record("key-a-id", "1.1.1.1");
+    recorder.record("key-a-id", "2.2.2.2");
+    recorder.record("key-a-id", "3.3.3.3");
+    recorder.record("key-b-id", "4.4.4.4");
+
+    // Nothing is written until the recorder flushes.
+    keyA.refresh();
+    assertThat(keyA.getCallCount()).isEqualTo(0L);
+
+    recorder.flush();
+
+    keyA.refresh();
+    keyB.refresh();
+    assertThat(keyA.getCallCount()).isEqualTo(3L);
+    assertThat(keyA.getLastCallIpAddress()).contains("3.3.3.3");
+    assertThat(keyB.getCallCount()).isEqualTo(1L);
+    assertThat(keyB.getLastCallIpAddress()).contains("4.4.4.4");
+  }
+
+  @Test
+  public void flush_onlyWritesUsageRecordedSinceTheLastFlush() {
+    ApiKeyModel key = resourceCreator.createActiveApiKey("key-a", "key-a-id", "secret-a");
+
+    recorder.record("key-a-id", "1.1.1.1");
+    recorder.flush();
+    recorder.flush();
+    recorder.record("key-a-id", "2.2.2.2");
+    recorder.flush();
+
+    key.refresh();
+    assertThat(key.getCallCount()).isEqualTo(2L);
+    assertThat(key.getLastCallIpAddress()).contains("2.2.2.2");
+  }
+}
@@ -3,8 +3,6 @@ package services.applicant;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.catchThrowable;
-import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.ArgumentMatchers.eq;
 import static support.FakeRequestBuilder.fakeRequest;
 import static support.FakeRequestBuilder.fakeRequestBuilder;
 
@@ -36,7 +34,6 @@ import models.ProgramNotificationPreference;
 import models.QuestionModel;
 import models.StoredFileModel;
 import models.TrustedIntermediaryGroupModel;
-import org.apache.commons.lang3.reflect.FieldUtils;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
@@ -48,6 +45,7 @@ import repository.AccountRepository;
 import repository.ApplicationEventRepository;
 import repository.ApplicationRepository;
 import repository.ApplicationStatusesRepository;
+import repository.EmailOutboxRepository;
 import repository.ResetPostgres;
 import repository.VersionRepository;
 import services.Address;
@@ -65,7 +63,7 @@ import services.applicant.question.AddressQuestion;
 import services.applicant.question.ApplicantQuestion;
 import services.applicant.question.Scalar;
 import services.application.ApplicationEventDetails.StatusEvent;
-import services.cloud.aws.SimpleEmail;
+import services.email.EmailMessage;
 import services.geo.AddressLocation;
 import services.geo.AddressSuggestion;
 import services.geo.AddressSuggestionGroup;
@@ -118,7 +116,7 @@ public class ApplicantServiceFastForwardEnabledTest extends ResetPostgres {
   private ApplicantModel tiApplicant;
   private ProgramService programService;
   private String baseUrl;
-  private SimpleEmail amazonSESClient;
+  private EmailOutboxRepository emailOutboxRepository;
   private MessagesApi messagesApi;
   private CiviFormProfile applicantProfile;
   private ProfileFactory profileFactory;
@@ -158,8 +156,7 @@ public class ApplicantServiceFastForwardEnabledTest extends ResetPostgres {
 
     programService = instanceOf(ProgramService.class);
 
-    amazonSESClient = Mockito.mock(SimpleEmail.class);
-    FieldUtils.writeField(subject, "amazonSESClient", amazonSESClient, true);
+    emailOutboxRepository = instanceOf(EmailOutboxRepository.class);
 
     messagesApi = instanceOf(MessagesApi.class);
   }
@@ -1251,52 +1248,56 @@ public class ApplicantServiceFastForwardEnabledTest extends ResetPostgres {
     String programName = programDefinition.adminName();
 
     // Program admin email
-    Mockito.verify(amazonSESClient)
-        .send(
-            ImmutableList.of("admin@example.com"),
-            String.format("New application %d submitted", application.id),
-            String.format(
-                "Applicant %d submitted a new application %d to program %s.\n"
-                    + "View the application at %s.",
-                applicant.id,
-                application.id,
-                programName,
-                baseUrl
-                    + String.format(
-                        "/admin/programs/%1$d/applications?selectedApplicationUri=%%2Fadmin%%2Fprograms%%2F%1$d%%2Fapplications%%2F%2$d",
-                        programDefinition.id(), application.id)));
+    assertThat(emailOutboxRepository.getPendingEmails())
+        .contains(
+            EmailMessage.create(
+                ImmutableList.of("admin@example.com"),
+                String.format("New application %d submitted", application.id),
+                String.format(
+                    "Applicant %d submitted a new application %d to program %s.\n"
+                        + "View the application at %s.",
+                    applicant.id,
+                    application.id,
+                    programName,
+                    baseUrl
+                        + String.format(
+                            "/admin/programs/%1$d/applications?selectedApplicationUri=%%2Fadmin%%2Fprograms%%2F%1$d%%2Fapplications%%2F%2$d",
+                            programDefinition.id(), application.id))));
     // TI email
-    Mockito.verify(amazonSESClient)
-        .send(
-            "ti@tis.com",
-            messages.at(
-                MessageKey.EMAIL_TI_APPLICATION_SUBMITTED_SUBJECT.getKeyName(),
-                programName,
-                applicant.id),
-            String.format(
-                "%s\n%s",
+    assertThat(emailOutboxRepository.getPendingEmails())
+        .contains(
+            EmailMessage.create(
+                "ti@tis.com",
                 messages.at(
-                    MessageKey.EMAIL_TI_APPLICATION_SUBMITTED_BODY.getKeyName(),
+                    MessageKey.EMAIL_TI_APPLICATION_SUBMITTED_SUBJECT.getKeyName(),
                     programName,
-                    applicant.id,
-                    application.id),
-                messages.at(
-                    MessageKey.EMAIL_TI_MANAGE_YOUR_CLIENTS.getKeyName(),
-                    baseUrl + "/admin/tiDash?page=1")));
+                    applicant.id),
+                String.format(
+                    "%s\n%s",
+                    messages.at(
+                        MessageKey.EMAIL_TI_APPLICATION_SUBMITTED_BODY.getKeyName(),
+                        programName,
+                        applicant.id,
+                        application.id),
+                    messages.at(
+                        MessageKey.EMAIL_TI_MANAGE_YOUR_CLIENTS.getKeyName(),
+                        baseUrl + "/admin/tiDash?page=1"))));
 
     // Applicant email
-    Mockito.verify(amazonSESClient)
-        .send(
-            "user1@example.com",
-            messages.at(MessageKey.EMAIL_APPLICATION_RECEIVED_SUBJECT.getKeyName(), programName),
-            String.format(
-                "%s\n%s",
+    assertThat(emailOutboxRepository.getPendingEmails())
+        .contains(
+            EmailMessage.create(
+                "user1@example.com",
                 messages.at(
-                    MessageKey.EMAIL_APPLICATION_RECEIVED_BODY.getKeyName(),
-                    programName,
-                    applicant.id,
-                    application.id),
-                messages.at(MessageKey.EMAIL_LOGIN_TO_CIVIFORM.getKeyName(), baseUrl)));
+                    MessageKey.EMAIL_APPLICATION_RECEIVED_SUBJECT.getKeyName(), programName),
+                String.format(
+                    "%s\n%s",
+                    messages.at(
+                        MessageKey.EMAIL_APPLICATION_RECEIVED_BODY.getKeyName(),
+                        programName,
+                        applicant.id,
+                        application.id),
+                    messages.at(MessageKey.EMAIL_LOGIN_TO_CIVIFORM.getKeyName(), baseUrl))));
   }
 
   @Test
@@ -1340,42 +1341,46 @@ public class ApplicantServiceFastForwardEnabledTest extends ResetPostgres {
     String programName = programDefinition.adminName();
 
     // Program admin email
-    Mockito.verify(amazonSESClient)
-        .send(
-            ImmutableList.of("admin@example.com"),
-            String.format("New application %d submitted", application.id),
-            String.format(
-                "Applicant %d submitted a new application %d to program %s.\n"
-                    + "View the application at %s.",
-                applicant.id,
-                application.id,
-                programName,
-                baseUrl
-                    + String.format(
-                        "/admin/programs/%1$d/applications?selectedApplicationUri=%%2Fadmin%%2Fprograms%%2F%1$d%%2Fapplications%%2F%2$d",
-                        programDefinition.id(), application.id)));
+    assertThat(emailOutboxRepository.getPendingEmails())
+        .contains(
+            EmailMessage.create(
+                ImmutableList.of("admin@example.com"),
+                String.format("New application %d submitted", application.id),
+                String.format(
+                    "Applicant %d submitted a new application %d to program %s.\n"
+                        + "View the application at %s.",
+                    applicant.id,
+                    application.id,
+                    programName,
+                    baseUrl
+                        + String.format(
+                            "/admin/programs/%1$d/applications?selectedApplicationUri=%%2Fadmin%%2Fprograms%%2F%1$d%%2Fapplications%%2F%2$d",
+                            programDefinition.id(), application.id))));
     // TI email
-    Mockito.verify(amazonSESClient)
-        .send(
-            "ti@tis.com",
-            messages.at(
-                MessageKey.EMAIL_TI_APPLICATION_SUBMITTED_SUBJECT.getKeyName(),
-                programName,
-                applicant.id),
-            String.format(
-                "%s\n%s",
-                "I'm a US email!",
+    assertThat(emailOutboxRepository.getPendingEmails())
+        .contains(
+            EmailMessage.create(
+                "ti@tis.com",
                 messages.at(
-                    MessageKey.EMAIL_TI_MANAGE_YOUR_CLIENTS.getKeyName(),
-                    baseUrl + "/admin/tiDash?page=1")));
+                    MessageKey.EMAIL_TI_APPLICATION_SUBMITTED_SUBJECT.getKeyName(),
+                    programName,
+                    applicant.id),
+                String.format(
+                    "%s\n%s",
+                    "I'm a US email!",
+                    messages.at(
+                        MessageKey.EMAIL_TI_MANAGE_YOUR_CLIENTS.getKeyName(),
+                        baseUrl + "/admin/tiDash?page=1"))));
 
     // Applicant email
-    Mockito.verify(amazonSESClient)
-        .send(
-            "user1@example.com",
-            messages.at(MessageKey.EMAIL_APPLICATION_RECEIVED_SUBJECT.getKeyName(), programName),
-            "I'm a US email!\n"
-                + messages.at(MessageKey.EMAIL_LOGIN_TO_CIVIFORM.getKeyName(), baseUrl));
+    assertThat(emailOutboxRepository.getPendingEmails())
+        .contains(
+            EmailMessage.create(
+                "user1@example.com",
+                messages.at(
+                    MessageKey.EMAIL_APPLICATION_RECEIVED_SUBJECT.getKeyName(), programName),
+                "I'm a US email!\n"
+                    + messages.at(MessageKey.EMAIL_LOGIN_TO_CIVIFORM.getKeyName(), baseUrl)));
   }
 
   @Test
@@ -1417,27 +1422,30 @@ public class ApplicantServiceFastForwardEnabledTest extends ResetPostgres {
     String programName = programDefinition.adminName();
 
     // TI email
-    Mockito.verify(amazonSESClient)
-        .send(
-            "ti@example.com",
-            koMessages.at(
-                MessageKey.EMAIL_TI_APPLICATION_SUBMITTED_SUBJECT.getKeyName(),
-                programName,
-                applicant.id),
-            String.format(
-                "%s\n%s",
-                "I'm a KOREAN email!",
+    assertThat(emailOutboxRepository.getPendingEmails())
+        .contains(
+            EmailMessage.create(
+                "ti@example.com",
                 koMessages.at(
-                    MessageKey.EMAIL_TI_MANAGE_YOUR_CLIENTS.getKeyName(),
-                    baseUrl + "/admin/tiDash?page=1")));
+                    MessageKey.EMAIL_TI_APPLICATION_SUBMITTED_SUBJECT.getKeyName(),
+                    programName,
+                    applicant.id),
+                String.format(
+                    "%s\n%s",
+                    "I'm a KOREAN email!",
+                    koMessages.at(
+                        MessageKey.EMAIL_TI_MANAGE_YOUR_CLIENTS.getKeyName(),
+                        baseUrl + "/admin/tiDash?page=1"))));
 
     // Applicant email
-    Mockito.verify(amazonSESClient)
-        .send(
-            "user2@example.com",
-            enMessages.at(MessageKey.EMAIL_APPLICATION_RECEIVED_SUBJECT.getKeyName(), programName),
-            "I'm a US email!\n"
-                + enMessages.at(MessageKey.EMAIL_LOGIN_TO_CIVIFORM.getKeyName(), baseUrl));
+    assertThat(emailOutboxRepository.getPendingEmails())
+        .contains(
+            EmailMessage.create(
+                "user2@example.com",
+                enMessages.at(
+                    MessageKey.EMAIL_APPLICATION_RECEIVED_SUBJECT.getKeyName(), programName),
+                "I'm a US email!\n"
+                    + enMessages.at(MessageKey.EMAIL_LOGIN_TO_CIVIFORM.getKeyName(), baseUrl)));
   }
 
   @Test
@@ -1475,12 +1483,14 @@ public class ApplicantServiceFastForwardEnabledTest extends ResetPostgres {
     String programName = programDefinition.adminName();
 
     // Applicant email
-    Mockito.verify(amazonSESClient)
-        .send(
-            "user3@example.com",
-            messages.at(MessageKey.EMAIL_APPLICATION_RECEIVED_SUBJECT.getKeyName(), programName),
-            "I'm a KOREAN email!\n"
-                + messages.at(MessageKey.EMAIL_LOGIN_TO_CIVIFORM.getKeyName(), baseUrl));
+    assertThat(emailOutboxRepository.getPendingEmails())
+        .contains(
+            EmailMessage.create(
+                "user3@example.com",
+                messages.at(
+                    MessageKey.EMAIL_APPLICATION_RECEIVED_SUBJECT.getKeyName(), programName),
+                "I'm a KOREAN email!\n"
+                    + messages.at(MessageKey.EMAIL_LOGIN_TO_CIVIFORM.getKeyName(), baseUrl)));
   }
 
   @Test
@@ -1516,8 +1526,8 @@ public class ApplicantServiceFastForwardEnabledTest extends ResetPostgres {
     application.refresh();
 
     // Program admin email not sent
-    Mockito.verify(amazonSESClient, Mockito.times(0))
-        .send(eq(ImmutableList.of("admin@example.com")), anyString(), anyString());
+    assertThat(emailOutboxRepository.getPendingEmails())
+        .noneMatch(email -> email.toAddresses().contains("admin@example.com"));
   }
 
   @Test
@@ -3,8 +3,6 @@ package services.applicant;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.catchThrowable;
-import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.ArgumentMatchers.eq;
 import static support.FakeRequestBuilder.fakeRequest;
 import static support.FakeRequestBuilder.fakeRequestBuilder;
 
@@ -16,6 +14,10 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
+import io.ebean.DB;
+import io.ebean.meta.MetaQueryMetric;
+import io.ebean.meta.MetaTimedMetric;
+import io.ebean.meta.ServerMetrics;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.HashSet;
@@ -36,7 +38,6 @@ import models.ProgramNotificationPreference;
 import models.QuestionModel;
 import models.StoredFileModel;
 import models.TrustedIntermediaryGroupModel;
-import org.apache.commons.lang3.reflect.FieldUtils;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
@@ -48,6 +49,7 @@ import repository.AccountRepository;
 import repository.ApplicationEventRepository;
 import repository.ApplicationRepository;
 import repository.ApplicationStatusesRepository;
+import repository.EmailOutboxRepository;
 import repository.ResetPostgres;
 import repository.VersionRepository;
 import services.Address;
@@ -65,7 +67,7 @@ import services.applicant.question.AddressQuestion;
 import services.applicant.question.ApplicantQuestion;
 import services.applicant.question.Scalar;
 import services.application.ApplicationEventDetails.StatusEvent;
-import services.cloud.aws.SimpleEmail;
+import services.email.EmailMessage;
 import services.geo.AddressLocation;
 import services.geo.AddressSuggestion;
 import services.geo.AddressSuggestionGroup;
@@ -118,7 +120,7 @@ public class ApplicantServiceTest extends ResetPostgres {
   private ApplicantModel tiApplicant;
   private ProgramService programService;
   private String baseUrl;
-  private SimpleEmail amazonSESClient;
+  private EmailOutboxRepository emailOutboxRepository;
   private MessagesApi messagesApi;
   private CiviFormProfile applicantProfile;
   private ProfileFactory profileFactory;
@@ -158,8 +160,7 @@ public class ApplicantServiceTest extends ResetPostgres {
 
     programService = instanceOf(ProgramService.class);
 
-    amazonSESClient = Mockito.mock(SimpleEmail.class);
-    FieldUtils.writeField(subject, "amazonSESClient", amazonSESClient, true);
+    emailOutboxRepository = instanceOf(EmailOutboxRepository.class);
 
     messagesApi = instanceOf(MessagesApi.class);
   }
@@ -574,6 +575,46 @@ public class ApplicantServiceTest extends ResetPostgres {
     assertThat(applicantDataAfter.asJsonString()).contains("Alice", "Doe");
   }
 
+  @Test
+  public void stageAndUpdateIfValid_savingABlockAgain_runsAtMostThreeStatements() {
+    ApplicantModel applicant = subject.createApplicant().toCompletableFuture().join();
+    // The first save creates the draft application and caches the program definition.
+    subject
+        .stageAndUpdateIfValid(
+            applicant.id, programDefinition.id(), "1", applicationUpdates(), false, false)
+        .toCompletableFuture()
+        .join();
+    collectStatementCount();
+
+    subject
+        .stageAndUpdateIfValid(
+            applicant.id,
+            programDefinition.id(),
+            "1",
+            applicationUpdates("Bob", "Smith"),
+            false,
+            false)
+        .toCompletableFuture()
+        .join();
+
+    // Looking up the applicant, writing its changed answers, and checking for the draft
+    // application.
+    assertThat(collectStatementCount()).isLessThanOrEqualTo(3);
+    assertThat(
+            accountRepository
+                .lookupApplicantSync(applicant.id)
+                .get()
+                .getApplicantData()
+                .asJsonString())
+        .contains("Bob", "Smith");
+    assertThat(
+            applicationRepository
+                .getApplicationsForApplicant(applicant.id, ImmutableSet.of(LifecycleStage.DRAFT))
+                .toCompletableFuture()
+                .join())
+        .hasSize(1);
+  }
+
   @Test
   public void stageAndUpdateIfValid_updatesMetadataForQuestionOnce() {
     ApplicantModel applicant = subject.createApplicant().toCompletableFuture().join();
@@ -998,14 +1039,16 @@ public class ApplicantServiceTest extends ResetPostgres {
 
     Messages messages = getMessages(Locale.US);
     String programName = progDef.adminName();
-    Mockito.verify(amazonSESClient)
-        .send(
-            "picard@starfleet.com",
-            messages.at(MessageKey.EMAIL_APPLICATION_RECEIVED_SUBJECT.getKeyName(), programName),
-            String.format(
-                "%s\n%s",
-                APPROVED_STATUS.localizedEmailBodyText().get().getOrDefault(Locale.US),
-                messages.at(MessageKey.EMAIL_LOGIN_TO_CIVIFORM.getKeyName(), baseUrl)));
+    assertThat(emailOutboxRepository.getPendingEmails())
+        .contains(
+            EmailMessage.create(
+                "picard@starfleet.com",
+                messages.at(
+                    MessageKey.EMAIL_APPLICATION_RECEIVED_SUBJECT.getKeyName(), programName),
+                String.format(
+                    "%s\n%s",
+                    APPROVED_STATUS.localizedEmailBodyText().get().getOrDefault(Locale.US),
+                    messages.at(MessageKey.EMAIL_LOGIN_TO_CIVIFORM.getKeyName(), baseUrl))));
   }
 
   @Test
@@ -1122,6 +1165,11 @@ public class ApplicantServiceTest extends ResetPostgres {
     assertThat(applicant.getEmailAddress().get()).isEqualTo("picard@starfleet.com");
     assertThat(applicant.getPhoneNumber().get()).isEqualTo("5032161111");
     assertThat(applicant.getCountryCode().get()).isEqualTo("US");
+    // The application is searched by the primary applicant info saved when it was submitted.
+    application.refresh();
+    assertThat(application.getApplicantSearchText())
+        .hasValueSatisfying(
+            text -> assertThat(text).contains("jean picard").contains("picard@starfleet.com"));
   }
 
   @Test
@@ -1315,52 +1363,56 @@ public class ApplicantServiceTest extends ResetPostgres {
     String programName = programDefinition.adminName();
 
     // Program admin email
-    Mockito.verify(amazonSESClient)
-        .send(
-            ImmutableList.of("admin@example.com"),
-            String.format("New application %d submitted", application.id),
-            String.format(
-                "Applicant %d submitted a new application %d to program %s.\n"
-                    + "View the application at %s.",
-                applicant.id,
-                application.id,
-                programName,
-                baseUrl
-                    + String.format(
-                        "/admin/programs/%1$d/applications?selectedApplicationUri=%%2Fadmin%%2Fprograms%%2F%1$d%%2Fapplications%%2F%2$d",
-                        programDefinition.id(), application.id)));
+    assertThat(emailOutboxRepository.getPendingEmails())
+        .contains(
+            EmailMessage.create(
+                ImmutableList.of("admin@example.com"),
+                String.format("New application %d submitted", application.id),
+                String.format(
+                    "Applicant %d submitted a new application %d to program %s.\n"
+                        + "View the application at %s.",
+                    applicant.id,
+                    application.id,
+                    programName,
+                    baseUrl
+                        + String.format(
+                            "/admin/programs/%1$d/applications?selectedApplicationUri=%%2Fadmin%%2Fprograms%%2F%1$d%%2Fapplications%%2F%2$d",
+                            programDefinition.id(), application.id))));
     // TI email
-    Mockito.verify(amazonSESClient)
-        .send(
-            "ti@tis.com",
-            messages.at(
-                MessageKey.EMAIL_TI_APPLICATION_SUBMITTED_SUBJECT.getKeyName(),
-                programName,
-                applicant.id),
-            String.format(
-                "%s\n%s",
+    assertThat(emailOutboxRepository.getPendingEmails())
+        .contains(
+            EmailMessage.create(
+                "ti@tis.com",
                 messages.at(
-                    MessageKey.EMAIL_TI_APPLICATION_SUBMITTED_BODY.getKeyName(),
+                    MessageKey.EMAIL_TI_APPLICATION_SUBMITTED_SUBJECT.getKeyName(),
                     programName,
-                    applicant.id,
-                    application.id),
-                messages.at(
-                    MessageKey.EMAIL_TI_MANAGE_YOUR_CLIENTS.getKeyName(),
-                    baseUrl + "/admin/tiDash?page=1")));
+                    applicant.id),
+                String.format(
+                    "%s\n%s",
+                    messages.at(
+                        MessageKey.EMAIL_TI_APPLICATION_SUBMITTED_BODY.getKeyName(),
+                        programName,
+                        applicant.id,
+                        application.id),
+                    messages.at(
+                        MessageKey.EMAIL_TI_MANAGE_YOUR_CLIENTS.getKeyName(),
+                        baseUrl + "/admin/tiDash?page=1"))));
 
     // Applicant email
-    Mockito.verify(amazonSESClient)
-        .send(
-            "user1@example.com",
-            messages.at(MessageKey.EMAIL_APPLICATION_RECEIVED_SUBJECT.getKeyName(), programName),
-            String.format(
-                "%s\n%s",
+    assertThat(emailOutboxRepository.getPendingEmails())
+        .contains(
+            EmailMessage.create(
+                "user1@example.com",
                 messages.at(
-                    MessageKey.EMAIL_APPLICATION_RECEIVED_BODY.getKeyName(),
-                    programName,
-                    applicant.id,
-                    application.id),
-                messages.at(MessageKey.EMAIL_LOGIN_TO_CIVIFORM.getKeyName(), baseUrl)));
+                    MessageKey.EMAIL_APPLICATION_RECEIVED_SUBJECT.getKeyName(), programName),
+                String.format(
+                    "%s\n%s",
+                    messages.at(
+                        MessageKey.EMAIL_APPLICATION_RECEIVED_BODY.getKeyName(),
+                        programName,
+                        applicant.id,
+                        application.id),
+                    messages.at(MessageKey.EMAIL_LOGIN_TO_CIVIFORM.getKeyName(), baseUrl))));
   }
 
   @Test
@@ -1404,42 +1456,46 @@ public class ApplicantServiceTest extends ResetPostgres {
     String programName = programDefinition.adminName();
 
     // Program admin email
-    Mockito.verify(amazonSESClient)
-        .send(
-            ImmutableList.of("admin@example.com"),
-            String.format("New application %d submitted", application.id),
-            String.format(
-                "Applicant %d submitted a new application %d to program %s.\n"
-                    + "View the application at %s.",
-                applicant.id,
-                application.id,
-                programName,
-                baseUrl
-                    + String.format(
-                        "/admin/programs/%1$d/applications?selectedApplicationUri=%%2Fadmin%%2Fprograms%%2F%1$d%%2Fapplications%%2F%2$d",
-                        programDefinition.id(), application.id)));
+    assertThat(emailOutboxRepository.getPendingEmails())
+        .contains(
+            EmailMessage.create(
+                ImmutableList.of("admin@example.com"),
+                String.format("New application %d submitted", application.id),
+                String.format(
+                    "Applicant %d submitted a new application %d to program %s.\n"
+                        + "View the application at %s.",
+                    applicant.id,
+                    application.id,
+                    programName,
+                    baseUrl
+                        + String.format(
+                            "/admin/programs/%1$d/applications?selectedApplicationUri=%%2Fadmin%%2Fprograms%%2F%1$d%%2Fapplications%%2F%2$d",
+                            programDefinition.id(), application.id))));
     // TI email
-    Mockito.verify(amazonSESClient)
-        .send(
-            "ti@tis.com",
-            messages.at(
-                MessageKey.EMAIL_TI_APPLICATION_SUBMITTED_SUBJECT.getKeyName(),
-                programName,
-                applicant.id),
-            String.format(
-                "%s\n%s",
-                "I'm a US email!",
+    assertThat(emailOutboxRepository.getPendingEmails())
+        .contains(
+            EmailMessage.create(
+                "ti@tis.com",
                 messages.at(
-                    MessageKey.EMAIL_TI_MANAGE_YOUR_CLIENTS.getKeyName(),
-                    baseUrl + "/admin/tiDash?page=1")));
+                    MessageKey.EMAIL_TI_APPLICATION_SUBMITTED_SUBJECT.getKeyName(),
+                    programName,
+                    applicant.id),
+                String.format(
+                    "%s\n%s",
+                    "I'm a US email!",
+                    messages.at(
+                        MessageKey.EMAIL_TI_MANAGE_YOUR_CLIENTS.getKeyName(),
+                        baseUrl + "/admin/tiDash?page=1"))));
 
     // Applicant email
-    Mockito.verify(amazonSESClient)
-        .send(
-            "user1@example.com",
-            messages.at(MessageKey.EMAIL_APPLICATION_RECEIVED_SUBJECT.getKeyName(), programName),
-            "I'm a US email!\n"
-                + messages.at(MessageKey.EMAIL_LOGIN_TO_CIVIFORM.getKeyName(), baseUrl));
+    assertThat(emailOutboxRepository.getPendingEmails())
+        .contains(
+            EmailMessage.create(
+                "user1@example.com",
+                messages.at(
+                    MessageKey.EMAIL_APPLICATION_RECEIVED_SUBJECT.getKeyName(), programName),
+                "I'm a US email!\n"
+                    + messages.at(MessageKey.EMAIL_LOGIN_TO_CIVIFORM.getKeyName(), baseUrl)));
   }
 
   @Test
@@ -1481,27 +1537,30 @@ public class ApplicantServiceTest extends ResetPostgres {
     String programName = programDefinition.adminName();
 
     // TI email
-    Mockito.verify(amazonSESClient)
-        .send(
-            "ti@example.com",
-            koMessages.at(
-                MessageKey.EMAIL_TI_APPLICATION_SUBMITTED_SUBJECT.getKeyName(),
-                programName,
-                applicant.id),
-            String.format(
-                "%s\n%s",
-                "I'm a KOREAN email!",
+    assertThat(emailOutboxRepository.getPendingEmails())
+        .contains(
+            EmailMessage.create(
+                "ti@example.com",
                 koMessages.at(
-                    MessageKey.EMAIL_TI_MANAGE_YOUR_CLIENTS.getKeyName(),
-                    baseUrl + "/admin/tiDash?page=1")));
+                    MessageKey.EMAIL_TI_APPLICATION_SUBMITTED_SUBJECT.getKeyName(),
+                    programName,
+                    applicant.id),
+                String.format(
+                    "%s\n%s",
+                    "I'm a KOREAN email!",
+                    koMessages.at(
+                        MessageKey.EMAIL_TI_MANAGE_YOUR_CLIENTS.getKeyName(),
+                        baseUrl + "/admin/tiDash?page=1"))));
 
     // Applicant email
-    Mockito.verify(amazonSESClient)
-        .send(
-            "user2@example.com",
-            enMessages.at(MessageKey.EMAIL_APPLICATION_RECEIVED_SUBJECT.getKeyName(), programName),
-            "I'm a US email!\n"
-                + enMessages.at(MessageKey.EMAIL_LOGIN_TO_CIVIFORM.getKeyName(), baseUrl));
+    assertThat(emailOutboxRepository.getPendingEmails())
+        .contains(
+            EmailMessage.create(
+                "user2@example.com",
+                enMessages.at(
+                    MessageKey.EMAIL_APPLICATION_RECEIVED_SUBJECT.getKeyName(), programName),
+                "I'm a US email!\n"
+                    + enMessages.at(MessageKey.EMAIL_LOGIN_TO_CIVIFORM.getKeyName(), baseUrl)));
   }
 
   @Test
@@ -1539,12 +1598,14 @@ public class ApplicantServiceTest extends ResetPostgres {
     String programName = programDefinition.adminName();
 
     // Applicant email
-    Mockito.verify(amazonSESClient)
-        .send(
-            "user3@example.com",
-            messages.at(MessageKey.EMAIL_APPLICATION_RECEIVED_SUBJECT.getKeyName(), programName),
-            "I'm a KOREAN email!\n"
-                + messages.at(MessageKey.EMAIL_LOGIN_TO_CIVIFORM.getKeyName(), baseUrl));
+    assertThat(emailOutboxRepository.getPendingEmails())
+        .contains(
+            EmailMessage.create(
+                "user3@example.com",
+                messages.at(
+                    MessageKey.EMAIL_APPLICATION_RECEIVED_SUBJECT.getKeyName(), programName),
+                "I'm a KOREAN email!\n"
+                    + messages.at(MessageKey.EMAIL_LOGIN_TO_CIVIFORM.getKeyName(), baseUrl)));
   }
 
   @Test
@@ -1580,8 +1641,8 @@ public class ApplicantServiceTest extends ResetPostgres {
     application.refresh();
 
     // Program admin email not sent
-    Mockito.verify(amazonSESClient, Mockito.times(0))
-        .send(eq(ImmutableList.of("admin@example.com")), anyString(), anyString());
+    assertThat(emailOutboxRepository.getPendingEmails())
+        .noneMatch(email -> email.toAddresses().contains("admin@example.com"));
   }
 
   @Test
@@ -4238,4 +4299,15 @@ public class ApplicantServiceTest extends ResetPostgres {
             subject.getApplicationEligibilityStatus(eligibleApplication, programDefinition).get())
         .isTrue();
   }
+
+  /** Counts the queries, inserts, updates and deletes run since the last count. */
+  private static long collectStatementCount() {
+    ServerMetrics metrics = DB.getDefault().metaInfo().collectMetrics();
+    return metrics.queryMetrics().stream().mapToLong(MetaQueryMetric::count).sum()
+        + metrics.timedMetrics().stream()
+            // Inserts, updates and deletes of beans, and SQL updates, but not transactions.
+            .filter(metric -> !metric.name().startsWith("txn."))
+            .mapToLong(MetaTimedMetric::count)
+            .sum();
+  }
 }
@@ -0,0 +1,128 @@
+package services.applicant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+import repository.ResetPostgres;
+import services.Path;
+import services.applicant.question.Scalar;
+import services.program.EligibilityDefinition;
+import services.program.ProgramDefinition;
+import services.program.predicate.LeafOperationExpressionNode;
+import services.program.predicate.Operator;
+import services.program.predicate.PredicateAction;
+import services.program.predicate.PredicateDefinition;
+import services.program.predicate.PredicateExpressionNode;
+import services.program.predicate.PredicateValue;
+import services.question.QuestionAnswerer;
+import services.question.types.QuestionDefinition;
+import support.ProgramBuilder;
+
+public class BulkEligibilityEvaluatorTest extends ResetPostgres {
+
+  private static final long ACTIVE_VERSION_ID = 1L;
+
+  private BulkEligibilityEvaluator subject;
+  private QuestionDefinition numberQuestion;
+  private Path numberPath;
+
+  @Before
+  public void setUp() {
+    subject = instanceOf(BulkEligibilityEvaluator.class);
+    numberQuestion = testQuestionBank.numberApplicantJugglingNumber().getQuestionDefinition();
+    numberPath = ApplicantData.APPLICANT_PATH.join(numberQuestion.getQuestionPathSegment());
+  }
+
+  @Test
+  public void getMaybeEligibleStatus_evaluatesEachProgram() {
+    ProgramDefinition moreThanFive =
+        programWithEligibility("more-than-five", Operator.GREATER_THAN);
+    ProgramDefinition alsoMoreThanFive =
+        programWithEligibility("also-more-than-five", Operator.GREATER_THAN);
+    ProgramDefinition lessThanFive = programWithEligibility("less-than-five", Operator.LESS_THAN);
+    ProgramDefinition noEligibility =
+        ProgramBuilder.newActiveProgram("no-eligibility")
+            .withBlock()
+            .withRequiredQuestionDefinition(numberQuestion)
+            .buildDefinition();
+
+    BulkEligibilityEvaluator.Evaluation evaluation =
+        subject.evaluate(applicantDataWithNumber(7), ACTIVE_VERSION_ID);
+
+    assertThat(evaluation.getMaybeEligibleStatus(moreThanFive)).contains(true);
+    assertThat(evaluation.getMaybeEligibleStatus(alsoMoreThanFive)).contains(true);
+    assertThat(evaluation.getMaybeEligibleStatus(lessThanFive)).contains(false);
+    assertThat(evaluation.getMaybeEligibleStatus(noEligibility)).isEmpty();
+  }
+
+  @Test
+  public void getMaybeEligibleStatus_unansweredQuestionMayBeEligible() {
+    ProgramDefinition moreThanFive =
+        programWithEligibility("more-than-five", Operator.GREATER_THAN);
+
+    assertThat(
+            subject
+                .evaluate(new ApplicantData(), ACTIVE_VERSION_ID)
+                .getMaybeEligibleStatus(moreThanFive))
+        .contains(true);
+  }
+
+  @Test
+  public void getMaybeEligibleStatus_reusesResultsForTheSameAnswersAndVersion() {
+    ProgramDefinition program = programWithEligibility("more-than-five", Operator.GREATER_THAN);
+    // A different definition with the same ID, which is only evaluated if the result isn't cached.
+    ProgramDefinition changedProgram =
+        programWithEligibility("less-than-five", Operator.LESS_THAN).toBuilder()
+            .setId(program.id())
+            .build();
+
+    assertThat(
+            subject
+                .evaluate(applicantDataWithNumber(7), ACTIVE_VERSION_ID)
+                .getMaybeEligibleStatus(program))
+        .contains(true);
+    assertThat(
+            subject
+                .evaluate(applicantDataWithNumber(7), ACTIVE_VERSION_ID)
+                .getMaybeEligibleStatus(changedProgram))
+        .contains(true);
+
+    // Changing the answers or the active version evaluates the program again.
+    assertThat(
+            subject
+                .evaluate(applicantDataWithNumber(8), ACTIVE_VERSION_ID)
+                .getMaybeEligibleStatus(changedProgram))
+        .contains(false);
+    assertThat(
+            subject
+                .evaluate(applicantDataWithNumber(7), ACTIVE_VERSION_ID + 1)
+                .getMaybeEligibleStatus(changedProgram))
+        .contains(false);
+  }
+
+  private ApplicantData applicantDataWithNumber(long number) {
+    ApplicantData applicantData = new ApplicantData();
+    QuestionAnswerer.answerNumberQuestion(applicantData, numberPath, number);
+    return applicantData;
+  }
+
+  private ProgramDefinition programWithEligibility(String name, Operator operator) {
+    return ProgramBuilder.newActiveProgram(name)
+        .withBlock()
+        .withRequiredQuestionDefinition(numberQuestion)
+        .withEligibilityDefinition(
+            EligibilityDefinition.builder()
+                .setPredicate(
+                    PredicateDefinition.create(
+                        PredicateExpressionNode.create(
+                            LeafOperationExpressionNode.create(
+                                numberQuestion.getId(),
+                                Scalar.NUMBER,
+                                operator,
+                                PredicateValue.of(5))),
+                        PredicateAction.ELIGIBLE_BLOCK))
+                .build())
+        .buildDefinition();
+  }
+}
@@ -0,0 +1,369 @@
+package services.applicant.predicate;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.Test;
+import services.DateConverter;
+import services.Path;
+import services.applicant.ApplicantData;
+import services.applicant.RepeatedEntity;
+import services.applicant.question.ApplicantQuestion;
+import services.applicant.question.Scalar;
+import services.geo.ServiceAreaInclusion;
+import services.geo.ServiceAreaState;
+import services.program.predicate.AndNode;
+import services.program.predicate.LeafAddressServiceAreaExpressionNode;
+import services.program.predicate.LeafOperationExpressionNode;
+import services.program.predicate.Operator;
+import services.program.predicate.OrNode;
+import services.program.predicate.PredicateExpressionNode;
+import services.program.predicate.PredicateValue;
+import services.question.QuestionAnswerer;
+import services.question.types.EnumeratorQuestionDefinition;
+import services.question.types.QuestionDefinition;
+import support.TestQuestionBank;
+
+public class CompiledPredicateTest {
+
+  private final TestQuestionBank questionBank = new TestQuestionBank(false);
+  private final DateConverter dateConverter =
+      new DateConverter(Clock.fixed(Instant.parse("2030-01-01T00:00:00.00Z"), ZoneId.of("UTC")));
+
+  private final QuestionDefinition addressQuestion =
+      questionBank.addressApplicantAddress().getQuestionDefinition();
+  private final QuestionDefinition checkboxQuestion =
+      questionBank.checkboxApplicantKitchenTools().getQuestionDefinition();
+  private final QuestionDefinition currencyQuestion =
+      questionBank.currencyApplicantMonthlyIncome().getQuestionDefinition();
+  private final QuestionDefinition dateQuestion =
+      questionBank.dateApplicantBirthdate().getQuestionDefinition();
+  private final QuestionDefinition dropdownQuestion =
+      questionBank.dropdownApplicantIceCream().getQuestionDefinition();
+  private final QuestionDefinition nameQuestion =
+      questionBank.nameApplicantName().getQuestionDefinition();
+  private final QuestionDefinition numberQuestion =
+      questionBank.numberApplicantJugglingNumber().getQuestionDefinition();
+  private final QuestionDefinition textQuestion =
+      questionBank.textApplicantFavoriteColor().getQuestionDefinition();
+  private final ImmutableList<QuestionDefinition> programQuestions =
+      ImmutableList.of(
+          addressQuestion,
+          checkboxQuestion,
+          currencyQuestion,
+          dateQuestion,
+          dropdownQuestion,
+          nameQuestion,
+          numberQuestion,
+          textQuestion);
+  private final ImmutableMap<Long, QuestionDefinition> questionsById =
+      programQuestions.stream().collect(toImmutableMap(QuestionDefinition::getId, q -> q));
+
+  @Test
+  public void evaluate_matchesPredicateEvaluator() {
+    JsonPathPredicateGenerator generator =
+        new JsonPathPredicateGenerator(dateConverter, programQuestions, Optional.empty());
+
+    for (Map.Entry<String, ApplicantData> data : applicantDataVariants().entrySet()) {
+      PredicateEvaluator evaluator = new PredicateEvaluator(data.getValue(), generator);
+      for (PredicateExpressionNode node : predicates()) {
+        assertThat(
+                CompiledPredicate.compile(node, questionsById)
+                    .evaluate(data.getValue(), Optional.empty(), dateConverter))
+            .as("%s with %s", node, data.getKey())
+            .isEqualTo(evaluator.evaluate(node));
+      }
+    }
+  }
+
+  @Test
+  public void evaluate_andAndOrNodes() {
+    ApplicantData applicantData = new ApplicantData();
+    QuestionAnswerer.answerAddressQuestion(
+        applicantData, path(addressQuestion), "123 Rhode St.", "", "Seattle", "WA", "98101");
+    PredicateExpressionNode seattle =
+        leaf(addressQuestion, Scalar.CITY, Operator.EQUAL_TO, PredicateValue.of("Seattle"));
+    PredicateExpressionNode oregon =
+        leaf(addressQuestion, Scalar.STATE, Operator.EQUAL_TO, PredicateValue.of("OR"));
+
+    assertThat(evaluate(and(seattle, oregon), applicantData)).isFalse();
+    assertThat(evaluate(or(seattle, oregon), applicantData)).isTrue();
+  }
+
+  @Test
+  public void evaluate_questionNotInProgram_returnsFalse() {
+    ApplicantData applicantData = new ApplicantData();
+    QuestionAnswerer.answerTextQuestion(applicantData, path(textQuestion), "blue");
+    PredicateExpressionNode node =
+        PredicateExpressionNode.create(
+            LeafOperationExpressionNode.create(
+                textQuestion.getId() + 12345,
+                Scalar.TEXT,
+                Operator.EQUAL_TO,
+                PredicateValue.of("blue")));
+
+    assertThat(evaluate(node, applicantData)).isFalse();
+  }
+
+  @Test
+  public void evaluate_repeatedQuestion_usesRepeatedContext() {
+    EnumeratorQuestionDefinition enumerator =
+        (EnumeratorQuestionDefinition)
+            questionBank.enumeratorApplicantHouseholdMembers().getQuestionDefinition();
+    QuestionDefinition repeatedName =
+        questionBank.nameRepeatedApplicantHouseholdMemberName().getQuestionDefinition();
+    ImmutableList<QuestionDefinition> questions = ImmutableList.of(enumerator, repeatedName);
+
+    ApplicantData applicantData = new ApplicantData();
+    applicantData.putRepeatedEntities(path(enumerator), ImmutableList.of("Bernard", "Alice"));
+    ImmutableList<RepeatedEntity> repeatedEntities =
+        RepeatedEntity.createRepeatedEntities(enumerator, Optional.empty(), applicantData);
+    for (RepeatedEntity repeatedEntity : repeatedEntities) {
+      QuestionAnswerer.answerNameQuestion(
+          applicantData,
+          repeatedEntity.contextualizedPath().join(repeatedName.getQuestionPathSegment()),
+          repeatedEntity.entityName(),
+          "",
+          "Smith",
+          "");
+    }
+
+    PredicateExpressionNode node =
+        leaf(repeatedName, Scalar.FIRST_NAME, Operator.EQUAL_TO, PredicateValue.of("Alice"));
+    CompiledPredicate compiled =
+        CompiledPredicate.compile(
+            node,
+            questions.stream().collect(toImmutableMap(QuestionDefinition::getId, q -> q)));
+
+    for (RepeatedEntity repeatedEntity : repeatedEntities) {
+      Optional<RepeatedEntity> repeatedContext = Optional.of(repeatedEntity);
+      boolean expected =
+          new PredicateEvaluator(
+                  applicantData,
+                  new JsonPathPredicateGenerator(dateConverter, questions, repeatedContext))
+              .evaluate(node);
+      assertThat(compiled.evaluate(applicantData, repeatedContext, dateConverter))
+          .isEqualTo(expected)
+          .isEqualTo(repeatedEntity.entityName().equals("Alice"));
+    }
+  }
+
+  /** Applicant data with no answers, every kind of answer, and answers of unexpected types. */
+  private ImmutableMap<String, ApplicantData> applicantDataVariants() {
+    ImmutableMap.Builder<String, ApplicantData> variants = ImmutableMap.builder();
+    variants.put("no answers", new ApplicantData());
+
+    ApplicantData answered = new ApplicantData();
+    QuestionAnswerer.answerAddressQuestion(
+        answered,
+        path(addressQuestion),
+        "123 Rhode St.",
+        "",
+        "Seattle",
+        "WA",
+        "98101",
+        "Corrected",
+        47.6,
+        -122.3,
+        1234L,
+        ImmutableList.of(
+            serviceArea("seattle", ServiceAreaState.IN_AREA),
+            serviceArea("bloomington", ServiceAreaState.FAILED),
+            serviceArea("arkansas", ServiceAreaState.NOT_IN_AREA)));
+    QuestionAnswerer.answerMultiSelectQuestion(answered, path(checkboxQuestion), 0, 1L);
+    QuestionAnswerer.answerMultiSelectQuestion(answered, path(checkboxQuestion), 1, 3L);
+    QuestionAnswerer.answerCurrencyQuestion(answered, path(currencyQuestion), "1,500.25");
+    QuestionAnswerer.answerDateQuestion(answered, path(dateQuestion), "2000-06-15");
+    QuestionAnswerer.answerSingleSelectQuestion(answered, path(dropdownQuestion), 2L);
+    QuestionAnswerer.answerNameQuestion(answered, path(nameQuestion), "Ada", "", "Lee", "");
+    QuestionAnswerer.answerNumberQuestion(answered, path(numberQuestion), 7L);
+    QuestionAnswerer.answerTextQuestion(answered, path(textQuestion), "blue");
+    variants.put("all questions answered", answered);
+
+    ApplicantData boundaries = new ApplicantData();
+    QuestionAnswerer.answerCurrencyQuestion(boundaries, path(currencyQuestion), "0");
+    QuestionAnswerer.answerDateQuestion(boundaries, path(dateQuestion), "2012-01-01");
+    QuestionAnswerer.answerMultiSelectQuestion(boundaries, path(checkboxQuestion), 0, 2L);
+    QuestionAnswerer.answerNumberQuestion(boundaries, path(numberQuestion), 10L);
+    QuestionAnswerer.answerTextQuestion(boundaries, path(textQuestion), "10");
+    variants.put("answers on range boundaries", boundaries);
+
+    ApplicantData partial = new ApplicantData();
+    QuestionAnswerer.answerAddressQuestion(partial, path(addressQuestion), "", "", "", "", "");
+    QuestionAnswerer.answerNameQuestion(partial, path(nameQuestion), "Ada", "", "", "");
+    partial.putNull(path(numberQuestion).join(Scalar.NUMBER));
+    variants.put("partial and empty answers", partial);
+
+    ApplicantData mistyped = new ApplicantData();
+    mistyped.putString(path(numberQuestion).join(Scalar.NUMBER), "7");
+    mistyped.putString(path(dropdownQuestion).join(Scalar.SELECTION), "2");
+    mistyped.putLong(path(checkboxQuestion).join(Scalar.SELECTIONS), 1L);
+    mistyped.putLong(path(textQuestion).join(Scalar.TEXT), 10L);
+    mistyped.putString(path(dateQuestion).join(Scalar.DATE), "2000-06-15");
+    variants.put("answers of unexpected types", mistyped);
+
+    return variants.build();
+  }
+
+  /** A predicate for every operator, on the kinds of questions it's used with. */
+  private ImmutableList<PredicateExpressionNode> predicates() {
+    PredicateExpressionNode seattle =
+        leaf(addressQuestion, Scalar.CITY, Operator.EQUAL_TO, PredicateValue.of("Seattle"));
+    PredicateExpressionNode sevenBalls =
+        leaf(numberQuestion, Scalar.NUMBER, Operator.EQUAL_TO, PredicateValue.of(7));
+    return ImmutableList.of(
+        seattle,
+        sevenBalls,
+        leaf(addressQuestion, Scalar.CITY, Operator.NOT_EQUAL_TO, PredicateValue.of("Seattle")),
+        leaf(
+            addressQuestion,
+            Scalar.CITY,
+            Operator.IN,
+            PredicateValue.listOfStrings(ImmutableList.of("Seattle", "Tacoma"))),
+        leaf(
+            addressQuestion,
+            Scalar.CITY,
+            Operator.NOT_IN,
+            PredicateValue.listOfStrings(ImmutableList.of("Seattle", "Tacoma"))),
+        leaf(addressQuestion, Scalar.CITY, Operator.IN, PredicateValue.of("Seattle")),
+        leaf(addressQuestion, Scalar.LATITUDE, Operator.GREATER_THAN, PredicateValue.of(40)),
+        leaf(nameQuestion, Scalar.FIRST_NAME, Operator.EQUAL_TO, PredicateValue.of("Ada")),
+        leaf(nameQuestion, Scalar.LAST_NAME, Operator.NOT_EQUAL_TO, PredicateValue.of("Lee")),
+        leaf(numberQuestion, Scalar.NUMBER, Operator.EQUAL_TO, PredicateValue.of("7")),
+        leaf(numberQuestion, Scalar.NUMBER, Operator.NOT_EQUAL_TO, PredicateValue.of(7)),
+        leaf(numberQuestion, Scalar.NUMBER, Operator.GREATER_THAN, PredicateValue.of(7)),
+        leaf(
+            numberQuestion,
+            Scalar.NUMBER,
+            Operator.GREATER_THAN_OR_EQUAL_TO,
+            PredicateValue.of(7)),
+        leaf(numberQuestion, Scalar.NUMBER, Operator.LESS_THAN, PredicateValue.of(10)),
+        leaf(numberQuestion, Scalar.NUMBER, Operator.LESS_THAN_OR_EQUAL_TO, PredicateValue.of(10)),
+        leaf(numberQuestion, Scalar.NUMBER, Operator.BETWEEN, PredicateValue.pairOfLongs(7, 10)),
+        leaf(
+            numberQuestion,
+            Scalar.NUMBER,
+            Operator.IN,
+            PredicateValue.listOfLongs(ImmutableList.of(1L, 7L))),
+        leaf(
+            numberQuestion,
+            Scalar.NUMBER,
+            Operator.NOT_IN,
+            PredicateValue.listOfLongs(ImmutableList.of(1L, 7L))),
+        leaf(textQuestion, Scalar.TEXT, Operator.EQUAL_TO, PredicateValue.of(10)),
+        leaf(textQuestion, Scalar.TEXT, Operator.GREATER_THAN, PredicateValue.of("a")),
+        leaf(
+            currencyQuestion, Scalar.CURRENCY_CENTS, Operator.GREATER_THAN, PredicateValue.of(0)),
+        leaf(
+            currencyQuestion,
+            Scalar.CURRENCY_CENTS,
+            Operator.LESS_THAN_OR_EQUAL_TO,
+            PredicateValue.of(150025)),
+        leaf(
+            currencyQuestion, Scalar.CURRENCY_CENTS, Operator.EQUAL_TO, PredicateValue.of(1500.25)),
+        leaf(
+            dateQuestion,
+            Scalar.DATE,
+            Operator.IS_BEFORE,
+            PredicateValue.of(LocalDate.of(2012, 1, 1))),
+        leaf(
+            dateQuestion,
+            Scalar.DATE,
+            Operator.IS_ON_OR_BEFORE,
+            PredicateValue.of(LocalDate.of(2012, 1, 1))),
+        leaf(
+            dateQuestion,
+            Scalar.DATE,
+            Operator.IS_AFTER,
+            PredicateValue.of(LocalDate.of(2000, 6, 15))),
+        leaf(
+            dateQuestion,
+            Scalar.DATE,
+            Operator.IS_ON_OR_AFTER,
+            PredicateValue.of(LocalDate.of(2000, 6, 15))),
+        leaf(dateQuestion, Scalar.DATE, Operator.AGE_OLDER_THAN, PredicateValue.of(18)),
+        leaf(dateQuestion, Scalar.DATE, Operator.AGE_OLDER_THAN, PredicateValue.of(18.5)),
+        leaf(dateQuestion, Scalar.DATE, Operator.AGE_YOUNGER_THAN, PredicateValue.of(18)),
+        leaf(dateQuestion, Scalar.DATE, Operator.AGE_BETWEEN, PredicateValue.pairOfLongs(18, 30)),
+        leaf(dateQuestion, Scalar.DATE, Operator.AGE_BETWEEN, PredicateValue.pairOfLongs(10, 18)),
+        leaf(dropdownQuestion, Scalar.SELECTION, Operator.EQUAL_TO, PredicateValue.of(2)),
+        leaf(
+            dropdownQuestion,
+            Scalar.SELECTION,
+            Operator.IN,
+            PredicateValue.listOfStrings(ImmutableList.of("1", "2"))),
+        leaf(
+            checkboxQuestion,
+            Scalar.SELECTIONS,
+            Operator.ANY_OF,
+            PredicateValue.listOfStrings(ImmutableList.of("1", "2"))),
+        leaf(
+            checkboxQuestion,
+            Scalar.SELECTIONS,
+            Operator.NONE_OF,
+            PredicateValue.listOfStrings(ImmutableList.of("1", "2"))),
+        leaf(
+            checkboxQuestion,
+            Scalar.SELECTIONS,
+            Operator.SUBSET_OF,
+            PredicateValue.listOfStrings(ImmutableList.of("1", "3"))),
+        leaf(
+            checkboxQuestion,
+            Scalar.SELECTIONS,
+            Operator.ANY_OF,
+            PredicateValue.listOfLongs(ImmutableList.of(3L))),
+        serviceAreaLeaf("seattle", Operator.IN_SERVICE_AREA),
+        serviceAreaLeaf("bloomington", Operator.IN_SERVICE_AREA),
+        serviceAreaLeaf("arkansas", Operator.IN_SERVICE_AREA),
+        serviceAreaLeaf("arkansas", Operator.NOT_IN_SERVICE_AREA),
+        serviceAreaLeaf("seattle", Operator.NOT_IN_SERVICE_AREA),
+        and(seattle, sevenBalls),
+        or(seattle, sevenBalls));
+  }
+
+  private boolean evaluate(PredicateExpressionNode node, ApplicantData applicantData) {
+    return CompiledPredicate.compile(node, questionsById)
+        .evaluate(applicantData, Optional.empty(), dateConverter);
+  }
+
+  private Path path(QuestionDefinition question) {
+    return new ApplicantQuestion(question, new ApplicantData(), Optional.empty())
+        .getContextualizedPath();
+  }
+
+  private static PredicateExpressionNode leaf(
+      QuestionDefinition question, Scalar scalar, Operator operator, PredicateValue value) {
+    return PredicateExpressionNode.create(
+        LeafOperationExpressionNode.create(question.getId(), scalar, operator, value));
+  }
+
+  private PredicateExpressionNode serviceAreaLeaf(String serviceAreaId, Operator operator) {
+    return PredicateExpressionNode.create(
+        LeafAddressServiceAreaExpressionNode.create(
+            addressQuestion.getId(), serviceAreaId, operator));
+  }
+
+  private static PredicateExpressionNode and(PredicateExpressionNode... children) {
+    return PredicateExpressionNode.create(AndNode.create(ImmutableList.copyOf(children)));
+  }
+
+  private static PredicateExpressionNode or(PredicateExpressionNode... children) {
+    return PredicateExpressionNode.create(OrNode.create(ImmutableList.copyOf(children)));
+  }
+
+  private static ServiceAreaInclusion serviceArea(String serviceAreaId, ServiceAreaState state) {
+    return ServiceAreaInclusion.builder()
+        .setServiceAreaId(serviceAreaId)
+        .setState(state)
+        .setTimeStamp(1234)
+        .build();
+  }
+}
@@ -2,11 +2,6 @@ package services.applications;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
-import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.ArgumentMatchers.eq;
-import static org.mockito.Mockito.never;
-import static org.mockito.Mockito.times;
-import static org.mockito.Mockito.verify;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
@@ -24,7 +19,6 @@ import models.LifecycleStage;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mockito.Mockito;
 import play.i18n.Lang;
 import play.i18n.Messages;
 import play.i18n.MessagesApi;
@@ -32,6 +26,7 @@ import repository.AccountRepository;
 import repository.ApplicationEventRepository;
 import repository.ApplicationRepository;
 import repository.ApplicationStatusesRepository;
+import repository.EmailOutboxRepository;
 import repository.ProgramRepository;
 import repository.ResetPostgres;
 import services.DeploymentType;
@@ -41,7 +36,6 @@ import services.applicant.ApplicantService;
 import services.application.ApplicationEventDetails;
 import services.application.ApplicationEventDetails.NoteEvent;
 import services.application.ApplicationEventDetails.StatusEvent;
-import services.cloud.aws.SimpleEmail;
 import services.program.ProgramDefinition;
 import services.statuses.StatusDefinitions;
 import services.statuses.StatusNotFoundException;
@@ -181,7 +175,6 @@ public class ProgramAdminApplicationServiceTest extends ResetPostgres {
   public void setStatus_sendsEmail() throws Exception {
     Instant start = Instant.now();
     String userEmail = "user@email.com";
-    SimpleEmail simpleEmail = Mockito.mock(SimpleEmail.class);
     MessagesApi messagesApi = instanceOf(MessagesApi.class);
     String programDisplayName = "Some Program";
     ApplicationStatusesRepository repo = instanceOf(ApplicationStatusesRepository.class);
@@ -192,7 +185,6 @@ public class ProgramAdminApplicationServiceTest extends ResetPostgres {
             instanceOf(AccountRepository.class),
             instanceOf(ProgramRepository.class),
             instanceOf(Config.class),
-            simpleEmail,
             instanceOf(DeploymentType.class),
             messagesApi,
             instanceOf(ApplicationRepository.class),
@@ -221,14 +213,10 @@ public class ProgramAdminApplicationServiceTest extends ResetPostgres {
     Messages messages =
         messagesApi.preferred(ImmutableList.of(Lang.forCode(Locale.US.toLanguageTag())));
 
-    verify(simpleEmail, times(1))
-        .send(
-            eq(userEmail),
-            eq(
-                messages.at(
-                    MessageKey.EMAIL_APPLICATION_UPDATE_SUBJECT.getKeyName(), programDisplayName)),
-            Mockito.contains(
-                STATUS_WITH_ONLY_ENGLISH_EMAIL.localizedEmailBodyText().get().getDefault()));
+    assertEmailQueued(
+        userEmail,
+        messages.at(MessageKey.EMAIL_APPLICATION_UPDATE_SUBJECT.getKeyName(), programDisplayName),
+        STATUS_WITH_ONLY_ENGLISH_EMAIL.localizedEmailBodyText().get().getDefault());
 
     application.refresh();
     assertThat(application.getApplicationEvents()).hasSize(1);
@@ -247,7 +235,6 @@ public class ProgramAdminApplicationServiceTest extends ResetPostgres {
     Locale userLocale = Locale.KOREA;
     String userEmail = "user@email.com";
     String programDisplayName = "Some Program";
-    SimpleEmail simpleEmail = Mockito.mock(SimpleEmail.class);
     MessagesApi messagesApi = instanceOf(MessagesApi.class);
     service =
         new ProgramAdminApplicationService(
@@ -256,7 +243,6 @@ public class ProgramAdminApplicationServiceTest extends ResetPostgres {
             instanceOf(AccountRepository.class),
             instanceOf(ProgramRepository.class),
             instanceOf(Config.class),
-            simpleEmail,
             instanceOf(DeploymentType.class),
             messagesApi,
             instanceOf(ApplicationRepository.class),
@@ -287,21 +273,16 @@ public class ProgramAdminApplicationServiceTest extends ResetPostgres {
     Messages messages =
         messagesApi.preferred(ImmutableList.of(Lang.forCode(userLocale.toLanguageTag())));
 
-    verify(simpleEmail, times(1))
-        .send(
-            eq(userEmail),
-            eq(
-                messages.at(
-                    MessageKey.EMAIL_APPLICATION_UPDATE_SUBJECT.getKeyName(), programDisplayName)),
-            Mockito.contains(
-                STATUS_WITH_MULTI_LANGUAGE_EMAIL.localizedEmailBodyText().get().getDefault()));
+    assertEmailQueued(
+        userEmail,
+        messages.at(MessageKey.EMAIL_APPLICATION_UPDATE_SUBJECT.getKeyName(), programDisplayName),
+        STATUS_WITH_MULTI_LANGUAGE_EMAIL.localizedEmailBodyText().get().getDefault());
   }
 
   @Test
   public void setStatus_tiApplicant_sendsEmail() throws Exception {
     String userEmail = "user@email.com";
     String tiEmail = "ti@email.com";
-    SimpleEmail simpleEmail = Mockito.mock(SimpleEmail.class);
     MessagesApi messagesApi = instanceOf(MessagesApi.class);
     String programDisplayName = "Some Program";
     service =
@@ -311,7 +292,6 @@ public class ProgramAdminApplicationServiceTest extends ResetPostgres {
             instanceOf(AccountRepository.class),
             instanceOf(ProgramRepository.class),
             instanceOf(Config.class),
-            simpleEmail,
             instanceOf(DeploymentType.class),
             messagesApi,
             instanceOf(ApplicationRepository.class),
@@ -340,31 +320,23 @@ public class ProgramAdminApplicationServiceTest extends ResetPostgres {
     Messages messages =
         messagesApi.preferred(ImmutableList.of(Lang.forCode(Locale.US.toLanguageTag())));
 
-    verify(simpleEmail, times(1))
-        .send(
-            eq(tiEmail),
-            eq(
-                messages.at(
-                    MessageKey.EMAIL_TI_APPLICATION_UPDATE_SUBJECT.getKeyName(),
-                    programDisplayName,
-                    applicant.id)),
-            Mockito.contains(
-                STATUS_WITH_ONLY_ENGLISH_EMAIL.localizedEmailBodyText().get().getDefault()));
-    verify(simpleEmail, times(1))
-        .send(
-            eq(userEmail),
-            eq(
-                messages.at(
-                    MessageKey.EMAIL_APPLICATION_UPDATE_SUBJECT.getKeyName(), programDisplayName)),
-            Mockito.contains(
-                STATUS_WITH_ONLY_ENGLISH_EMAIL.localizedEmailBodyText().get().getDefault()));
+    assertEmailQueued(
+        tiEmail,
+        messages.at(
+            MessageKey.EMAIL_TI_APPLICATION_UPDATE_SUBJECT.getKeyName(),
+            programDisplayName,
+            applicant.id),
+        STATUS_WITH_ONLY_ENGLISH_EMAIL.localizedEmailBodyText().get().getDefault());
+    assertEmailQueued(
+        userEmail,
+        messages.at(MessageKey.EMAIL_APPLICATION_UPDATE_SUBJECT.getKeyName(), programDisplayName),
+        STATUS_WITH_ONLY_ENGLISH_EMAIL.localizedEmailBodyText().get().getDefault());
   }
 
   @Test
   public void setStatus_tiApplicant_sendsEmail_nonDefaultLocale() throws Exception {
     String userEmail = "user@email.com";
     String tiEmail = "ti-ko@email.com";
-    SimpleEmail simpleEmail = Mockito.mock(SimpleEmail.class);
     MessagesApi messagesApi = instanceOf(MessagesApi.class);
     String programDisplayName = "Some Program";
     service =
@@ -374,7 +346,6 @@ public class ProgramAdminApplicationServiceTest extends ResetPostgres {
             instanceOf(AccountRepository.class),
             instanceOf(ProgramRepository.class),
             instanceOf(Config.class),
-            simpleEmail,
             instanceOf(DeploymentType.class),
             messagesApi,
             instanceOf(ApplicationRepository.class),
@@ -408,24 +379,17 @@ public class ProgramAdminApplicationServiceTest extends ResetPostgres {
     Messages koMessages =
         messagesApi.preferred(ImmutableList.of(Lang.forCode(Locale.KOREA.toLanguageTag())));
 
-    verify(simpleEmail, times(1))
-        .send(
-            eq(tiEmail),
-            eq(
-                koMessages.at(
-                    MessageKey.EMAIL_TI_APPLICATION_UPDATE_SUBJECT.getKeyName(),
-                    programDisplayName,
-                    applicant.id)),
-            Mockito.contains(
-                STATUS_WITH_ONLY_ENGLISH_EMAIL.localizedEmailBodyText().get().getDefault()));
-    verify(simpleEmail, times(1))
-        .send(
-            eq(userEmail),
-            eq(
-                enMessages.at(
-                    MessageKey.EMAIL_APPLICATION_UPDATE_SUBJECT.getKeyName(), programDisplayName)),
-            Mockito.contains(
-                STATUS_WITH_ONLY_ENGLISH_EMAIL.localizedEmailBodyText().get().getDefault()));
+    assertEmailQueued(
+        tiEmail,
+        koMessages.at(
+            MessageKey.EMAIL_TI_APPLICATION_UPDATE_SUBJECT.getKeyName(),
+            programDisplayName,
+            applicant.id),
+        STATUS_WITH_ONLY_ENGLISH_EMAIL.localizedEmailBodyText().get().getDefault());
+    assertEmailQueued(
+        userEmail,
+        enMessages.at(MessageKey.EMAIL_APPLICATION_UPDATE_SUBJECT.getKeyName(), programDisplayName),
+        STATUS_WITH_ONLY_ENGLISH_EMAIL.localizedEmailBodyText().get().getDefault());
   }
 
   @Test
@@ -503,7 +467,6 @@ public class ProgramAdminApplicationServiceTest extends ResetPostgres {
   public void setStatus_sentEmailFalse_doesNotSendEmail() throws Exception {
     Instant start = Instant.now();
     String status = STATUS_WITH_ONLY_ENGLISH_EMAIL.statusText();
-    SimpleEmail simpleEmail = Mockito.mock(SimpleEmail.class);
     service =
         new ProgramAdminApplicationService(
             instanceOf(ApplicantService.class),
@@ -511,7 +474,6 @@ public class ProgramAdminApplicationServiceTest extends ResetPostgres {
             instanceOf(AccountRepository.class),
             instanceOf(ProgramRepository.class),
             instanceOf(Config.class),
-            simpleEmail,
             instanceOf(DeploymentType.class),
             instanceOf(MessagesApi.class),
             instanceOf(ApplicationRepository.class),
@@ -532,7 +494,7 @@ public class ProgramAdminApplicationServiceTest extends ResetPostgres {
 
     service.setStatus(application, event, account);
 
-    verify(simpleEmail, never()).send(anyString(), anyString(), anyString());
+    assertThat(instanceOf(EmailOutboxRepository.class).getPendingEmails()).isEmpty();
 
     application.refresh();
     assertThat(application.getApplicationEvents()).hasSize(1);
@@ -544,4 +506,207 @@ public class ProgramAdminApplicationServiceTest extends ResetPostgres {
     assertThat(gotEvent.getCreator()).isEqualTo(Optional.of(account));
     assertThat(gotEvent.getCreateTime()).isAfter(start);
   }
+
+  @Test
+  public void setStatuses_setsTheStatusOfEachApplicationToTheProgram() throws Exception {
+    String status = STATUS_WITH_NO_EMAIL.statusText();
+    ProgramDefinition program = ProgramBuilder.newActiveProgram("some-program").buildDefinition();
+    ProgramDefinition otherProgram =
+        ProgramBuilder.newActiveProgram("other-program").buildDefinition();
+    repo.createOrUpdateStatusDefinitions(
+        program.adminName(), new StatusDefinitions(ORIGINAL_STATUSES));
+    AccountModel account = resourceCreator.insertAccount();
+    ApplicationModel first =
+        ApplicationModel.create(
+                resourceCreator.insertApplicantWithAccount(),
+                program.toProgram(),
+                LifecycleStage.ACTIVE)
+            .setSubmitTimeToNow();
+    ApplicationModel second =
+        ApplicationModel.create(
+                resourceCreator.insertApplicantWithAccount(),
+                program.toProgram(),
+                LifecycleStage.ACTIVE)
+            .setSubmitTimeToNow();
+    ApplicationModel otherProgramApplication =
+        ApplicationModel.create(
+                resourceCreator.insertApplicantWithAccount(),
+                otherProgram.toProgram(),
+                LifecycleStage.ACTIVE)
+            .setSubmitTimeToNow();
+
+    int updatedCount =
+        service.setStatuses(
+            program,
+            ImmutableList.of(first.id, second.id, otherProgramApplication.id),
+            StatusEvent.builder().setEmailSent(false).setStatusText(status).build(),
+            account);
+
+    assertThat(updatedCount).isEqualTo(2);
+    for (ApplicationModel application : ImmutableList.of(first, second)) {
+      application.refresh();
+      assertThat(application.getLatestStatus()).contains(status);
+      assertThat(application.getApplicationEvents()).hasSize(1);
+      ApplicationEventModel gotEvent = application.getApplicationEvents().get(0);
+      assertThat(gotEvent.getDetails().statusEvent().get().statusText()).isEqualTo(status);
+      assertThat(gotEvent.getCreator()).isEqualTo(Optional.of(account));
+    }
+    otherProgramApplication.refresh();
+    assertThat(otherProgramApplication.getLatestStatus()).isEmpty();
+    assertThat(otherProgramApplication.getApplicationEvents()).isEmpty();
+  }
+
+  @Test
+  public void setStatuses_queuesEmails() throws Exception {
+    String userEmail = "user@email.com";
+    String programDisplayName = "Some Program";
+    MessagesApi messagesApi = instanceOf(MessagesApi.class);
+    service =
+        new ProgramAdminApplicationService(
+            instanceOf(ApplicantService.class),
+            instanceOf(ApplicationEventRepository.class),
+            instanceOf(AccountRepository.class),
+            instanceOf(ProgramRepository.class),
+            instanceOf(Config.class),
+            instanceOf(DeploymentType.class),
+            messagesApi,
+            instanceOf(ApplicationRepository.class),
+            instanceOf(ApplicationStatusesRepository.class));
+
+    ProgramDefinition program =
+        ProgramBuilder.newActiveProgramWithDisplayName("some-program", programDisplayName)
+            .buildDefinition();
+    repo.createOrUpdateStatusDefinitions(
+        program.adminName(), new StatusDefinitions(ORIGINAL_STATUSES));
+    AccountModel account = resourceCreator.insertAccount();
+    ApplicantModel applicant = resourceCreator.insertApplicantWithAccount(Optional.of(userEmail));
+    ApplicationModel application =
+        ApplicationModel.create(applicant, program.toProgram(), LifecycleStage.ACTIVE)
+            .setSubmitTimeToNow();
+    // Applicants without an email address are skipped rather than failing the update.
+    ApplicationModel applicationWithoutEmail =
+        ApplicationModel.create(
+                resourceCreator.insertApplicantWithAccount(),
+                program.toProgram(),
+                LifecycleStage.ACTIVE)
+            .setSubmitTimeToNow();
+
+    service.setStatuses(
+        program,
+        ImmutableList.of(application.id, applicationWithoutEmail.id),
+        StatusEvent.builder()
+            .setEmailSent(true)
+            .setStatusText(STATUS_WITH_ONLY_ENGLISH_EMAIL.statusText())
+            .build(),
+        account);
+
+    Messages messages =
+        messagesApi.preferred(ImmutableList.of(Lang.forCode(Locale.US.toLanguageTag())));
+    assertEmailQueued(
+        userEmail,
+        messages.at(MessageKey.EMAIL_APPLICATION_UPDATE_SUBJECT.getKeyName(), programDisplayName),
+        STATUS_WITH_ONLY_ENGLISH_EMAIL.localizedEmailBodyText().get().getDefault());
+    applicationWithoutEmail.refresh();
+    assertThat(applicationWithoutEmail.getLatestStatus())
+        .contains(STATUS_WITH_ONLY_ENGLISH_EMAIL.statusText());
+  }
+
+  @Test
+  public void setStatuses_tiApplicant_queuesEmailsInTheTisLocale() throws Exception {
+    String userEmail = "user@email.com";
+    String tiEmail = "ti-ko@email.com";
+    String programDisplayName = "Some Program";
+    MessagesApi messagesApi = instanceOf(MessagesApi.class);
+    service =
+        new ProgramAdminApplicationService(
+            instanceOf(ApplicantService.class),
+            instanceOf(ApplicationEventRepository.class),
+            instanceOf(AccountRepository.class),
+            instanceOf(ProgramRepository.class),
+            instanceOf(Config.class),
+            instanceOf(DeploymentType.class),
+            messagesApi,
+            instanceOf(ApplicationRepository.class),
+            instanceOf(ApplicationStatusesRepository.class));
+
+    ProgramDefinition program =
+        ProgramBuilder.newActiveProgramWithDisplayName("some-program", programDisplayName)
+            .buildDefinition();
+    repo.createOrUpdateStatusDefinitions(
+        program.adminName(), new StatusDefinitions(ORIGINAL_STATUSES));
+    AccountModel account = resourceCreator.insertAccount();
+    ApplicantModel applicant = resourceCreator.insertApplicantWithAccount(Optional.of(userEmail));
+    ApplicantModel tiApplicant = resourceCreator.insertApplicantWithAccount(Optional.of(tiEmail));
+    tiApplicant.getApplicantData().setPreferredLocale(Locale.KOREA);
+    tiApplicant.save();
+    ApplicationModel application =
+        ApplicationModel.create(applicant, program.toProgram(), LifecycleStage.ACTIVE)
+            .setSubmitTimeToNow()
+            .setSubmitterEmail(tiEmail);
+    application.save();
+
+    service.setStatuses(
+        program,
+        ImmutableList.of(application.id),
+        StatusEvent.builder()
+            .setEmailSent(true)
+            .setStatusText(STATUS_WITH_ONLY_ENGLISH_EMAIL.statusText())
+            .build(),
+        account);
+
+    Messages enMessages =
+        messagesApi.preferred(ImmutableList.of(Lang.forCode(Locale.US.toLanguageTag())));
+    Messages koMessages =
+        messagesApi.preferred(ImmutableList.of(Lang.forCode(Locale.KOREA.toLanguageTag())));
+    assertEmailQueued(
+        tiEmail,
+        koMessages.at(
+            MessageKey.EMAIL_TI_APPLICATION_UPDATE_SUBJECT.getKeyName(),
+            programDisplayName,
+            applicant.id),
+        STATUS_WITH_ONLY_ENGLISH_EMAIL.localizedEmailBodyText().get().getDefault());
+    assertEmailQueued(
+        userEmail,
+        enMessages.at(MessageKey.EMAIL_APPLICATION_UPDATE_SUBJECT.getKeyName(), programDisplayName),
+        STATUS_WITH_ONLY_ENGLISH_EMAIL.localizedEmailBodyText().get().getDefault());
+  }
+
+  @Test
+  public void setStatuses_sendEmailWithNoStatusEmail_throws() throws Exception {
+    ProgramDefinition program = ProgramBuilder.newActiveProgram("some-program").buildDefinition();
+    repo.createOrUpdateStatusDefinitions(
+        program.adminName(), new StatusDefinitions(ORIGINAL_STATUSES));
+    AccountModel account = resourceCreator.insertAccount();
+    ApplicationModel application =
+        ApplicationModel.create(
+                resourceCreator.insertApplicantWithAccount(),
+                program.toProgram(),
+                LifecycleStage.ACTIVE)
+            .setSubmitTimeToNow();
+
+    assertThatThrownBy(
+            () ->
+                service.setStatuses(
+                    program,
+                    ImmutableList.of(application.id),
+                    StatusEvent.builder()
+                        .setEmailSent(true)
+                        .setStatusText(STATUS_WITH_NO_EMAIL.statusText())
+                        .build(),
+                    account))
+        .isInstanceOf(StatusEmailNotFoundException.class);
+    application.refresh();
+    assertThat(application.getApplicationEvents()).isEmpty();
+  }
+
+  /** Asserts that an email to the address, with the subject and containing the text is queued. */
+  private void assertEmailQueued(String toAddress, String subject, String bodyText) {
+    assertThat(instanceOf(EmailOutboxRepository.class).getPendingEmails())
+        .anySatisfy(
+            email -> {
+              assertThat(email.toAddresses()).containsExactly(toAddress);
+              assertThat(email.subject()).isEqualTo(subject);
+              assertThat(email.body()).contains(bodyText);
+            });
+  }
 }
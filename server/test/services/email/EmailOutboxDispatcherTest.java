@@ -0,0 +1,152 @@
+package services.email;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.typesafe.config.ConfigFactory;
+import io.ebean.DB;
+import java.time.Clock;
+import java.time.Instant;
+import models.EmailOutboxModel;
+import org.junit.Before;
+import org.junit.Test;
+import repository.EmailOutboxRepository;
+import repository.ResetPostgres;
+import services.cloud.aws.SimpleEmail;
+
+public class EmailOutboxDispatcherTest extends ResetPostgres {
+
+  private static final EmailMessage MESSAGE =
+      EmailMessage.create("applicant@example.com", "Subject", "Body");
+
+  private EmailOutboxRepository repo;
+  private SimpleEmail simpleEmail;
+  private EmailOutboxDispatcher dispatcher;
+
+  @Before
+  public void setUp() {
+    repo = instanceOf(EmailOutboxRepository.class);
+    simpleEmail = mock(SimpleEmail.class);
+    dispatcher = newDispatcher(/* maxAttempts= */ 2, /* retryDelaySeconds= */ 0);
+  }
+
+  @Test
+  public void dispatchDueEmails_sendsAndDeletesTheEmails() {
+    repo.enqueue(ImmutableList.of(MESSAGE));
+
+    dispatcher.dispatchDueEmails();
+
+    verify(simpleEmail).deliver(ImmutableList.of("applicant@example.com"), "Subject", "Body");
+    assertThat(DB.getDefault().find(EmailOutboxModel.class).findCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void dispatchDueEmails_failedSend_retriesAndThenGivesUp() {
+    doThrow(new IllegalStateException("SES is down"))
+        .when(simpleEmail)
+        .deliver(any(), anyString(), anyString());
+    repo.enqueue(ImmutableList.of(MESSAGE));
+
+    // With no retry delay the email is retried right away, until it reaches the max attempts.
+    dispatcher.dispatchDueEmails();
+
+    EmailOutboxModel email = DB.getDefault().find(EmailOutboxModel.class).findOne();
+    assertThat(email.getAttempts()).isEqualTo(2);
+    assertThat(email.getFailedTime()).isPresent();
+    assertThat(email.getLastError())
+        .hasValueSatisfying(error -> assertThat(error).contains("SES is down"));
+    assertThat(repo.getPendingEmails()).isEmpty();
+    assertThat(repo.getStats().failed()).isEqualTo(1);
+  }
+
+  @Test
+  public void dispatchDueEmails_failedSend_schedulesARetry() {
+    doThrow(new IllegalStateException("SES is down"))
+        .when(simpleEmail)
+        .deliver(any(), anyString(), anyString());
+    repo.enqueue(ImmutableList.of(MESSAGE));
+
+    newDispatcher(/* maxAttempts= */ 5, /* retryDelaySeconds= */ 60).dispatchDueEmails();
+
+    EmailOutboxModel email = DB.getDefault().find(EmailOutboxModel.class).findOne();
+    assertThat(email.getAttempts()).isEqualTo(1);
+    assertThat(email.getFailedTime()).isEmpty();
+    assertThat(email.getLeaseExpirationTime()).isEmpty();
+    assertThat(email.getNextAttemptTime()).isAfter(Instant.now().plusSeconds(30));
+    assertThat(repo.getPendingEmails()).containsExactly(MESSAGE);
+  }
+
+  @Test
+  public void dispatchDueEmails_runOutOfTime_leavesTheRestForTheNextRun() {
+    EmailMessage otherMessage = EmailMessage.create("other@example.com", "Subject", "Body");
+    repo.enqueue(ImmutableList.of(MESSAGE, otherMessage));
+    EmailOutboxDispatcher oneBatchDispatcher =
+        newDispatcher(
+            /* maxAttempts= */ 2,
+            /* retryDelaySeconds= */ 0,
+            /* batchSize= */ 1,
+            /* maxRunSeconds= */ 0);
+
+    oneBatchDispatcher.dispatchDueEmails();
+
+    assertThat(repo.getPendingEmails()).containsExactly(otherMessage);
+
+    oneBatchDispatcher.dispatchDueEmails();
+
+    assertThat(repo.getPendingEmails()).isEmpty();
+  }
+
+  @Test
+  public void dispatchDueEmails_whileAnotherRunIsInProgress_returnsRightAway() {
+    doAnswer(
+            invocation -> {
+              // Sends happen on another thread, which would wait forever if this call blocked.
+              dispatcher.dispatchDueEmails();
+              return null;
+            })
+        .when(simpleEmail)
+        .deliver(any(), anyString(), anyString());
+    repo.enqueue(ImmutableList.of(MESSAGE));
+
+    dispatcher.dispatchDueEmails();
+
+    verify(simpleEmail, times(1)).deliver(any(), anyString(), anyString());
+    assertThat(repo.getPendingEmails()).isEmpty();
+  }
+
+  private EmailOutboxDispatcher newDispatcher(int maxAttempts, int retryDelaySeconds) {
+    return newDispatcher(
+        maxAttempts, retryDelaySeconds, /* batchSize= */ 10, /* maxRunSeconds= */ 60);
+  }
+
+  private EmailOutboxDispatcher newDispatcher(
+      int maxAttempts, int retryDelaySeconds, int batchSize, int maxRunSeconds) {
+    return new EmailOutboxDispatcher(
+        repo,
+        simpleEmail,
+        instanceOf(EmailExecutionContext.class),
+        Clock.systemUTC(),
+        ConfigFactory.parseMap(
+            ImmutableMap.of(
+                "email.outbox.batch_size",
+                batchSize,
+                "email.outbox.max_run_seconds",
+                maxRunSeconds,
+                "email.outbox.max_attempts",
+                maxAttempts,
+                "email.outbox.retry_delay_seconds",
+                retryDelaySeconds,
+                "email.outbox.lease_seconds",
+                300,
+                "email.outbox.max_send_rate",
+                1000)));
+  }
+}
@@ -1,15 +1,20 @@
 package services.export;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import akka.stream.javadsl.Sink;
+import akka.util.ByteString;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.hash.Hashing;
 import com.typesafe.config.ConfigFactory;
+import io.prometheus.client.CollectorRegistry;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import models.ApplicantModel;
 import models.ProgramModel;
 import models.QuestionModel;
@@ -33,6 +38,7 @@ import services.applicant.question.MultiSelectQuestion;
 import services.applicant.question.NameQuestion;
 import services.applicant.question.PhoneQuestion;
 import services.export.enums.MultiOptionSelectionExportType;
+import services.program.ProgramNotFoundException;
 import services.program.ProgramService;
 import services.question.QuestionAnswerer;
 import services.question.QuestionOption;
@@ -46,6 +52,48 @@ import support.ProgramBuilder;
 public class CsvExporterServiceTest extends AbstractExporterTest {
 
   private static final CSVFormat DEFAULT_FORMAT = CSVFormat.DEFAULT.builder().setHeader().build();
+
+  /** The columns of the CSV export of the fake program with the fake applications. */
+  private static final ImmutableList<String> FAKE_PROGRAM_CSV_HEADERS =
+      ImmutableList.of(
+          "Applicant ID",
+          "Application ID",
+          "Applicant Language",
+          "Submit Time",
+          "Submitter Type",
+          "TI Email",
+          "TI Organization",
+          "Status",
+          "applicant address (street)",
+          "applicant address (line2)",
+          "applicant address (city)",
+          "applicant address (state)",
+          "applicant address (zip)",
+          "applicant address (corrected)",
+          "applicant address (latitude)",
+          "applicant address (longitude)",
+          "applicant address (well_known_id)",
+          "applicant address (service_area)",
+          "applicant monthly income (currency)",
+          "applicant name (first_name)",
+          "applicant name (middle_name)",
+          "applicant name (last_name)",
+          "applicant name (suffix)",
+          "applicant phone (phone_number)",
+          "applicant phone (country_code)",
+          "kitchen tools (selections - toaster)",
+          "kitchen tools (selections - pepper_grinder)",
+          "kitchen tools (selections - garlic_press)",
+          "number of items applicant can juggle (number)",
+          "applicant birth date (date)",
+          "applicant email address (email)",
+          "applicant favorite color (text)",
+          "applicant favorite season (selection)",
+          "applicant file (file_key)",
+          "applicant ice cream (selection)",
+          "applicant id (id)",
+          "Admin Note");
+
   private static final String SECRET_SALT = "super secret";
   private static final String EMPTY_VALUE = "";
   CsvExporterService exporterService;
@@ -73,6 +121,19 @@ public class CsvExporterServiceTest extends AbstractExporterTest {
             instanceOf(ExportServiceRepository.class));
   }
 
+  @Test
+  public void getProgramAllVersionsCsv_missingProgram_recordsTheExportTime() {
+    double exportsBefore = applicationCsvExportCount();
+
+    assertThatThrownBy(
+            () ->
+                exporterService.getProgramAllVersionsCsv(
+                    Long.MAX_VALUE, SubmittedApplicationFilter.EMPTY))
+        .isInstanceOf(ProgramNotFoundException.class);
+
+    assertThat(applicationCsvExportCount()).isEqualTo(exportsBefore + 1);
+  }
+
   @Test
   public void programCsv_TestNotAnOptionAtProgramVersionInCheckBoxExport() throws Exception {
     createFakeQuestions();
@@ -147,45 +208,7 @@ public class CsvExporterServiceTest extends AbstractExporterTest {
     List<CSVRecord> records = parser.getRecords();
 
     assertThat(records).hasSize(3);
-    assertThat(parser.getHeaderNames())
-        .containsExactly(
-            "Applicant ID",
-            "Application ID",
-            "Applicant Language",
-            "Submit Time",
-            "Submitter Type",
-            "TI Email",
-            "TI Organization",
-            "Status",
-            "applicant address (street)",
-            "applicant address (line2)",
-            "applicant address (city)",
-            "applicant address (state)",
-            "applicant address (zip)",
-            "applicant address (corrected)",
-            "applicant address (latitude)",
-            "applicant address (longitude)",
-            "applicant address (well_known_id)",
-            "applicant address (service_area)",
-            "applicant monthly income (currency)",
-            "applicant name (first_name)",
-            "applicant name (middle_name)",
-            "applicant name (last_name)",
-            "applicant name (suffix)",
-            "applicant phone (phone_number)",
-            "applicant phone (country_code)",
-            "kitchen tools (selections - toaster)",
-            "kitchen tools (selections - pepper_grinder)",
-            "kitchen tools (selections - garlic_press)",
-            "number of items applicant can juggle (number)",
-            "applicant birth date (date)",
-            "applicant email address (email)",
-            "applicant favorite color (text)",
-            "applicant favorite season (selection)",
-            "applicant file (file_key)",
-            "applicant ice cream (selection)",
-            "applicant id (id)",
-            "Admin Note");
+    assertThat(parser.getHeaderNames()).containsExactlyElementsOf(FAKE_PROGRAM_CSV_HEADERS);
 
     NameQuestion nameApplicantQuestion =
         getApplicantQuestion(testQuestionBank.nameApplicantName().getQuestionDefinition())
@@ -242,6 +265,40 @@ public class CsvExporterServiceTest extends AbstractExporterTest {
         .contains(String.format("/admin/programs/%d/files/my-file-key", fakeProgram.id));
   }
 
+  @Test
+  public void streamProgramCsv_exportsEveryApplicationAcrossPages() throws Exception {
+    createFakeQuestions();
+    createFakeProgram();
+    createFakeApplications();
+
+    // Use a page size smaller than the number of applications so the export spans several chunks.
+    List<ByteString> chunks =
+        exporterService
+            .streamProgramAllVersionsCsv(
+                fakeProgram.id, SubmittedApplicationFilter.EMPTY, /* pageSize= */ 2)
+            .runWith(Sink.seq(), mat)
+            .toCompletableFuture()
+            .join();
+
+    assertThat(chunks).hasSize(2);
+    CSVParser parser =
+        CSVParser.parse(
+            chunks.stream().map(ByteString::utf8String).collect(Collectors.joining()),
+            DEFAULT_FORMAT);
+    List<CSVRecord> records = parser.getRecords();
+    assertThat(parser.getHeaderNames()).containsExactlyElementsOf(FAKE_PROGRAM_CSV_HEADERS);
+    // Applications should appear most recent first, and drafts aren't exported.
+    assertThat(records.stream().map(record -> record.get("Application ID")))
+        .containsExactly(
+            applicationFour.id.toString(),
+            applicationTwo.id.toString(),
+            applicationOne.id.toString());
+    assertThat(records.stream().map(record -> record.get("Status")))
+        .containsExactly("", STATUS_VALUE, STATUS_VALUE);
+    assertThat(records.stream().map(record -> record.get("Admin Note")))
+        .containsExactly("", "admin_note", "Test note");
+  }
+
   // TODO(#8563) This should be removed/rolled into the above tests when we remove support for
   // single file uploads.
   @Test
@@ -583,4 +640,13 @@ public class CsvExporterServiceTest extends AbstractExporterTest {
     assertThat(records.get(0).get("TI Email (Opaque)")).isEqualTo(EMPTY_VALUE);
     assertThat(records.get(0).get("TI Organization")).isEqualTo(EMPTY_VALUE);
   }
+
+  private static double applicationCsvExportCount() {
+    Double count =
+        CollectorRegistry.defaultRegistry.getSampleValue(
+            "export_duration_seconds_count",
+            new String[] {"format", "export"},
+            new String[] {"csv", "applications"});
+    return count == null ? 0 : count;
+  }
 }
@@ -3,9 +3,13 @@ package services.export;
 import static org.assertj.core.api.Assertions.assertThat;
 import static play.api.test.Helpers.testServerPort;
 
+import akka.stream.javadsl.Sink;
+import akka.util.ByteString;
 import com.google.common.collect.ImmutableList;
 import java.time.Instant;
+import java.util.List;
 import java.util.Locale;
+import java.util.stream.Collectors;
 import models.ApplicantModel;
 import models.ProgramModel;
 import org.junit.Test;
@@ -62,6 +66,49 @@ public class JsonExporterServiceTest extends AbstractExporterTest {
     resultAsserter.assertValueAtPath(2, "application_id", firstApplication.id);
   }
 
+  @Test
+  public void streamExport_matchesPagedExportAcrossChunks() {
+    createFakeQuestions();
+    var fakeProgram =
+        FakeProgramBuilder.newActiveProgram()
+            .withQuestion(testQuestionBank.nameApplicantName())
+            .build();
+    FakeApplicationFiller.newFillerFor(fakeProgram)
+        .answerNameQuestion(testQuestionBank.nameApplicantName(), "Alice", "", "Appleton", "")
+        .submit();
+    FakeApplicationFiller.newFillerFor(fakeProgram).submit();
+    FakeApplicationFiller.newFillerFor(fakeProgram)
+        .answerNameQuestion(testQuestionBank.nameApplicantName(), "Bob", "", "Baker", "")
+        .submit();
+
+    JsonExporterService exporter = instanceOf(JsonExporterService.class);
+
+    String expected =
+        exporter.export(
+            fakeProgram.getProgramDefinition(),
+            IdentifierBasedPaginationSpec.MAX_PAGE_SIZE_SPEC_LONG,
+            SubmittedApplicationFilter.EMPTY,
+            false);
+    // Use a page size smaller than the number of applications so the export spans several chunks.
+    List<ByteString> chunks =
+        exporter
+            .streamExport(
+                fakeProgram.getProgramDefinition(),
+                SubmittedApplicationFilter.EMPTY,
+                false,
+                /* pageSize= */ 2)
+            .runWith(Sink.seq(), mat)
+            .toCompletableFuture()
+            .join();
+    String streamed = chunks.stream().map(ByteString::utf8String).collect(Collectors.joining());
+
+    assertThat(chunks).hasSize(2);
+    assertThat(JsonPrettifier.asPrettyJsonString(streamed))
+        .isEqualTo(JsonPrettifier.asPrettyJsonString(expected));
+    new ResultAsserter(streamed)
+        .assertValueAtPath(0, "application.applicant_name.first_name", "Bob");
+  }
+
   @Test
   public void export_testApplicationTopLevelFields() {
     // Times are expected to be exported in instance local time, so we choose
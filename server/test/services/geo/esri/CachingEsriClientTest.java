@@ -0,0 +1,243 @@
+package services.geo.esri;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableList;
+import io.ebean.DB;
+import java.time.Clock;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import org.junit.Before;
+import org.junit.Test;
+import play.cache.AsyncCacheApi;
+import play.cache.NamedCacheImpl;
+import play.inject.BindingKey;
+import play.libs.Json;
+import repository.EsriResultRepository;
+import repository.ResetPostgres;
+import services.Address;
+import services.geo.AddressLocation;
+import services.geo.AddressSuggestionGroup;
+import services.geo.ServiceAreaInclusion;
+import services.geo.ServiceAreaState;
+import services.geo.esri.models.FindAddressCandidatesResponse;
+import services.settings.SettingsManifest;
+
+public class CachingEsriClientTest extends ResetPostgres {
+
+  private static final AddressLocation IN_AREA_LOCATION =
+      AddressLocation.builder()
+          .setLongitude(-100.0)
+          .setLatitude(100.0)
+          .setWellKnownId(4326)
+          .build();
+
+  private SettingsManifest settingsManifest;
+  private AsyncCacheApi resultCache;
+  private CountingEsriClient countingClient;
+  private CachingEsriClient subject;
+
+  @Before
+  public void setUp() {
+    settingsManifest = mock();
+    when(settingsManifest.getEsriResultCacheEnabled()).thenReturn(true);
+    when(settingsManifest.getEsriResultCacheSeconds()).thenReturn(Optional.of(60));
+    resultCache =
+        instanceOf(
+            new BindingKey<>(AsyncCacheApi.class)
+                .qualifiedWith(new NamedCacheImpl("esri-results")));
+    resultCache.removeAll().toCompletableFuture().join();
+    DB.getDefault().sqlUpdate("DELETE FROM esri_results").execute();
+
+    Clock clock = instanceOf(Clock.class);
+    EsriServiceAreaValidationConfig config = instanceOf(EsriServiceAreaValidationConfig.class);
+    countingClient = new CountingEsriClient(new FakeEsriClient(clock, config));
+    subject =
+        new CachingEsriClient(
+            clock,
+            config,
+            countingClient,
+            settingsManifest,
+            resultCache,
+            instanceOf(EsriResultRepository.class));
+  }
+
+  @Test
+  public void getAddressSuggestions_fetchesTheSameNormalizedAddressOnce() {
+    Address address = address("Legit Address");
+    Address sameAddress = address("  legit   ADDRESS ");
+
+    AddressSuggestionGroup fetched =
+        subject.getAddressSuggestions(address).toCompletableFuture().join();
+    AddressSuggestionGroup cached =
+        subject.getAddressSuggestions(sameAddress).toCompletableFuture().join();
+
+    assertThat(countingClient.addressSuggestionFetches).isEqualTo(1);
+    assertThat(cached.getAddressSuggestions()).isEqualTo(fetched.getAddressSuggestions());
+    assertThat(cached.getWellKnownId()).isEqualTo(fetched.getWellKnownId());
+    assertThat(cached.getOriginalAddress()).isEqualTo(sameAddress);
+  }
+
+  @Test
+  public void getAddressSuggestions_fetchesFailedCallsAgain() {
+    Address address = address("Error Address");
+
+    subject.getAddressSuggestions(address).toCompletableFuture().join();
+    subject.getAddressSuggestions(address).toCompletableFuture().join();
+
+    assertThat(countingClient.addressSuggestionFetches).isEqualTo(2);
+  }
+
+  @Test
+  public void getAddressSuggestions_cacheDisabled_fetchesEveryTime() {
+    when(settingsManifest.getEsriResultCacheEnabled()).thenReturn(false);
+    Address address = address("Legit Address");
+
+    subject.getAddressSuggestions(address).toCompletableFuture().join();
+    subject.getAddressSuggestions(address).toCompletableFuture().join();
+
+    assertThat(countingClient.addressSuggestionFetches).isEqualTo(2);
+  }
+
+  @Test
+  public void getServiceAreaInclusionGroup_fetchesTheSameLocationOnce() {
+    ImmutableList<ServiceAreaInclusion> fetched = getInclusions(IN_AREA_LOCATION);
+    ImmutableList<ServiceAreaInclusion> cached = getInclusions(IN_AREA_LOCATION);
+
+    assertThat(countingClient.serviceAreaFetches).isEqualTo(1);
+    assertThat(fetched).hasSize(1);
+    assertThat(fetched.get(0).getState()).isEqualTo(ServiceAreaState.IN_AREA);
+    assertThat(cached).hasSize(1);
+    assertThat(cached.get(0).getServiceAreaId()).isEqualTo("Seattle");
+    assertThat(cached.get(0).getState()).isEqualTo(ServiceAreaState.IN_AREA);
+  }
+
+  @Test
+  public void getServiceAreaInclusionGroup_databaseEnabled_sharesResultsThroughTheDatabase() {
+    when(settingsManifest.getEsriResultCacheDatabaseEnabled()).thenReturn(true);
+
+    getInclusions(IN_AREA_LOCATION);
+    // Another server only finds the result in the database.
+    resultCache.removeAll().toCompletableFuture().join();
+    ImmutableList<ServiceAreaInclusion> cached = getInclusions(IN_AREA_LOCATION);
+
+    assertThat(countingClient.serviceAreaFetches).isEqualTo(1);
+    assertThat(cached.get(0).getState()).isEqualTo(ServiceAreaState.IN_AREA);
+  }
+
+  @Test
+  public void getServiceAreaInclusionGroup_databaseDisabled_fetchesAfterMemoryIsCleared() {
+    getInclusions(IN_AREA_LOCATION);
+    resultCache.removeAll().toCompletableFuture().join();
+    getInclusions(IN_AREA_LOCATION);
+
+    assertThat(countingClient.serviceAreaFetches).isEqualTo(2);
+  }
+
+  @Test
+  public void fetchServiceAreaFeatures_fetchesErrorResponsesAgain() {
+    // ArcGIS returns errors with a 200 status.
+    countingClient.serviceAreaResponse =
+        Optional.of(Json.parse("{\"error\": {\"code\": 498, \"message\": \"Invalid token.\"}}"));
+
+    subject
+        .fetchServiceAreaFeatures(IN_AREA_LOCATION, "https://example.com")
+        .toCompletableFuture()
+        .join();
+    subject
+        .fetchServiceAreaFeatures(IN_AREA_LOCATION, "https://example.com")
+        .toCompletableFuture()
+        .join();
+
+    assertThat(countingClient.serviceAreaFetches).isEqualTo(2);
+  }
+
+  @Test
+  public void isServiceAreaFeatures_onlyAcceptsResponsesWithFeatures() {
+    assertThat(CachingEsriClient.isServiceAreaFeatures(Json.parse("{\"features\": []}"))).isTrue();
+    assertThat(CachingEsriClient.isServiceAreaFeatures(Json.parse("{\"error\": {}}"))).isFalse();
+    assertThat(
+            CachingEsriClient.isServiceAreaFeatures(
+                Json.parse("{\"error\": {}, \"features\": []}")))
+        .isFalse();
+    assertThat(CachingEsriClient.isServiceAreaFeatures(Json.parse("{}"))).isFalse();
+  }
+
+  @Test
+  public void serviceAreaCacheKey_doesNotContainTheLocation() {
+    String key = CachingEsriClient.serviceAreaCacheKey(IN_AREA_LOCATION, "https://example.com");
+
+    assertThat(key).doesNotContain("100.0", "example.com");
+    assertThat(CachingEsriClient.serviceAreaCacheKey(IN_AREA_LOCATION, "https://example.com"))
+        .isEqualTo(key);
+    assertThat(CachingEsriClient.serviceAreaCacheKey(IN_AREA_LOCATION, "https://example.org"))
+        .isNotEqualTo(key);
+  }
+
+  @Test
+  public void suggestionsCacheKey_ignoresCaseAndWhitespace() {
+    assertThat(CachingEsriClient.suggestionsCacheKey(addressJson("1 Main St", "Seattle")))
+        .isEqualTo(CachingEsriClient.suggestionsCacheKey(addressJson(" 1  MAIN st", "seattle ")));
+    assertThat(CachingEsriClient.suggestionsCacheKey(addressJson("1 Main St", "Seattle")))
+        .isNotEqualTo(CachingEsriClient.suggestionsCacheKey(addressJson("1 Main St", "Tacoma")));
+  }
+
+  private ImmutableList<ServiceAreaInclusion> getInclusions(AddressLocation location) {
+    return subject
+        .getServiceAreaInclusionGroup(EsriTestHelper.ESRI_SERVICE_AREA_VALIDATION_OPTION, location)
+        .toCompletableFuture()
+        .join();
+  }
+
+  private static Address address(String street) {
+    return Address.builder()
+        .setStreet(street)
+        .setLine2("")
+        .setCity("Seattle")
+        .setState("WA")
+        .setZip("98109")
+        .build();
+  }
+
+  private static ObjectNode addressJson(String street, String city) {
+    ObjectNode addressJson = Json.newObject();
+    addressJson.put("street", street);
+    addressJson.put("city", city);
+    return addressJson;
+  }
+
+  /** Counts the calls that reach the fake client. */
+  private static final class CountingEsriClient extends EsriClient {
+    private final FakeEsriClient fakeEsriClient;
+    private int addressSuggestionFetches = 0;
+    private int serviceAreaFetches = 0;
+    private Optional<JsonNode> serviceAreaResponse = Optional.empty();
+
+    CountingEsriClient(FakeEsriClient fakeEsriClient) {
+      super(fakeEsriClient.clock, fakeEsriClient.esriServiceAreaValidationConfig);
+      this.fakeEsriClient = fakeEsriClient;
+    }
+
+    @Override
+    CompletionStage<Optional<FindAddressCandidatesResponse>> fetchAddressSuggestions(
+        ObjectNode addressJson) {
+      addressSuggestionFetches++;
+      return fakeEsriClient.fetchAddressSuggestions(addressJson);
+    }
+
+    @Override
+    CompletionStage<Optional<JsonNode>> fetchServiceAreaFeatures(
+        AddressLocation location, String validationUrl) {
+      serviceAreaFetches++;
+      if (serviceAreaResponse.isPresent()) {
+        return CompletableFuture.completedFuture(serviceAreaResponse);
+      }
+      return fakeEsriClient.fetchServiceAreaFeatures(location, validationUrl);
+    }
+  }
+}
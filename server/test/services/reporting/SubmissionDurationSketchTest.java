@@ -0,0 +1,57 @@
+package services.reporting;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.withinPercentage;
+
+import org.junit.Test;
+
+public class SubmissionDurationSketchTest {
+
+  @Test
+  public void percentile_isWithinRelativeAccuracy() {
+    SubmissionDurationSketch sketch = new SubmissionDurationSketch();
+    for (int seconds = 1; seconds <= 1000; seconds++) {
+      sketch.add(seconds);
+    }
+
+    assertThat(sketch.count()).isEqualTo(1000);
+    assertThat(sketch.percentile(0.25)).isCloseTo(250.75, withinPercentage(1));
+    assertThat(sketch.percentile(0.5)).isCloseTo(500.5, withinPercentage(1));
+    assertThat(sketch.percentile(0.99)).isCloseTo(990.01, withinPercentage(1));
+  }
+
+  @Test
+  public void percentile_interpolatesBetweenDurations() {
+    SubmissionDurationSketch sketch = new SubmissionDurationSketch().add(100).add(500).add(1000);
+
+    assertThat(sketch.percentile(0.25)).isCloseTo(300, withinPercentage(1));
+    assertThat(sketch.percentile(0.75)).isCloseTo(750, withinPercentage(1));
+  }
+
+  @Test
+  public void percentile_emptySketchIsZero() {
+    assertThat(new SubmissionDurationSketch().percentile(0.5)).isEqualTo(0);
+  }
+
+  @Test
+  public void merge_isTheSameAsCountingTogether() {
+    SubmissionDurationSketch together = new SubmissionDurationSketch().add(10).add(200).add(3000);
+    SubmissionDurationSketch merged =
+        new SubmissionDurationSketch()
+            .add(10)
+            .merge(new SubmissionDurationSketch().add(200))
+            .merge(new SubmissionDurationSketch().add(3000));
+
+    assertThat(merged.count()).isEqualTo(together.count());
+    for (double percentile : new double[] {0, 0.25, 0.5, 0.75, 0.99, 1}) {
+      assertThat(merged.percentile(percentile)).isEqualTo(together.percentile(percentile));
+    }
+  }
+
+  @Test
+  public void bucketFor_countsShortDurationsInTheFirstBucket() {
+    assertThat(SubmissionDurationSketch.bucketFor(0)).isEqualTo(0);
+    assertThat(SubmissionDurationSketch.bucketFor(1)).isEqualTo(0);
+    assertThat(SubmissionDurationSketch.bucketFor(2)).isGreaterThan(0);
+  }
+}
@@ -0,0 +1,55 @@
+package services.settings;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import java.time.Duration;
+import java.util.Optional;
+import models.SettingsGroupModel;
+import org.junit.Test;
+import repository.ResetPostgres;
+import repository.SettingsGroupRepository;
+
+public class SettingsCacheTest extends ResetPostgres {
+
+  private static final ImmutableMap<String, String> NEW_SETTINGS =
+      ImmutableMap.of("TEST_BOOL", "true");
+
+  @Test
+  public void getSettings_returnsTheSnapshotUntilInvalidated() throws InterruptedException {
+    SettingsCache settingsCache = newSettingsCache(Duration.ofHours(1));
+    Optional<ImmutableMap<String, String>> initialSettings = getSettings(settingsCache);
+
+    saveNewSettingsGroup();
+
+    assertThat(getSettings(settingsCache)).isEqualTo(initialSettings);
+
+    settingsCache.invalidate();
+
+    assertThat(getSettings(settingsCache)).contains(NEW_SETTINGS);
+  }
+
+  @Test
+  public void getSettings_afterRefreshInterval_picksUpNewSettings() throws InterruptedException {
+    SettingsCache settingsCache = newSettingsCache(Duration.ZERO);
+    assertThat(getSettings(settingsCache)).isPresent();
+
+    saveNewSettingsGroup();
+
+    assertThat(getSettings(settingsCache)).contains(NEW_SETTINGS);
+  }
+
+  private SettingsCache newSettingsCache(Duration refreshInterval) {
+    return new SettingsCache(instanceOf(SettingsGroupRepository.class), testClock, refreshInterval);
+  }
+
+  private static Optional<ImmutableMap<String, String>> getSettings(SettingsCache settingsCache) {
+    return settingsCache.getSettings().toCompletableFuture().join();
+  }
+
+  private static void saveNewSettingsGroup() throws InterruptedException {
+    // Make sure the new group is created after the one ResetPostgres creates.
+    Thread.sleep(1);
+    new SettingsGroupModel(NEW_SETTINGS, "test").save();
+  }
+}
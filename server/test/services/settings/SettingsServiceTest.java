@@ -18,6 +18,7 @@ import models.SettingsGroupModel;
 import org.junit.Before;
 import org.junit.Test;
 import play.mvc.Http;
+import repository.CacheInvalidationBus;
 import repository.ResetPostgres;
 import repository.SettingsGroupRepository;
 
@@ -128,7 +129,12 @@ public class SettingsServiceTest extends ResetPostgres {
     when(testProfile.getAuthorityId())
         .thenReturn(CompletableFuture.completedFuture(TEST_AUTHORITY_ID));
 
-    settingsService = new SettingsService(instanceOf(SettingsGroupRepository.class), testManifest);
+    settingsService =
+        new SettingsService(
+            instanceOf(SettingsGroupRepository.class),
+            testManifest,
+            instanceOf(SettingsCache.class),
+            instanceOf(CacheInvalidationBus.class));
   }
 
   @Test
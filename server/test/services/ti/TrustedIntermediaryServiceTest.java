@@ -21,6 +21,8 @@ import play.i18n.MessagesApi;
 import play.mvc.Http;
 import repository.AccountRepository;
 import repository.SearchParameters;
+import services.PageNumberBasedPaginationSpec;
+import services.WellKnownPaths;
 import services.applicant.ApplicantData;
 import services.applicant.exception.ApplicantNotFoundException;
 
@@ -348,11 +350,78 @@ public class TrustedIntermediaryServiceTest extends WithMockedProfiles {
             .setYearQuery(Optional.of("2022"))
             .build();
     TrustedIntermediarySearchResult tiResult =
-        service.getManagedAccounts(searchParameters, tiGroup);
+        service.getManagedAccounts(
+            searchParameters, tiGroup, PageNumberBasedPaginationSpec.MAX_PAGE_SIZE_SPEC);
     assertThat(tiResult.accounts().size()).isEqualTo(1);
     assertThat(tiResult.accounts().get(0).getEmailAddress()).isEqualTo("email3");
   }
 
+  @Test
+  public void getManagedAccounts_SearchByDobAtWellKnownPath() {
+    AccountModel account = setupTiClientAccount("email4", tiGroup);
+    ApplicantModel applicant = new ApplicantModel();
+    applicant.setAccount(account);
+    applicant.getApplicantData().putDate(WellKnownPaths.APPLICANT_DOB, "2022-12-12");
+    applicant.save();
+    SearchParameters searchParameters =
+        SearchParameters.builder()
+            .setNameQuery(Optional.empty())
+            .setDayQuery(Optional.of("12"))
+            .setMonthQuery(Optional.of("12"))
+            .setYearQuery(Optional.of("2022"))
+            .build();
+
+    TrustedIntermediarySearchResult tiResult =
+        service.getManagedAccounts(
+            searchParameters, tiGroup, PageNumberBasedPaginationSpec.MAX_PAGE_SIZE_SPEC);
+
+    assertThat(tiResult.accounts())
+        .extracting(AccountModel::getEmailAddress)
+        .containsExactly("email4");
+  }
+
+  @Test
+  public void getManagedAccounts_SearchByNameAtWellKnownPath() {
+    AccountModel account = setupTiClientAccount("email5", tiGroup);
+    ApplicantModel applicant = new ApplicantModel();
+    applicant.setAccount(account);
+    applicant.getApplicantData().putString(WellKnownPaths.APPLICANT_FIRST_NAME, "Wellknown");
+    applicant.getApplicantData().putString(WellKnownPaths.APPLICANT_LAST_NAME, "Client");
+    applicant.save();
+
+    TrustedIntermediarySearchResult tiResult =
+        service.getManagedAccounts(
+            SearchParameters.builder().setNameQuery(Optional.of("Wellknown Client")).build(),
+            tiGroup,
+            PageNumberBasedPaginationSpec.MAX_PAGE_SIZE_SPEC);
+
+    assertThat(tiResult.accounts())
+        .extracting(AccountModel::getEmailAddress)
+        .containsExactly("email5");
+  }
+
+  @Test
+  public void getManagedAccounts_SearchByNameWithWildcards_matchesLiterally() {
+    setupTiClientAccountWithApplicant("First", "2022-07-08", "first_client@email.test", tiGroup);
+    setupTiClientAccountWithApplicant("Second", "2022-07-08", "second1client@email.test", tiGroup);
+
+    TrustedIntermediarySearchResult underscore =
+        service.getManagedAccounts(
+            SearchParameters.builder().setNameQuery(Optional.of("_client")).build(),
+            tiGroup,
+            PageNumberBasedPaginationSpec.MAX_PAGE_SIZE_SPEC);
+    TrustedIntermediarySearchResult percent =
+        service.getManagedAccounts(
+            SearchParameters.builder().setNameQuery(Optional.of("%client")).build(),
+            tiGroup,
+            PageNumberBasedPaginationSpec.MAX_PAGE_SIZE_SPEC);
+
+    assertThat(underscore.accounts())
+        .extracting(AccountModel::getEmailAddress)
+        .containsExactly("first_client@email.test");
+    assertThat(percent.accounts()).isEmpty();
+  }
+
   @Test
   public void getManagedAccounts_SearchByName() {
     setupTiClientAccountWithApplicant("First", "2022-07-08", "email10", tiGroup);
@@ -361,11 +430,65 @@ public class TrustedIntermediaryServiceTest extends WithMockedProfiles {
     SearchParameters searchParameters =
         SearchParameters.builder().setNameQuery(Optional.of("Emily")).build();
     TrustedIntermediarySearchResult tiResult =
-        service.getManagedAccounts(searchParameters, tiGroup);
+        service.getManagedAccounts(
+            searchParameters, tiGroup, PageNumberBasedPaginationSpec.MAX_PAGE_SIZE_SPEC);
     assertThat(tiResult.accounts().size()).isEqualTo(1);
     assertThat(tiResult.accounts().get(0).getEmailAddress()).isEqualTo("email20");
   }
 
+  @Test
+  public void getManagedAccounts_SearchByEmailAndLastName() {
+    setupTiClientAccountWithApplicant("First", "2022-07-08", "first@email.test", tiGroup);
+    setupTiClientAccountWithApplicant("Second", "2022-07-08", "second@email.test", tiGroup);
+
+    TrustedIntermediarySearchResult byEmail =
+        service.getManagedAccounts(
+            SearchParameters.builder().setNameQuery(Optional.of("SECOND@email")).build(),
+            tiGroup,
+            PageNumberBasedPaginationSpec.MAX_PAGE_SIZE_SPEC);
+    TrustedIntermediarySearchResult byFullName =
+        service.getManagedAccounts(
+            SearchParameters.builder().setNameQuery(Optional.of("Last, First")).build(),
+            tiGroup,
+            PageNumberBasedPaginationSpec.MAX_PAGE_SIZE_SPEC);
+
+    assertThat(byEmail.accounts())
+        .extracting(AccountModel::getEmailAddress)
+        .containsExactly("second@email.test");
+    assertThat(byFullName.accounts())
+        .extracting(AccountModel::getEmailAddress)
+        .containsExactly("first@email.test");
+  }
+
+  @Test
+  public void getManagedAccounts_returnsPagesSortedByName() {
+    setupTiClientAccountWithApplicant("Carol", "2022-07-08", "carol@email.test", tiGroup);
+    setupTiClientAccountWithApplicant("Alice", "2022-07-08", "alice@email.test", tiGroup);
+    setupTiClientAccountWithApplicant("Bob", "2022-07-08", "bob@email.test", tiGroup);
+    SearchParameters searchParameters =
+        SearchParameters.builder().setNameQuery(Optional.of("@email.test")).build();
+
+    TrustedIntermediarySearchResult firstPage =
+        service.getManagedAccounts(
+            searchParameters, tiGroup, new PageNumberBasedPaginationSpec(2, 1));
+    TrustedIntermediarySearchResult secondPage =
+        service.getManagedAccounts(
+            searchParameters, tiGroup, new PageNumberBasedPaginationSpec(2, 2));
+    TrustedIntermediarySearchResult pastTheEnd =
+        service.getManagedAccounts(
+            searchParameters, tiGroup, new PageNumberBasedPaginationSpec(2, 5));
+
+    assertThat(firstPage.accounts())
+        .extracting(AccountModel::getEmailAddress)
+        .containsExactly("alice@email.test", "bob@email.test");
+    assertThat(firstPage.pageCount()).isEqualTo(2);
+    assertThat(secondPage.accounts())
+        .extracting(AccountModel::getEmailAddress)
+        .containsExactly("carol@email.test");
+    assertThat(pastTheEnd.accounts()).isEmpty();
+    assertThat(pastTheEnd.pageCount()).isEqualTo(2);
+  }
+
   @Test
   public void getManagedAccounts_SearchWithEmptyStringNameAndDob_returnsFullList() {
     setupTiClientAccountWithApplicant("Bobo", "2022-07-08", "bobo@clown.test", tiGroup);
@@ -377,7 +500,8 @@ public class TrustedIntermediaryServiceTest extends WithMockedProfiles {
             .setYearQuery(Optional.of(""))
             .build();
     TrustedIntermediarySearchResult tiResult =
-        service.getManagedAccounts(searchParameters, tiGroup);
+        service.getManagedAccounts(
+            searchParameters, tiGroup, PageNumberBasedPaginationSpec.MAX_PAGE_SIZE_SPEC);
     // The size is 3 because two other accounts are added to the tiGroup in setup()
     assertThat(tiResult.accounts().size()).isEqualTo(3);
   }
@@ -393,7 +517,8 @@ public class TrustedIntermediaryServiceTest extends WithMockedProfiles {
             .setYearQuery(Optional.empty())
             .build();
     TrustedIntermediarySearchResult tiResult =
-        service.getManagedAccounts(searchParameters, tiGroup);
+        service.getManagedAccounts(
+            searchParameters, tiGroup, PageNumberBasedPaginationSpec.MAX_PAGE_SIZE_SPEC);
     // The size is 3 because two other accounts are added to the tiGroup in setup()
     assertThat(tiResult.accounts().size()).isEqualTo(3);
   }
@@ -411,7 +536,8 @@ public class TrustedIntermediaryServiceTest extends WithMockedProfiles {
             .setYearQuery(Optional.of(""))
             .build();
     TrustedIntermediarySearchResult tiResult =
-        service.getManagedAccounts(searchParameters, tiGroup);
+        service.getManagedAccounts(
+            searchParameters, tiGroup, PageNumberBasedPaginationSpec.MAX_PAGE_SIZE_SPEC);
     assertThat(tiResult.accounts().size()).isEqualTo(0);
   }
 
@@ -427,7 +553,8 @@ public class TrustedIntermediaryServiceTest extends WithMockedProfiles {
             .setYearQuery(Optional.of(""))
             .build();
     TrustedIntermediarySearchResult tiResult =
-        service.getManagedAccounts(searchParameters, tiGroup);
+        service.getManagedAccounts(
+            searchParameters, tiGroup, PageNumberBasedPaginationSpec.MAX_PAGE_SIZE_SPEC);
     assertThat(tiResult.accounts().size()).isEqualTo(1);
     assertThat(tiResult.accounts().get(0).getApplicantDisplayName()).contains("Bobo");
   }
@@ -445,7 +572,8 @@ public class TrustedIntermediaryServiceTest extends WithMockedProfiles {
             .setYearQuery(Optional.of("2"))
             .build();
     TrustedIntermediarySearchResult tiResult =
-        service.getManagedAccounts(searchParameters, tiGroup);
+        service.getManagedAccounts(
+            searchParameters, tiGroup, PageNumberBasedPaginationSpec.MAX_PAGE_SIZE_SPEC);
     assertThat(tiResult.accounts().size()).isEqualTo(tiGroup.getManagedAccounts().size());
     assertThat(tiResult.errorMessage().get()).isEqualTo("Please enter a valid birth date.");
   }
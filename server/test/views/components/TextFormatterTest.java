@@ -11,12 +11,18 @@ import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableList;
 import j2html.tags.DomContent;
 import java.util.List;
+import org.junit.Before;
 import org.junit.Test;
 import org.slf4j.LoggerFactory;
 import repository.ResetPostgres;
 
 public class TextFormatterTest extends ResetPostgres {
 
+  @Before
+  public void clearCache() {
+    TextFormatter.clearCache();
+  }
+
   private void assertIsExternalUrlWithIcon(
       String actualValue, String expectedValue, String endsWith) {
     assertThat(actualValue).contains(expectedValue).endsWith(endsWith);
@@ -296,6 +302,28 @@ public class TextFormatterTest extends ResetPostgres {
     TextFormatter.resetAriaLabelToDefault();
   }
 
+  @Test
+  public void formatTextToSanitizedHTML_returnsCachedHtml() {
+    String first = TextFormatter.formatTextToSanitizedHTML("**bold** text", false, true);
+    String second = TextFormatter.formatTextToSanitizedHTML("**bold** text", false, true);
+
+    assertThat(second).isSameAs(first);
+    assertThat(TextFormatter.formatTextToSanitizedHTML("**bold** text", false, false))
+        .isNotEqualTo(first);
+  }
+
+  @Test
+  public void formatText_afterFormattingWithAriaLabel_usesDefaultAriaLabel() {
+    TextFormatter.formatTextWithAriaLabel(
+        "[link](https://www.example.com)", false, false, "test aria label");
+
+    ImmutableList<DomContent> content =
+        TextFormatter.formatText("[link](https://www.example.com)", false, false);
+
+    assertThat(content.get(0).render())
+        .contains("aria-label=\"" + TextFormatter.DEFAULT_ARIA_LABEL + "\"");
+  }
+
   @Test
   public void formatTextToSanitizedHTMLWithAriaLabel_removesScriptTags() {
     String stringWithScriptTag = "<script>alert('bad-time');</script>";